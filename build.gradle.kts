@@ -71,7 +71,10 @@ tasks.test {
         junitXml.required.set(true)
         html.required.set(false)
     }
-    useJUnitPlatform()
+    // Benchmarks measure time or memory and are run on their own with the benchmark task
+    useJUnitPlatform {
+        excludeTags("benchmark")
+    }
 
     doFirst {
         val agentJar = configurations.testRuntimeClasspath.get()
@@ -84,3 +87,14 @@ tasks.test {
     // Enable ByteBuddy experimental support for Java 25+
     systemProperty("net.bytebuddy.experimental", "true")
 }
+
+val benchmark by tasks.registering(Test::class) {
+    description = "Runs the allocation, footprint and timing benchmarks."
+    group = "verification"
+    testClassesDirs = sourceSets["test"].output.classesDirs
+    classpath = sourceSets["test"].runtimeClasspath
+    useJUnitPlatform {
+        includeTags("benchmark")
+    }
+    testLogging.showStandardStreams = true
+}
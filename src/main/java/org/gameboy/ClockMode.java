@@ -0,0 +1,14 @@
+package org.gameboy;
+
+import java.util.Locale;
+
+public enum ClockMode {
+    // Steps every component on every M-cycle
+    PER_TICK,
+    // Runs components only when their next event is due, catching them up in bulk in between
+    SCHEDULED;
+
+    public static ClockMode fromName(String name) {
+        return valueOf(name.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+    }
+}
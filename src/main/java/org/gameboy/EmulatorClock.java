@@ -4,6 +4,7 @@ import org.gameboy.audio.Apu;
 import org.gameboy.common.Clock;
 import org.gameboy.common.ClockWithParallelProcess;
 import org.gameboy.common.DmaController;
+import org.gameboy.common.Memory;
 import org.gameboy.common.RealTimeFramePacer;
 import org.gameboy.common.SerialController;
 import org.gameboy.components.Timer;
@@ -11,12 +12,22 @@ import org.gameboy.display.PictureProcessingUnit;
 
 public class EmulatorClock implements Clock {
     private final ClockWithParallelProcess clock;
+    private final PictureProcessingUnit ppu;
+    private final Timer timer;
+    private final DmaController dmaController;
+    private final SerialController serialController;
+    private final Apu apu;
 
     public EmulatorClock(PictureProcessingUnit ppu,
                          Timer timer,
                          DmaController dmaController,
                          SerialController serialController,
                          Apu apu) {
+        this.ppu = ppu;
+        this.timer = timer;
+        this.dmaController = dmaController;
+        this.serialController = serialController;
+        this.apu = apu;
         this.clock = new ClockWithParallelProcess(() -> {
             timer.mCycle();
             serialController.mCycle();
@@ -33,6 +44,37 @@ public class EmulatorClock implements Clock {
         clock.tick();
     }
 
+    // Replays the span in bulk. The APU raises no interrupts but its output is still stepped cycle by cycle.
+    @Override
+    public void skipIdleTicks(int ticks) {
+        timer.skipIdleMCycles(ticks);
+        ppu.skipIdleTCycles(ticks * 4);
+        if (apu.isPoweredOn()) {
+            for (int i = 0; i < ticks * 4; i++) {
+                apu.tCycle();
+            }
+        }
+        clock.skip(ticks);
+    }
+
+    // Up to the tick before the next one on which the timer, PPU, serial port or DMA could act. Never crosses a frame
+    // boundary, so host input and frame pacing are observed at least once per frame.
+    @Override
+    public int idleTicks() {
+        if (dmaController.isDmaActive()) {
+            return 0;
+        }
+        int ticks = Math.min(timer.idleMCycles(), serialController.idleMCycles());
+        ticks = Math.min(ticks, ppu.idleTCycles() / 4);
+        return Math.min(ticks, clock.ticksUntilSync());
+    }
+
+    // Components never fall behind here, but the PPU may have drawn the current line ahead of its FIFO
+    @Override
+    public Memory withCatchUpBarrier(Memory memory) {
+        return ppu.withWriteBarrier(memory);
+    }
+
     @Override
     public long getTime() {
         return clock.getTime();
@@ -10,27 +10,64 @@ import org.gameboy.common.Cartridge;
 import org.gameboy.common.Clock;
 import org.gameboy.common.DmaController;
 import org.gameboy.common.CoreModule;
+import org.gameboy.common.RamBacking;
 import org.gameboy.common.SerialController;
 import org.gameboy.components.Timer;
 import org.gameboy.components.joypad.JoypadModule;
+import org.gameboy.cpu.CpuEngine;
 import org.gameboy.cpu.CpuModule;
+import org.gameboy.cpu.IdleLoopMode;
 import org.gameboy.display.DisplayModule;
 import org.gameboy.display.PictureProcessingUnit;
+import org.gameboy.display.PpuRenderer;
 import org.gameboy.io.IoModule;
 
 public class EmulatorModule extends AbstractModule {
     private final Cartridge cartridge;
+    private final CpuEngine cpuEngine;
+    private final ClockMode clockMode;
+    private final RamBacking ramBacking;
+    private final PpuRenderer ppuRenderer;
+    private final IdleLoopMode idleLoopMode;
 
-    public EmulatorModule(Cartridge cartridge) {
+    public EmulatorModule(Cartridge cartridge, CpuEngine cpuEngine, ClockMode clockMode, RamBacking ramBacking,
+                          PpuRenderer ppuRenderer, IdleLoopMode idleLoopMode) {
         this.cartridge = cartridge;
+        this.cpuEngine = cpuEngine;
+        this.clockMode = clockMode;
+        this.ramBacking = ramBacking;
+        this.ppuRenderer = ppuRenderer;
+        this.idleLoopMode = idleLoopMode;
+    }
+
+    public EmulatorModule(Cartridge cartridge, CpuEngine cpuEngine, ClockMode clockMode, RamBacking ramBacking,
+                          PpuRenderer ppuRenderer) {
+        this(cartridge, cpuEngine, clockMode, ramBacking, ppuRenderer, IdleLoopMode.SKIP);
+    }
+
+    public EmulatorModule(Cartridge cartridge, CpuEngine cpuEngine, ClockMode clockMode, RamBacking ramBacking) {
+        this(cartridge, cpuEngine, clockMode, ramBacking, PpuRenderer.FIFO);
+    }
+
+    public EmulatorModule(Cartridge cartridge, CpuEngine cpuEngine, ClockMode clockMode) {
+        this(cartridge, cpuEngine, clockMode, RamBacking.HEAP);
+    }
+
+    public EmulatorModule(Cartridge cartridge, CpuEngine cpuEngine) {
+        this(cartridge, cpuEngine, ClockMode.PER_TICK);
+    }
+
+    public EmulatorModule(Cartridge cartridge) {
+        this(cartridge, CpuEngine.INTERPRETER);
     }
 
     @Override
     protected void configure() {
         bind(Cartridge.class).toInstance(cartridge);
+        bind(RamBacking.class).toInstance(ramBacking);
         install(new CoreModule());
-        install(new CpuModule());
-        install(new DisplayModule());
+        install(new CpuModule(cpuEngine, idleLoopMode));
+        install(new DisplayModule(ppuRenderer));
         install(new JoypadModule());
         install(new IoModule());
         install(new AudioModule());
@@ -44,6 +81,11 @@ public class EmulatorModule extends AbstractModule {
                           DmaController dmaController,
                           SerialController serialController,
                           Apu apu) {
-        return new EmulatorClock(ppu, timer, dmaController, serialController, apu);
+        Clock clock = switch (clockMode) {
+            case PER_TICK -> new EmulatorClock(ppu, timer, dmaController, serialController, apu);
+            case SCHEDULED -> new ScheduledClock(ppu, timer, dmaController, serialController, apu);
+        };
+        cartridge.attachClock(clock);
+        return clock;
     }
 }
\ No newline at end of file
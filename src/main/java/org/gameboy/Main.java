@@ -3,40 +3,141 @@ package org.gameboy;
 import com.google.inject.Guice;
 import com.google.inject.Injector;
 import org.gameboy.cartridge.CartridgeFactory;
+import org.gameboy.cartridge.RomLibrary;
+import org.gameboy.cartridge.RtcMode;
+import org.gameboy.cartridge.SaveFile;
 import org.gameboy.common.Cartridge;
+import org.gameboy.common.Clock;
+import org.gameboy.common.RamBacking;
+import org.gameboy.common.RomFormat;
 import org.gameboy.common.RomLoader;
 import org.gameboy.cpu.Cpu;
+import org.gameboy.cpu.CpuEngine;
+import org.gameboy.cpu.IdleLoopMode;
+import org.gameboy.cpu.components.CpuStructure;
+import org.gameboy.cpu.components.CpuTrace;
+import org.gameboy.cpu.components.IdleLoopDetector;
+import org.gameboy.cpu.components.IdleLoopDetector.IdleLoopStats;
+import org.gameboy.display.PpuRenderer;
 import org.gameboy.io.EmulatorWindow;
 
 import java.io.IOException;
-import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
 public class Main {
     private static final Path ROMS_DIR = Path.of("roms");
     private static final Path DEFAULT_ROM = ROMS_DIR.resolve("shocklobster.gb");
+    private static final String ENGINE_OPTION = "--engine=";
+    private static final String CLOCK_OPTION = "--clock=";
+    private static final String PPU_OPTION = "--ppu=";
+    private static final String IDLE_LOOPS_OPTION = "--idle-loops=";
+    private static final String TRACE_OPTION = "--trace=";
+    private static final String RAM_OPTION = "--ram=";
+    private static final String RTC_OPTION = "--rtc=";
+    private static final String PATCH_OPTION = "--patch=";
+    private static final String SCAN_OPTION = "--scan";
+    private static final int TRACE_RECORDS = 1 << 20;
 
     public static void main(String[] args) {
         try {
-            Path romPath = args.length > 0 ? resolveRomPath(args[0]) : defaultRom();
+            CpuEngine engine = CpuEngine.INTERPRETER;
+            ClockMode clockMode = ClockMode.PER_TICK;
+            PpuRenderer ppuRenderer = PpuRenderer.FIFO;
+            IdleLoopMode idleLoopMode = IdleLoopMode.SKIP;
+            RamBacking ramBacking = RamBacking.HEAP;
+            RtcMode rtcMode = RtcMode.WALL_CLOCK;
+            Path tracePath = null;
+            String patchArgument = null;
+            String romArgument = null;
+            Path scanPath = null;
+            for (String arg : args) {
+                if (arg.startsWith(ENGINE_OPTION)) {
+                    engine = CpuEngine.fromName(arg.substring(ENGINE_OPTION.length()));
+                } else if (arg.startsWith(CLOCK_OPTION)) {
+                    clockMode = ClockMode.fromName(arg.substring(CLOCK_OPTION.length()));
+                } else if (arg.startsWith(PPU_OPTION)) {
+                    ppuRenderer = PpuRenderer.fromName(arg.substring(PPU_OPTION.length()));
+                } else if (arg.startsWith(IDLE_LOOPS_OPTION)) {
+                    idleLoopMode = IdleLoopMode.fromName(arg.substring(IDLE_LOOPS_OPTION.length()));
+                } else if (arg.startsWith(RAM_OPTION)) {
+                    ramBacking = RamBacking.fromName(arg.substring(RAM_OPTION.length()));
+                } else if (arg.startsWith(RTC_OPTION)) {
+                    rtcMode = RtcMode.fromName(arg.substring(RTC_OPTION.length()));
+                } else if (arg.equals(SCAN_OPTION)) {
+                    scanPath = ROMS_DIR;
+                } else if (arg.startsWith(SCAN_OPTION + "=")) {
+                    scanPath = Path.of(arg.substring(SCAN_OPTION.length() + 1));
+                } else if (arg.startsWith(PATCH_OPTION)) {
+                    patchArgument = arg.substring(PATCH_OPTION.length());
+                } else if (arg.startsWith(TRACE_OPTION)) {
+                    tracePath = Path.of(arg.substring(TRACE_OPTION.length()));
+                } else {
+                    romArgument = arg;
+                }
+            }
+
+            if (scanPath != null) {
+                printLibrary(scanPath);
+                return;
+            }
+
+            Path romPath = romArgument != null ? resolveRomPath(romArgument) : defaultRom();
+            Path patchPath = patchArgument != null ? resolveRomPath(patchArgument) : null;
 
             RomLoader romLoader = new RomLoader();
-            byte[] gameRom = romLoader.loadRom(romPath.toString());
-            Cartridge cartridge = CartridgeFactory.fromRom(gameRom);
+            byte[] gameRom = romLoader.loadRom(romPath, patchPath);
+            Cartridge cartridge = CartridgeFactory.fromRom(gameRom, SaveFile.forRom(romPath), rtcMode);
 
-            Injector injector = Guice.createInjector(new EmulatorModule(cartridge));
+            Injector injector = Guice.createInjector(
+                    new EmulatorModule(cartridge, engine, clockMode, ramBacking, ppuRenderer, idleLoopMode));
 
             Cpu cpu = injector.getInstance(Cpu.class);
             EmulatorWindow emulatorWindow = injector.getInstance(EmulatorWindow.class);
+            CpuTrace trace = injector.getInstance(CpuTrace.class);
+            Path traceOutput = tracePath;
+            // Closing the cartridge writes the RTC trailer and dumping the trace reads its ring buffer, so both wait
+            // for the emulation thread to stop
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                emulatorWindow.stop();
+                if (trace.isEnabled()) {
+                    writeTrace(trace, traceOutput);
+                }
+                cartridge.close();
+            }));
 
             System.out.println("Game ROM: " + romPath);
+            if (patchPath != null) {
+                System.out.println("Patch: " + patchPath);
+            }
+            System.out.println("CPU engine: " + engine.name().toLowerCase());
+            System.out.println("Clock: " + clockMode.name().toLowerCase().replace('_', '-'));
+            System.out.println("PPU renderer: " + ppuRenderer.name().toLowerCase());
+            System.out.println("Idle loops: " + idleLoopMode.name().toLowerCase());
+
+            if (idleLoopMode == IdleLoopMode.SKIP) {
+                IdleLoopDetector idleLoopDetector = injector.getInstance(IdleLoopDetector.class);
+                Clock cpuClock = injector.getInstance(CpuStructure.class).clock();
+                Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                    IdleLoopStats stats = idleLoopDetector.stats();
+                    System.out.printf("Idle loops in %s: skipped %d of %d M-cycles over %d iterations%n",
+                            romPath.getFileName(), stats.skippedTicks(), cpuClock.getTime(),
+                            stats.skippedIterations());
+                }));
+            }
+
+            if (tracePath != null) {
+                enableTrace(trace, tracePath);
+            }
 
             emulatorWindow.run(cpu);
 
         } catch (IOException e) {
             System.err.println("Error loading ROM files: " + e.getMessage());
-            System.err.println("Usage: java -jar gameboy-emulator.jar [rom_path]");
+            System.err.println("Usage: java -jar gameboy-emulator.jar [--engine=interpreter|threaded|compiled] [--clock=per-tick|scheduled] [--ppu=fifo|scanline] [--idle-loops=skip|off] [--ram=heap|off-heap|file] [--rtc=wall-clock|emulated] [--trace=file] [--patch=ips_or_bps] [--scan[=dir]] [rom_path(.gb|.gbc|.zip|.gz)]");
             System.exit(1);
         } catch (Exception e) {
             System.err.println("Fatal error: " + e.getMessage());
@@ -45,38 +146,66 @@ public class Main {
         }
     }
 
+    // Keeps the most recent instructions for the shutdown hook to dump; decode with CpuTraceDecoder
+    private static void enableTrace(CpuTrace trace, Path tracePath) {
+        trace.enable(TRACE_RECORDS);
+        System.out.println("CPU trace: " + tracePath);
+    }
+
+    private static void writeTrace(CpuTrace trace, Path tracePath) {
+        try {
+            trace.writeTo(tracePath);
+        } catch (IOException e) {
+            System.err.println("Error writing CPU trace: " + e.getMessage());
+        }
+    }
+
+    // The name may leave out an archive extension, so "tetris" finds tetris.zip or tetris.gb.gz
     private static Path resolveRomPath(String input) throws IOException {
         Path path = Path.of(input);
 
         if (path.isAbsolute()) {
-            if (Files.isRegularFile(path)) {
-                return path;
+            Path found = withArchiveExtension(path);
+            if (found != null) {
+                return found;
             }
             throw new IOException("ROM not found: " + path);
         }
 
-        // Check current working directory
+        // Check current working directory, then roms directory
+        for (Path candidate : List.of(path, ROMS_DIR.resolve(path))) {
+            Path found = withArchiveExtension(candidate);
+            if (found != null) {
+                return found;
+            }
+        }
+
+        throw new IOException("ROM not found: " + input + " (searched CWD and " + ROMS_DIR + "/)");
+    }
+
+    private static Path withArchiveExtension(Path path) {
         if (Files.isRegularFile(path)) {
             return path;
         }
-
-        // Check roms directory
-        Path inRomsDir = ROMS_DIR.resolve(path);
-        if (Files.isRegularFile(inRomsDir)) {
-            return inRomsDir;
+        for (RomFormat format : RomFormat.values()) {
+            for (String extension : format.extensions()) {
+                Path candidate = path.resolveSibling(path.getFileName() + extension);
+                if (Files.isRegularFile(candidate)) {
+                    return candidate;
+                }
+            }
         }
-
-        throw new IOException("ROM not found: " + input + " (searched CWD and " + ROMS_DIR + "/)");
+        return null;
     }
 
+    // The first ROM in roms/ that a supported mapper can run, from the library index when nothing has changed
     private static Path defaultRom() throws IOException {
         // Check roms/ directory first (user's own ROMs take priority)
         if (Files.isDirectory(ROMS_DIR)) {
-            try (DirectoryStream<Path> stream = Files.newDirectoryStream(ROMS_DIR, "*.gb")) {
-                for (Path entry : stream) {
-                    if (Files.isRegularFile(entry)) {
-                        return entry;
-                    }
+            RomLibrary library = RomLibrary.open(ROMS_DIR);
+            for (RomLibrary.Entry entry : library.entries()) {
+                if (entry.supported()) {
+                    return library.resolve(entry);
                 }
             }
         }
@@ -86,6 +215,34 @@ public class Main {
             return DEFAULT_ROM;
         }
 
-        throw new IOException("No ROM found. Place .gb files in roms/ or provide a path as argument.");
+        throw new IOException("No ROM found. Place .gb, .zip or .gz files in roms/ or provide a path as argument.");
+    }
+
+    private static void printLibrary(Path dir) throws IOException {
+        if (!Files.isDirectory(dir)) {
+            throw new IOException("Not a directory: " + dir);
+        }
+        long start = System.nanoTime();
+        RomLibrary library = RomLibrary.open(dir);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        Map<Integer, Integer> unsupportedTypes = new TreeMap<>();
+        int unreadable = 0;
+        for (RomLibrary.Entry entry : library.entries()) {
+            if (!entry.readable()) {
+                unreadable++;
+            } else if (!entry.supported()) {
+                unsupportedTypes.merge(entry.cartridgeType(), 1, Integer::sum);
+            }
+            System.out.printf("%-40s %-16s type=0x%02x rom=0x%02x ram=0x%02x%s%s%n",
+                    entry.path(), entry.title(), entry.cartridgeType(), entry.romSizeCode(), entry.ramSizeCode(),
+                    entry.readable() && !entry.headerChecksumValid() ? " bad-checksum" : "",
+                    !entry.readable() ? " unreadable" : !entry.supported() ? " unsupported" : "");
+        }
+
+        System.out.printf("%d ROMs in %s, %d headers read in %d ms, %d unreadable%n",
+                library.entries().size(), dir, library.headersRead(), elapsedMillis, unreadable);
+        unsupportedTypes.forEach((type, count) ->
+                System.out.printf("Unsupported cartridge type 0x%02x: %d ROMs%n", type, count));
     }
 }
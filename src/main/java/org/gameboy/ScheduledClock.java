@@ -0,0 +1,262 @@
+package org.gameboy;
+
+import org.gameboy.audio.Apu;
+import org.gameboy.common.Clock;
+import org.gameboy.common.DmaController;
+import org.gameboy.common.FramePacer;
+import org.gameboy.common.Memory;
+import org.gameboy.common.MemoryListener;
+import org.gameboy.common.RealTimeFramePacer;
+import org.gameboy.common.SerialController;
+import org.gameboy.components.Timer;
+import org.gameboy.display.PictureProcessingUnit;
+
+import java.util.Comparator;
+import java.util.PriorityQueue;
+
+import static org.gameboy.utils.BitUtilities.uint;
+
+// Runs each component only on the ticks where it can change something the CPU can observe. In between, components
+// fall behind and are caught up in bulk, either when their next event is due or when the CPU touches an I/O register.
+public class ScheduledClock implements Clock {
+    private static final int TICKS_PER_FRAME = 17_556;
+    private static final int IO_START = 0xFF00;
+    private static final int IO_END = 0xFF7F;
+
+    private final PictureProcessingUnit ppu;
+    private final Component[] components;
+    // Ties on the due tick keep the order in which EmulatorClock steps the same components
+    private final PriorityQueue<Component> queue = new PriorityQueue<>(
+            Comparator.comparingLong((Component component) -> component.due).thenComparingInt(component -> component.order));
+    private final FramePacer framePacer;
+    private long time = 0;
+    private long nextSync = TICKS_PER_FRAME;
+
+    public ScheduledClock(PictureProcessingUnit ppu,
+                          Timer timer,
+                          DmaController dmaController,
+                          SerialController serialController,
+                          Apu apu) {
+        this(ppu, timer, dmaController, serialController, apu, new RealTimeFramePacer());
+    }
+
+    public ScheduledClock(PictureProcessingUnit ppu,
+                          Timer timer,
+                          DmaController dmaController,
+                          SerialController serialController,
+                          Apu apu,
+                          FramePacer framePacer) {
+        this.framePacer = framePacer;
+        this.ppu = ppu;
+        this.components = new Component[]{
+                new Component(0, new Process() {
+                    // The serial port shifts on DIV edges, so it is caught up together with the timer
+                    @Override
+                    public int idleMCycles() {
+                        return Math.min(timer.idleMCycles(), serialController.idleMCycles());
+                    }
+
+                    @Override
+                    public void skipIdleMCycles(int mCycles) {
+                        timer.skipIdleMCycles(mCycles);
+                    }
+
+                    @Override
+                    public void mCycle() {
+                        timer.mCycle();
+                        serialController.mCycle();
+                    }
+                }),
+                new Component(1, new Process() {
+                    @Override
+                    public int idleMCycles() {
+                        return dmaController.isDmaActive() ? 0 : Integer.MAX_VALUE;
+                    }
+
+                    @Override
+                    public void skipIdleMCycles(int mCycles) {
+                    }
+
+                    @Override
+                    public void mCycle() {
+                        dmaController.mCycle();
+                    }
+                }),
+                new Component(2, new Process() {
+                    @Override
+                    public int idleMCycles() {
+                        return ppu.idleTCycles() / 4;
+                    }
+
+                    @Override
+                    public void skipIdleMCycles(int mCycles) {
+                        ppu.skipIdleTCycles(mCycles * 4);
+                    }
+
+                    @Override
+                    public void mCycle() {
+                        for (int i = 0; i < 4; i++) {
+                            ppu.tCycle();
+                        }
+                    }
+                }),
+                // Raises no interrupts, but its output has to be produced cycle by cycle while it is powered
+                new Component(3, new Process() {
+                    @Override
+                    public int idleMCycles() {
+                        return apu.isPoweredOn() ? 0 : Integer.MAX_VALUE;
+                    }
+
+                    @Override
+                    public void skipIdleMCycles(int mCycles) {
+                    }
+
+                    @Override
+                    public void mCycle() {
+                        for (int i = 0; i < 4; i++) {
+                            apu.tCycle();
+                        }
+                    }
+                })
+        };
+        rescheduleAll();
+    }
+
+    @Override
+    public void tick() {
+        time++;
+
+        Component next = queue.peek();
+        while (next != null && next.due <= time) {
+            queue.poll();
+            next.catchUp(time - 1);
+            next.process.mCycle();
+            next.syncedTo = time;
+            schedule(next);
+            next = queue.peek();
+        }
+
+        if (time >= nextSync) {
+            nextSync += TICKS_PER_FRAME;
+            framePacer.sync();
+        }
+    }
+
+    // Nothing runs before the earliest due component, so idle ticks only move the time forward
+    @Override
+    public int idleTicks() {
+        return (int) Math.max(0, Math.min(queue.peek().due, nextSync) - 1 - time);
+    }
+
+    @Override
+    public void skipIdleTicks(int ticks) {
+        time += ticks;
+    }
+
+    // The PPU's own barrier sits inside, so it sees the PPU caught up; during mode 3 the PPU is never idle, so a VRAM
+    // write that skips the catch-up still finds it on the current T-cycle
+    @Override
+    public Memory withCatchUpBarrier(Memory memory) {
+        return new CatchUpBarrier(ppu.withWriteBarrier(memory));
+    }
+
+    @Override
+    public long getTime() {
+        return time;
+    }
+
+    @Override
+    public void stop() {
+
+    }
+
+    @Override
+    public void start() {
+
+    }
+
+    private void catchUpAll() {
+        for (Component component : components) {
+            component.catchUp(time);
+        }
+    }
+
+    private void rescheduleAll() {
+        queue.clear();
+        for (Component component : components) {
+            schedule(component);
+        }
+    }
+
+    private void schedule(Component component) {
+        component.due = component.syncedTo + 1 + component.process.idleMCycles();
+        queue.offer(component);
+    }
+
+    private static boolean isIoRegister(short address) {
+        int addr = uint(address);
+        return addr >= IO_START && addr <= IO_END;
+    }
+
+    private interface Process {
+        // M-cycles from now that can be replayed in bulk; 0 when the next tick has to run for real
+        int idleMCycles();
+
+        void skipIdleMCycles(int mCycles);
+
+        void mCycle();
+    }
+
+    private static final class Component {
+        private final int order;
+        private final Process process;
+        private long syncedTo = 0;
+        private long due = 0;
+
+        private Component(int order, Process process) {
+            this.order = order;
+            this.process = process;
+        }
+
+        private void catchUp(long until) {
+            if (until > syncedTo) {
+                process.skipIdleMCycles((int) (until - syncedTo));
+                syncedTo = until;
+            }
+        }
+    }
+
+    // Registers such as DIV and TIMA move during an idle span, so every component is brought up to date before the CPU
+    // sees them, and rescheduled after a write since it may change when the next event happens
+    private class CatchUpBarrier implements Memory {
+        private final Memory underlying;
+
+        private CatchUpBarrier(Memory underlying) {
+            this.underlying = underlying;
+        }
+
+        @Override
+        public byte read(short address) {
+            if (isIoRegister(address)) {
+                catchUpAll();
+            }
+            return underlying.read(address);
+        }
+
+        @Override
+        public void write(short address, byte value) {
+            if (!isIoRegister(address)) {
+                underlying.write(address, value);
+                return;
+            }
+            catchUpAll();
+            underlying.write(address, value);
+            rescheduleAll();
+        }
+
+        @Override
+        public void registerMemoryListener(short address, MemoryListener listener) {
+            underlying.registerMemoryListener(address, listener);
+        }
+    }
+}
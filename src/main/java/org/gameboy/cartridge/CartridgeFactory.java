@@ -2,20 +2,65 @@ package org.gameboy.cartridge;
 
 import org.gameboy.common.Cartridge;
 
-import java.time.Instant;
+import java.io.IOException;
+import java.nio.file.Path;
 
 public class CartridgeFactory {
+    private static final int RAM_BANK_SIZE = 0x2000;
+
+    private enum Mapper { ROM_ONLY, MBC1, MBC2, MBC3, MBC5 }
 
     public static Cartridge fromRom(byte[] romData) {
+        return create(romData, null, RtcMode.WALL_CLOCK);
+    }
+
+    public static Cartridge fromRom(byte[] romData, Path savePath) throws IOException {
+        return fromRom(romData, savePath, RtcMode.WALL_CLOCK);
+    }
+
+    // Battery-backed cartridges keep their RAM and clock in the given .sav file; others ignore it
+    public static Cartridge fromRom(byte[] romData, Path savePath, RtcMode rtcMode) throws IOException {
         CartridgeHeader header = new CartridgeHeader(romData);
-        int type = header.cartridgeType();
+        Mapper mapper = mapperOf(header);
+        int ramSize = mapper == Mapper.MBC2 ? Mbc2Cartridge.RAM_SIZE : header.ramBankCount() * RAM_BANK_SIZE;
+        int trailerSize = Mbc3Cartridge.trailerSize(header);
+        if (!header.hasBattery() || ramSize + trailerSize == 0) {
+            return create(romData, null, rtcMode);
+        }
+        return create(romData, SaveFile.open(savePath, ramSize, trailerSize), rtcMode);
+    }
+
+    private static Cartridge create(byte[] romData, SaveFile saveFile, RtcMode rtcMode) {
+        return switch (mapperOf(new CartridgeHeader(romData))) {
+            case ROM_ONLY -> new RomOnlyCartridge(romData);
+            case MBC1 -> new Mbc1Cartridge(romData, saveFile);
+            case MBC2 -> new Mbc2Cartridge(romData, saveFile);
+            case MBC3 -> new Mbc3Cartridge(romData, rtcMode.timeSource(), saveFile);
+            case MBC5 -> new Mbc5Cartridge(romData, saveFile);
+        };
+    }
+
+    public static boolean isSupported(int cartridgeType) {
+        return mapperOrNull(cartridgeType) != null;
+    }
+
+    private static Mapper mapperOf(CartridgeHeader header) {
+        Mapper mapper = mapperOrNull(header.cartridgeType());
+        if (mapper == null) {
+            throw new UnsupportedOperationException(
+                    "Unsupported cartridge type: 0x%02x".formatted(header.cartridgeType()));
+        }
+        return mapper;
+    }
 
+    private static Mapper mapperOrNull(int type) {
         return switch (type) {
-            case 0x00 -> new RomOnlyCartridge(romData);
-            case 0x01, 0x02, 0x03 -> new Mbc1Cartridge(romData);
-            case 0x0F, 0x10, 0x11, 0x12, 0x13 -> new Mbc3Cartridge(romData, Instant::now);
-            default -> throw new UnsupportedOperationException(
-                    "Unsupported cartridge type: 0x%02x".formatted(type));
+            case 0x00 -> Mapper.ROM_ONLY;
+            case 0x01, 0x02, 0x03 -> Mapper.MBC1;
+            case 0x05, 0x06 -> Mapper.MBC2;
+            case 0x0F, 0x10, 0x11, 0x12, 0x13 -> Mapper.MBC3;
+            case 0x19, 0x1A, 0x1B, 0x1C, 0x1D, 0x1E -> Mapper.MBC5;
+            default -> null;
         };
     }
 }
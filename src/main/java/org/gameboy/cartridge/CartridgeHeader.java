@@ -1,30 +1,87 @@
 package org.gameboy.cartridge;
 
+import java.nio.charset.StandardCharsets;
+
 import static org.gameboy.utils.BitUtilities.uint;
 
 public class CartridgeHeader {
+    // The header occupies 0x0100-0x014F; nothing outside it is needed to describe a cartridge
+    public static final int START = 0x0100;
+    public static final int END = 0x0150;
+
+    private static final int TITLE_OFFSET = 0x0134;
+    private static final int TITLE_LENGTH = 16;
     private static final int CARTRIDGE_TYPE_OFFSET = 0x0147;
     private static final int ROM_SIZE_OFFSET = 0x0148;
     private static final int RAM_SIZE_OFFSET = 0x0149;
+    private static final int HEADER_CHECKSUM_OFFSET = 0x014D;
+    private static final int GLOBAL_CHECKSUM_OFFSET = 0x014E;
+    // 8 MiB; past it the bank count runs to gigabytes and then overflows
+    private static final int MAX_ROM_SIZE_CODE = 0x08;
 
+    private final String title;
     private final int cartridgeType;
+    private final int romSizeCode;
+    private final int ramSizeCode;
     private final int romBankCount;
     private final int ramBankCount;
+    private final int headerChecksum;
+    private final int globalChecksum;
+    private final boolean headerChecksumValid;
 
     public CartridgeHeader(byte[] romData) {
-        this.cartridgeType = uint(romData[CARTRIDGE_TYPE_OFFSET]);
-        this.romBankCount = 2 << uint(romData[ROM_SIZE_OFFSET]);
-        this.ramBankCount = parseRamBankCount(uint(romData[RAM_SIZE_OFFSET]));
+        this(romData, 0);
+    }
+
+    // Reads the header from data holding the image starting at the given ROM address
+    private CartridgeHeader(byte[] data, int base) {
+        this.title = parseTitle(data, TITLE_OFFSET - base);
+        this.cartridgeType = uint(data[CARTRIDGE_TYPE_OFFSET - base]);
+        this.romSizeCode = uint(data[ROM_SIZE_OFFSET - base]);
+        this.ramSizeCode = uint(data[RAM_SIZE_OFFSET - base]);
+        this.romBankCount = 2 << romSizeCode;
+        this.ramBankCount = parseRamBankCount(ramSizeCode);
+        this.headerChecksum = uint(data[HEADER_CHECKSUM_OFFSET - base]);
+        this.globalChecksum = (uint(data[GLOBAL_CHECKSUM_OFFSET - base]) << 8) | uint(data[GLOBAL_CHECKSUM_OFFSET + 1 - base]);
+        this.headerChecksumValid = computeHeaderChecksum(data, TITLE_OFFSET - base) == headerChecksum;
+    }
+
+    // Parses just the 0x0100-0x014F region, as read from a file without loading the rest of it
+    public static CartridgeHeader fromHeaderRegion(byte[] region) {
+        if (region.length < END - START) {
+            throw new IllegalArgumentException("Header region is %d bytes, expected %d".formatted(region.length, END - START));
+        }
+        return new CartridgeHeader(region, START);
+    }
+
+    public String title() {
+        return title;
     }
 
     public int cartridgeType() {
         return cartridgeType;
     }
 
+    public int romSizeCode() {
+        return romSizeCode;
+    }
+
+    public int ramSizeCode() {
+        return ramSizeCode;
+    }
+
     public int romBankCount() {
         return romBankCount;
     }
 
+    // Banks a mapper that can select at most maxBanks has to hold, for mappers that pad images shorter than their header
+    public int romBankCount(int maxBanks) {
+        if (romSizeCode > MAX_ROM_SIZE_CODE) {
+            throw new IllegalArgumentException("Unknown ROM size code: 0x%02x".formatted(romSizeCode));
+        }
+        return Math.min(romBankCount, maxBanks);
+    }
+
     public int romBankMask() {
         return romBankCount - 1;
     }
@@ -45,6 +102,49 @@ public class CartridgeHeader {
         return cartridgeType == 0x10 || cartridgeType == 0x12 || cartridgeType == 0x13;
     }
 
+    public boolean hasRumble() {
+        return cartridgeType == 0x1C || cartridgeType == 0x1D || cartridgeType == 0x1E;
+    }
+
+    // RAM and clock contents survive power-off and belong in a save file
+    public boolean hasBattery() {
+        return switch (cartridgeType) {
+            case 0x03, 0x06, 0x09, 0x0D, 0x0F, 0x10, 0x13, 0x1B, 0x1E, 0x22, 0xFF -> true;
+            default -> false;
+        };
+    }
+
+    public int headerChecksum() {
+        return headerChecksum;
+    }
+
+    // Sum of every ROM byte but these two; only recorded, since checking it needs the whole image
+    public int globalChecksum() {
+        return globalChecksum;
+    }
+
+    // The boot ROM refuses to start a cartridge whose header checksum is wrong
+    public boolean headerChecksumValid() {
+        return headerChecksumValid;
+    }
+
+    // Titles are upper-case ASCII padded with zeros; newer cartridges reuse the last bytes for other flags
+    private static String parseTitle(byte[] data, int offset) {
+        int length = 0;
+        while (length < TITLE_LENGTH && data[offset + length] != 0 && data[offset + length] >= 0x20) {
+            length++;
+        }
+        return new String(data, offset, length, StandardCharsets.US_ASCII).trim();
+    }
+
+    private static int computeHeaderChecksum(byte[] data, int titleOffset) {
+        int checksum = 0;
+        for (int i = titleOffset; i < titleOffset + (HEADER_CHECKSUM_OFFSET - TITLE_OFFSET); i++) {
+            checksum = checksum - uint(data[i]) - 1;
+        }
+        return checksum & 0xFF;
+    }
+
     private static int parseRamBankCount(int ramSizeCode) {
         return switch (ramSizeCode) {
             case 0x00 -> 0;
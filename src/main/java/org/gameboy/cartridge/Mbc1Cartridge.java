@@ -1,12 +1,26 @@
 package org.gameboy.cartridge;
 
+import org.gameboy.common.BankSwitchListener;
 import org.gameboy.common.Cartridge;
+import org.gameboy.common.DirtyBitmap;
+import org.gameboy.common.DirtyTracking;
+import org.gameboy.common.PageTable;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.gameboy.utils.BitUtilities.uint;
 
-public class Mbc1Cartridge implements Cartridge {
+public class Mbc1Cartridge implements Cartridge, DirtyTracking {
+    private static final int ROM_BANK_SIZE = 0x4000;
+    private static final int ROM_BANK_PAGES = ROM_BANK_SIZE / PageTable.PAGE_SIZE;
+    private static final int RAM_BANK_SIZE = 0x2000;
+
     private final byte[] rom;
-    private final byte[] ram;
+    private ByteBuffer ram;
+    private final SaveFile saveFile;
+    private final DirtyBitmap dirtyRamBanks;
     private final int romBankMask;
     private final int ramBankMask;
 
@@ -14,15 +28,29 @@ public class Mbc1Cartridge implements Cartridge {
     private int bank2 = 0;
     private int bankingMode = 0;
     private boolean ramEnabled = false;
+    // Where 0x0000 and 0x4000 start in the ROM, recomputed only when a bank register changes
+    private int lowerRomOffset = 0;
+    private int upperRomOffset;
+
+    private PageTable pageTable = PageTable.NONE;
+    private final List<BankSwitchListener> bankSwitchListeners = new ArrayList<>();
 
     public Mbc1Cartridge(byte[] romData) {
+        this(romData, null);
+    }
+
+    // With a save file the RAM lives in its mapping instead of on the heap or in the RAM arena
+    public Mbc1Cartridge(byte[] romData, SaveFile saveFile) {
         CartridgeHeader header = new CartridgeHeader(romData);
         this.rom = romData;
         this.romBankMask = header.romBankMask();
         this.ramBankMask = header.ramBankMask();
+        this.upperRomOffset = (1 & romBankMask) * ROM_BANK_SIZE;
 
-        int ramSize = header.ramBankCount() * 0x2000;
-        this.ram = new byte[ramSize];
+        int ramSize = header.ramBankCount() * RAM_BANK_SIZE;
+        this.saveFile = saveFile;
+        this.ram = saveFile != null ? saveFile.ram() : ByteBuffer.allocate(ramSize);
+        this.dirtyRamBanks = new DirtyBitmap(header.ramBankCount());
     }
 
     @Override
@@ -30,29 +58,15 @@ public class Mbc1Cartridge implements Cartridge {
         int addr = uint(address);
 
         if (addr <= 0x3FFF) {
-            if (bankingMode == 1) {
-                int effectiveBank = (bank2 << 5) & romBankMask;
-                int romOffset = effectiveBank * 0x4000 + addr;
-                if (romOffset < rom.length) {
-                    return rom[romOffset];
-                }
-                return (byte) 0xFF;
-            }
-            return rom[addr];
+            return readRom(lowerRomOffset + addr);
         }
 
         if (addr <= 0x7FFF) {
-            int bank = (bank2 << 5) | bank1;
-            int effectiveBank = bank & romBankMask;
-            int romOffset = effectiveBank * 0x4000 + (addr - 0x4000);
-            if (romOffset < rom.length) {
-                return rom[romOffset];
-            }
-            return (byte) 0xFF;
+            return readRom(upperRomOffset + (addr - 0x4000));
         }
 
         if (addr >= 0xA000 && addr <= 0xBFFF) {
-            if (!ramEnabled || ram.length == 0) {
+            if (!ramEnabled || ram.capacity() == 0) {
                 return (byte) 0xFF;
             }
 
@@ -63,9 +77,9 @@ public class Mbc1Cartridge implements Cartridge {
                 effectiveRamBank = 0;
             }
 
-            int ramOffset = effectiveRamBank * 0x2000 + (addr - 0xA000);
-            if (ramOffset < ram.length) {
-                return ram[ramOffset];
+            int ramOffset = effectiveRamBank * RAM_BANK_SIZE + (addr - 0xA000);
+            if (ramOffset < ram.capacity()) {
+                return ram.get(ramOffset);
             }
             return (byte) 0xFF;
         }
@@ -73,34 +87,71 @@ public class Mbc1Cartridge implements Cartridge {
         return (byte) 0xFF;
     }
 
+    // One region per 8 KiB SRAM bank, marked by every write that lands in it
     @Override
-    public void write(short address, byte value) {
-        int addr = uint(address);
-        int val = Byte.toUnsignedInt(value);
+    public DirtyBitmap dirtyRegions() {
+        return dirtyRamBanks;
+    }
 
-        if (addr <= 0x1FFF) {
-            ramEnabled = ((val & 0x0F) == 0x0A);
+    @Override
+    public int regionSize() {
+        return RAM_BANK_SIZE;
+    }
+
+    @Override
+    public int ramSize() {
+        return saveFile != null ? 0 : ram.capacity();
+    }
+
+    @Override
+    public void attachRam(ByteBuffer ram) {
+        if (saveFile != null) {
             return;
         }
+        ram.put(0, this.ram, 0, this.ram.capacity());
+        this.ram = ram;
+    }
 
-        if (addr <= 0x3FFF) {
-            int bank = val & 0x1F;
-            bank1 = (bank == 0) ? 1 : bank;
-            return;
+    @Override
+    public void close() {
+        if (saveFile != null) {
+            saveFile.close();
         }
+    }
 
-        if (addr <= 0x5FFF) {
-            bank2 = val & 0x03;
+    @Override
+    public void addBankSwitchListener(BankSwitchListener listener) {
+        bankSwitchListeners.add(listener);
+    }
+
+    @Override
+    public void attachPageTable(PageTable pageTable) {
+        this.pageTable = pageTable;
+        mapRomPages();
+    }
+
+    @Override
+    public void write(short address, byte value) {
+        int addr = uint(address);
+        int val = Byte.toUnsignedInt(value);
+
+        if (addr <= 0x1FFF) {
+            boolean wasEnabled = ramEnabled;
+            ramEnabled = ((val & 0x0F) == 0x0A);
+            // Games disable RAM once they finish saving, which is the moment to get it onto disk
+            if (wasEnabled && !ramEnabled && saveFile != null) {
+                saveFile.flushSoon();
+            }
             return;
         }
 
         if (addr <= 0x7FFF) {
-            bankingMode = val & 0x01;
+            writeBankRegister(addr, val);
             return;
         }
 
         if (addr >= 0xA000 && addr <= 0xBFFF) {
-            if (!ramEnabled || ram.length == 0) {
+            if (!ramEnabled || ram.capacity() == 0) {
                 return;
             }
 
@@ -111,10 +162,56 @@ public class Mbc1Cartridge implements Cartridge {
                 effectiveRamBank = 0;
             }
 
-            int ramOffset = effectiveRamBank * 0x2000 + (addr - 0xA000);
-            if (ramOffset < ram.length) {
-                ram[ramOffset] = value;
+            int ramOffset = effectiveRamBank * RAM_BANK_SIZE + (addr - 0xA000);
+            if (ramOffset < ram.capacity()) {
+                ram.put(ramOffset, value);
+                dirtyRamBanks.mark(ramOffset / RAM_BANK_SIZE);
+                if (saveFile != null) {
+                    saveFile.markRamDirty(ramOffset / RAM_BANK_SIZE);
+                }
             }
         }
     }
+
+    private void writeBankRegister(int addr, int val) {
+        int previousLower = lowerRomOffset;
+        int previousUpper = upperRomOffset;
+
+        if (addr <= 0x3FFF) {
+            int bank = val & 0x1F;
+            bank1 = (bank == 0) ? 1 : bank;
+        } else if (addr <= 0x5FFF) {
+            bank2 = val & 0x03;
+        } else {
+            bankingMode = val & 0x01;
+        }
+
+        int lowerBank = bankingMode == 1 ? (bank2 << 5) & romBankMask : 0;
+        int upperBank = ((bank2 << 5) | bank1) & romBankMask;
+        lowerRomOffset = lowerBank * ROM_BANK_SIZE;
+        upperRomOffset = upperBank * ROM_BANK_SIZE;
+
+        if (lowerRomOffset != previousLower || upperRomOffset != previousUpper) {
+            mapRomPages();
+            bankSwitchListeners.forEach(BankSwitchListener::onBankSwitch);
+        }
+    }
+
+    private byte readRom(int romOffset) {
+        if (romOffset < rom.length) {
+            return rom[romOffset];
+        }
+        return (byte) 0xFF;
+    }
+
+    // Banks that run past the end of the ROM are left to read(), which fills in the open-bus 0xFF
+    private void mapRomPages() {
+        mapRomBank(0x00, lowerRomOffset);
+        mapRomBank(0x40, upperRomOffset);
+    }
+
+    private void mapRomBank(int firstPage, int romOffset) {
+        byte[] backing = romOffset + ROM_BANK_SIZE <= rom.length ? rom : null;
+        pageTable.mapReadOnly(firstPage, ROM_BANK_PAGES, backing, romOffset);
+    }
 }
@@ -0,0 +1,163 @@
+package org.gameboy.cartridge;
+
+import org.gameboy.common.BankSwitchListener;
+import org.gameboy.common.Cartridge;
+import org.gameboy.common.DirtyBitmap;
+import org.gameboy.common.DirtyTracking;
+import org.gameboy.common.PageTable;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.gameboy.utils.BitUtilities.uint;
+
+// Up to 16 ROM banks and 512 half-bytes of RAM built into the controller, echoed through 0xA000-0xBFFF. Address bit 8
+// picks whether a write to 0x0000-0x3FFF enables RAM or selects the ROM bank.
+public class Mbc2Cartridge implements Cartridge, DirtyTracking {
+    public static final int RAM_SIZE = 0x200;
+
+    private static final int ROM_BANK_SIZE = 0x4000;
+    private static final int MAX_ROM_BANKS = 16;
+    private static final int ROM_BANK_PAGES = ROM_BANK_SIZE / PageTable.PAGE_SIZE;
+    private static final int RAM_ADDRESS_MASK = RAM_SIZE - 1;
+
+    private final byte[] rom;
+    private ByteBuffer ram;
+    private final SaveFile saveFile;
+    private final DirtyBitmap dirtyRam = new DirtyBitmap(1);
+    private final int romBankMask;
+
+    private boolean ramEnabled = false;
+    // Subtracting the window start up front leaves rom[upperRomBase + address]
+    private int upperRomBase;
+
+    private PageTable pageTable = PageTable.NONE;
+    private final List<BankSwitchListener> bankSwitchListeners = new ArrayList<>();
+
+    public Mbc2Cartridge(byte[] romData) {
+        this(romData, null);
+    }
+
+    // With a save file the RAM lives in its mapping instead of on the heap or in the RAM arena
+    public Mbc2Cartridge(byte[] romData, SaveFile saveFile) {
+        CartridgeHeader header = new CartridgeHeader(romData);
+        int romBankCount = header.romBankCount(MAX_ROM_BANKS);
+        this.romBankMask = romBankCount - 1;
+        // Every bank the mask can reach must exist, so images shorter than their header are padded with open bus
+        int romSize = romBankCount * ROM_BANK_SIZE;
+        if (romData.length >= romSize) {
+            this.rom = romData;
+        } else {
+            this.rom = Arrays.copyOf(romData, romSize);
+            Arrays.fill(this.rom, romData.length, romSize, (byte) 0xFF);
+        }
+
+        this.saveFile = saveFile;
+        this.ram = saveFile != null ? saveFile.ram() : ByteBuffer.allocate(RAM_SIZE);
+        this.upperRomBase = (1 & romBankMask) * ROM_BANK_SIZE - 0x4000;
+    }
+
+    @Override
+    public byte read(short address) {
+        int addr = uint(address);
+
+        if (addr <= 0x3FFF) {
+            return rom[addr];
+        }
+
+        if (addr <= 0x7FFF) {
+            return rom[upperRomBase + addr];
+        }
+
+        // Only the low nibble is stored; the upper one reads as set
+        if (addr >= 0xA000 && addr <= 0xBFFF && ramEnabled) {
+            return (byte) (ram.get(addr & RAM_ADDRESS_MASK) | 0xF0);
+        }
+
+        return (byte) 0xFF;
+    }
+
+    @Override
+    public void write(short address, byte value) {
+        int addr = uint(address);
+        int val = Byte.toUnsignedInt(value);
+
+        if (addr <= 0x3FFF) {
+            if ((addr & 0x0100) == 0) {
+                boolean wasEnabled = ramEnabled;
+                ramEnabled = ((val & 0x0F) == 0x0A);
+                // Games disable RAM once they finish saving, which is the moment to get it onto disk
+                if (wasEnabled && !ramEnabled && saveFile != null) {
+                    saveFile.flushSoon();
+                }
+            } else {
+                int bank = val & 0x0F;
+                setRomBank(bank == 0 ? 1 : bank);
+            }
+            return;
+        }
+
+        if (addr >= 0xA000 && addr <= 0xBFFF && ramEnabled) {
+            ram.put(addr & RAM_ADDRESS_MASK, (byte) (val & 0x0F));
+            dirtyRam.mark(0);
+            if (saveFile != null) {
+                saveFile.markRamDirty(0);
+            }
+        }
+    }
+
+    // The whole 512-byte RAM is one region
+    @Override
+    public DirtyBitmap dirtyRegions() {
+        return dirtyRam;
+    }
+
+    @Override
+    public int regionSize() {
+        return RAM_SIZE;
+    }
+
+    @Override
+    public int ramSize() {
+        return saveFile != null ? 0 : RAM_SIZE;
+    }
+
+    @Override
+    public void attachRam(ByteBuffer ram) {
+        if (saveFile != null) {
+            return;
+        }
+        ram.put(0, this.ram, 0, RAM_SIZE);
+        this.ram = ram;
+    }
+
+    @Override
+    public void close() {
+        if (saveFile != null) {
+            saveFile.close();
+        }
+    }
+
+    @Override
+    public void addBankSwitchListener(BankSwitchListener listener) {
+        bankSwitchListeners.add(listener);
+    }
+
+    @Override
+    public void attachPageTable(PageTable pageTable) {
+        this.pageTable = pageTable;
+        pageTable.mapReadOnly(0x00, ROM_BANK_PAGES, rom, 0);
+        pageTable.mapReadOnly(0x40, ROM_BANK_PAGES, rom, upperRomBase + 0x4000);
+    }
+
+    private void setRomBank(int bank) {
+        int previousBase = upperRomBase;
+        upperRomBase = (bank & romBankMask) * ROM_BANK_SIZE - 0x4000;
+        if (upperRomBase != previousBase) {
+            pageTable.mapReadOnly(0x40, ROM_BANK_PAGES, rom, upperRomBase + 0x4000);
+            bankSwitchListeners.forEach(BankSwitchListener::onBankSwitch);
+        }
+    }
+}
@@ -1,35 +1,74 @@
 package org.gameboy.cartridge;
 
+import org.gameboy.common.BankSwitchListener;
 import org.gameboy.common.Cartridge;
+import org.gameboy.common.Clock;
+import org.gameboy.common.DirtyBitmap;
+import org.gameboy.common.DirtyTracking;
+import org.gameboy.common.PageTable;
 
+import java.nio.ByteBuffer;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.function.Supplier;
 
 import static org.gameboy.utils.BitUtilities.uint;
 
-public class Mbc3Cartridge implements Cartridge {
+public class Mbc3Cartridge implements Cartridge, DirtyTracking {
+    private static final int ROM_BANK_SIZE = 0x4000;
+    private static final int ROM_BANK_PAGES = ROM_BANK_SIZE / PageTable.PAGE_SIZE;
+    private static final int RAM_BANK_SIZE = 0x2000;
+
     private final byte[] rom;
-    private final byte[] ram;
+    private ByteBuffer ram;
+    private final SaveFile saveFile;
+    private final DirtyBitmap dirtyRamBanks;
     private final RealTimeClock rtc;
     private final int romBankMask;
     private final int ramBankMask;
     private final boolean hasRtc;
 
     private int romBank = 1;
+    // Where 0x4000 starts in the ROM, recomputed only when the bank register changes
+    private int upperRomOffset;
     private int ramRtcBank = 0;
     private boolean ramRtcEnabled = false;
 
+    private PageTable pageTable = PageTable.NONE;
+    private final List<BankSwitchListener> bankSwitchListeners = new ArrayList<>();
+
     public Mbc3Cartridge(byte[] romData, Supplier<Instant> clock) {
+        this(romData, RtcTimeSource.of(clock), null);
+    }
+
+    public Mbc3Cartridge(byte[] romData, Supplier<Instant> clock, SaveFile saveFile) {
+        this(romData, RtcTimeSource.of(clock), saveFile);
+    }
+
+    // With a save file the RAM lives in its mapping, and the clock is restored from and kept in its trailer
+    public Mbc3Cartridge(byte[] romData, RtcTimeSource timeSource, SaveFile saveFile) {
         CartridgeHeader header = new CartridgeHeader(romData);
         this.rom = romData;
         this.romBankMask = header.romBankMask();
         this.ramBankMask = header.ramBankMask();
+        this.upperRomOffset = (1 & romBankMask) * ROM_BANK_SIZE;
         this.hasRtc = header.hasRtc();
 
-        int ramSize = header.ramBankCount() * 0x2000;
-        this.ram = new byte[ramSize];
+        int ramSize = header.ramBankCount() * RAM_BANK_SIZE;
+        this.saveFile = saveFile;
+        this.ram = saveFile != null ? saveFile.ram() : ByteBuffer.allocate(ramSize);
+        this.dirtyRamBanks = new DirtyBitmap(header.ramBankCount());
 
-        this.rtc = hasRtc ? new RealTimeClock(clock) : null;
+        this.rtc = hasRtc ? new RealTimeClock(timeSource) : null;
+        if (rtc != null && saveFile != null) {
+            rtc.load(saveFile.trailer());
+        }
+    }
+
+    // Bytes a save file needs after the RAM for this cartridge's clock
+    public static int trailerSize(CartridgeHeader header) {
+        return header.hasRtc() ? RealTimeClock.TRAILER_SIZE : 0;
     }
 
     @Override
@@ -41,8 +80,7 @@ public class Mbc3Cartridge implements Cartridge {
         }
 
         if (addr <= 0x7FFF) {
-            int effectiveBank = romBank & romBankMask;
-            int romOffset = effectiveBank * 0x4000 + (addr - 0x4000);
+            int romOffset = upperRomOffset + (addr - 0x4000);
             if (romOffset < rom.length) {
                 return rom[romOffset];
             }
@@ -56,9 +94,9 @@ public class Mbc3Cartridge implements Cartridge {
 
             if (ramRtcBank <= 0x03) {
                 int effectiveRamBank = ramBankMask > 0 ? ramRtcBank & ramBankMask : 0;
-                int ramOffset = effectiveRamBank * 0x2000 + (addr - 0xA000);
-                if (ramOffset < ram.length) {
-                    return ram[ramOffset];
+                int ramOffset = effectiveRamBank * RAM_BANK_SIZE + (addr - 0xA000);
+                if (ramOffset < ram.capacity()) {
+                    return ram.get(ramOffset);
                 }
                 return (byte) 0xFF;
             }
@@ -73,19 +111,84 @@ public class Mbc3Cartridge implements Cartridge {
         return (byte) 0xFF;
     }
 
+    // One region per 8 KiB SRAM bank, marked by every write that lands in it
+    @Override
+    public DirtyBitmap dirtyRegions() {
+        return dirtyRamBanks;
+    }
+
+    @Override
+    public int regionSize() {
+        return RAM_BANK_SIZE;
+    }
+
+    @Override
+    public int ramSize() {
+        return saveFile != null ? 0 : ram.capacity();
+    }
+
+    @Override
+    public void attachRam(ByteBuffer ram) {
+        if (saveFile != null) {
+            return;
+        }
+        ram.put(0, this.ram, 0, this.ram.capacity());
+        this.ram = ram;
+    }
+
+    @Override
+    public void close() {
+        if (saveFile != null) {
+            saveRtc();
+            saveFile.close();
+        }
+    }
+
+    @Override
+    public void attachClock(Clock cpuClock) {
+        if (rtc != null) {
+            rtc.attachClock(cpuClock);
+        }
+    }
+
+    @Override
+    public void addBankSwitchListener(BankSwitchListener listener) {
+        bankSwitchListeners.add(listener);
+    }
+
+    // Banks that run past the end of the ROM are left to read(), which fills in the open-bus 0xFF
+    @Override
+    public void attachPageTable(PageTable pageTable) {
+        this.pageTable = pageTable;
+        mapRomBank(0x00, 0);
+        mapRomBank(0x40, upperRomOffset);
+    }
+
     @Override
     public void write(short address, byte value) {
         int addr = uint(address);
         int val = Byte.toUnsignedInt(value);
 
         if (addr <= 0x1FFF) {
+            boolean wasEnabled = ramRtcEnabled;
             ramRtcEnabled = (val == 0x0A);
+            // Games disable RAM once they finish saving, which is the moment to get it onto disk
+            if (wasEnabled && !ramRtcEnabled && saveFile != null) {
+                saveRtc();
+                saveFile.flushSoon();
+            }
             return;
         }
 
         if (addr <= 0x3FFF) {
             int bank = val & 0x7F;
+            int previousOffset = upperRomOffset;
             romBank = (bank == 0) ? 1 : bank;
+            upperRomOffset = (romBank & romBankMask) * ROM_BANK_SIZE;
+            if (upperRomOffset != previousOffset) {
+                mapRomBank(0x40, upperRomOffset);
+                bankSwitchListeners.forEach(BankSwitchListener::onBankSwitch);
+            }
             return;
         }
 
@@ -108,16 +211,35 @@ public class Mbc3Cartridge implements Cartridge {
 
             if (ramRtcBank <= 0x03) {
                 int effectiveRamBank = ramBankMask > 0 ? ramRtcBank & ramBankMask : 0;
-                int ramOffset = effectiveRamBank * 0x2000 + (addr - 0xA000);
-                if (ramOffset < ram.length) {
-                    ram[ramOffset] = value;
+                int ramOffset = effectiveRamBank * RAM_BANK_SIZE + (addr - 0xA000);
+                if (ramOffset < ram.capacity()) {
+                    ram.put(ramOffset, value);
+                    dirtyRamBanks.mark(ramOffset / RAM_BANK_SIZE);
+                    if (saveFile != null) {
+                        saveFile.markRamDirty(ramOffset / RAM_BANK_SIZE);
+                    }
                 }
                 return;
             }
 
             if (ramRtcBank >= 0x08 && ramRtcBank <= 0x0C && rtc != null) {
                 rtc.write(ramRtcBank, value);
+                if (saveFile != null) {
+                    saveRtc();
+                }
             }
         }
     }
+
+    private void saveRtc() {
+        if (rtc != null) {
+            rtc.save(saveFile.trailer());
+            saveFile.markTrailerDirty();
+        }
+    }
+
+    private void mapRomBank(int firstPage, int romOffset) {
+        byte[] backing = romOffset + ROM_BANK_SIZE <= rom.length ? rom : null;
+        pageTable.mapReadOnly(firstPage, ROM_BANK_PAGES, backing, romOffset);
+    }
 }
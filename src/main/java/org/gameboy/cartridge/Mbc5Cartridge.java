@@ -0,0 +1,195 @@
+package org.gameboy.cartridge;
+
+import org.gameboy.common.BankSwitchListener;
+import org.gameboy.common.Cartridge;
+import org.gameboy.common.DirtyBitmap;
+import org.gameboy.common.DirtyTracking;
+import org.gameboy.common.PageTable;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.gameboy.utils.BitUtilities.uint;
+
+// Up to 512 ROM banks and 16 RAM banks. Bank registers only move precomputed bases, so a read is one indexed access into
+// the ROM or RAM with the address added on.
+public class Mbc5Cartridge implements Cartridge, DirtyTracking {
+    private static final int ROM_BANK_SIZE = 0x4000;
+    private static final int MAX_ROM_BANKS = 512;
+    private static final int ROM_BANK_PAGES = ROM_BANK_SIZE / PageTable.PAGE_SIZE;
+    private static final int RAM_BANK_SIZE = 0x2000;
+
+    private final byte[] rom;
+    private ByteBuffer ram;
+    private final SaveFile saveFile;
+    private final DirtyBitmap dirtyRamBanks;
+    private final int romBankMask;
+    private final int ramBankMask;
+    // On rumble cartridges bit 3 of the RAM bank register drives the motor instead
+    private final int ramBankRegisterMask;
+
+    private int romBank = 1;
+    private int ramBank = 0;
+    // RAM is enabled and the cartridge has some
+    private boolean ramAccessible = false;
+    // Subtracting the window start up front leaves rom[upperRomBase + address] and ram[ramBase + address]
+    private int upperRomBase;
+    private int ramBase;
+
+    private PageTable pageTable = PageTable.NONE;
+    private final List<BankSwitchListener> bankSwitchListeners = new ArrayList<>();
+
+    public Mbc5Cartridge(byte[] romData) {
+        this(romData, null);
+    }
+
+    // With a save file the RAM lives in its mapping instead of on the heap or in the RAM arena
+    public Mbc5Cartridge(byte[] romData, SaveFile saveFile) {
+        CartridgeHeader header = new CartridgeHeader(romData);
+        int romBankCount = header.romBankCount(MAX_ROM_BANKS);
+        this.romBankMask = romBankCount - 1;
+        this.ramBankMask = header.ramBankMask();
+        this.ramBankRegisterMask = header.hasRumble() ? 0x07 : 0x0F;
+        // Every bank the mask can reach must exist, so images shorter than their header are padded with open bus
+        int romSize = romBankCount * ROM_BANK_SIZE;
+        if (romData.length >= romSize) {
+            this.rom = romData;
+        } else {
+            this.rom = Arrays.copyOf(romData, romSize);
+            Arrays.fill(this.rom, romData.length, romSize, (byte) 0xFF);
+        }
+
+        int ramSize = header.ramBankCount() * RAM_BANK_SIZE;
+        this.saveFile = saveFile;
+        this.ram = saveFile != null ? saveFile.ram() : ByteBuffer.allocate(ramSize);
+        this.dirtyRamBanks = new DirtyBitmap(header.ramBankCount());
+
+        updateRomBase();
+        updateRamBase();
+    }
+
+    @Override
+    public byte read(short address) {
+        int addr = uint(address);
+
+        if (addr <= 0x3FFF) {
+            return rom[addr];
+        }
+
+        if (addr <= 0x7FFF) {
+            return rom[upperRomBase + addr];
+        }
+
+        if (addr >= 0xA000 && addr <= 0xBFFF && ramAccessible) {
+            return ram.get(ramBase + addr);
+        }
+
+        return (byte) 0xFF;
+    }
+
+    @Override
+    public void write(short address, byte value) {
+        int addr = uint(address);
+        int val = Byte.toUnsignedInt(value);
+
+        if (addr <= 0x1FFF) {
+            boolean wasAccessible = ramAccessible;
+            ramAccessible = (val == 0x0A) && ram.capacity() > 0;
+            // Games disable RAM once they finish saving, which is the moment to get it onto disk
+            if (wasAccessible && !ramAccessible && saveFile != null) {
+                saveFile.flushSoon();
+            }
+            return;
+        }
+
+        if (addr <= 0x2FFF) {
+            setRomBank((romBank & 0x100) | val);
+            return;
+        }
+
+        if (addr <= 0x3FFF) {
+            setRomBank(((val & 0x01) << 8) | (romBank & 0xFF));
+            return;
+        }
+
+        if (addr <= 0x5FFF) {
+            ramBank = val & ramBankRegisterMask;
+            updateRamBase();
+            return;
+        }
+
+        if (addr >= 0xA000 && addr <= 0xBFFF && ramAccessible) {
+            int ramOffset = ramBase + addr;
+            ram.put(ramOffset, value);
+            dirtyRamBanks.mark(ramOffset / RAM_BANK_SIZE);
+            if (saveFile != null) {
+                saveFile.markRamDirty(ramOffset / RAM_BANK_SIZE);
+            }
+        }
+    }
+
+    // One region per 8 KiB SRAM bank, marked by every write that lands in it
+    @Override
+    public DirtyBitmap dirtyRegions() {
+        return dirtyRamBanks;
+    }
+
+    @Override
+    public int regionSize() {
+        return RAM_BANK_SIZE;
+    }
+
+    @Override
+    public int ramSize() {
+        return saveFile != null ? 0 : ram.capacity();
+    }
+
+    @Override
+    public void attachRam(ByteBuffer ram) {
+        if (saveFile != null) {
+            return;
+        }
+        ram.put(0, this.ram, 0, this.ram.capacity());
+        this.ram = ram;
+    }
+
+    @Override
+    public void close() {
+        if (saveFile != null) {
+            saveFile.close();
+        }
+    }
+
+    @Override
+    public void addBankSwitchListener(BankSwitchListener listener) {
+        bankSwitchListeners.add(listener);
+    }
+
+    @Override
+    public void attachPageTable(PageTable pageTable) {
+        this.pageTable = pageTable;
+        pageTable.mapReadOnly(0x00, ROM_BANK_PAGES, rom, 0);
+        pageTable.mapReadOnly(0x40, ROM_BANK_PAGES, rom, upperRomBase + 0x4000);
+    }
+
+    // Unlike MBC1 and MBC3, bank 0 can be selected into the upper window
+    private void setRomBank(int bank) {
+        int previousBase = upperRomBase;
+        romBank = bank;
+        updateRomBase();
+        if (upperRomBase != previousBase) {
+            pageTable.mapReadOnly(0x40, ROM_BANK_PAGES, rom, upperRomBase + 0x4000);
+            bankSwitchListeners.forEach(BankSwitchListener::onBankSwitch);
+        }
+    }
+
+    private void updateRomBase() {
+        upperRomBase = (romBank & romBankMask) * ROM_BANK_SIZE - 0x4000;
+    }
+
+    private void updateRamBase() {
+        ramBase = (ramBank & ramBankMask) * RAM_BANK_SIZE - 0xA000;
+    }
+}
@@ -1,11 +1,18 @@
 package org.gameboy.cartridge;
 
-import java.time.Duration;
+import org.gameboy.common.Clock;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.time.Instant;
 import java.util.function.Supplier;
 
 public class RealTimeClock {
-    private final Supplier<Instant> clock;
+    // The save file trailer most emulators share: live then latched registers as little-endian 32-bit values, then the
+    // Unix time the live registers were last brought up to date
+    public static final int TRAILER_SIZE = 48;
+
+    private final RtcTimeSource timeSource;
 
     // Live registers
     private int seconds;
@@ -24,13 +31,22 @@ public class RealTimeClock {
     // Latch state: false = waiting for 0x00, true = received 0x00
     private boolean latchArmed;
 
-    // Timing
-    private Instant lastTickTime;
+    // Timing, in the time source's ticks
+    private long lastTick;
     private boolean halted;
 
     public RealTimeClock(Supplier<Instant> clock) {
-        this.clock = clock;
-        this.lastTickTime = clock.get();
+        this(RtcTimeSource.of(clock));
+    }
+
+    public RealTimeClock(RtcTimeSource timeSource) {
+        this.timeSource = timeSource;
+        this.lastTick = timeSource.now();
+    }
+
+    public void attachClock(Clock cpuClock) {
+        timeSource.attachClock(cpuClock);
+        lastTick = timeSource.now();
     }
 
     public byte read(int register) {
@@ -46,8 +62,14 @@ public class RealTimeClock {
 
     public void write(int register, byte value) {
         int v = Byte.toUnsignedInt(value);
+        // Time so far lands on the old values, so the written one counts from now
+        tick();
         switch (register) {
-            case 0x08 -> seconds = v;
+            case 0x08 -> {
+                seconds = v;
+                // Writing the seconds restarts the sub-second divider
+                lastTick = timeSource.now();
+            }
             case 0x09 -> minutes = v;
             case 0x0A -> hours = v;
             case 0x0B -> dayLow = v;
@@ -57,11 +79,7 @@ public class RealTimeClock {
                 halted = (v & 0x40) != 0;
                 if (wasHalted && !halted) {
                     // Resuming from halt — reset the tick baseline
-                    lastTickTime = clock.get();
-                }
-                if (!wasHalted && halted) {
-                    // Entering halt — consume elapsed time first
-                    advanceLiveRegisters();
+                    lastTick = timeSource.now();
                 }
             }
         }
@@ -73,6 +91,7 @@ public class RealTimeClock {
             latchArmed = true;
         } else if (v == 0x01 && latchArmed) {
             latchArmed = false;
+            tick();
             latchedSeconds = seconds;
             latchedMinutes = minutes;
             latchedHours = hours;
@@ -83,6 +102,41 @@ public class RealTimeClock {
         }
     }
 
+    public void save(ByteBuffer trailer) {
+        if (!halted) {
+            advanceLiveRegisters();
+        }
+        ByteBuffer out = trailer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        out.putInt(0, seconds).putInt(4, minutes).putInt(8, hours).putInt(12, dayLow).putInt(16, dayHigh);
+        out.putInt(20, latchedSeconds).putInt(24, latchedMinutes).putInt(28, latchedHours)
+                .putInt(32, latchedDayLow).putInt(36, latchedDayHigh);
+        out.putLong(40, timeSource.unixSeconds());
+    }
+
+    // A trailer that was never written (time zero) leaves the clock as it is
+    public void load(ByteBuffer trailer) {
+        ByteBuffer in = trailer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        long savedAt = in.getLong(40);
+        if (savedAt == 0) {
+            return;
+        }
+        seconds = in.getInt(0);
+        minutes = in.getInt(4);
+        hours = in.getInt(8);
+        dayLow = in.getInt(12);
+        dayHigh = in.getInt(16);
+        latchedSeconds = in.getInt(20);
+        latchedMinutes = in.getInt(24);
+        latchedHours = in.getInt(28);
+        latchedDayLow = in.getInt(32);
+        latchedDayHigh = in.getInt(36);
+        halted = (dayHigh & 0x40) != 0;
+        lastTick = timeSource.now();
+        if (!halted) {
+            addSeconds(timeSource.secondsSince(savedAt));
+        }
+    }
+
     public void tick() {
         if (!halted) {
             advanceLiveRegisters();
@@ -90,10 +144,14 @@ public class RealTimeClock {
     }
 
     private void advanceLiveRegisters() {
-        Instant now = clock.get();
-        long elapsedSeconds = Duration.between(lastTickTime, now).getSeconds();
-        lastTickTime = now;
+        long ticksPerSecond = timeSource.ticksPerSecond();
+        long elapsedSeconds = Math.floorDiv(timeSource.now() - lastTick, ticksPerSecond);
+        // Only whole seconds are consumed, so frequent saves do not lose the fractions in between
+        lastTick += elapsedSeconds * ticksPerSecond;
+        addSeconds(elapsedSeconds);
+    }
 
+    private void addSeconds(long elapsedSeconds) {
         if (elapsedSeconds <= 0) {
             return;
         }
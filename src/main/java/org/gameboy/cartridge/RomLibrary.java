@@ -0,0 +1,296 @@
+package org.gameboy.cartridge;
+
+import org.gameboy.common.RomFormat;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+// A directory tree of ROMs described by their headers. Scanning reads only the 0x0100-0x014F region of each file, in
+// parallel on a fork-join pool, and keeps the results in a binary index. A later open whose directories all still carry
+// the timestamps recorded in the index reads just the index; otherwise the tree is walked and only files whose size or
+// timestamp changed are read again. A ROM rewritten in place without touching its directory keeps its old entry until
+// the directory next changes. Whether a mapper can run a ROM is not stored, but worked out from its cartridge type on
+// every open, so adding a mapper never leaves the index out of date.
+public final class RomLibrary {
+    // Kept outside the library, so writing it does not change the timestamps it records
+    private static final Path DEFAULT_INDEX_DIR = Path.of(System.getProperty("user.home"), ".cache", "gameboy", "libraries");
+
+    private static final int INDEX_MAGIC = 0x47424958; // "GBIX"
+    private static final int INDEX_VERSION = 1;
+    private static final int FLAG_READABLE = 1;
+    private static final int FLAG_CHECKSUM_VALID = 1 << 1;
+    private static final int HEADER_SIZE = CartridgeHeader.END - CartridgeHeader.START;
+
+    public record Entry(String path, long size, long modified, boolean readable, String title, int cartridgeType,
+                        int romSizeCode, int ramSizeCode, int headerChecksum, int globalChecksum,
+                        boolean headerChecksumValid) {
+
+        static Entry of(String path, long size, long modified, CartridgeHeader header) {
+            return new Entry(path, size, modified, true, header.title(), header.cartridgeType(),
+                    header.romSizeCode(), header.ramSizeCode(), header.headerChecksum(), header.globalChecksum(),
+                    header.headerChecksumValid());
+        }
+
+        // Too short to hold a header, or an archive without a ROM in it
+        static Entry unreadable(String path, long size, long modified) {
+            return new Entry(path, size, modified, false, "", 0, 0, 0, 0, 0, false);
+        }
+
+        public boolean supported() {
+            return readable && CartridgeFactory.isSupported(cartridgeType);
+        }
+    }
+
+    private final Path root;
+    private final List<Entry> entries;
+    private final int headersRead;
+
+    private RomLibrary(Path root, List<Entry> entries, int headersRead) {
+        this.root = root;
+        this.entries = entries;
+        this.headersRead = headersRead;
+    }
+
+    public static RomLibrary open(Path root) throws IOException {
+        String key = Integer.toHexString(root.toAbsolutePath().normalize().toString().hashCode());
+        return open(root, DEFAULT_INDEX_DIR.resolve(key + ".idx"));
+    }
+
+    public static RomLibrary open(Path root, Path indexPath) throws IOException {
+        String rootName = root.toAbsolutePath().normalize().toString();
+        Index index = readIndex(indexPath, rootName);
+        if (index != null && unchanged(root, index.directories())) {
+            return new RomLibrary(root, index.entries(), 0);
+        }
+
+        Map<String, Entry> previous = new HashMap<>();
+        if (index != null) {
+            index.entries().forEach(entry -> previous.put(entry.path(), entry));
+        }
+
+        Map<String, Long> directories = new LinkedHashMap<>();
+        List<Entry> entries = new ArrayList<>();
+        List<Candidate> changed = new ArrayList<>();
+        Files.walkFileTree(root, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attributes) {
+                directories.put(relative(root, dir), stamp(attributes.lastModifiedTime()));
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                if (!attributes.isRegularFile() || !RomFormat.isRomFile(file)) {
+                    return FileVisitResult.CONTINUE;
+                }
+                Candidate candidate = new Candidate(
+                        file, relative(root, file), attributes.size(), stamp(attributes.lastModifiedTime()));
+                Entry known = previous.get(candidate.path());
+                if (known != null && known.size() == candidate.size() && known.modified() == candidate.modified()) {
+                    entries.add(known);
+                } else {
+                    changed.add(candidate);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException e) {
+                return FileVisitResult.CONTINUE;
+            }
+        });
+
+        // Header reads are small and mostly waiting on the disk, so the pool is wider than the core count
+        ForkJoinPool pool = new ForkJoinPool(Math.max(4, Runtime.getRuntime().availableProcessors() * 2));
+        try {
+            entries.addAll(pool.submit(() -> changed.parallelStream().map(RomLibrary::scan).toList()).join());
+        } finally {
+            pool.shutdown();
+        }
+        entries.sort(Comparator.comparing(Entry::path));
+
+        writeIndex(indexPath, rootName, new Index(directories, entries));
+        return new RomLibrary(root, List.copyOf(entries), changed.size());
+    }
+
+    // Sorted by path, so the order is the same on every platform
+    public List<Entry> entries() {
+        return entries;
+    }
+
+    public Path resolve(Entry entry) {
+        return root.resolve(entry.path());
+    }
+
+    // Number of files whose header was read by this open rather than taken from the index
+    public int headersRead() {
+        return headersRead;
+    }
+
+    private record Candidate(Path file, String path, long size, long modified) {
+    }
+
+    private static Entry scan(Candidate candidate) {
+        try {
+            byte[] region = readHeaderRegion(candidate.file());
+            if (region.length == HEADER_SIZE) {
+                return Entry.of(candidate.path(), candidate.size(), candidate.modified(),
+                        CartridgeHeader.fromHeaderRegion(region));
+            }
+        } catch (IOException e) {
+            // Recorded as unreadable below, so it is not retried until the file changes
+        }
+        return Entry.unreadable(candidate.path(), candidate.size(), candidate.modified());
+    }
+
+    // Two positional reads on one channel for a plain image; archives inflate only as far as the header
+    private static byte[] readHeaderRegion(Path file) throws IOException {
+        RomFormat format;
+        try (FileChannel channel = FileChannel.open(file)) {
+            ByteBuffer magic = ByteBuffer.allocate(Integer.BYTES);
+            channel.read(magic, 0);
+            format = RomFormat.detect(magic.flip());
+            if (format == RomFormat.RAW) {
+                ByteBuffer region = ByteBuffer.allocate(HEADER_SIZE);
+                int read;
+                do {
+                    read = channel.read(region, CartridgeHeader.START + region.position());
+                } while (read > 0 && region.hasRemaining());
+                return region.hasRemaining() ? new byte[0] : region.array();
+            }
+        }
+        return format.readRange(file, CartridgeHeader.START, HEADER_SIZE);
+    }
+
+    private static boolean unchanged(Path root, Map<String, Long> directories) {
+        for (Map.Entry<String, Long> directory : directories.entrySet()) {
+            try {
+                long modified = stamp(Files.getLastModifiedTime(root.resolve(directory.getKey())));
+                if (modified != directory.getValue()) {
+                    return false;
+                }
+            } catch (IOException e) {
+                return false;
+            }
+        }
+        return !directories.isEmpty();
+    }
+
+    // Full precision, so a file added within the same millisecond as the last scan still changes its directory's stamp
+    private static long stamp(FileTime time) {
+        return time.to(TimeUnit.NANOSECONDS);
+    }
+
+    // Forward slashes, so an index written on one platform reads on another
+    private static String relative(Path root, Path path) {
+        return root.relativize(path).toString().replace('\\', '/');
+    }
+
+    private record Index(Map<String, Long> directories, List<Entry> entries) {
+    }
+
+    // Anything unexpected, including an index from another version or library, just means scanning again
+    private static Index readIndex(Path indexPath, String rootName) {
+        if (!Files.isRegularFile(indexPath)) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(indexPath)))) {
+            if (in.readInt() != INDEX_MAGIC || in.readInt() != INDEX_VERSION || !in.readUTF().equals(rootName)) {
+                return null;
+            }
+            Map<String, Long> directories = new LinkedHashMap<>();
+            for (int i = in.readInt(); i > 0; i--) {
+                directories.put(in.readUTF(), in.readLong());
+            }
+            List<Entry> entries = new ArrayList<>();
+            for (int i = in.readInt(); i > 0; i--) {
+                String path = in.readUTF();
+                long size = in.readLong();
+                long modified = in.readLong();
+                int flags = in.readUnsignedByte();
+                if ((flags & FLAG_READABLE) == 0) {
+                    entries.add(Entry.unreadable(path, size, modified));
+                    continue;
+                }
+                entries.add(new Entry(path, size, modified, true, in.readUTF(), in.readUnsignedByte(),
+                        in.readUnsignedByte(), in.readUnsignedByte(), in.readUnsignedByte(), in.readUnsignedShort(),
+                        (flags & FLAG_CHECKSUM_VALID) != 0));
+            }
+            return new Index(directories, List.copyOf(entries));
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    // Written beside the index and moved over it; if it cannot be written the library is simply scanned every time
+    private static void writeIndex(Path indexPath, String rootName, Index index) {
+        Path partial = null;
+        try {
+            Files.createDirectories(indexPath.getParent());
+            partial = Files.createTempFile(indexPath.getParent(), "index", ".partial");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(partial)))) {
+                out.writeInt(INDEX_MAGIC);
+                out.writeInt(INDEX_VERSION);
+                out.writeUTF(rootName);
+                out.writeInt(index.directories().size());
+                for (Map.Entry<String, Long> directory : index.directories().entrySet()) {
+                    out.writeUTF(directory.getKey());
+                    out.writeLong(directory.getValue());
+                }
+                out.writeInt(index.entries().size());
+                for (Entry entry : index.entries()) {
+                    out.writeUTF(entry.path());
+                    out.writeLong(entry.size());
+                    out.writeLong(entry.modified());
+                    int flags = (entry.readable() ? FLAG_READABLE : 0)
+                            | (entry.headerChecksumValid() ? FLAG_CHECKSUM_VALID : 0);
+                    out.writeByte(flags);
+                    if (entry.readable()) {
+                        out.writeUTF(entry.title());
+                        out.writeByte(entry.cartridgeType());
+                        out.writeByte(entry.romSizeCode());
+                        out.writeByte(entry.ramSizeCode());
+                        out.writeByte(entry.headerChecksum());
+                        out.writeShort(entry.globalChecksum());
+                    }
+                }
+            }
+            Files.move(partial, indexPath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            // Scanned again next time
+            deleteQuietly(partial);
+        }
+    }
+
+    // Once moved the temp file is gone, so this only removes one left by a failed write or move
+    private static void deleteQuietly(Path partial) {
+        if (partial == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(partial);
+        } catch (IOException ignored) {
+            // Nothing else can be done; the index is never read from it
+        }
+    }
+}
@@ -1,15 +1,20 @@
 package org.gameboy.cartridge;
 
 import org.gameboy.common.Cartridge;
+import org.gameboy.common.PageTable;
+
+import java.util.Arrays;
 
 import static org.gameboy.utils.BitUtilities.uint;
 
 public class RomOnlyCartridge implements Cartridge {
+    private static final int ROM_SIZE = 0x8000;
+
     private final byte[] rom;
 
+    // A full-size image is used as is and never written, so instances loaded from the same bytes share one copy
     public RomOnlyCartridge(byte[] romData) {
-        this.rom = new byte[0x8000];
-        System.arraycopy(romData, 0, this.rom, 0, Math.min(romData.length, 0x8000));
+        this.rom = romData.length >= ROM_SIZE ? romData : Arrays.copyOf(romData, ROM_SIZE);
     }
 
     @Override
@@ -21,6 +26,11 @@ public class RomOnlyCartridge implements Cartridge {
         return (byte) 0xFF;
     }
 
+    @Override
+    public void attachPageTable(PageTable pageTable) {
+        pageTable.mapReadOnly(0x00, ROM_SIZE / PageTable.PAGE_SIZE, rom, 0);
+    }
+
     @Override
     public void write(short address, byte value) {
         // ROM-only cartridge: all writes are ignored
@@ -0,0 +1,21 @@
+package org.gameboy.cartridge;
+
+import java.util.Locale;
+
+public enum RtcMode {
+    // Follows the host's clock, counting time spent powered off, for interactive play
+    WALL_CLOCK,
+    // Follows the emulator's M-cycles, so runs at any speed and replays see the same clock
+    EMULATED;
+
+    public RtcTimeSource timeSource() {
+        return switch (this) {
+            case WALL_CLOCK -> RtcTimeSource.WALL_CLOCK;
+            case EMULATED -> RtcTimeSource.emulated();
+        };
+    }
+
+    public static RtcMode fromName(String name) {
+        return valueOf(name.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+    }
+}
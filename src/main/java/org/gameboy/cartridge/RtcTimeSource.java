@@ -0,0 +1,97 @@
+package org.gameboy.cartridge;
+
+import org.gameboy.common.Clock;
+
+import java.time.Instant;
+import java.util.function.Supplier;
+
+// What the MBC3 clock counts: wall-clock time for interactive play, or the emulator's own M-cycles so that fast-forward,
+// batch runs and input replays see exactly the same clock every time
+public interface RtcTimeSource {
+    int M_CYCLES_PER_SECOND = 1 << 20;
+
+    RtcTimeSource WALL_CLOCK = new RtcTimeSource() {
+        @Override
+        public long now() {
+            return System.currentTimeMillis();
+        }
+
+        @Override
+        public long ticksPerSecond() {
+            return 1000;
+        }
+
+        @Override
+        public long unixSeconds() {
+            return System.currentTimeMillis() / 1000;
+        }
+    };
+
+    // Current time in ticks; only differences between readings matter
+    long now();
+
+    long ticksPerSecond();
+
+    // Stamped into save files, which other emulators read as Unix time
+    long unixSeconds();
+
+    // Seconds that passed while the game was not running since a save made at the given Unix time
+    default long secondsSince(long unixSeconds) {
+        return unixSeconds() - unixSeconds;
+    }
+
+    // Emulated sources follow the CPU clock once the machine is built; until then no time passes
+    default void attachClock(Clock cpuClock) {
+    }
+
+    static RtcTimeSource of(Supplier<Instant> clock) {
+        return new RtcTimeSource() {
+            @Override
+            public long now() {
+                return clock.get().toEpochMilli();
+            }
+
+            @Override
+            public long ticksPerSecond() {
+                return 1000;
+            }
+
+            @Override
+            public long unixSeconds() {
+                return clock.get().getEpochSecond();
+            }
+        };
+    }
+
+    // Powered-off time is not counted, so a save reloads to exactly the clock it was saved with
+    static RtcTimeSource emulated() {
+        return new RtcTimeSource() {
+            private Clock cpuClock = null;
+
+            @Override
+            public long now() {
+                return cpuClock != null ? cpuClock.getTime() : 0;
+            }
+
+            @Override
+            public long ticksPerSecond() {
+                return M_CYCLES_PER_SECOND;
+            }
+
+            @Override
+            public long unixSeconds() {
+                return System.currentTimeMillis() / 1000;
+            }
+
+            @Override
+            public long secondsSince(long unixSeconds) {
+                return 0;
+            }
+
+            @Override
+            public void attachClock(Clock cpuClock) {
+                this.cpuClock = cpuClock;
+            }
+        };
+    }
+}
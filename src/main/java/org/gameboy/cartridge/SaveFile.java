@@ -0,0 +1,114 @@
+package org.gameboy.cartridge;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Battery-backed cartridge RAM mapped straight from its .sav file, followed by an optional trailer for extra state such
+// as the MBC3 clock. The emulation thread only stores into the mapping and flags which 8 KiB banks changed; a shared
+// background thread writes those ranges out, on a timer and whenever the game disables RAM, so saving never blocks a
+// frame.
+public final class SaveFile {
+    private static final int BANK_SIZE = 0x2000;
+    private static final int TRAILER_REGION = Long.SIZE - 1;
+    private static final long FLUSH_INTERVAL_MILLIS = 1000;
+
+    private static final ScheduledExecutorService FLUSHER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "save-flusher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final MappedByteBuffer mapped;
+    private final int ramSize;
+    private final int trailerSize;
+    // One bit per RAM bank, and the top bit for the trailer, set by the emulation thread and taken by the flusher
+    private final AtomicLong pendingRegions = new AtomicLong();
+    private final ScheduledFuture<?> periodicFlush;
+
+    private SaveFile(MappedByteBuffer mapped, int ramSize, int trailerSize) {
+        this.mapped = mapped;
+        this.ramSize = ramSize;
+        this.trailerSize = trailerSize;
+        this.periodicFlush = FLUSHER.scheduleWithFixedDelay(
+                this::flush, FLUSH_INTERVAL_MILLIS, FLUSH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    // Opens or creates the file, growing it to fit; a shorter save from another emulator keeps its RAM and gets a
+    // zeroed trailer
+    public static SaveFile open(Path path, int ramSize, int trailerSize) throws IOException {
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, ramSize + trailerSize);
+            return new SaveFile(mapped, ramSize, trailerSize);
+        }
+    }
+
+    // game.gb saves to game.sav next to it, as do game.zip and game.gb.gz
+    public static Path forRom(Path romPath) {
+        String name = romPath.getFileName().toString();
+        if (name.endsWith(".gz")) {
+            name = name.substring(0, name.length() - ".gz".length());
+        }
+        int extension = name.lastIndexOf('.');
+        String base = extension > 0 ? name.substring(0, extension) : name;
+        return romPath.resolveSibling(base + ".sav");
+    }
+
+    public ByteBuffer ram() {
+        return mapped.slice(0, ramSize);
+    }
+
+    public ByteBuffer trailer() {
+        return mapped.slice(ramSize, trailerSize);
+    }
+
+    // Called on every RAM write, so it stays a plain load once the bank is already pending
+    public void markRamDirty(int bank) {
+        markDirty(1L << bank);
+    }
+
+    public void markTrailerDirty() {
+        markDirty(1L << TRAILER_REGION);
+    }
+
+    // Hands whatever is pending to the flusher without waiting for it
+    public void flushSoon() {
+        if (pendingRegions.getOpaque() != 0) {
+            FLUSHER.execute(this::flush);
+        }
+    }
+
+    // Stops the timer and writes out anything still pending on the calling thread
+    public void close() {
+        periodicFlush.cancel(false);
+        flush();
+    }
+
+    private void markDirty(long region) {
+        if ((pendingRegions.getOpaque() & region) == 0) {
+            pendingRegions.getAndAccumulate(region, (pending, added) -> pending | added);
+        }
+    }
+
+    private synchronized void flush() {
+        long regions = pendingRegions.getAndSet(0);
+        while (regions != 0) {
+            int region = Long.numberOfTrailingZeros(regions);
+            regions &= regions - 1;
+            if (region == TRAILER_REGION) {
+                mapped.force(ramSize, trailerSize);
+            } else {
+                mapped.force(region * BANK_SIZE, Math.min(BANK_SIZE, ramSize - region * BANK_SIZE));
+            }
+        }
+    }
+}
@@ -0,0 +1,5 @@
+package org.gameboy.common;
+
+public interface BankSwitchListener {
+    void onBankSwitch();
+}
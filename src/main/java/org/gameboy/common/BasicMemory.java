@@ -1,13 +1,10 @@
 package org.gameboy.common;
 
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
-
 import static org.gameboy.utils.BitUtilities.uint;
 
 public class BasicMemory implements Memory {
     private final byte[] memory;
-    private final ConcurrentMap<Short, MemoryListener> memoryListeners = new ConcurrentHashMap<>();
+    private final MemoryListenerTable memoryListeners = new MemoryListenerTable();
 
     public BasicMemory() {
         memory = new byte[0xFFFF+1];
@@ -23,12 +20,11 @@ public class BasicMemory implements Memory {
     public void write(short address, byte value) {
         memory[uint(address)] = value;
 
-        MemoryListener memoryListener = memoryListeners.getOrDefault(address, () -> {});
-        memoryListener.onMemoryWrite();
+        memoryListeners.notifyWrite(uint(address));
     }
 
     @Override
     public void registerMemoryListener(short address, MemoryListener listener) {
-        memoryListeners.put(address, listener);
+        memoryListeners.register(address, listener);
     }
 }
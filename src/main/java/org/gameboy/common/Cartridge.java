@@ -1,6 +1,33 @@
 package org.gameboy.common;
 
+import java.nio.ByteBuffer;
+
 public interface Cartridge {
     byte read(short address);
     void write(short address, byte value);
+
+    // Notified whenever a write changes which ROM bank is visible in 0x0000-0x7FFF
+    default void addBankSwitchListener(BankSwitchListener listener) {
+    }
+
+    // Bytes of cartridge RAM for the memory to place in its RAM arena; battery-backed RAM stays in its save file
+    default int ramSize() {
+        return 0;
+    }
+
+    // Moves the cartridge RAM into the given buffer, keeping whatever was already written to it
+    default void attachRam(ByteBuffer ram) {
+    }
+
+    // Lets the cartridge point the ROM pages at its current banks, and re-point them whenever the banks switch
+    default void attachPageTable(PageTable pageTable) {
+    }
+
+    // Hands over the CPU clock once the machine is built, for cartridges whose own clock can follow emulated time
+    default void attachClock(Clock cpuClock) {
+    }
+
+    // Writes out battery-backed state still waiting for the background flush
+    default void close() {
+    }
 }
@@ -3,6 +3,35 @@ package org.gameboy.common;
 public interface Clock {
     void tick();
 
+    // Called in a loop while the CPU is halted; may advance several ticks at once provided none of them could raise
+    // an interrupt, so that the loop observes exactly the same tick on which one becomes pending
+    default void tickWhileHalted() {
+        int ticks = idleTicks();
+        if (ticks > 0) {
+            skipIdleTicks(ticks);
+        } else {
+            tick();
+        }
+    }
+
+    // Ticks from now in which no component can raise an interrupt or change LY, STAT or IF; only free-running
+    // counters such as DIV move
+    default int idleTicks() {
+        return 0;
+    }
+
+    // Same outcome as calling tick() the given number of times, which must not exceed idleTicks()
+    default void skipIdleTicks(int ticks) {
+        for (int i = 0; i < ticks; i++) {
+            tick();
+        }
+    }
+
+    // Clocks that let components fall behind wrap the CPU's view of memory so they are caught up before it looks
+    default Memory withCatchUpBarrier(Memory memory) {
+        return memory;
+    }
+
     long getTime();
 
     void stop();
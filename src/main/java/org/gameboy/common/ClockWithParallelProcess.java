@@ -30,6 +30,20 @@ public class ClockWithParallelProcess implements Clock{
         }
     }
 
+    // Advances time without running the parallel process, which the caller has already accounted for
+    public void skip(int ticks) {
+        time += ticks;
+        ticksSinceSync += ticks;
+        if (ticksSinceSync >= TICKS_PER_FRAME) {
+            ticksSinceSync -= TICKS_PER_FRAME;
+            framePacer.sync();
+        }
+    }
+
+    public int ticksUntilSync() {
+        return TICKS_PER_FRAME - ticksSinceSync;
+    }
+
     @Override
     public long getTime() {
         return time;
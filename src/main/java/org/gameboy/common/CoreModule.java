@@ -30,8 +30,25 @@ public class CoreModule extends AbstractModule {
 
         bind(ByteRegister.class).annotatedWith(Tma.class).toInstance(new IntBackedRegister());
         bind(ByteRegister.class).annotatedWith(Dma.class).toInstance(new IntBackedRegister());
-        bind(ByteRegister.class).annotatedWith(InterruptFlags.class).toInstance(new InterruptFlagsRegister());
-        bind(ByteRegister.class).annotatedWith(InterruptEnable.class).toInstance(new IntBackedRegister());
+        bind(InterruptRegisters.class).in(Singleton.class);
+    }
+
+    @Provides
+    @Singleton
+    RamArena provideRamArena(Cartridge cartridge, RamBacking ramBacking) {
+        return new RamArena(ramBacking, cartridge.ramSize());
+    }
+
+    @Provides
+    @InterruptFlags
+    ByteRegister provideInterruptFlagsRegister(InterruptRegisters interruptRegisters) {
+        return interruptRegisters.interruptFlags();
+    }
+
+    @Provides
+    @InterruptEnable
+    ByteRegister provideInterruptEnableRegister(InterruptRegisters interruptRegisters) {
+        return interruptRegisters.interruptEnable();
     }
 
     @Provides
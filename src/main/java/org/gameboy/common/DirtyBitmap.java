@@ -0,0 +1,62 @@
+package org.gameboy.common;
+
+import java.util.Arrays;
+
+// One bit per region, set by every write into the region and cleared only by whoever consumes the changes
+public final class DirtyBitmap {
+    private final long[] words;
+    private final int size;
+
+    public DirtyBitmap(int size) {
+        this.words = new long[(size + Long.SIZE - 1) / Long.SIZE];
+        this.size = size;
+    }
+
+    public void mark(int region) {
+        words[region >>> 6] |= 1L << region;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isDirty(int region) {
+        return (words[region >>> 6] & (1L << region)) != 0;
+    }
+
+    public boolean anyDirty() {
+        for (long word : words) {
+            if (word != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Index of the first dirty region at or after from, or -1; walks whole words so scanning a clean map is cheap
+    public int nextDirty(int from) {
+        if (from >= size) {
+            return -1;
+        }
+        int index = from >>> 6;
+        long word = words[index] & (-1L << from);
+        while (word == 0) {
+            if (++index == words.length) {
+                return -1;
+            }
+            word = words[index];
+        }
+        return index * Long.SIZE + Long.numberOfTrailingZeros(word);
+    }
+
+    // Returns whether the region was dirty and marks it clean, for consumers that handle one region at a time
+    public boolean clear(int region) {
+        boolean dirty = isDirty(region);
+        words[region >>> 6] &= ~(1L << region);
+        return dirty;
+    }
+
+    public void clearAll() {
+        Arrays.fill(words, 0);
+    }
+}
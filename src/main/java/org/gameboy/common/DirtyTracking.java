@@ -0,0 +1,10 @@
+package org.gameboy.common;
+
+// Lets save states, viewers, code caches and battery saves find what changed since their last checkpoint without
+// copying and comparing the whole memory. Each consumer clears the regions it has dealt with.
+public interface DirtyTracking {
+    DirtyBitmap dirtyRegions();
+
+    // Bytes covered by each region
+    int regionSize();
+}
@@ -6,4 +6,8 @@ public interface DmaController {
     void mCycle();
 
     boolean isDmaActive();
+
+    // Brings OAM up to date with the bytes the running transfer has reached, for readers that bypass the bus
+    default void flushTransfer() {
+    }
 }
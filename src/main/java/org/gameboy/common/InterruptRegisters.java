@@ -0,0 +1,70 @@
+package org.gameboy.common;
+
+import static org.gameboy.utils.BitUtilities.uint;
+
+// IF and IE are kept together so that IF & IE is mirrored on every write, making the per-instruction
+// "is anything pending?" check a single field read
+public class InterruptRegisters {
+    private static final int INTERRUPT_BITS = 0x1F;
+    private static final int UNUSED_FLAG_BITS = 0xE0;
+
+    private final ByteRegister interruptFlags = new InterruptFlags();
+    private final ByteRegister interruptEnable = new InterruptEnable();
+
+    private volatile int flags;
+    private volatile int enable;
+    private volatile int pending;
+
+    public InterruptRegisters(int flags, int enable) {
+        this.flags = flags;
+        this.enable = enable;
+        updatePending();
+    }
+
+    public InterruptRegisters() {
+        this(0, 0);
+    }
+
+    public ByteRegister interruptFlags() {
+        return interruptFlags;
+    }
+
+    public ByteRegister interruptEnable() {
+        return interruptEnable;
+    }
+
+    // IF & IE restricted to the five interrupt bits, bit 0 (VBLANK) being the highest priority
+    public int pending() {
+        return pending;
+    }
+
+    private void updatePending() {
+        pending = flags & enable & INTERRUPT_BITS;
+    }
+
+    private class InterruptFlags implements ByteRegister {
+        @Override
+        public byte read() {
+            return (byte) (flags | UNUSED_FLAG_BITS);
+        }
+
+        @Override
+        public void write(byte value) {
+            flags = uint(value);
+            updatePending();
+        }
+    }
+
+    private class InterruptEnable implements ByteRegister {
+        @Override
+        public byte read() {
+            return (byte) enable;
+        }
+
+        @Override
+        public void write(byte value) {
+            enable = uint(value);
+            updatePending();
+        }
+    }
+}
@@ -5,22 +5,38 @@ import com.google.inject.Singleton;
 import org.gameboy.common.annotations.*;
 import org.gameboy.display.annotations.*;
 
+import java.nio.ByteBuffer;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
 
 import static org.gameboy.common.MemoryMapConstants.DMA_REGISTER_ADDRESS;
 import static org.gameboy.utils.BitUtilities.uint;
 
 @Singleton
-public class MappedMemory implements Memory {
-    private final MemoryLocation[] memoryMap = new MemoryLocation[0x10000];
-    private final byte[] defaultMemory = new byte[0x10000];
-    private final ConcurrentMap<Short, MemoryListener> memoryListeners = new ConcurrentHashMap<>();
+public class MappedMemory implements Memory, PageTable, DirtyTracking {
+    private static final int PAGE_COUNT = 0x100;
+    // Pages of plain RAM from VRAM up to OAM; the last page mixes I/O registers with HRAM and stays on the slow path
+    private static final int FIRST_RAM_PAGE = 0x80;
+    private static final int LAST_RAM_PAGE = 0xFE;
+
+    private static final int IO_PAGE = 0xFF;
+
+    // Registers only live in the last page, so only its 256 addresses get a slot
+    private final MemoryLocation[] ioMap = new MemoryLocation[PAGE_SIZE];
+    // Backs every address that is neither a register nor the cartridge's
+    private final ByteBuffer ram;
+    // Direct pages: a non-null entry serves the whole page from that array, starting at the page's offset. RAM in an
+    // off-heap arena has no array, so its pages are served from the buffer instead.
+    private final byte[][] readPages = new byte[PAGE_COUNT][];
+    private final byte[][] writePages = new byte[PAGE_COUNT][];
+    private final ByteBuffer[] bufferPages = new ByteBuffer[PAGE_COUNT];
+    private final int[] pageOffsets = new int[PAGE_COUNT];
+    private final DirtyBitmap dirtyPages = new DirtyBitmap(PAGE_COUNT);
+    private final MemoryListenerTable memoryListeners = new MemoryListenerTable();
     private final Cartridge cartridge;
 
     @Inject
     public MappedMemory(Cartridge cartridge,
+                       RamArena ramArena,
                        @Div ByteRegister divRegister,
                        @Tima ByteRegister timaRegister,
                        @Tma ByteRegister tmaRegister,
@@ -43,72 +59,166 @@ public class MappedMemory implements Memory {
                        @org.gameboy.common.annotations.Joypad ByteRegister joypadRegister,
                        @org.gameboy.audio.annotations.ApuRegisters Map<Integer, ByteRegister> apuRegisters) {
         this.cartridge = cartridge;
+        this.ram = ramArena.buffer();
 
-        memoryMap[0xFF00] = new ByteRegisterMapping(joypadRegister);
-        memoryMap[0xFF01] = new SerialDataMapping(serialController);
-        memoryMap[0xFF02] = new SerialControlMapping(serialController);
+        mapIo(0xFF00, new ByteRegisterMapping(joypadRegister));
+        mapIo(0xFF01, new SerialDataMapping(serialController));
+        mapIo(0xFF02, new SerialControlMapping(serialController));
         
-        memoryMap[0xFF04] = new ByteRegisterMapping(divRegister);
-        memoryMap[0xFF05] = new ByteRegisterMapping(timaRegister);
-        memoryMap[0xFF06] = new ByteRegisterMapping(tmaRegister);
-        memoryMap[0xFF07] = new ByteRegisterMapping(tacRegister);
-        memoryMap[0xFF0F] = new ByteRegisterMapping(interruptFlagsRegister);
-
-        memoryMap[DMA_REGISTER_ADDRESS & 0xFFFF] = new ByteRegisterMapping(dmaRegister);
-
-        memoryMap[0xFF40] = new ByteRegisterMapping(lcdcRegister);
-        memoryMap[0xFF41] = new ByteRegisterMapping(statRegister);
-        memoryMap[0xFF42] = new ByteRegisterMapping(scyRegister);
-        memoryMap[0xFF43] = new ByteRegisterMapping(scxRegister);
-        memoryMap[0xFF44] = new ByteRegisterMapping(lyRegister);
-        memoryMap[0xFF45] = new ByteRegisterMapping(lycRegister);
-        memoryMap[0xFF47] = new ByteRegisterMapping(bgpRegister);
-        memoryMap[0xFF48] = new ByteRegisterMapping(obp0Register);
-        memoryMap[0xFF49] = new ByteRegisterMapping(obp1Register);
-        memoryMap[0xFF4A] = new ByteRegisterMapping(wyRegister);
-        memoryMap[0xFF4B] = new ByteRegisterMapping(wxRegister);
-        memoryMap[0xFFFF] = new ByteRegisterMapping(interruptEnableRegister);
+        mapIo(0xFF04, new ByteRegisterMapping(divRegister));
+        mapIo(0xFF05, new ByteRegisterMapping(timaRegister));
+        mapIo(0xFF06, new ByteRegisterMapping(tmaRegister));
+        mapIo(0xFF07, new ByteRegisterMapping(tacRegister));
+        mapIo(0xFF0F, new ByteRegisterMapping(interruptFlagsRegister));
+
+        mapIo(DMA_REGISTER_ADDRESS & 0xFFFF, new ByteRegisterMapping(dmaRegister));
+
+        mapIo(0xFF40, new ByteRegisterMapping(lcdcRegister));
+        mapIo(0xFF41, new ByteRegisterMapping(statRegister));
+        mapIo(0xFF42, new ByteRegisterMapping(scyRegister));
+        mapIo(0xFF43, new ByteRegisterMapping(scxRegister));
+        mapIo(0xFF44, new ByteRegisterMapping(lyRegister));
+        mapIo(0xFF45, new ByteRegisterMapping(lycRegister));
+        mapIo(0xFF47, new ByteRegisterMapping(bgpRegister));
+        mapIo(0xFF48, new ByteRegisterMapping(obp0Register));
+        mapIo(0xFF49, new ByteRegisterMapping(obp1Register));
+        mapIo(0xFF4A, new ByteRegisterMapping(wyRegister));
+        mapIo(0xFF4B, new ByteRegisterMapping(wxRegister));
+        mapIo(0xFFFF, new ByteRegisterMapping(interruptEnableRegister));
 
         // APU registers (0xFF10-0xFF26 + wave RAM 0xFF30-0xFF3F)
         for (Map.Entry<Integer, ByteRegister> entry : apuRegisters.entrySet()) {
-            memoryMap[entry.getKey()] = new ByteRegisterMapping(entry.getValue());
+            mapIo(entry.getKey(), new ByteRegisterMapping(entry.getValue()));
         }
+
+        for (int page = FIRST_RAM_PAGE; page <= LAST_RAM_PAGE; page++) {
+            if (isCartridgeAddress(page * PAGE_SIZE)) {
+                continue;
+            }
+            int arenaOffset = RamArena.offsetOf(page * PAGE_SIZE);
+            if (ram.hasArray()) {
+                readPages[page] = ram.array();
+                writePages[page] = ram.array();
+                pageOffsets[page] = ram.arrayOffset() + arenaOffset;
+            } else {
+                bufferPages[page] = ram;
+                pageOffsets[page] = arenaOffset;
+            }
+        }
+        cartridge.attachRam(ramArena.cartridgeRam());
+        cartridge.attachPageTable(this);
     }
 
     @Override
     public byte read(short address) {
         int addr = uint(address);
-        MemoryLocation mappedValue = memoryMap[addr];
-        if (mappedValue != null) {
-            return mappedValue.read();
+        int page = addr >>> 8;
+        byte[] backing = readPages[page];
+        if (backing != null) {
+            return backing[pageOffsets[page] + (addr & 0xFF)];
+        }
+        ByteBuffer bufferPage = bufferPages[page];
+        if (bufferPage != null) {
+            return bufferPage.get(pageOffsets[page] + (addr & 0xFF));
+        }
+
+        if (page == IO_PAGE) {
+            MemoryLocation mappedValue = ioMap[addr & 0xFF];
+            if (mappedValue != null) {
+                return mappedValue.read();
+            }
         }
         if (isCartridgeAddress(addr)) {
             return cartridge.read(address);
         }
-        return defaultMemory[addr];
+        return ram.get(RamArena.offsetOf(addr));
     }
 
     @Override
     public void write(short address, byte value) {
         int addr = uint(address);
-        MemoryLocation mappedValue = memoryMap[addr];
-        if (mappedValue != null) {
-            mappedValue.write(value);
-        } else if (isCartridgeAddress(addr)) {
-            cartridge.write(address, value);
+        int page = addr >>> 8;
+        dirtyPages.mark(page);
+        byte[] backing = writePages[page];
+        if (backing != null) {
+            backing[pageOffsets[page] + (addr & 0xFF)] = value;
+        } else if (bufferPages[page] != null) {
+            bufferPages[page].put(pageOffsets[page] + (addr & 0xFF), value);
         } else {
-            defaultMemory[addr] = value;
+            MemoryLocation mappedValue = page == IO_PAGE ? ioMap[addr & 0xFF] : null;
+            if (mappedValue != null) {
+                mappedValue.write(value);
+            } else if (isCartridgeAddress(addr)) {
+                cartridge.write(address, value);
+            } else {
+                ram.put(RamArena.offsetOf(addr), value);
+            }
         }
 
-        MemoryListener memoryListener = memoryListeners.getOrDefault(address, () -> {});
-        memoryListener.onMemoryWrite();
+        memoryListeners.notifyWrite(uint(address));
     }
 
     @Override
     public void registerMemoryListener(short address, MemoryListener listener) {
-        memoryListeners.put(address, listener);
+        memoryListeners.register(address, listener);
+    }
+
+    // One array copy when both ends sit inside a single direct page each and nobody listens to the destination
+    @Override
+    public void copy(short source, short destination, int length) {
+        int from = uint(source);
+        int to = uint(destination);
+        int sourcePage = from >>> 8;
+        int destinationPage = to >>> 8;
+        boolean withinPages = (from & 0xFF) + length <= PAGE_SIZE && (to & 0xFF) + length <= PAGE_SIZE;
+        if (!withinPages || memoryListeners.anyRegistered(to, length)) {
+            Memory.super.copy(source, destination, length);
+            return;
+        }
+
+        int sourceIndex = pageOffsets[sourcePage] + (from & 0xFF);
+        int destinationIndex = pageOffsets[destinationPage] + (to & 0xFF);
+        byte[] sourceArray = readPages[sourcePage];
+        byte[] destinationArray = writePages[destinationPage];
+        ByteBuffer sourceBuffer = bufferPages[sourcePage];
+        ByteBuffer destinationBuffer = bufferPages[destinationPage];
+        if (sourceArray != null && destinationArray != null) {
+            System.arraycopy(sourceArray, sourceIndex, destinationArray, destinationIndex, length);
+        } else if (sourceArray != null && destinationBuffer != null) {
+            destinationBuffer.put(destinationIndex, sourceArray, sourceIndex, length);
+        } else if (sourceBuffer != null && destinationBuffer != null) {
+            destinationBuffer.put(destinationIndex, sourceBuffer, sourceIndex, length);
+        } else {
+            Memory.super.copy(source, destination, length);
+            return;
+        }
+        dirtyPages.mark(destinationPage);
+    }
+
+    // Every write marks its page, including writes that only reach a register or a cartridge bank register
+    @Override
+    public DirtyBitmap dirtyRegions() {
+        return dirtyPages;
+    }
+
+    @Override
+    public int regionSize() {
+        return PAGE_SIZE;
+    }
+
+    // Only the cartridge maps pages, and only over its own ROM, so writes to them still reach its bank registers
+    @Override
+    public void mapReadOnly(int firstPage, int pageCount, byte[] backing, int offset) {
+        for (int i = 0; i < pageCount; i++) {
+            readPages[firstPage + i] = backing;
+            pageOffsets[firstPage + i] = offset + i * PAGE_SIZE;
+        }
     }
     
+    private void mapIo(int address, MemoryLocation location) {
+        ioMap[address & 0xFF] = location;
+    }
+
     private static boolean isCartridgeAddress(int addr) {
         return (addr <= 0x7FFF) || (addr >= 0xA000 && addr <= 0xBFFF);
     }
@@ -6,4 +6,11 @@ public interface Memory {
     void write(short address, byte value);
 
     void registerMemoryListener(short address, MemoryListener listener);
+
+    // Same as reading then writing each byte in ascending order; implementations may do it in bulk
+    default void copy(short source, short destination, int length) {
+        for (int i = 0; i < length; i++) {
+            write((short) (destination + i), read((short) (source + i)));
+        }
+    }
 }
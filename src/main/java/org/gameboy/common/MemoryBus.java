@@ -4,13 +4,20 @@ import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import org.gameboy.common.annotations.UnderlyingMemory;
 
+import java.util.function.UnaryOperator;
+
 import static org.gameboy.common.MemoryMapConstants.OAM_SIZE;
 import static org.gameboy.common.MemoryMapConstants.OAM_START_ADDRESS;
+import static org.gameboy.utils.BitUtilities.uint;
 
 @Singleton
 public class MemoryBus implements Memory, DmaController {
     private final Memory underlying;
-    private boolean listenerRegistered = false;
+    private final Memory blockedDuringDma;
+    // What CPU accesses go through: the underlying memory itself while DMA leaves the bus alone, or a view that blocks
+    // reads outside I/O and HRAM while it holds it. Debuggers can wrap either in a decorator of their own.
+    private Memory cpuView;
+    private UnaryOperator<Memory> instrumentation = null;
 
     private enum DmaPhase {
         INACTIVE,
@@ -23,9 +30,14 @@ public class MemoryBus implements Memory, DmaController {
     private DmaPhase dmaPhase;
     private boolean blockingDuringSetup;  // True when DMA restarts during active transfer
 
-    // DMA transfer state - what/where we're copying
+    // DMA transfer state - what/where we're copying. dmaByteIndex counts the bytes the transfer has reached, and
+    // copiedBytes those actually in OAM; the gap is filled in bulk whenever something could tell the difference.
     private short dmaSourceAddress;
     private int dmaByteIndex;
+    private int copiedBytes;
+    // Plain memory below OAM reads the same now as later unless the CPU writes, which flushes first. Sources in the
+    // OAM and I/O pages are copied a byte per cycle instead.
+    private boolean lazySource;
 
     @Inject
     public MemoryBus(@UnderlyingMemory Memory underlying) {
@@ -36,34 +48,47 @@ public class MemoryBus implements Memory, DmaController {
 
         this.dmaSourceAddress = 0;
         this.dmaByteIndex = 0;
-    }
+        this.copiedBytes = 0;
+        this.lazySource = true;
 
-    private void ensureDmaListenerRegistered() {
-        if (!listenerRegistered) {
-            underlying.registerMemoryListener(MemoryMapConstants.DMA_REGISTER_ADDRESS, () -> {
-                byte sourceHigh = underlying.read(MemoryMapConstants.DMA_REGISTER_ADDRESS);
-                startDma(sourceHigh);
-            });
-            listenerRegistered = true;
-        }
+        this.blockedDuringDma = new DmaBlockedMemory();
+        this.cpuView = underlying;
+
+        underlying.registerMemoryListener(MemoryMapConstants.DMA_REGISTER_ADDRESS, () -> {
+            byte sourceHigh = underlying.read(MemoryMapConstants.DMA_REGISTER_ADDRESS);
+            startDma(sourceHigh);
+        });
     }
 
     @Override
     public void startDma(byte sourceHigh) {
+        // The transfer being replaced keeps whatever it had copied so far
+        flushTransfer();
+
         // When restarting during active transfer, memory remains blocked during setup
         blockingDuringSetup = (dmaPhase == DmaPhase.TRANSFERRING);
         dmaPhase = DmaPhase.REQUESTED;
         dmaSourceAddress = (short) ((sourceHigh & 0xFF) << 8);
         dmaByteIndex = 0;
+        copiedBytes = 0;
+        lazySource = uint(dmaSourceAddress) < uint(OAM_START_ADDRESS);
+        updateCpuView();
     }
 
     @Override
     public byte read(short address) {
-        ensureDmaListenerRegistered();
-        if (isBlocking() && !isAccessibleDuringDma(address)) {
-            return (byte) 0xFF;
-        }
-        return underlying.read(address);
+        return cpuView.read(address);
+    }
+
+    // Wraps every CPU access in the given decorator until removed with null; without one, nothing is added to the path
+    public void instrument(UnaryOperator<Memory> instrumentation) {
+        this.instrumentation = instrumentation;
+        updateCpuView();
+    }
+
+    private void updateCpuView() {
+        Memory view = isBlocking() ? blockedDuringDma : underlying;
+        cpuView = instrumentation != null ? instrumentation.apply(view) : view;
     }
 
     private boolean isBlocking() {
@@ -76,8 +101,7 @@ public class MemoryBus implements Memory, DmaController {
 
     @Override
     public void write(short address, byte value) {
-        ensureDmaListenerRegistered();
-        underlying.write(address, value);
+        cpuView.write(address, value);
     }
 
     @Override
@@ -90,20 +114,33 @@ public class MemoryBus implements Memory, DmaController {
         switch (dmaPhase) {
             case INACTIVE -> {}
             case REQUESTED -> dmaPhase = DmaPhase.PENDING;
-            case PENDING -> dmaPhase = DmaPhase.TRANSFERRING;
+            case PENDING -> {
+                dmaPhase = DmaPhase.TRANSFERRING;
+                updateCpuView();
+            }
             case TRANSFERRING -> {
-                short sourceAddr = (short) (dmaSourceAddress + dmaByteIndex);
-                short destAddr = (short) (OAM_START_ADDRESS + dmaByteIndex);
-                byte data = underlying.read(sourceAddr);
-                underlying.write(destAddr, data);
                 dmaByteIndex++;
+                if (!lazySource || dmaByteIndex >= OAM_SIZE) {
+                    flushTransfer();
+                }
                 if (dmaByteIndex >= OAM_SIZE) {
                     dmaPhase = DmaPhase.INACTIVE;
+                    updateCpuView();
                 }
             }
         }
     }
 
+    @Override
+    public void flushTransfer() {
+        if (copiedBytes < dmaByteIndex) {
+            underlying.copy((short) (dmaSourceAddress + copiedBytes),
+                    (short) (OAM_START_ADDRESS + copiedBytes),
+                    dmaByteIndex - copiedBytes);
+            copiedBytes = dmaByteIndex;
+        }
+    }
+
     @Override
     public boolean isDmaActive() {
         return dmaPhase != DmaPhase.INACTIVE;
@@ -114,4 +151,26 @@ public class MemoryBus implements Memory, DmaController {
         // During DMA, allow access to HRAM (0xFF80-0xFFFE) and I/O registers (0xFF00-0xFF7F)
         return (addr >= 0xFF00 && addr <= 0xFFFE);
     }
+
+    private class DmaBlockedMemory implements Memory {
+        @Override
+        public byte read(short address) {
+            if (!isAccessibleDuringDma(address)) {
+                return (byte) 0xFF;
+            }
+            return underlying.read(address);
+        }
+
+        // The write could change the source or switch its bank, so everything due is copied before it lands
+        @Override
+        public void write(short address, byte value) {
+            flushTransfer();
+            underlying.write(address, value);
+        }
+
+        @Override
+        public void registerMemoryListener(short address, MemoryListener listener) {
+            underlying.registerMemoryListener(address, listener);
+        }
+    }
 }
@@ -0,0 +1,49 @@
+package org.gameboy.common;
+
+import java.util.Arrays;
+
+// Write hooks indexed by address. A bitmap of listened addresses keeps the common case, a write nobody listens to, down
+// to a single bit test, and each address can carry any number of listeners.
+public class MemoryListenerTable {
+    private static final int ADDRESS_COUNT = 0x10000;
+    private static final int PAGE_SIZE = 0x100;
+    private static final MemoryListener[] NO_LISTENERS = new MemoryListener[0];
+
+    private final long[] listened = new long[ADDRESS_COUNT / Long.SIZE];
+    // Slots are allocated a 256-address page at a time on the first registration in that page, since listeners cluster
+    // around a few registers and most memories never get one at all
+    private final MemoryListener[][][] listeners = new MemoryListener[ADDRESS_COUNT / PAGE_SIZE][][];
+
+    // Listeners are kept in registration order, and registering the same listener twice notifies it twice
+    public void register(short address, MemoryListener listener) {
+        int addr = address & 0xFFFF;
+        MemoryListener[][] page = listeners[addr >>> 8];
+        if (page == null) {
+            page = new MemoryListener[PAGE_SIZE][];
+            listeners[addr >>> 8] = page;
+        }
+        MemoryListener[] current = page[addr & 0xFF] != null ? page[addr & 0xFF] : NO_LISTENERS;
+        MemoryListener[] updated = Arrays.copyOf(current, current.length + 1);
+        updated[current.length] = listener;
+        page[addr & 0xFF] = updated;
+        listened[addr >>> 6] |= 1L << addr;
+    }
+
+    public boolean anyRegistered(int from, int length) {
+        for (int address = from; address < from + length; address++) {
+            if ((listened[address >>> 6] & (1L << address)) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public void notifyWrite(int address) {
+        if ((listened[address >>> 6] & (1L << address)) == 0) {
+            return;
+        }
+        for (MemoryListener listener : listeners[address >>> 8][address & 0xFF]) {
+            listener.onMemoryWrite();
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package org.gameboy.common;
+
+// The address space as 256 pages of 256 bytes, each of which can be pointed straight at a slice of a backing array
+public interface PageTable {
+    PageTable NONE = (firstPage, pageCount, backing, offset) -> {};
+
+    int PAGE_SIZE = 0x100;
+
+    // Reads from these pages come from backing[offset...]; a null backing sends them back through the slow path
+    void mapReadOnly(int firstPage, int pageCount, byte[] backing, int offset);
+}
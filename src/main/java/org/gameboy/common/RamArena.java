@@ -0,0 +1,62 @@
+package org.gameboy.common;
+
+import java.nio.ByteBuffer;
+
+// Every byte of RAM in the machine in one buffer, so that a snapshot, restore or clone is a single bulk copy:
+//   0x0000-0x1FFF  VRAM (0x8000-0x9FFF)
+//   0x2000-0x5FFF  0xC000-0xFFFF: work RAM, echo, OAM, the bytes behind unmapped I/O, and HRAM
+//   0x6000-        cartridge RAM, one 8 KiB bank after another
+public final class RamArena {
+    public static final int VRAM_OFFSET = 0x0000;
+    public static final int UPPER_RAM_OFFSET = 0x2000;
+    public static final int CARTRIDGE_RAM_OFFSET = 0x6000;
+
+    private static final int VRAM_START = 0x8000;
+    private static final int UPPER_RAM_START = 0xC000;
+
+    private final ByteBuffer buffer;
+    private final int cartridgeRamSize;
+
+    public RamArena(RamBacking backing, int cartridgeRamSize) {
+        this.buffer = backing.allocate(CARTRIDGE_RAM_OFFSET + cartridgeRamSize);
+        this.cartridgeRamSize = cartridgeRamSize;
+    }
+
+    public static RamArena onHeap(Cartridge cartridge) {
+        return new RamArena(RamBacking.HEAP, cartridge.ramSize());
+    }
+
+    public ByteBuffer buffer() {
+        return buffer;
+    }
+
+    public ByteBuffer cartridgeRam() {
+        return buffer.slice(CARTRIDGE_RAM_OFFSET, cartridgeRamSize);
+    }
+
+    // Position in the arena of an address outside the cartridge's ranges
+    public static int offsetOf(int address) {
+        if (address < UPPER_RAM_START) {
+            return VRAM_OFFSET + (address - VRAM_START);
+        }
+        return UPPER_RAM_OFFSET + (address - UPPER_RAM_START);
+    }
+
+    public int size() {
+        return buffer.capacity();
+    }
+
+    public byte[] snapshot() {
+        byte[] snapshot = new byte[size()];
+        buffer.get(0, snapshot);
+        return snapshot;
+    }
+
+    public void restore(byte[] snapshot) {
+        if (snapshot.length != size()) {
+            throw new IllegalArgumentException(
+                    "Snapshot of %d bytes does not fit an arena of %d bytes".formatted(snapshot.length, size()));
+        }
+        buffer.put(0, snapshot);
+    }
+}
@@ -0,0 +1,39 @@
+package org.gameboy.common;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+
+// Where the RAM arena lives
+public interface RamBacking {
+    RamBacking HEAP = ByteBuffer::allocate;
+    // Outside the Java heap, so hundreds of instances do not fragment it
+    RamBacking OFF_HEAP = ByteBuffer::allocateDirect;
+
+    ByteBuffer allocate(int size);
+
+    // Shared through a file that other local processes can map to inspect the machine without copying it
+    static RamBacking mappedFile(Path path) {
+        return size -> {
+            try (FileChannel channel = FileChannel.open(path,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot map RAM file " + path, e);
+            }
+        };
+    }
+
+    // heap, off-heap, or any other value as the path of a file to map
+    static RamBacking fromName(String name) {
+        return switch (name.trim().toLowerCase(Locale.ROOT)) {
+            case "heap" -> HEAP;
+            case "off-heap" -> OFF_HEAP;
+            default -> mappedFile(Path.of(name));
+        };
+    }
+}
@@ -0,0 +1,139 @@
+package org.gameboy.common;
+
+import java.io.IOException;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Hands out one ROM image per distinct content, so every instance running the same game shares a single array. Files are
+// mapped rather than read, hashed straight from the mapping, and only copied onto the heap when the content is new.
+// Images are never written by the cartridges. Each path keeps only the image of its latest version; an image no path
+// points at any more stays shared for as long as a running instance still holds it, and is then let go.
+public class RomCache {
+    private static final RomCache SHARED = new RomCache();
+
+    // A file is identified by where it lives and what it looked like on disk, so an edited ROM is loaded afresh
+    private record FileVersion(Path path, long size, FileTime modified) {
+    }
+
+    private record CachedFile(FileVersion version, CompletableFuture<byte[]> image) {
+    }
+
+    private static final class CachedImage extends WeakReference<byte[]> {
+        private final String hash;
+
+        private CachedImage(String hash, byte[] image, ReferenceQueue<byte[]> queue) {
+            super(image, queue);
+            this.hash = hash;
+        }
+    }
+
+    private final ConcurrentMap<Path, CachedFile> byFile = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, CachedImage> byContent = new ConcurrentHashMap<>();
+    private final ReferenceQueue<byte[]> collectedImages = new ReferenceQueue<>();
+    private final AtomicLong reads = new AtomicLong();
+
+    public static RomCache shared() {
+        return SHARED;
+    }
+
+    // Concurrent loads of the same file wait for the first one rather than reading and hashing it again. Only swapping
+    // the entry happens under the map's lock; the thread whose entry went in does the reading after it is released.
+    public byte[] load(Path path) throws IOException {
+        Path realPath = path.toRealPath();
+        BasicFileAttributes attributes = Files.readAttributes(realPath, BasicFileAttributes.class);
+        FileVersion version = new FileVersion(realPath, attributes.size(), attributes.lastModifiedTime());
+        CompletableFuture<byte[]> loading = new CompletableFuture<>();
+        // A newer version of the path replaces the entry for the old one
+        CachedFile entry = byFile.compute(realPath, (ignored, cached) ->
+                cached != null && cached.version().equals(version) ? cached : new CachedFile(version, loading));
+        if (entry.image() == loading) {
+            try {
+                loading.complete(read(version));
+            } catch (IOException | RuntimeException e) {
+                // Dropped so the next load tries the file again
+                byFile.remove(realPath, entry);
+                loading.completeExceptionally(e);
+            }
+        }
+        try {
+            return entry.image().join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IOException cause) {
+                throw cause;
+            }
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    // Number of times a file was actually mapped and hashed
+    public long reads() {
+        return reads.get();
+    }
+
+    // Number of paths with a cached image
+    int cachedFiles() {
+        return byFile.size();
+    }
+
+    private byte[] read(FileVersion version) throws IOException {
+        reads.incrementAndGet();
+        removeCollectedImages();
+        try (FileChannel channel = FileChannel.open(version.path())) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            String hash = contentHash(mapped);
+            CachedImage cached = byContent.get(hash);
+            byte[] image = cached != null ? cached.get() : null;
+            if (image != null) {
+                return image;
+            }
+
+            byte[] copy = new byte[mapped.capacity()];
+            mapped.get(0, copy);
+            // Another file with the same content may have been copied meanwhile; the image that went in first is shared
+            byte[][] shared = new byte[1][];
+            byContent.compute(hash, (ignored, current) -> {
+                shared[0] = current != null ? current.get() : null;
+                if (shared[0] != null) {
+                    return current;
+                }
+                shared[0] = copy;
+                return new CachedImage(hash, copy, collectedImages);
+            });
+            return shared[0];
+        }
+    }
+
+    private void removeCollectedImages() {
+        for (CachedImage collected; (collected = (CachedImage) collectedImages.poll()) != null; ) {
+            byContent.remove(collected.hash, collected);
+        }
+    }
+
+    // SHA-256 over the buffers in order, as hex; the buffers' positions are left alone
+    static String contentHash(ByteBuffer... contents) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (ByteBuffer content : contents) {
+                digest.update(content.duplicate());
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
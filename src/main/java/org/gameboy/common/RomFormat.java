@@ -0,0 +1,193 @@
+package org.gameboy.common;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+// How a ROM is stored in the library. Archives record how large their content is, so images are inflated straight into
+// an array of exactly that size instead of through a growing buffer.
+public enum RomFormat {
+    RAW(".gb", ".gbc"),
+    ZIP(".zip"),
+    GZIP(".gz");
+
+    // The largest image any mapper here can address
+    public static final int MAX_ROM_SIZE = 8 << 20;
+
+    private static final int ZIP_MAGIC = 0x504B0304;
+    private static final int GZIP_MAGIC = 0x1F8B;
+    private static final int GZIP_SIZE_FIELD = 4;
+
+    private final List<String> extensions;
+
+    RomFormat(String... extensions) {
+        this.extensions = List.of(extensions);
+    }
+
+    public List<String> extensions() {
+        return extensions;
+    }
+
+    // Named by extension; game.gb.gz is gzip
+    public static boolean isRomFile(Path path) {
+        String name = path.getFileName().toString().toLowerCase(Locale.ROOT);
+        for (RomFormat format : values()) {
+            for (String extension : format.extensions) {
+                if (name.endsWith(extension)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // Decided by content rather than name, so a mislabelled file still loads
+    public static RomFormat detect(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path)) {
+            ByteBuffer magic = ByteBuffer.allocate(Integer.BYTES);
+            channel.read(magic, 0);
+            return detect(magic.flip());
+        }
+    }
+
+    // From the first bytes of the file
+    public static RomFormat detect(ByteBuffer start) {
+        if (start.remaining() < Integer.BYTES) {
+            return RAW;
+        }
+        int word = start.getInt(start.position());
+        if (word == ZIP_MAGIC) {
+            return ZIP;
+        }
+        if (word >>> 16 == GZIP_MAGIC) {
+            return GZIP;
+        }
+        return RAW;
+    }
+
+    public byte[] decode(Path path) throws IOException {
+        return switch (this) {
+            case RAW -> readRaw(path);
+            case ZIP -> inflateZip(path);
+            case GZIP -> inflateGzip(path);
+        };
+    }
+
+    // A slice of the decoded image, inflating no further than its end; shorter when the image ends first
+    public byte[] readRange(Path path, int offset, int length) throws IOException {
+        return switch (this) {
+            case RAW -> {
+                try (FileChannel channel = FileChannel.open(path)) {
+                    ByteBuffer range = ByteBuffer.allocate(length);
+                    int read;
+                    do {
+                        read = channel.read(range, offset + range.position());
+                    } while (read > 0 && range.hasRemaining());
+                    yield Arrays.copyOf(range.array(), range.position());
+                }
+            }
+            case ZIP -> {
+                try (ZipFile zip = new ZipFile(path.toFile()); InputStream in = zip.getInputStream(romEntry(zip, path))) {
+                    yield skipAndRead(in, offset, length);
+                }
+            }
+            case GZIP -> {
+                try (InputStream in = new GZIPInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+                    yield skipAndRead(in, offset, length);
+                }
+            }
+        };
+    }
+
+    private static byte[] skipAndRead(InputStream in, int offset, int length) throws IOException {
+        try {
+            in.skipNBytes(offset);
+        } catch (EOFException e) {
+            return new byte[0];
+        }
+        return in.readNBytes(length);
+    }
+
+    private static byte[] readRaw(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path)) {
+            byte[] image = new byte[checkedSize(channel.size(), path)];
+            ByteBuffer buffer = ByteBuffer.wrap(image);
+            // A single read may stop short of the end, so keep going until the image is full
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, buffer.position()) < 0) {
+                    throw new IOException("ROM file shrank while being read: " + path);
+                }
+            }
+            return image;
+        }
+    }
+
+    private static byte[] inflateZip(Path path) throws IOException {
+        try (ZipFile zip = new ZipFile(path.toFile())) {
+            ZipEntry rom = romEntry(zip, path);
+            try (InputStream in = zip.getInputStream(rom)) {
+                return readExactly(in, rom.getSize(), path);
+            }
+        }
+    }
+
+    // The first Game Boy image in the archive, so readme files packed alongside it are skipped
+    private static ZipEntry romEntry(ZipFile zip, Path path) throws IOException {
+        for (Enumeration<? extends ZipEntry> entries = zip.entries(); entries.hasMoreElements(); ) {
+            ZipEntry entry = entries.nextElement();
+            if (!entry.isDirectory() && RAW.extensions.stream().anyMatch(
+                    entry.getName().toLowerCase(Locale.ROOT)::endsWith)) {
+                return entry;
+            }
+        }
+        throw new IOException("No .gb or .gbc file in " + path);
+    }
+
+    // The last four bytes of a gzip file hold the inflated size
+    private static byte[] inflateGzip(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path)) {
+            ByteBuffer sizeField = ByteBuffer.allocate(GZIP_SIZE_FIELD).order(ByteOrder.LITTLE_ENDIAN);
+            channel.read(sizeField, channel.size() - GZIP_SIZE_FIELD);
+            long size = Integer.toUnsignedLong(sizeField.getInt(0));
+            try (InputStream in = new GZIPInputStream(new BufferedInputStream(Channels.newInputStream(channel.position(0))))) {
+                return readExactly(in, size, path);
+            }
+        }
+    }
+
+    private static byte[] readExactly(InputStream in, long size, Path path) throws IOException {
+        if (size < 0) {
+            // Streamed zip entries may leave the size out; the cap still bounds what is read
+            byte[] image = in.readNBytes(MAX_ROM_SIZE + 1);
+            checkedSize(image.length, path);
+            return image;
+        }
+        byte[] image = new byte[checkedSize(size, path)];
+        int read = in.readNBytes(image, 0, image.length);
+        if (read != image.length || in.read() != -1) {
+            throw new IOException("Archive size does not match its content: " + path);
+        }
+        return image;
+    }
+
+    private static int checkedSize(long size, Path path) throws IOException {
+        if (size > MAX_ROM_SIZE) {
+            throw new IOException("ROM file exceeds maximum size: " + size + " > " + MAX_ROM_SIZE + " (" + path + ")");
+        }
+        return (int) size;
+    }
+}
@@ -3,26 +3,116 @@ package org.gameboy.common;
 import com.google.inject.Singleton;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 
+// Returned images may be shared with other instances through the ROM cache and must not be written to
 @Singleton
 public class RomLoader {
-    
+    private static final Path DEFAULT_CACHE_DIR = Path.of(System.getProperty("user.home"), ".cache", "gameboy", "roms");
+
+    private final RomCache romCache;
+    private final Path cacheDir;
+
+    public RomLoader() {
+        this(RomCache.shared());
+    }
+
+    public RomLoader(RomCache romCache) {
+        this(romCache, DEFAULT_CACHE_DIR);
+    }
+
+    // Archives and patched images are decoded once and kept in the cache directory under the hash of their inputs
+    public RomLoader(RomCache romCache, Path cacheDir) {
+        this.romCache = romCache;
+        this.cacheDir = cacheDir;
+    }
+
     public byte[] loadRom(String filepath) throws IOException {
-        Path path = Paths.get(filepath);
-        return Files.readAllBytes(path);
+        return loadRom(Paths.get(filepath), null);
     }
-    
+
     public byte[] loadRom(String filepath, int maxSize) throws IOException {
         Path path = Paths.get(filepath);
         long fileSize = Files.size(path);
-        
+
         if (fileSize > maxSize) {
             throw new IOException("ROM file exceeds maximum size: " + fileSize + " > " + maxSize);
         }
-        
-        return Files.readAllBytes(path);
+
+        return romCache.load(path);
+    }
+
+    // The ROM may be a .gb, .zip or .gz file and the patch, if any, IPS or BPS. A later launch with the same inputs
+    // only hashes them and maps the decoded image from the cache directory.
+    public byte[] loadRom(Path romPath, Path patchPath) throws IOException {
+        RomFormat format = RomFormat.detect(romPath);
+        if (format == RomFormat.RAW && patchPath == null) {
+            return romCache.load(romPath);
+        }
+
+        try (FileChannel romChannel = FileChannel.open(romPath);
+             FileChannel patchChannel = patchPath != null ? FileChannel.open(patchPath) : null) {
+            MappedByteBuffer rom = romChannel.map(FileChannel.MapMode.READ_ONLY, 0, romChannel.size());
+            ByteBuffer patch = patchChannel != null
+                    ? patchChannel.map(FileChannel.MapMode.READ_ONLY, 0, patchChannel.size())
+                    : ByteBuffer.allocate(0);
+            Path cached = cacheDir.resolve(cacheKey(format, rom, patch) + ".gb");
+            if (Files.isRegularFile(cached)) {
+                return romCache.load(cached);
+            }
+
+            byte[] image = format.decode(romPath);
+            if (patchChannel != null) {
+                image = RomPatch.apply(image, patch);
+            }
+            return store(cached, image);
+        }
+    }
+
+    // The format and the ROM's length go ahead of the contents, so moving bytes from the end of the ROM to the start of
+    // the patch gives another key
+    static String cacheKey(RomFormat format, ByteBuffer rom, ByteBuffer patch) {
+        byte[] name = format.name().getBytes(StandardCharsets.US_ASCII);
+        ByteBuffer header = ByteBuffer.allocate(name.length + 1 + Long.BYTES)
+                .put(name)
+                .put((byte) 0)
+                .putLong(rom.remaining())
+                .flip();
+        return RomCache.contentHash(header, rom, patch);
+    }
+
+    // Written beside its final name and moved into place, so a concurrent launch never maps half an image. A cache
+    // that cannot be written only costs the next launch a decode.
+    private byte[] store(Path cached, byte[] image) {
+        Path partial = null;
+        try {
+            Files.createDirectories(cacheDir);
+            partial = Files.createTempFile(cacheDir, "rom", ".partial");
+            Files.write(partial, image);
+            Files.move(partial, cached, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            return romCache.load(cached);
+        } catch (IOException e) {
+            deleteQuietly(partial);
+            return image;
+        }
+    }
+
+    // Once moved the temp file is gone, so this only removes one left by a failed write or move
+    private static void deleteQuietly(Path partial) {
+        if (partial == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(partial);
+        } catch (IOException ignored) {
+            // Nothing else can be done; a later launch will not look at it
+        }
     }
-}
\ No newline at end of file
+}
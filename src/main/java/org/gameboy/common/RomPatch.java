@@ -0,0 +1,162 @@
+package org.gameboy.common;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+// Applies IPS and BPS patches, the two formats translations and bugfixes are published in. Both are read in one pass
+// over the patch, writing into a copy no larger than any cartridge; the source image is never modified.
+public final class RomPatch {
+    private static final byte[] IPS_MAGIC = "PATCH".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] BPS_MAGIC = "BPS1".getBytes(StandardCharsets.US_ASCII);
+    private static final int IPS_EOF = 0x454F46;
+    private static final int BPS_FOOTER_SIZE = 12;
+
+    private RomPatch() {
+    }
+
+    public static byte[] apply(byte[] source, ByteBuffer patch) throws IOException {
+        ByteBuffer in = patch.duplicate().order(ByteOrder.BIG_ENDIAN);
+        if (startsWith(in, IPS_MAGIC)) {
+            return applyIps(source, in.position(IPS_MAGIC.length));
+        }
+        if (startsWith(in, BPS_MAGIC)) {
+            return applyBps(source, in.position(BPS_MAGIC.length).order(ByteOrder.LITTLE_ENDIAN));
+        }
+        throw new IOException("Not an IPS or BPS patch");
+    }
+
+    // Records are offset, length and data, or a run of one byte when the length is zero. IPS has no size field, so the
+    // target grows as records reach past it, never beyond the largest cartridge.
+    private static byte[] applyIps(byte[] source, ByteBuffer in) throws IOException {
+        byte[] target = Arrays.copyOf(source, source.length);
+        int targetSize = source.length;
+        try {
+            for (int offset = uint24(in); offset != IPS_EOF; offset = uint24(in)) {
+                int length = Short.toUnsignedInt(in.getShort());
+                boolean run = length == 0;
+                if (run) {
+                    length = Short.toUnsignedInt(in.getShort());
+                }
+                int end = offset + length;
+                if (end > RomFormat.MAX_ROM_SIZE) {
+                    throw new IOException("Patched ROM exceeds maximum size: " + end);
+                }
+                if (end > target.length) {
+                    target = Arrays.copyOf(target, Math.min(Math.max(end, 2 * target.length), RomFormat.MAX_ROM_SIZE));
+                }
+                if (run) {
+                    Arrays.fill(target, offset, end, in.get());
+                } else {
+                    in.get(target, offset, length);
+                }
+                targetSize = Math.max(targetSize, end);
+            }
+
+            // A truncating patch may still have written past its own end; those bytes are dropped
+            if (in.remaining() >= 3) {
+                targetSize = uint24(in);
+                if (targetSize > RomFormat.MAX_ROM_SIZE) {
+                    throw new IOException("Patched ROM exceeds maximum size: " + targetSize);
+                }
+            }
+            return targetSize == target.length ? target : Arrays.copyOf(target, targetSize);
+        } catch (RuntimeException e) {
+            throw new IOException("Malformed IPS patch", e);
+        }
+    }
+
+    // Sizes and checksums are in the header and footer. Each action reads from the source at the output position,
+    // from the patch, or copies from a relative cursor into the source or the target written so far.
+    private static byte[] applyBps(byte[] source, ByteBuffer in) throws IOException {
+        try {
+            int end = in.limit() - BPS_FOOTER_SIZE;
+            long sourceSize = varint(in);
+            long targetSize = varint(in);
+            int metadataSize = Math.toIntExact(varint(in));
+            in.position(in.position() + metadataSize);
+
+            long sourceCrc = Integer.toUnsignedLong(in.getInt(end));
+            long targetCrc = Integer.toUnsignedLong(in.getInt(end + 4));
+            if (sourceSize != source.length || crc32(source, source.length) != sourceCrc) {
+                throw new IOException("Patch was made for a different ROM");
+            }
+            if (targetSize > RomFormat.MAX_ROM_SIZE) {
+                throw new IOException("Patched ROM exceeds maximum size: " + targetSize);
+            }
+
+            byte[] target = new byte[(int) targetSize];
+            int output = 0;
+            int sourceCursor = 0;
+            int targetCursor = 0;
+            while (in.position() < end) {
+                long action = varint(in);
+                int length = Math.toIntExact((action >>> 2) + 1);
+                switch ((int) (action & 3)) {
+                    case 0 -> System.arraycopy(source, output, target, output, length);
+                    case 1 -> in.get(target, output, length);
+                    case 2 -> {
+                        sourceCursor += signedVarint(in);
+                        System.arraycopy(source, sourceCursor, target, output, length);
+                        sourceCursor += length;
+                    }
+                    default -> {
+                        targetCursor += signedVarint(in);
+                        // Runs may overlap the bytes being written, so this cannot be an arraycopy
+                        for (int i = 0; i < length; i++) {
+                            target[output + i] = target[targetCursor + i];
+                        }
+                        targetCursor += length;
+                    }
+                }
+                output += length;
+            }
+
+            if (output != target.length || crc32(target, target.length) != targetCrc) {
+                throw new IOException("Patched ROM does not match the patch's checksum");
+            }
+            return target;
+        } catch (RuntimeException e) {
+            throw new IOException("Malformed BPS patch", e);
+        }
+    }
+
+    private static boolean startsWith(ByteBuffer in, byte[] magic) {
+        return in.remaining() >= magic.length
+                && in.slice(in.position(), magic.length).equals(ByteBuffer.wrap(magic));
+    }
+
+    private static int uint24(ByteBuffer in) {
+        return (Byte.toUnsignedInt(in.get()) << 16) | (Byte.toUnsignedInt(in.get()) << 8) | Byte.toUnsignedInt(in.get());
+    }
+
+    // Seven bits per byte, lowest first, with the top bit marking the last byte and each continuation offset by one
+    private static long varint(ByteBuffer in) {
+        long value = 0;
+        long shift = 1;
+        while (true) {
+            int next = Byte.toUnsignedInt(in.get());
+            value += (next & 0x7F) * shift;
+            if ((next & 0x80) != 0) {
+                return value;
+            }
+            shift <<= 7;
+            value += shift;
+        }
+    }
+
+    private static int signedVarint(ByteBuffer in) {
+        long encoded = varint(in);
+        int magnitude = Math.toIntExact(encoded >>> 1);
+        return (encoded & 1) != 0 ? -magnitude : magnitude;
+    }
+
+    private static long crc32(byte[] data, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(data, 0, length);
+        return crc.getValue();
+    }
+}
@@ -87,6 +87,11 @@ public class SerialController {
         outputBuffer.setLength(0);
     }
 
+    // A transfer in flight completes on a timer edge, so only an idle port can be skipped over
+    public int idleMCycles() {
+        return transferPending ? 0 : Integer.MAX_VALUE;
+    }
+
     // Keep mCycle() for interface compatibility, but timing is handled by callback
     public void mCycle() {
         // Timing now handled by InternalTimerCounter callback
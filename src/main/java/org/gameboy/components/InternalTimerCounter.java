@@ -27,6 +27,21 @@ public class InternalTimerCounter {
         }
     }
 
+    // Equivalent to tCycles calls to tCycle(); each listener is run once per falling edge of its bit
+    public void advance(int tCycles) {
+        int end = counter + tCycles;
+
+        for (var entry : fallingEdgeListeners.entrySet()) {
+            int period = 1 << (entry.getKey() + 1);
+            int fallingEdges = end / period - counter / period;
+            for (int i = 0; i < fallingEdges; i++) {
+                entry.getValue().run();
+            }
+        }
+
+        counter = end & 0xFFFF;
+    }
+
     public void onFallingEdge(int bit, Runnable callback) {
         if (bit < 0 || bit > 15) {
             throw new IllegalArgumentException("Bit must be 0-15, got: " + bit);
@@ -11,6 +11,7 @@ import org.gameboy.common.annotations.Tma;
 import org.gameboy.utils.MultiBitValue.TwoBitValue;
 
 import static org.gameboy.utils.BitUtilities.get_bit;
+import static org.gameboy.utils.BitUtilities.uint;
 
 @Singleton
 public class Timer {
@@ -72,6 +73,37 @@ public class Timer {
         }
     }
 
+    // M-cycles that can be replayed in bulk without TIMA overflowing; none while a reload is in flight
+    public int idleMCycles() {
+        if (reloadPhase != ReloadPhase.NORMAL) {
+            return 0;
+        }
+        if (!isTimerEnabled()) {
+            return Integer.MAX_VALUE;
+        }
+
+        int period = 1 << (getMonitoredBit() + 1);
+        int incrementsUntilOverflow = 0x100 - uint(underlyingTima.read());
+        long overflowTCycle = (period - internalCounter.getValue() % period)
+                + (long) (incrementsUntilOverflow - 1) * period;
+        return (int) Math.min(Integer.MAX_VALUE, (overflowTCycle - 1) / 4);
+    }
+
+    // Equivalent to mCycles calls to mCycle() as long as mCycles <= idleMCycles()
+    public void skipIdleMCycles(int mCycles) {
+        int tCycles = mCycles * 4;
+
+        if (isTimerEnabled()) {
+            int period = 1 << (getMonitoredBit() + 1);
+            int counter = internalCounter.getValue();
+            int increments = (counter + tCycles) / period - counter / period;
+            underlyingTima.write((byte) (underlyingTima.read() + increments));
+        }
+
+        internalCounter.advance(tCycles);
+        wasTimerBitHigh = isTimerBitHigh();
+    }
+
     private void transitionReloadPhase() {
         switch (reloadPhase) {
             case RELOAD_PENDING -> {
@@ -0,0 +1,57 @@
+package org.gameboy.cpu;
+
+/*
+ * An ALU result packed into a single int so that no object is allocated per operation.
+ *
+ * |31 ... 24|23 ... 16|15 ...  8|7  ...  0|
+ * | unused  |  clear  |   set   | result  |
+ *
+ * The set and clear masks use the same bit positions as the F register (Z=7, N=6, H=5, C=4).
+ * A flag that is in neither mask is left unchanged.
+ */
+public final class AluResult {
+    private static final int RESULT_MASK = 0xFF;
+    private static final int SET_SHIFT = 8;
+    private static final int CLEAR_SHIFT = 16;
+
+    public static final int Z_FLAG = 0b1000_0000;
+    public static final int N_FLAG = 0b0100_0000;
+    public static final int H_FLAG = 0b0010_0000;
+    public static final int C_FLAG = 0b0001_0000;
+    public static final int ALL_FLAGS = Z_FLAG | N_FLAG | H_FLAG | C_FLAG;
+
+    private AluResult() {}
+
+    public static int of(byte result, int flagValues, int affectedFlags) {
+        int set = flagValues & affectedFlags;
+        int clear = ~flagValues & affectedFlags;
+        return (result & RESULT_MASK) | (set << SET_SHIFT) | (clear << CLEAR_SHIFT);
+    }
+
+    public static byte result(int aluResult) {
+        return (byte) aluResult;
+    }
+
+    public static int setMask(int aluResult) {
+        return (aluResult >>> SET_SHIFT) & ALL_FLAGS;
+    }
+
+    public static int clearMask(int aluResult) {
+        return (aluResult >>> CLEAR_SHIFT) & ALL_FLAGS;
+    }
+
+    public static boolean isSet(int aluResult, Flag flag) {
+        return (setMask(aluResult) & flag.getLocationMask()) != 0;
+    }
+
+    public static int with(int aluResult, Flag flag, boolean value) {
+        int mask = flag.getLocationMask();
+        return of(result(aluResult), value ? setMask(aluResult) | mask : setMask(aluResult) & ~mask,
+                setMask(aluResult) | clearMask(aluResult) | mask);
+    }
+
+    public static int without(int aluResult, Flag flag) {
+        int mask = flag.getLocationMask();
+        return of(result(aluResult), setMask(aluResult), (setMask(aluResult) | clearMask(aluResult)) & ~mask);
+    }
+}
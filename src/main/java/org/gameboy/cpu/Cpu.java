@@ -2,48 +2,115 @@ package org.gameboy.cpu;
 
 import org.gameboy.common.Interrupt;
 import com.google.inject.Inject;
+import org.gameboy.common.Memory;
+import org.gameboy.common.annotations.UnderlyingMemory;
+import org.gameboy.cpu.components.BlockCache;
 import org.gameboy.cpu.components.CpuStructure;
+import org.gameboy.cpu.components.CpuTrace;
+import org.gameboy.cpu.components.IdleLoopDetector;
+import org.gameboy.cpu.components.InstructionCache;
 import org.gameboy.cpu.instructions.HardwareInterrupt;
 import org.gameboy.cpu.instructions.Instruction;
-import org.gameboy.utils.InstructionFormatConverter;
 
 public class Cpu {
-    private static final boolean LOGGING_ENABLED = false;
+    private static final short TIMA = (short) 0xFF05;
 
     private final CpuStructure cpuStructure;
+    private final InstructionCache instructionCache;
+    private final BlockCache blockCache;
+    private final IdleLoopDetector idleLoopDetector;
+    private final CpuTrace trace;
+    // The trace reads TIMA here, past the clock's catch-up barrier, so tracing never changes when components run
+    private final Memory underlyingMemory;
+    private InstructionListener instructionListener = null;
     private short currentInstructionAddress = 0;
     private boolean firstInstruction = true;
+    private long blocksRun = 0;
+    // Decoded alongside the last fetch by the instruction cache; null whenever the instruction register is the source
+    private Instruction prefetchedInstruction = null;
 
     @Inject
-    public Cpu(CpuStructure cpuStructure) {
+    public Cpu(CpuStructure cpuStructure,
+               InstructionCache instructionCache,
+               BlockCache blockCache,
+               IdleLoopDetector idleLoopDetector,
+               CpuTrace trace,
+               @UnderlyingMemory Memory underlyingMemory) {
         this.cpuStructure = cpuStructure;
+        this.instructionCache = instructionCache;
+        this.blockCache = blockCache;
+        this.idleLoopDetector = idleLoopDetector;
+        this.trace = trace;
+        this.underlyingMemory = underlyingMemory;
+    }
+
+    public Cpu(CpuStructure cpuStructure, InstructionCache instructionCache, IdleLoopDetector idleLoopDetector) {
+        this(cpuStructure, instructionCache, BlockCache.NONE, idleLoopDetector, new CpuTrace(), cpuStructure.memory());
+    }
+
+    public Cpu(CpuStructure cpuStructure) {
+        this(cpuStructure, InstructionCache.NONE, IdleLoopDetector.NONE);
+    }
+
+    // Called with the address of every instruction before it runs; null detaches
+    public void setInstructionListener(InstructionListener instructionListener) {
+        this.instructionListener = instructionListener;
+    }
+
+    // Address of the instruction being executed, valid while it runs
+    public short currentInstructionAddress() {
+        return currentInstructionAddress;
+    }
+
+    // How many translated blocks have run so far; each counts once however many instructions it covered
+    public long blocksRun() {
+        return blocksRun;
     }
 
     public void cycle() {
         short instrAddr = currentInstructionAddress;
-        Instruction instruction = decode(cpuStructure.registers().instructionRegister());
+        idleLoopDetector.beforeInstruction(cpuStructure, instrAddr);
+        // Listeners and the trace see every instruction, so translated blocks only run without them. The first
+        // instruction was loaded by the constructor rather than fetched, so its address is not known yet.
+        if (instructionListener == null && !trace.isEnabled() && !firstInstruction) {
+            instrAddr = runBlock(instrAddr);
+        }
+        byte opcode = cpuStructure.registers().instructionRegister();
+        if (instructionListener != null) {
+            instructionListener.beforeInstruction(instrAddr, opcode);
+        }
+        Instruction instruction = prefetchedInstruction != null
+                ? prefetchedInstruction
+                : decode(opcode);
+        prefetchedInstruction = null;
 
         instruction.execute(cpuStructure);
 
         fetch_cycle(instruction);
 
-        if (LOGGING_ENABLED && !firstInstruction) {
-            var regs = cpuStructure.registers();
-            int tima = cpuStructure.memory().read((short) 0xFF05) & 0xFF;
-            String refInstr = InstructionFormatConverter.toReferenceFormat(instruction.representation());
-            System.out.printf("PC:%04X AF=%04X BC=%04X DE=%04X HL=%04X SP=%04X TIMA=%d | %s%n",
-                instrAddr & 0xFFFF,
-                regs.AF() & 0xFFFF,
-                regs.BC() & 0xFFFF,
-                regs.DE() & 0xFFFF,
-                regs.HL() & 0xFFFF,
-                regs.SP() & 0xFFFF,
-                tima,
-                refInstr);
+        if (trace.isEnabled() && !firstInstruction) {
+            trace.record(instrAddr, opcode, underlyingMemory.read(TIMA),
+                    cpuStructure.registers(), cpuStructure.clock().getTime());
         }
         firstInstruction = false;
     }
 
+    // Runs the block starting here, if there is one, up to its last instruction, and returns where the CPU now is
+    private short runBlock(short instrAddr) {
+        if (cpuStructure.decoder().isPrefixed()) {
+            return instrAddr;
+        }
+        BlockCache.Block block = blockCache.lookup(instrAddr);
+        if (block == null) {
+            return instrAddr;
+        }
+        blocksRun++;
+        prefetchedInstruction = block.run(cpuStructure) ? block.last() : null;
+        // Every step ends with a fetch, so PC is one past the instruction to run next
+        currentInstructionAddress = (short) (cpuStructure.registers().PC() - 1);
+        return currentInstructionAddress;
+    }
+
     private void fetch_cycle(Instruction instruction) {
         if (!instruction.handlesFetch()) {
             fetch();
@@ -67,12 +134,20 @@ public class Cpu {
         short pc = cpuStructure.registers().PC();
         currentInstructionAddress = pc;
         cpuStructure.registers().setPC(cpuStructure.idu().increment(pc));
-        this.cpuStructure.registers().setInstructionRegister(cpuStructure.memory().read(pc));
+
+        InstructionCache.DecodedInstruction cached = instructionCache.lookup(pc);
+        if (cached != null) {
+            this.cpuStructure.registers().setInstructionRegister(cached.opcode());
+            prefetchedInstruction = cached.instruction();
+        } else {
+            this.cpuStructure.registers().setInstructionRegister(cpuStructure.memory().read(pc));
+        }
     }
 
     private boolean handlePotentialInterrupt() {
         if (cpuStructure.registers().IME() && cpuStructure.interruptBus().hasInterrupts()) {
-            Interrupt highestPriorityInterrupt = cpuStructure.interruptBus().activeInterrupts().getFirst();
+            Interrupt highestPriorityInterrupt = cpuStructure.interruptBus().highestPriorityInterrupt();
+            prefetchedInstruction = null;
             HardwareInterrupt.callInterruptHandler(cpuStructure, highestPriorityInterrupt);
             return true;
         }
@@ -0,0 +1,16 @@
+package org.gameboy.cpu;
+
+import java.util.Locale;
+
+public enum CpuEngine {
+    // Fetches and decodes the opcode at PC on every instruction
+    INTERPRETER,
+    // Walks a cache of instructions decoded per address, refilled when ROM banks switch or cached RAM is written
+    THREADED,
+    // Threads like THREADED, and runs basic blocks the CPU keeps entering as translated chains of method handles
+    COMPILED;
+
+    public static CpuEngine fromName(String name) {
+        return valueOf(name.trim().toUpperCase(Locale.ROOT));
+    }
+}
@@ -4,28 +4,62 @@ import com.google.inject.AbstractModule;
 import com.google.inject.Provides;
 import com.google.inject.Singleton;
 import org.gameboy.cpu.annotations.CpuClock;
-import org.gameboy.common.ByteRegister;
 import org.gameboy.common.Clock;
+import org.gameboy.common.InterruptRegisters;
 import org.gameboy.common.Memory;
-import org.gameboy.common.annotations.InterruptEnable;
-import org.gameboy.common.annotations.InterruptFlags;
 import org.gameboy.cpu.annotations.Prefixed;
 import org.gameboy.cpu.annotations.Unprefixed;
 import org.gameboy.cpu.components.*;
 
 public class CpuModule extends AbstractModule {
+    private final CpuEngine engine;
+    private final IdleLoopMode idleLoopMode;
+
+    public CpuModule(CpuEngine engine, IdleLoopMode idleLoopMode) {
+        this.engine = engine;
+        this.idleLoopMode = idleLoopMode;
+    }
+
+    public CpuModule(CpuEngine engine) {
+        this(engine, IdleLoopMode.SKIP);
+    }
+
     @Override
     protected void configure() {
         bind(ArithmeticUnit.class).in(Singleton.class);
         bind(IncrementDecrementUnit.class).in(Singleton.class);
 
-        bind(OpcodeTable.class).annotatedWith(Unprefixed.class)
-            .to(UnprefixedOpcodeTable.class).in(Singleton.class);
-        bind(OpcodeTable.class).annotatedWith(Prefixed.class)
-            .to(PrefixedOpcodeTable.class).in(Singleton.class);
-
         bind(Decoder.class).in(Singleton.class);
         bind(Cpu.class).in(Singleton.class);
+        bind(CpuTrace.class).in(Singleton.class);
+
+        switch (engine) {
+            case INTERPRETER -> bind(InstructionCache.class).toInstance(InstructionCache.NONE);
+            case THREADED, COMPILED -> bind(InstructionCache.class).to(DecodedInstructionCache.class).in(Singleton.class);
+        }
+        switch (idleLoopMode) {
+            case SKIP -> bind(IdleLoopDetector.class).to(PollingLoopDetector.class).in(Singleton.class);
+            case OFF -> bind(IdleLoopDetector.class).toInstance(IdleLoopDetector.NONE);
+        }
+        if (engine == CpuEngine.COMPILED) {
+            bind(BlockCache.class).to(BlockTranslator.class).in(Singleton.class);
+        } else {
+            bind(BlockCache.class).toInstance(BlockCache.NONE);
+        }
+    }
+
+    @Provides
+    @Singleton
+    @Unprefixed
+    OpcodeTable provideUnprefixedOpcodeTable() {
+        return new PrecomputedOpcodeTable(new UnprefixedOpcodeTable());
+    }
+
+    @Provides
+    @Singleton
+    @Prefixed
+    OpcodeTable providePrefixedOpcodeTable() {
+        return new PrecomputedOpcodeTable(new PrefixedOpcodeTable());
     }
 
     @Provides
@@ -46,10 +80,11 @@ public class CpuModule extends AbstractModule {
     @Singleton
     CpuStructure provideCpuStructure(CpuRegisters registers, Memory memory, ArithmeticUnit alu,
                                      IncrementDecrementUnit idu, @CpuClock Clock clock,
-                                     Decoder decoder,
-                                     @InterruptFlags ByteRegister interruptFlagsRegister,
-                                     @InterruptEnable ByteRegister interruptEnableRegister) {
-        InterruptBus interruptBus = new InterruptBus(clock, interruptFlagsRegister, interruptEnableRegister);
-        return new CpuStructure(registers, memory, alu, idu, clock, interruptBus, decoder);
+                                     Decoder decoder, InterruptRegisters interruptRegisters,
+                                     InstructionCache instructionCache, BlockCache blockCache) {
+        InterruptBus interruptBus = new InterruptBus(clock, interruptRegisters);
+        Memory cpuMemory = clock.withCatchUpBarrier(
+                blockCache.withWriteBarrier(instructionCache.withWriteBarrier(memory)));
+        return new CpuStructure(registers, cpuMemory, alu, idu, clock, interruptBus, decoder);
     }
 }
\ No newline at end of file
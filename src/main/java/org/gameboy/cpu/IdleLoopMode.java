@@ -0,0 +1,14 @@
+package org.gameboy.cpu;
+
+import java.util.Locale;
+
+public enum IdleLoopMode {
+    // Lets the clock jump over whole iterations of loops that poll LY, STAT or IF
+    SKIP,
+    // Runs every iteration
+    OFF;
+
+    public static IdleLoopMode fromName(String name) {
+        return valueOf(name.trim().toUpperCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,5 @@
+package org.gameboy.cpu;
+
+public interface InstructionListener {
+    void beforeInstruction(short address, byte opcode);
+}
@@ -0,0 +1,43 @@
+package org.gameboy.cpu.components;
+
+import org.gameboy.common.Memory;
+import org.gameboy.cpu.instructions.Instruction;
+
+public interface BlockCache {
+    BlockCache NONE = address -> null;
+
+    // Returns null when the instruction at this address has to run on its own
+    Block lookup(short address);
+
+    // Wraps the memory the CPU writes through, so that writes can invalidate translated code
+    default Memory withWriteBarrier(Memory memory) {
+        return memory;
+    }
+
+    // Runs every instruction of a basic block but the last, each followed by the fetch of the next one. The last is
+    // left for the CPU to run, since it is the one that may jump, halt or fetch for itself.
+    final class Block {
+        private final Steps steps;
+        private final Instruction last;
+
+        Block(Steps steps, Instruction last) {
+            this.steps = steps;
+            this.last = last;
+        }
+
+        // True when every step ran and the CPU is left to run the last instruction; false when an interrupt was
+        // dispatched or the code changed under the block, and the CPU has to decode what it fetched instead
+        public boolean run(CpuStructure cpuStructure) {
+            return steps.run(cpuStructure);
+        }
+
+        public Instruction last() {
+            return last;
+        }
+    }
+
+    // Implemented by the code generated for a block
+    interface Steps {
+        boolean run(CpuStructure cpuStructure);
+    }
+}
@@ -0,0 +1,262 @@
+package org.gameboy.cpu.components;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Writes the class file of one translated block: a final class implementing BlockCache.Steps whose run() calls
+// BlockTranslator.step once per instruction, stopping at the first that returns false. The translator and the
+// instructions come from the hidden class's data through dynamic constants, so the JIT sees each as a constant and
+// can inline every step down to the instruction's own execute().
+final class BlockClassWriter {
+    private static final int CLASS_FILE_VERSION = 61;
+    private static final int ACC_PUBLIC = 0x0001;
+    private static final int ACC_FINAL = 0x0010;
+    private static final int ACC_SUPER = 0x0020;
+
+    private static final int CONSTANT_UTF8 = 1;
+    private static final int CONSTANT_INTEGER = 3;
+    private static final int CONSTANT_CLASS = 7;
+    private static final int CONSTANT_METHODREF = 10;
+    private static final int CONSTANT_NAME_AND_TYPE = 12;
+    private static final int CONSTANT_METHOD_HANDLE = 15;
+    private static final int CONSTANT_DYNAMIC = 17;
+    private static final int REF_INVOKE_STATIC = 6;
+
+    private static final int ICONST_0 = 0x03;
+    private static final int ICONST_1 = 0x04;
+    private static final int BIPUSH = 0x10;
+    private static final int SIPUSH = 0x11;
+    private static final int LDC_W = 0x13;
+    private static final int ALOAD_0 = 0x2A;
+    private static final int ALOAD_1 = 0x2B;
+    private static final int IFEQ = 0x99;
+    private static final int IRETURN = 0xAC;
+    private static final int RETURN = 0xB1;
+    private static final int INVOKESPECIAL = 0xB7;
+    private static final int INVOKESTATIC = 0xB8;
+    private static final int SAME_FRAME_EXTENDED = 251;
+
+    private static final String CLASS_NAME = "org/gameboy/cpu/components/TranslatedBlock";
+    private static final String TRANSLATOR = "org/gameboy/cpu/components/BlockTranslator";
+    private static final String INSTRUCTION = "Lorg/gameboy/cpu/instructions/Instruction;";
+    private static final String CPU_STRUCTURE = "Lorg/gameboy/cpu/components/CpuStructure;";
+    private static final String STEP_DESCRIPTOR = "(L" + TRANSLATOR + ";" + INSTRUCTION + "SB" + CPU_STRUCTURE + ")Z";
+    private static final String CLASS_DATA_AT_DESCRIPTOR =
+            "(Ljava/lang/invoke/MethodHandles$Lookup;Ljava/lang/String;Ljava/lang/Class;I)Ljava/lang/Object;";
+
+    private final ByteArrayOutputStream constantBytes = new ByteArrayOutputStream();
+    private final DataOutputStream constants = new DataOutputStream(constantBytes);
+    private final Map<String, Integer> constantIndices = new HashMap<>();
+    private final List<Integer> bootstrapArguments = new ArrayList<>();
+    private int constantCount = 1;
+
+    private BlockClassWriter() {
+    }
+
+    // The hidden class's data must be a list holding the translator first and then one instruction per step; each
+    // step also carries the address and opcode the instruction after it is expected to have
+    static byte[] write(short[] nextAddresses, byte[] nextOpcodes) {
+        try {
+            return new BlockClassWriter().writeClass(nextAddresses, nextOpcodes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private byte[] writeClass(short[] nextAddresses, byte[] nextOpcodes) throws IOException {
+        int thisClass = classConstant(CLASS_NAME);
+        int superClass = classConstant("java/lang/Object");
+        int stepsInterface = classConstant("org/gameboy/cpu/components/BlockCache$Steps");
+        int objectInit = methodConstant("java/lang/Object", "<init>", "()V");
+        int step = methodConstant(TRANSLATOR, "step", STEP_DESCRIPTOR);
+        int classDataAtMethod = methodConstant("java/lang/invoke/MethodHandles", "classDataAt", CLASS_DATA_AT_DESCRIPTOR);
+        int classDataAt = constant("MethodHandle classDataAt", out -> {
+            out.writeByte(CONSTANT_METHOD_HANDLE);
+            out.writeByte(REF_INVOKE_STATIC);
+            out.writeShort(classDataAtMethod);
+        });
+        int translator = classData(0, "L" + TRANSLATOR + ";");
+        int[] instructions = new int[nextAddresses.length];
+        for (int i = 0; i < instructions.length; i++) {
+            instructions[i] = classData(i + 1, INSTRUCTION);
+        }
+        int code = utf8("Code");
+        int stackMapTable = utf8("StackMapTable");
+        int bootstrapMethods = utf8("BootstrapMethods");
+        int initName = utf8("<init>");
+        int initDescriptor = utf8("()V");
+        int runName = utf8("run");
+        int runDescriptor = utf8("(" + CPU_STRUCTURE + ")Z");
+
+        ByteArrayOutputStream classBytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(classBytes);
+        out.writeInt(0xCAFEBABE);
+        out.writeShort(0);
+        out.writeShort(CLASS_FILE_VERSION);
+        out.writeShort(constantCount);
+        constants.flush();
+        out.write(constantBytes.toByteArray());
+        out.writeShort(ACC_PUBLIC | ACC_FINAL | ACC_SUPER);
+        out.writeShort(thisClass);
+        out.writeShort(superClass);
+        out.writeShort(1);
+        out.writeShort(stepsInterface);
+        out.writeShort(0);
+
+        out.writeShort(2);
+        writeMethod(out, initName, initDescriptor, code, 1, 1, initCode(objectInit), null);
+        byte[] runCode = runCode(step, translator, instructions, nextAddresses, nextOpcodes);
+        writeMethod(out, runName, runDescriptor, code, 5, 2, runCode,
+                stackMapTable(stackMapTable, runCode.length - 2));
+
+        out.writeShort(1);
+        out.writeShort(bootstrapMethods);
+        out.writeInt(2 + bootstrapArguments.size() * 6);
+        out.writeShort(bootstrapArguments.size());
+        for (int argument : bootstrapArguments) {
+            out.writeShort(classDataAt);
+            out.writeShort(1);
+            out.writeShort(argument);
+        }
+        return classBytes.toByteArray();
+    }
+
+    private static byte[] initCode(int objectInit) {
+        return new byte[]{ALOAD_0, (byte) INVOKESPECIAL, (byte) (objectInit >> 8), (byte) objectInit, (byte) RETURN};
+    }
+
+    // Every step that returns false jumps to the same "return false" at the end
+    private static byte[] runCode(int step, int translator, int[] instructions, short[] nextAddresses,
+                                  byte[] nextOpcodes) {
+        ByteArrayOutputStream code = new ByteArrayOutputStream();
+        int stepLength = 3 + 3 + 3 + 2 + 1 + 3 + 3;
+        int left = instructions.length * stepLength + 2;
+        for (int i = 0; i < instructions.length; i++) {
+            writeU1U2(code, LDC_W, translator);
+            writeU1U2(code, LDC_W, instructions[i]);
+            writeU1U2(code, SIPUSH, nextAddresses[i]);
+            code.write(BIPUSH);
+            code.write(nextOpcodes[i]);
+            code.write(ALOAD_1);
+            writeU1U2(code, INVOKESTATIC, step);
+            writeU1U2(code, IFEQ, left - code.size());
+        }
+        code.write(ICONST_1);
+        code.write(IRETURN);
+        code.write(ICONST_0);
+        code.write(IRETURN);
+        return code.toByteArray();
+    }
+
+    private static void writeU1U2(ByteArrayOutputStream code, int opcode, int operand) {
+        code.write(opcode);
+        code.write(operand >> 8);
+        code.write(operand);
+    }
+
+    // The only branch target has the method's initial locals and an empty stack
+    private static byte[] stackMapTable(int name, int target) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeShort(name);
+        out.writeInt(2 + 3);
+        out.writeShort(1);
+        out.writeByte(SAME_FRAME_EXTENDED);
+        out.writeShort(target);
+        return bytes.toByteArray();
+    }
+
+    private static void writeMethod(DataOutputStream out, int name, int descriptor, int codeName, int maxStack,
+                                    int maxLocals, byte[] code, byte[] codeAttribute) throws IOException {
+        int attributeLength = codeAttribute != null ? codeAttribute.length : 0;
+        out.writeShort(ACC_PUBLIC);
+        out.writeShort(name);
+        out.writeShort(descriptor);
+        out.writeShort(1);
+        out.writeShort(codeName);
+        out.writeInt(2 + 2 + 4 + code.length + 2 + 2 + attributeLength);
+        out.writeShort(maxStack);
+        out.writeShort(maxLocals);
+        out.writeInt(code.length);
+        out.write(code);
+        out.writeShort(0);
+        if (codeAttribute != null) {
+            out.writeShort(1);
+            out.write(codeAttribute);
+        } else {
+            out.writeShort(0);
+        }
+    }
+
+    // A dynamic constant resolved by MethodHandles.classDataAt to the element at this index of the class data
+    private int classData(int index, String descriptor) throws IOException {
+        int argument = constant("Integer " + index, out -> {
+            out.writeByte(CONSTANT_INTEGER);
+            out.writeInt(index);
+        });
+        int bootstrap = bootstrapArguments.size();
+        bootstrapArguments.add(argument);
+        int nameAndType = nameAndType("_", descriptor);
+        return constant("Dynamic " + index, out -> {
+            out.writeByte(CONSTANT_DYNAMIC);
+            out.writeShort(bootstrap);
+            out.writeShort(nameAndType);
+        });
+    }
+
+    private int methodConstant(String owner, String name, String descriptor) throws IOException {
+        int ownerClass = classConstant(owner);
+        int nameAndType = nameAndType(name, descriptor);
+        return constant("Methodref " + owner + "." + name + descriptor, out -> {
+            out.writeByte(CONSTANT_METHODREF);
+            out.writeShort(ownerClass);
+            out.writeShort(nameAndType);
+        });
+    }
+
+    private int nameAndType(String name, String descriptor) throws IOException {
+        int nameIndex = utf8(name);
+        int descriptorIndex = utf8(descriptor);
+        return constant("NameAndType " + name + ":" + descriptor, out -> {
+            out.writeByte(CONSTANT_NAME_AND_TYPE);
+            out.writeShort(nameIndex);
+            out.writeShort(descriptorIndex);
+        });
+    }
+
+    private int classConstant(String name) throws IOException {
+        int nameIndex = utf8(name);
+        return constant("Class " + name, out -> {
+            out.writeByte(CONSTANT_CLASS);
+            out.writeShort(nameIndex);
+        });
+    }
+
+    private int utf8(String value) throws IOException {
+        return constant("Utf8 " + value, out -> {
+            out.writeByte(CONSTANT_UTF8);
+            out.writeUTF(value);
+        });
+    }
+
+    // Whatever the entry refers to has to be added before it, so the writer never adds constants of its own
+    private int constant(String key, ConstantWriter writer) throws IOException {
+        Integer index = constantIndices.get(key);
+        if (index == null) {
+            writer.write(constants);
+            index = constantCount++;
+            constantIndices.put(key, index);
+        }
+        return index;
+    }
+
+    private interface ConstantWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
+}
@@ -0,0 +1,329 @@
+package org.gameboy.cpu.components;
+
+import com.google.inject.Inject;
+import org.gameboy.common.Cartridge;
+import org.gameboy.common.DmaController;
+import org.gameboy.common.Memory;
+import org.gameboy.common.MemoryListener;
+import org.gameboy.cpu.annotations.Unprefixed;
+import org.gameboy.cpu.instructions.HardwareInterrupt;
+import org.gameboy.cpu.instructions.Instruction;
+
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.lang.invoke.MethodType.methodType;
+import static org.gameboy.utils.BitUtilities.uint;
+
+// Translates basic blocks that the CPU enters often into hidden classes, one call to step() per instruction with the
+// instruction and the opcode after it as constants. Each step calls the same execute() the interpreter does and then
+// repeats Cpu's fetch with the opcode it already knows, so every Clock.tick() lands where it would have. Hidden
+// classes are not held strongly by their loader, so a translation that is dropped is unloaded with it.
+public class BlockTranslator implements BlockCache {
+    private static final int HOT_ENTRIES = 32;
+    private static final int MAX_BLOCK_INSTRUCTIONS = 16;
+    // Older translations of the same ROM address kept for when their bank is mapped back in
+    private static final int MAX_RETIRED_PER_ADDRESS = 8;
+
+    private static final int ROM_BANK_0_END = 0x4000;
+    private static final int ROM_END = 0x8000;
+    private static final int WORK_RAM_START = 0xC000;
+    private static final int WORK_RAM_END = 0xE000;
+    private static final int HIGH_RAM_START = 0xFF80;
+    private static final int HIGH_RAM_END = 0xFFFF;
+    private static final int NO_REGION = -1;
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private final Translation[] translations = new Translation[0x10000];
+    private final Translation[] retired = new Translation[ROM_END];
+    private final int[] entries = new int[0x10000];
+    private final boolean[] translatedRam = new boolean[0x10000];
+    private final List<Translation> liveRom = new ArrayList<>();
+    private final List<Translation> liveRam = new ArrayList<>();
+    private final Memory memory;
+    private final OpcodeTable unprefixedOpcodeTable;
+    private final DmaController dmaController;
+    private final IdleLoopDetector idleLoopDetector;
+    private final int hotEntries;
+    // Set when a bank switch or a write replaces translated code, so the running block stops at its next fetch
+    private boolean codeChanged = false;
+
+    @Inject
+    public BlockTranslator(Memory memory,
+                           @Unprefixed OpcodeTable unprefixedOpcodeTable,
+                           DmaController dmaController,
+                           IdleLoopDetector idleLoopDetector,
+                           Cartridge cartridge) {
+        this(memory, unprefixedOpcodeTable, dmaController, idleLoopDetector, cartridge, HOT_ENTRIES);
+    }
+
+    BlockTranslator(Memory memory,
+                    OpcodeTable unprefixedOpcodeTable,
+                    DmaController dmaController,
+                    IdleLoopDetector idleLoopDetector,
+                    Cartridge cartridge,
+                    int hotEntries) {
+        this.memory = memory;
+        this.unprefixedOpcodeTable = unprefixedOpcodeTable;
+        this.dmaController = dmaController;
+        this.idleLoopDetector = idleLoopDetector;
+        this.hotEntries = hotEntries;
+
+        cartridge.addBankSwitchListener(this::retireRom);
+    }
+
+    @Override
+    public Block lookup(short address) {
+        int addr = uint(address);
+        // OAM DMA changes what the CPU can see outside HRAM, so nothing runs from a block while it is active
+        if (dmaController.isDmaActive()) {
+            return null;
+        }
+
+        Translation translation = translations[addr];
+        if (translation == null) {
+            if (region(addr) == NO_REGION || ++entries[addr] < hotEntries) {
+                return null;
+            }
+            translation = addr < ROM_END ? reinstate(addr) : null;
+            if (translation == null) {
+                translation = translate(addr);
+            }
+            track(translation);
+        }
+        codeChanged = false;
+        return translation.block;
+    }
+
+    @Override
+    public Memory withWriteBarrier(Memory memory) {
+        return new WriteBarrier(memory);
+    }
+
+    // One instruction of a block and the fetch of the next, as Cpu.cycle() would run them. Returns false, with the CPU
+    // where Cpu.cycle() would have left it, once an interrupt has been dispatched or the next opcode can no longer be
+    // trusted. That includes PC not being where the block expects, as after the HALT bug. Called from translated code.
+    static boolean step(BlockTranslator translator, Instruction instruction, short nextAddress,
+                                byte nextOpcode, CpuStructure cpuStructure) {
+        instruction.execute(cpuStructure);
+
+        CpuRegisters registers = cpuStructure.registers();
+        short pc = registers.PC();
+        registers.setPC(cpuStructure.idu().increment(pc));
+        boolean stale = pc != nextAddress || translator.codeChanged || translator.dmaController.isDmaActive();
+        registers.setInstructionRegister(stale ? cpuStructure.memory().read(pc) : nextOpcode);
+        cpuStructure.clock().tick();
+
+        boolean interrupted = registers.IME() && cpuStructure.interruptBus().hasInterrupts();
+        if (interrupted) {
+            HardwareInterrupt.callInterruptHandler(cpuStructure, cpuStructure.interruptBus().highestPriorityInterrupt());
+        }
+        instruction.postFetch(cpuStructure);
+
+        translator.idleLoopDetector.beforeInstruction(cpuStructure, (short) (registers.PC() - 1));
+        return !stale && !interrupted;
+    }
+
+    private Translation translate(int start) {
+        int region = region(start);
+        List<Instruction> instructions = new ArrayList<>();
+        List<Byte> opcodes = new ArrayList<>();
+        List<Short> addresses = new ArrayList<>();
+        int address = start;
+        while (true) {
+            byte opcode = memory.read((short) address);
+            instructions.add(unprefixedOpcodeTable.lookup(opcode));
+            opcodes.add(opcode);
+            addresses.add((short) address);
+            int next = address + length(uint(opcode));
+            if (endsBlock(uint(opcode)) || instructions.size() == MAX_BLOCK_INSTRUCTIONS || region(next) != region) {
+                break;
+            }
+            address = next;
+        }
+
+        byte[] code = new byte[address - start + 1];
+        for (int i = 0; i < code.length; i++) {
+            code[i] = memory.read((short) (start + i));
+        }
+
+        // A lone instruction gains nothing from a block; the translation still records the code so it is not retried
+        if (instructions.size() < 2) {
+            return new Translation(start, code, null);
+        }
+        int steps = instructions.size() - 1;
+        short[] nextAddresses = new short[steps];
+        byte[] nextOpcodes = new byte[steps];
+        List<Object> classData = new ArrayList<>();
+        classData.add(this);
+        for (int i = 0; i < steps; i++) {
+            classData.add(instructions.get(i));
+            nextAddresses[i] = addresses.get(i + 1);
+            nextOpcodes[i] = opcodes.get(i + 1);
+        }
+        return new Translation(start, code,
+                new Block(define(BlockClassWriter.write(nextAddresses, nextOpcodes), classData), instructions.getLast()));
+    }
+
+    private static Steps define(byte[] classFile, List<Object> classData) {
+        try {
+            MethodHandles.Lookup block = LOOKUP.defineHiddenClassWithClassData(classFile, List.copyOf(classData), true);
+            return (Steps) block.findConstructor(block.lookupClass(), methodType(void.class)).invoke();
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException("Could not define a translated block", t);
+        }
+    }
+
+    // A translation made for another bank is still good if the bank now mapped holds the same code
+    private Translation reinstate(int start) {
+        Translation previous = null;
+        for (Translation candidate = retired[start]; candidate != null; candidate = candidate.nextRetired) {
+            if (candidate.matches(memory)) {
+                if (previous == null) {
+                    retired[start] = candidate.nextRetired;
+                } else {
+                    previous.nextRetired = candidate.nextRetired;
+                }
+                candidate.nextRetired = null;
+                return candidate;
+            }
+            previous = candidate;
+        }
+        return null;
+    }
+
+    private void track(Translation translation) {
+        translations[translation.start] = translation;
+        if (translation.start < ROM_END) {
+            liveRom.add(translation);
+        } else {
+            liveRam.add(translation);
+            for (int i = 0; i < translation.code.length; i++) {
+                translatedRam[translation.start + i] = true;
+            }
+        }
+    }
+
+    private void retireRom() {
+        for (Translation translation : liveRom) {
+            translations[translation.start] = null;
+            translation.nextRetired = retired[translation.start];
+            retired[translation.start] = translation;
+            translation.trimRetired(MAX_RETIRED_PER_ADDRESS);
+        }
+        liveRom.clear();
+        codeChanged = true;
+    }
+
+    // Writes to code in RAM are rare (a routine copied into HRAM, say), so all RAM translations go at once
+    private void dropRam() {
+        for (Translation translation : liveRam) {
+            translations[translation.start] = null;
+            for (int i = 0; i < translation.code.length; i++) {
+                translatedRam[translation.start + i] = false;
+            }
+        }
+        liveRam.clear();
+        codeChanged = true;
+    }
+
+    // Blocks stay inside one region, so a bank switch or a RAM write never leaves half of one valid
+    private static int region(int address) {
+        if (address < ROM_BANK_0_END) {
+            return 0;
+        } else if (address < ROM_END) {
+            return 1;
+        } else if (address >= WORK_RAM_START && address < WORK_RAM_END) {
+            return 2;
+        } else if (address >= HIGH_RAM_START && address < HIGH_RAM_END) {
+            return 3;
+        }
+        return NO_REGION;
+    }
+
+    // Jumps, calls, returns, HALT, STOP, DI, the CB prefix and illegal opcodes leave the block to the CPU
+    private static boolean endsBlock(int opcode) {
+        return switch (opcode) {
+            case 0x10, 0x76, 0xCB, 0xF3,
+                 0x18, 0x20, 0x28, 0x30, 0x38,
+                 0xC2, 0xC3, 0xCA, 0xD2, 0xDA, 0xE9,
+                 0xC4, 0xCC, 0xCD, 0xD4, 0xDC,
+                 0xC0, 0xC8, 0xC9, 0xD0, 0xD8, 0xD9,
+                 0xC7, 0xCF, 0xD7, 0xDF, 0xE7, 0xEF, 0xF7, 0xFF,
+                 0xD3, 0xDB, 0xDD, 0xE3, 0xE4, 0xEB, 0xEC, 0xED, 0xF4, 0xFC, 0xFD -> true;
+            default -> false;
+        };
+    }
+
+    // Bytes taken by each opcode that can be followed by another in the same block
+    private static int length(int opcode) {
+        return switch (opcode) {
+            case 0x06, 0x0E, 0x16, 0x1E, 0x26, 0x2E, 0x36, 0x3E,
+                 0xC6, 0xCE, 0xD6, 0xDE, 0xE6, 0xEE, 0xF6, 0xFE,
+                 0xE0, 0xF0, 0xE8, 0xF8 -> 2;
+            case 0x01, 0x11, 0x21, 0x31, 0x08, 0xEA, 0xFA -> 3;
+            default -> 1;
+        };
+    }
+
+    private static final class Translation {
+        private final int start;
+        private final byte[] code;
+        // Null when the block is too short to be worth running as one
+        private final Block block;
+        private Translation nextRetired;
+
+        private Translation(int start, byte[] code, Block block) {
+            this.start = start;
+            this.code = code;
+            this.block = block;
+        }
+
+        private boolean matches(Memory memory) {
+            for (int i = 0; i < code.length; i++) {
+                if (memory.read((short) (start + i)) != code[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void trimRetired(int limit) {
+            Translation kept = this;
+            for (int i = 1; i < limit && kept.nextRetired != null; i++) {
+                kept = kept.nextRetired;
+            }
+            kept.nextRetired = null;
+        }
+    }
+
+    private class WriteBarrier implements Memory {
+        private final Memory underlying;
+
+        private WriteBarrier(Memory underlying) {
+            this.underlying = underlying;
+        }
+
+        @Override
+        public byte read(short address) {
+            return underlying.read(address);
+        }
+
+        @Override
+        public void write(short address, byte value) {
+            underlying.write(address, value);
+            if (translatedRam[uint(address)]) {
+                dropRam();
+            }
+        }
+
+        @Override
+        public void registerMemoryListener(short address, MemoryListener listener) {
+            underlying.registerMemoryListener(address, listener);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package org.gameboy.cpu.components;
 
+import org.gameboy.cpu.AluResult;
 import org.gameboy.cpu.Flag;
 
 import java.util.Arrays;
@@ -175,6 +176,10 @@ public class CpuRegisters {
         changeset.forEach(this::setFlag);
     }
 
+    public void applyFlags(int aluResult) {
+        af = (short) ((af | AluResult.setMask(aluResult)) & ~AluResult.clearMask(aluResult));
+    }
+
     public boolean getFlag(Flag flag) {
         return set_values_from_mask(af, ~flag.getLocationMask(), false) != 0;
     }
@@ -0,0 +1,83 @@
+package org.gameboy.cpu.components;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Keeps the last few executed instructions as fixed-size binary records in an off-heap ring buffer. Recording is a
+// handful of absolute stores, so it can stay on at full speed; CpuTraceDecoder turns a dump back into the reference
+// log format offline.
+public class CpuTrace {
+    // PC, opcode, TIMA, AF, BC, DE, HL, SP as little-endian values, then the clock time, padded to 8-byte alignment
+    public static final int RECORD_BYTES = 24;
+    public static final int PC_OFFSET = 0;
+    public static final int OPCODE_OFFSET = 2;
+    public static final int TIMA_OFFSET = 3;
+    public static final int AF_OFFSET = 4;
+    public static final int BC_OFFSET = 6;
+    public static final int DE_OFFSET = 8;
+    public static final int HL_OFFSET = 10;
+    public static final int SP_OFFSET = 12;
+    public static final int TIME_OFFSET = 16;
+
+    private ByteBuffer buffer = null;
+    private int mask = 0;
+    private long recorded = 0;
+
+    // Allocates room for the given number of records, rounded up to a power of two, and starts recording
+    public void enable(int records) {
+        int capacity = Integer.highestOneBit(Math.max(1, records - 1)) << 1;
+        buffer = ByteBuffer.allocateDirect(capacity * RECORD_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        mask = capacity - 1;
+        recorded = 0;
+    }
+
+    public boolean isEnabled() {
+        return buffer != null;
+    }
+
+    public void record(short pc, byte opcode, byte tima, CpuRegisters registers, long time) {
+        int offset = (int) (recorded & mask) * RECORD_BYTES;
+        buffer.putShort(offset + PC_OFFSET, pc);
+        buffer.put(offset + OPCODE_OFFSET, opcode);
+        buffer.put(offset + TIMA_OFFSET, tima);
+        buffer.putShort(offset + AF_OFFSET, registers.AF());
+        buffer.putShort(offset + BC_OFFSET, registers.BC());
+        buffer.putShort(offset + DE_OFFSET, registers.DE());
+        buffer.putShort(offset + HL_OFFSET, registers.HL());
+        buffer.putShort(offset + SP_OFFSET, registers.SP());
+        buffer.putLong(offset + TIME_OFFSET, time);
+        recorded++;
+    }
+
+    // Total records written since tracing was enabled, including those already overwritten
+    public long recorded() {
+        return recorded;
+    }
+
+    // Writes the records still held, oldest first
+    public void writeTo(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            if (buffer == null) {
+                return;
+            }
+            int capacity = mask + 1;
+            int held = (int) Math.min(recorded, capacity);
+            int oldest = (int) ((recorded - held) & mask);
+            int wrapped = Math.max(0, oldest + held - capacity);
+
+            writeFully(channel, buffer.slice(oldest * RECORD_BYTES, (held - wrapped) * RECORD_BYTES));
+            writeFully(channel, buffer.slice(0, wrapped * RECORD_BYTES));
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer records) throws IOException {
+        while (records.hasRemaining()) {
+            channel.write(records);
+        }
+    }
+}
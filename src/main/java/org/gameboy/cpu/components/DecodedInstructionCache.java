@@ -0,0 +1,92 @@
+package org.gameboy.cpu.components;
+
+import com.google.inject.Inject;
+import org.gameboy.common.Cartridge;
+import org.gameboy.common.DmaController;
+import org.gameboy.common.Memory;
+import org.gameboy.common.MemoryListener;
+import org.gameboy.cpu.annotations.Unprefixed;
+
+import java.util.Arrays;
+
+import static org.gameboy.utils.BitUtilities.uint;
+
+public class DecodedInstructionCache implements InstructionCache {
+    private static final int ROM_END = 0x8000;
+    private static final int WORK_RAM_START = 0xC000;
+    private static final int ECHO_RAM_END = 0xFE00;
+    private static final int HIGH_RAM_START = 0xFF80;
+    private static final int HIGH_RAM_END = 0xFFFF;
+
+    private final DecodedInstruction[] entries = new DecodedInstruction[0x10000];
+    private final Memory memory;
+    private final OpcodeTable unprefixedOpcodeTable;
+    private final DmaController dmaController;
+
+    @Inject
+    public DecodedInstructionCache(Memory memory,
+                                   @Unprefixed OpcodeTable unprefixedOpcodeTable,
+                                   DmaController dmaController,
+                                   Cartridge cartridge) {
+        this.memory = memory;
+        this.unprefixedOpcodeTable = unprefixedOpcodeTable;
+        this.dmaController = dmaController;
+
+        cartridge.addBankSwitchListener(() -> Arrays.fill(entries, 0, ROM_END, null));
+    }
+
+    @Override
+    public DecodedInstruction lookup(short address) {
+        int addr = uint(address);
+        // OAM DMA changes what the CPU can see outside HRAM, so fall back to a real fetch while it runs
+        if (!isCacheable(addr) || dmaController.isDmaActive()) {
+            return null;
+        }
+
+        DecodedInstruction entry = entries[addr];
+        if (entry != null) {
+            return entry;
+        }
+
+        byte opcode = memory.read(address);
+        entry = new DecodedInstruction(opcode, unprefixedOpcodeTable.lookup(opcode));
+        entries[addr] = entry;
+        return entry;
+    }
+
+    @Override
+    public Memory withWriteBarrier(Memory memory) {
+        return new WriteBarrier(memory);
+    }
+
+    // VRAM, cartridge RAM, OAM and I/O are either timing-dependent or backed by registers, so they are never cached
+    private static boolean isCacheable(int addr) {
+        return addr < ROM_END
+                || (addr >= WORK_RAM_START && addr < ECHO_RAM_END)
+                || (addr >= HIGH_RAM_START && addr < HIGH_RAM_END);
+    }
+
+    private class WriteBarrier implements Memory {
+        private final Memory underlying;
+
+        private WriteBarrier(Memory underlying) {
+            this.underlying = underlying;
+        }
+
+        @Override
+        public byte read(short address) {
+            return underlying.read(address);
+        }
+
+        @Override
+        public void write(short address, byte value) {
+            underlying.write(address, value);
+            entries[uint(address)] = null;
+        }
+
+        @Override
+        public void registerMemoryListener(short address, MemoryListener listener) {
+            underlying.registerMemoryListener(address, listener);
+        }
+    }
+}
@@ -27,4 +27,9 @@ public class Decoder {
     public void switchTables() {
         this.activeTable = prefixedOpcodeTable;
     }
+
+    // True between a CB prefix and the opcode it applies to, which is not an instruction of its own
+    public boolean isPrefixed() {
+        return this.activeTable == prefixedOpcodeTable;
+    }
 }
@@ -0,0 +1,17 @@
+package org.gameboy.cpu.components;
+
+public interface IdleLoopDetector {
+    IdleLoopDetector NONE = (cpuStructure, instructionAddress) -> {};
+
+    // Called with the address of every instruction just before it executes
+    void beforeInstruction(CpuStructure cpuStructure, short instructionAddress);
+
+    default IdleLoopStats stats() {
+        return IdleLoopStats.NONE;
+    }
+
+    // What skipping idle loops saved over the run of the loaded ROM
+    record IdleLoopStats(long skippedTicks, long skippedIterations) {
+        public static final IdleLoopStats NONE = new IdleLoopStats(0, 0);
+    }
+}
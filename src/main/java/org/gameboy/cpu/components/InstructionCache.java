@@ -0,0 +1,19 @@
+package org.gameboy.cpu.components;
+
+import org.gameboy.common.Memory;
+import org.gameboy.cpu.instructions.Instruction;
+
+public interface InstructionCache {
+    InstructionCache NONE = address -> null;
+
+    // Returns null when the opcode at this address has to be fetched and decoded from memory
+    DecodedInstruction lookup(short address);
+
+    // Wraps the memory the CPU writes through, so that writes can invalidate cached code
+    default Memory withWriteBarrier(Memory memory) {
+        return memory;
+    }
+
+    record DecodedInstruction(byte opcode, Instruction instruction) {
+    }
+}
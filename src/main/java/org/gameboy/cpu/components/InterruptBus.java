@@ -3,43 +3,56 @@ package org.gameboy.cpu.components;
 import org.gameboy.common.ByteRegister;
 import org.gameboy.common.Clock;
 import org.gameboy.common.Interrupt;
+import org.gameboy.common.InterruptRegisters;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.gameboy.utils.BitUtilities.*;
 
 public class InterruptBus {
-    private static final List<Interrupt> INTERRUPT_PRIORITY = List.of(
-            Interrupt.JOYPAD,
-            Interrupt.SERIAL,
-            Interrupt.TIMER,
+    // Indexed by IF/IE bit position; the lowest set bit is the highest priority interrupt
+    private static final Interrupt[] INTERRUPTS_BY_BIT = {
+            Interrupt.VBLANK,
             Interrupt.STAT,
-            Interrupt.VBLANK
-    );
+            Interrupt.TIMER,
+            Interrupt.SERIAL,
+            Interrupt.JOYPAD
+    };
 
     private final Clock clock;
+    private final InterruptRegisters interruptRegisters;
     private final ByteRegister interruptFlagsRegister;
-    private final ByteRegister interruptEnableRegister;
 
-    public InterruptBus(Clock clock, ByteRegister interruptFlagsRegister, ByteRegister interruptEnableRegister) {
+    public InterruptBus(Clock clock, InterruptRegisters interruptRegisters) {
         this.clock = clock;
-        this.interruptFlagsRegister = interruptFlagsRegister;
-        this.interruptEnableRegister = interruptEnableRegister;
+        this.interruptRegisters = interruptRegisters;
+        this.interruptFlagsRegister = interruptRegisters.interruptFlags();
     }
 
     public boolean hasInterrupts() {
-        return 0 != calculateActiveInterruptByte();
+        return interruptRegisters.pending() != 0;
     }
 
-    private byte calculateActiveInterruptByte() {
-        return and(interruptFlagsRegister.read(), interruptEnableRegister.read());
+    // Returns null when nothing is pending
+    public Interrupt highestPriorityInterrupt() {
+        int pending = interruptRegisters.pending();
+        if (pending == 0) {
+            return null;
+        }
+        return INTERRUPTS_BY_BIT[Integer.numberOfTrailingZeros(pending)];
     }
 
+    // Allocates, so keep it off the execution path
     public List<Interrupt> activeInterrupts() {
-        byte interruptByte = calculateActiveInterruptByte();
-        return INTERRUPT_PRIORITY.stream()
-                .filter(interrupt -> get_bit(interruptByte, interrupt.index()))
-                .toList();
+        int pending = interruptRegisters.pending();
+        List<Interrupt> active = new ArrayList<>(INTERRUPTS_BY_BIT.length);
+        for (Interrupt interrupt : INTERRUPTS_BY_BIT) {
+            if ((pending & (1 << interrupt.index())) != 0) {
+                active.add(interrupt);
+            }
+        }
+        return active;
     }
 
     public void deactivateInterrupt(Interrupt interrupt) {
@@ -54,7 +67,7 @@ public class InterruptBus {
 
     public void waitForInterrupt() {
         while (!hasInterrupts()) {
-            clock.tick();
+            clock.tickWhileHalted();
         }
     }
 
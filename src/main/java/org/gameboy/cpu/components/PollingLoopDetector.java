@@ -0,0 +1,196 @@
+package org.gameboy.cpu.components;
+
+import com.google.inject.Inject;
+import org.gameboy.common.Clock;
+import org.gameboy.common.Memory;
+import org.gameboy.common.annotations.UnderlyingMemory;
+
+import static org.gameboy.utils.BitUtilities.uint;
+
+// Spots tight loops that poll LY, STAT or IF and test the result, e.g. LDH A,(44); CP 90; JR NZ. Every iteration
+// reloads A, so once the polled register reads the same as in the previous iteration another pass leaves the CPU exactly
+// where it is. The clock can then jump over whole iterations until a component could next change that register.
+// Code and the polled register are read from the underlying memory, so inspecting a loop neither trips watchpoints nor
+// makes the scheduled clock catch its components up; a polled register only changes on the ticks a component runs.
+public class PollingLoopDetector implements IdleLoopDetector {
+    private static final int MAX_LOOP_BYTES = 16;
+    private static final int NONE = -1;
+
+    private static final int LDH_A_IMM_8 = 0xF0;
+    private static final int LD_A_IMM_16 = 0xFA;
+    private static final int PREFIX = 0xCB;
+
+    private int previousAddress = NONE;
+    private int loopHead = NONE;
+    private int loadEnd = NONE;
+    private int polledAddress = NONE;
+    private int loadTicks;
+    private int iterationTicks;
+    private long headTime = NONE;
+    private long loadTime = NONE;
+    private int loadedValue = NONE;
+
+    private final Memory memory;
+    private long skippedTicks = 0;
+    private long skippedIterations = 0;
+
+    @Inject
+    public PollingLoopDetector(@UnderlyingMemory Memory memory) {
+        this.memory = memory;
+    }
+
+    @Override
+    public void beforeInstruction(CpuStructure cpuStructure, short instructionAddress) {
+        int address = uint(instructionAddress);
+        int previous = previousAddress;
+        previousAddress = address;
+
+        if (address == loadEnd) {
+            // Only a load that ran straight from the head, with nothing dispatched in between, counts
+            long now = cpuStructure.clock().getTime();
+            boolean loadedFromHead = previous == loopHead && now - headTime == loadTicks;
+            loadedValue = loadedFromHead ? uint(cpuStructure.registers().A()) : NONE;
+            loadTime = now;
+            return;
+        }
+
+        boolean jumpedBack = address < previous && previous - address <= MAX_LOOP_BYTES;
+        if (!jumpedBack) {
+            return;
+        }
+
+        // Re-checked on every pass, since bank switches and RAM writes can replace the code under the loop
+        if (!matchPollingLoop(address, previous)) {
+            loopHead = NONE;
+            loadEnd = NONE;
+            return;
+        }
+
+        Clock clock = cpuStructure.clock();
+        if (address == loopHead) {
+            trySkip(cpuStructure, clock);
+        } else {
+            loopHead = address;
+        }
+        headTime = clock.getTime();
+        loadedValue = NONE;
+    }
+
+    @Override
+    public IdleLoopStats stats() {
+        return new IdleLoopStats(skippedTicks, skippedIterations);
+    }
+
+    // The last pass must have taken exactly the ticks its instructions cost, which rules out an interrupt handler
+    // having run (and possibly clobbered A) somewhere inside it
+    private void trySkip(CpuStructure cpuStructure, Clock clock) {
+        if (loadedValue == NONE
+                || clock.getTime() - loadTime != iterationTicks - loadTicks
+                || cpuStructure.interruptBus().hasInterrupts()
+                || read(polledAddress) != loadedValue) {
+            return;
+        }
+
+        int iterations = clock.idleTicks() / iterationTicks;
+        if (iterations > 0) {
+            int ticks = iterations * iterationTicks;
+            clock.skipIdleTicks(ticks);
+            skippedTicks += ticks;
+            skippedIterations += iterations;
+        }
+    }
+
+    // A load of A from a pollable register, then only instructions that derive A and the flags from A alone, closed by
+    // a conditional JR back to the load
+    private boolean matchPollingLoop(int head, int jumpAddress) {
+        if (!isSideEffectFreeCode(head) || !isSideEffectFreeCode(jumpAddress + 1)) {
+            return false;
+        }
+
+        int address = head;
+        int polled;
+        int load;
+        switch (read(address)) {
+            case LDH_A_IMM_8 -> {
+                polled = 0xFF00 | read(address + 1);
+                address += 2;
+                load = 3;
+            }
+            case LD_A_IMM_16 -> {
+                polled = read(address + 1) | (read(address + 2) << 8);
+                address += 3;
+                load = 4;
+            }
+            default -> {
+                return false;
+            }
+        }
+        if (!isPollable(polled)) {
+            return false;
+        }
+        int end = address;
+        int ticks = load;
+
+        while (address < jumpAddress) {
+            int opcode = read(address);
+            switch (opcode) {
+                // CP, AND, OR, XOR with an immediate
+                case 0xFE, 0xE6, 0xF6, 0xEE -> {
+                    address += 2;
+                    ticks += 2;
+                }
+                // AND A, OR A
+                case 0xA7, 0xB7 -> {
+                    address += 1;
+                    ticks += 1;
+                }
+                case PREFIX -> {
+                    // BIT b,A only
+                    if ((read(address + 1) & 0xC7) != 0x47) {
+                        return false;
+                    }
+                    address += 2;
+                    ticks += 2;
+                }
+                default -> {
+                    return false;
+                }
+            }
+        }
+
+        if (address != jumpAddress || !isConditionalJr(read(jumpAddress))) {
+            return false;
+        }
+        int target = (jumpAddress + 2 + (byte) read(jumpAddress + 1)) & 0xFFFF;
+        if (target != head) {
+            return false;
+        }
+
+        polledAddress = polled;
+        loadEnd = end;
+        loadTicks = load;
+        // Taken JR
+        iterationTicks = ticks + 3;
+        return true;
+    }
+
+    private int read(int address) {
+        return uint(memory.read((short) address));
+    }
+
+    private static boolean isConditionalJr(int opcode) {
+        return opcode == 0x20 || opcode == 0x28 || opcode == 0x30 || opcode == 0x38;
+    }
+
+    // Registers that only change on the ticks the clock refuses to skip
+    private static boolean isPollable(int address) {
+        return address == 0xFF0F || address == 0xFF41 || address == 0xFF44;
+    }
+
+    // ROM, work RAM and high RAM can be read to inspect the loop without disturbing anything
+    private static boolean isSideEffectFreeCode(int address) {
+        return address < 0x8000
+                || (address >= 0xC000 && address < 0xE000)
+                || (address >= 0xFF80 && address < 0xFFFF);
+    }
+}
@@ -0,0 +1,36 @@
+package org.gameboy.cpu.components;
+
+import org.gameboy.cpu.instructions.Instruction;
+
+import static org.gameboy.utils.BitUtilities.uint;
+
+public class PrecomputedOpcodeTable implements OpcodeTable {
+    private static final int OPCODE_COUNT = 0x100;
+
+    private final Instruction[] instructions = new Instruction[OPCODE_COUNT];
+
+    public PrecomputedOpcodeTable(OpcodeTable source) {
+        // Instructions are stateless, so one instance per opcode can be shared by every decode
+        for (int opcode = 0; opcode < OPCODE_COUNT; opcode++) {
+            instructions[opcode] = source.lookup((byte) opcode);
+        }
+
+        verifyAgainst(source);
+    }
+
+    @Override
+    public Instruction lookup(byte opcode) {
+        return instructions[uint(opcode)];
+    }
+
+    private void verifyAgainst(OpcodeTable source) {
+        for (int opcode = 0; opcode < OPCODE_COUNT; opcode++) {
+            Instruction expected = source.lookup((byte) opcode);
+            Instruction cached = instructions[opcode];
+            if (cached == null || !cached.representation().equals(expected.representation())) {
+                throw new IllegalStateException(
+                        "Precomputed opcode 0x%02X decoded as %s, expected %s".formatted(opcode, cached, expected));
+            }
+        }
+    }
+}
@@ -1,25 +1,26 @@
 package org.gameboy.cpu.instructions;
 
-import org.gameboy.cpu.ArithmeticResult;
+import org.gameboy.cpu.AluResult;
 import org.gameboy.cpu.Flag;
-import org.gameboy.cpu.FlagChangesetBuilder;
 import org.gameboy.cpu.components.CpuStructure;
 import org.gameboy.cpu.instructions.common.ControlFlow;
 import org.gameboy.cpu.instructions.common.OperationTargetAccessor;
 import org.gameboy.cpu.instructions.targets.Target;
 import static org.gameboy.cpu.instructions.targets.Target.*;
 
-import java.util.Hashtable;
-
 import static org.gameboy.utils.BitUtilities.*;
 
 public class Add implements Instruction {
     private final Target left;
+    private final int leftCode;
     private final Target right;
+    private final int rightCode;
 
     private Add(Target left, Target right) {
         this.left = left;
+        this.leftCode = left.code();
         this.right = right;
+        this.rightCode = right.code();
     }
 
     public static Add add_a_r8(R8 right) {
@@ -52,52 +53,44 @@ public class Add implements Instruction {
     }
 
     private void executeEightBitAddition(CpuStructure cpuStructure) {
-        OperationTargetAccessor operationTargetAccessor = OperationTargetAccessor.from(cpuStructure);
-        byte leftValue = (byte) operationTargetAccessor.getValue(this.left);
-        byte rightValue = (byte) operationTargetAccessor.getValue(this.right);
+        byte leftValue = (byte) OperationTargetAccessor.getValue(cpuStructure, this.leftCode);
+        byte rightValue = (byte) OperationTargetAccessor.getValue(cpuStructure, this.rightCode);
 
-        ArithmeticResult result = cpuStructure.alu().add(leftValue, rightValue);
-        operationTargetAccessor.setValue(this.left, result.result());
+        int result = cpuStructure.alu().add(leftValue, rightValue);
+        OperationTargetAccessor.setValue(cpuStructure, this.leftCode, AluResult.result(result));
 
-        result.flagChanges().forEach(
-                (flag, change) -> cpuStructure.registers().setFlags(change, flag)
-        );
+        cpuStructure.registers().applyFlags(result);
     }
 
     private void executeSignedAddition(CpuStructure cpuStructure) {
-        OperationTargetAccessor operationTargetAccessor = OperationTargetAccessor.from(cpuStructure);
-        short leftValue = operationTargetAccessor.getValue(this.left);
-        byte rightValue = (byte) operationTargetAccessor.getValue(this.right);
+        short leftValue = OperationTargetAccessor.getValue(cpuStructure, this.leftCode);
+        byte rightValue = (byte) OperationTargetAccessor.getValue(cpuStructure, this.rightCode);
 
         short res = ControlFlow.signedAdditionOnlyAlu(leftValue, rightValue, cpuStructure);
-        operationTargetAccessor.setValue(this.left, res);
+        OperationTargetAccessor.setValue(cpuStructure, this.leftCode, res);
     }
 
     private void executeSixteenBitAddition(CpuStructure cpuStructure) {
-        OperationTargetAccessor operationTargetAccessor = OperationTargetAccessor.from(cpuStructure);
-        short a = operationTargetAccessor.getValue(this.left);
-        short b = operationTargetAccessor.getValue(this.right);
+        short a = OperationTargetAccessor.getValue(cpuStructure, this.leftCode);
+        short b = OperationTargetAccessor.getValue(cpuStructure, this.rightCode);
 
         byte a_lsb = lower_byte(a);
         byte b_lsb = lower_byte(b);
-        ArithmeticResult lowerRes = cpuStructure.alu().add(a_lsb, b_lsb);
-        short result = set_lower_byte(a, lowerRes.result());
+        int lowerRes = cpuStructure.alu().add(a_lsb, b_lsb);
+        short result = set_lower_byte(a, AluResult.result(lowerRes));
 
-        boolean carryFromLower = lowerRes.flagChanges().getOrDefault(Flag.C, false);
+        boolean carryFromLower = AluResult.isSet(lowerRes, Flag.C);
 
-        operationTargetAccessor.setValue(this.left, result);
+        OperationTargetAccessor.setValue(cpuStructure, this.leftCode, result);
 
         cpuStructure.clock().tick();
 
         byte a_msb = upper_byte(a);
         byte b_msb = upper_byte(b);
-        ArithmeticResult upperRes = cpuStructure.alu().add_carry(a_msb, b_msb, carryFromLower);
-        result = set_upper_byte(result, upperRes.result());
-        Hashtable<Flag, Boolean> flagChanges = new FlagChangesetBuilder(upperRes.flagChanges())
-                .without(Flag.Z)
-                .build();
-        cpuStructure.registers().setFlags(flagChanges);
-        operationTargetAccessor.setValue(this.left, result);
+        int upperRes = cpuStructure.alu().add_carry(a_msb, b_msb, carryFromLower);
+        result = set_upper_byte(result, AluResult.result(upperRes));
+        cpuStructure.registers().applyFlags(AluResult.without(upperRes, Flag.Z));
+        OperationTargetAccessor.setValue(cpuStructure, this.leftCode, result);
     }
 
     @Override
@@ -7,11 +7,15 @@ import static org.gameboy.cpu.instructions.targets.Target.*;
 
 public class BasicLoad implements Load {
     private final Target destination;
+    private final int destinationCode;
     private final Target source;
+    private final int sourceCode;
 
     private BasicLoad(Target destination, Target source) {
         this.destination = destination;
+        this.destinationCode = destination.code();
         this.source = source;
+        this.sourceCode = source.code();
     }
 
     static BasicLoad ld_r8_r8(R8 destination, R8 source) {
@@ -66,9 +70,8 @@ public class BasicLoad implements Load {
 
     @Override
     public void execute(CpuStructure cpuStructure) {
-        OperationTargetAccessor operationTargetAccessor = OperationTargetAccessor.from(cpuStructure);
-        short loaded_value = operationTargetAccessor.getValue(this.source);
-        operationTargetAccessor.setValue(this.destination, loaded_value);
+        short loaded_value = OperationTargetAccessor.getValue(cpuStructure, this.sourceCode);
+        OperationTargetAccessor.setValue(cpuStructure, this.destinationCode, loaded_value);
     }
 
     @Override
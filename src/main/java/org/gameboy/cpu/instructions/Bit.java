@@ -1,7 +1,5 @@
 package org.gameboy.cpu.instructions;
 
-import org.gameboy.cpu.ArithmeticResult;
-import org.gameboy.cpu.FlagChangesetBuilder;
 import org.gameboy.cpu.components.CpuStructure;
 import org.gameboy.cpu.instructions.common.OperationTargetAccessor;
 import static org.gameboy.cpu.instructions.targets.Target.*;
@@ -10,10 +8,12 @@ import org.gameboy.utils.MultiBitValue.ThreeBitValue;
 public class Bit implements Instruction{
     private final ThreeBitValue bitIndex;
     private final R8 target;
+    private final int targetCode;
 
     private Bit(ThreeBitValue bitIndex, R8 target) {
         this.bitIndex = bitIndex;
         this.target = target;
+        this.targetCode = target.code();
     }
 
     public static Bit bit_b_r8(ThreeBitValue bitIndex, R8 target) {
@@ -22,13 +22,10 @@ public class Bit implements Instruction{
 
     @Override
     public void execute(CpuStructure cpuStructure) {
-        OperationTargetAccessor accessor = OperationTargetAccessor.from(cpuStructure);
-        byte value = (byte) accessor.getValue(target);
-        ArithmeticResult result = cpuStructure.alu().bit_test(bitIndex.value(), value);
+        byte value = (byte) OperationTargetAccessor.getValue(cpuStructure, targetCode);
+        int result = cpuStructure.alu().bit_test(bitIndex.value(), value);
 
-        FlagChangesetBuilder flagBuilder = new FlagChangesetBuilder(result.flagChanges());
-
-        cpuStructure.registers().setFlags(flagBuilder.build());
+        cpuStructure.registers().applyFlags(result);
     }
 
     @Override
@@ -1,6 +1,5 @@
 package org.gameboy.cpu.instructions;
 
-import org.gameboy.cpu.ArithmeticResult;
 import org.gameboy.cpu.components.CpuStructure;
 import org.gameboy.cpu.instructions.common.OperationTargetAccessor;
 import org.gameboy.cpu.instructions.targets.Target;
@@ -8,9 +7,11 @@ import static org.gameboy.cpu.instructions.targets.Target.*;
 
 public class Compare implements Instruction{
     private final Target target;
+    private final int targetCode;
 
     private Compare(Target target) {
         this.target = target;
+        this.targetCode = target.code();
     }
 
     public static Compare cp_r8(R8 register) {
@@ -23,12 +24,11 @@ public class Compare implements Instruction{
 
     @Override
     public void execute(CpuStructure cpuStructure) {
-        OperationTargetAccessor accessor = OperationTargetAccessor.from(cpuStructure);
         byte a = cpuStructure.registers().A();
-        byte b = (byte) accessor.getValue(this.target);
+        byte b = (byte) OperationTargetAccessor.getValue(cpuStructure, this.targetCode);
 
-        ArithmeticResult res = cpuStructure.alu().sub(a, b);
-        cpuStructure.registers().setFlags(res.flagChanges());
+        int res = cpuStructure.alu().sub(a, b);
+        cpuStructure.registers().applyFlags(res);
     }
 
     @Override
@@ -1,6 +1,6 @@
 package org.gameboy.cpu.instructions;
 
-import org.gameboy.cpu.ArithmeticResult;
+import org.gameboy.cpu.AluResult;
 import org.gameboy.cpu.components.CpuStructure;
 
 public class Compliment implements Instruction {
@@ -13,9 +13,9 @@ public class Compliment implements Instruction {
 
     @Override
     public void execute(CpuStructure cpuStructure) {
-        ArithmeticResult res = cpuStructure.alu().compliment(cpuStructure.registers().A());
-        cpuStructure.registers().setFlags(res.flagChanges());
-        cpuStructure.registers().setA(res.result());
+        int res = cpuStructure.alu().compliment(cpuStructure.registers().A());
+        cpuStructure.registers().applyFlags(res);
+        cpuStructure.registers().setA(AluResult.result(res));
     }
 
     @Override
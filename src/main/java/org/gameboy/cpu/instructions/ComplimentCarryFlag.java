@@ -1,6 +1,5 @@
 package org.gameboy.cpu.instructions;
 
-import org.gameboy.cpu.ArithmeticResult;
 import org.gameboy.cpu.Flag;
 import org.gameboy.cpu.components.CpuStructure;
 
@@ -14,9 +13,9 @@ public class ComplimentCarryFlag implements Instruction{
     @Override
     public void execute(CpuStructure cpuStructure) {
         boolean carry_flag = cpuStructure.registers().getFlag(Flag.C);
-        ArithmeticResult result = cpuStructure.alu().compliment_carry_flag(carry_flag);
+        int result = cpuStructure.alu().compliment_carry_flag(carry_flag);
 
-        cpuStructure.registers().setFlags(result.flagChanges());
+        cpuStructure.registers().applyFlags(result);
     }
 
     @Override
@@ -1,6 +1,6 @@
 package org.gameboy.cpu.instructions;
 
-import org.gameboy.cpu.ArithmeticResult;
+import org.gameboy.cpu.AluResult;
 import org.gameboy.cpu.components.CpuStructure;
 import org.gameboy.cpu.instructions.common.OperationTargetAccessor;
 import org.gameboy.cpu.instructions.targets.Target;
@@ -8,9 +8,11 @@ import static org.gameboy.cpu.instructions.targets.Target.*;
 
 public class Dec implements Instruction{
     private final Target target;
+    private final int targetCode;
 
     private Dec(Target target) {
         this.target = target;
+        this.targetCode = target.code();
     }
 
     public static Instruction dec_r8(R8 target) {
@@ -28,22 +30,21 @@ public class Dec implements Instruction{
 
     @Override
     public void execute(CpuStructure cpuStructure) {
-        OperationTargetAccessor operationTargetAccessor = OperationTargetAccessor.from(cpuStructure);
-        short value = operationTargetAccessor.getValue(target);
+        short value = OperationTargetAccessor.getValue(cpuStructure, targetCode);
 
         short newValue;
 
         if (target instanceof ByteTarget) {
-            ArithmeticResult result = cpuStructure.alu().dec((byte) value);
+            int result = cpuStructure.alu().dec((byte) value);
 
-            newValue = result.result();
+            newValue = AluResult.result(result);
 
-            cpuStructure.registers().setFlags(result.flagChanges());
+            cpuStructure.registers().applyFlags(result);
         } else {
             newValue = (short) (value - 1);
         }
 
-        operationTargetAccessor.setValue(target, newValue);
+        OperationTargetAccessor.setValue(cpuStructure, targetCode, newValue);
     }
 
     @Override
@@ -1,12 +1,9 @@
 package org.gameboy.cpu.instructions;
 
-import org.gameboy.cpu.ArithmeticResult;
+import org.gameboy.cpu.AluResult;
 import org.gameboy.cpu.Flag;
-import org.gameboy.cpu.FlagChangesetBuilder;
 import org.gameboy.cpu.components.CpuStructure;
 
-import java.util.Hashtable;
-
 import static org.gameboy.utils.BitUtilities.lower_nibble;
 import static org.gameboy.utils.BitUtilities.uint;
 
@@ -41,21 +38,19 @@ public class DecimalAdjustAcumulator implements Instruction{
             set_carry = true;
         }
 
-        ArithmeticResult result;
+        int result;
         if (subtraction) {
             result = cpuStructure.alu().sub(a, (byte) correction);
         } else {
             result = cpuStructure.alu().add(a, (byte) correction);
         }
 
-        Hashtable<Flag, Boolean> flagChanges = new FlagChangesetBuilder()
-                .with(Flag.Z, result.result() == 0)
-                .with(Flag.H, false)
-                .with(Flag.C, set_carry)
-                .build();
+        byte res = AluResult.result(result);
+        int flagValues = (res == 0 ? AluResult.Z_FLAG : 0) | (set_carry ? AluResult.C_FLAG : 0);
 
-        cpuStructure.registers().setFlags(flagChanges);
-        cpuStructure.registers().setA(result.result());
+        cpuStructure.registers().applyFlags(
+                AluResult.of(res, flagValues, AluResult.Z_FLAG | AluResult.H_FLAG | AluResult.C_FLAG));
+        cpuStructure.registers().setA(res);
     }
 
     @Override
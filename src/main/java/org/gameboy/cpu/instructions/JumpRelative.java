@@ -37,14 +37,13 @@ public class JumpRelative implements Instruction{
 
     @Override
     public void execute(CpuStructure cpuStructure) {
-        OperationTargetAccessor operationTargetAccessor = OperationTargetAccessor.from(cpuStructure);
         boolean shouldJump = evaluateCondition(cc, cpuStructure.registers());
-        byte offset = (byte) operationTargetAccessor.getValue(imm_8);
+        byte offset = (byte) OperationTargetAccessor.getValue(cpuStructure, Code.IMM_8);
 
         if (shouldJump) {
             short currentPC = cpuStructure.registers().PC();
             short new_pc = ControlFlow.signedAdditionWithIdu(currentPC, offset, false, cpuStructure);
-            operationTargetAccessor.setValue(pc, new_pc);
+            OperationTargetAccessor.setValue(cpuStructure, Code.PC, new_pc);
         }
     }
 
@@ -7,11 +7,15 @@ import static org.gameboy.cpu.instructions.targets.Target.*;
 
 public class LoadHigher implements Instruction{
     private final Target destination;
+    private final int destinationCode;
     private final Target source;
+    private final int sourceCode;
 
     private LoadHigher(Target destination, Target source) {
         this.destination = destination;
+        this.destinationCode = destination.code();
         this.source = source;
+        this.sourceCode = source.code();
     }
 
     public static Instruction ldh_imm8_A() {
@@ -29,8 +33,7 @@ public class LoadHigher implements Instruction{
 
     @Override
     public void execute(CpuStructure cpuStructure) {
-        OperationTargetAccessor operationTargetAccessor = OperationTargetAccessor.from(cpuStructure);
-        operationTargetAccessor.setValue(destination, operationTargetAccessor.getValue(source));
+        OperationTargetAccessor.setValue(cpuStructure, destinationCode, OperationTargetAccessor.getValue(cpuStructure, sourceCode));
     }
 
     @Override
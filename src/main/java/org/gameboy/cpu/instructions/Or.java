@@ -1,6 +1,6 @@
 package org.gameboy.cpu.instructions;
 
-import org.gameboy.cpu.ArithmeticResult;
+import org.gameboy.cpu.AluResult;
 import org.gameboy.cpu.components.CpuStructure;
 import org.gameboy.cpu.instructions.common.OperationTargetAccessor;
 import org.gameboy.cpu.instructions.targets.Target;
@@ -8,9 +8,11 @@ import static org.gameboy.cpu.instructions.targets.Target.*;
 
 public class Or implements Instruction{
     private final Target target;
+    private final int targetCode;
 
     private Or(Target target) {
         this.target = target;
+        this.targetCode = target.code();
     }
 
     public static Or or_r8(R8 register) {
@@ -23,14 +25,13 @@ public class Or implements Instruction{
 
     @Override
     public void execute(CpuStructure cpuStructure) {
-        OperationTargetAccessor accessor = OperationTargetAccessor.from(cpuStructure);
         byte a = cpuStructure.registers().A();
-        byte b = (byte) accessor.getValue(target);
+        byte b = (byte) OperationTargetAccessor.getValue(cpuStructure, targetCode);
 
-        ArithmeticResult res = cpuStructure.alu().or(a, b);
+        int res = cpuStructure.alu().or(a, b);
 
-        cpuStructure.registers().setA(res.result());
-        cpuStructure.registers().setFlags(res.flagChanges());
+        cpuStructure.registers().setA(AluResult.result(res));
+        cpuStructure.registers().applyFlags(res);
     }
 
     @Override
@@ -8,9 +8,11 @@ import static org.gameboy.cpu.instructions.common.ControlFlow.popFromStack;
 
 public class Pop implements Instruction {
     private final Stk16 target;
+    private final int targetCode;
 
     private Pop(Stk16 target) {
         this.target = target;
+        this.targetCode = target.code();
     }
 
     public static Pop pop_stk16(Stk16 stk16) {
@@ -19,11 +21,9 @@ public class Pop implements Instruction {
 
     @Override
     public void execute(CpuStructure cpuStructure) {
-        OperationTargetAccessor accessor = OperationTargetAccessor.from(cpuStructure);
-
         short value = popFromStack(cpuStructure);
 
-        accessor.setValue(target, value);
+        OperationTargetAccessor.setValue(cpuStructure, targetCode, value);
     }
 
     @Override
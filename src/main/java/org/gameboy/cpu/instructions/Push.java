@@ -7,9 +7,11 @@ import static org.gameboy.cpu.instructions.targets.Target.*;
 
 public class Push implements Instruction {
     private final Stk16 target;
+    private final int targetCode;
 
     private Push(Stk16 target) {
         this.target = target;
+        this.targetCode = target.code();
     }
 
     public static Push push_stk16(Stk16 rr) {
@@ -18,9 +20,7 @@ public class Push implements Instruction {
 
     @Override
     public void execute(CpuStructure cpuStructure) {
-        OperationTargetAccessor accessor = OperationTargetAccessor.from(cpuStructure);
-
-        short value = accessor.getValue(target);
+        short value = OperationTargetAccessor.getValue(cpuStructure, targetCode);
         ControlFlow.pushToStack(cpuStructure, value);
     }
 
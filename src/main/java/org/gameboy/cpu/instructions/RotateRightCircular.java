@@ -1,18 +1,19 @@
 package org.gameboy.cpu.instructions;
 
-import org.gameboy.cpu.ArithmeticResult;
+import org.gameboy.cpu.AluResult;
 import org.gameboy.cpu.Flag;
-import org.gameboy.cpu.FlagChangesetBuilder;
 import org.gameboy.cpu.components.CpuStructure;
 import org.gameboy.cpu.instructions.common.OperationTargetAccessor;
 import static org.gameboy.cpu.instructions.targets.Target.*;
 
 public class RotateRightCircular implements Instruction{
     private final R8 target;
+    private final int targetCode;
     private final boolean isPrefixInstruction;
 
     private RotateRightCircular(R8 target, boolean isPrefixInstruction) {
         this.target = target;
+        this.targetCode = target.code();
         this.isPrefixInstruction = isPrefixInstruction;
     }
 
@@ -26,18 +27,15 @@ public class RotateRightCircular implements Instruction{
 
     @Override
     public void execute(CpuStructure cpuStructure) {
-        OperationTargetAccessor accessor = OperationTargetAccessor.from(cpuStructure);
-        byte value = (byte) accessor.getValue(target);
-        ArithmeticResult result = cpuStructure.alu().rotate_right_circular(value);
+        byte value = (byte) OperationTargetAccessor.getValue(cpuStructure, targetCode);
+        int result = cpuStructure.alu().rotate_right_circular(value);
 
-        accessor.setValue(target, result.result());
+        OperationTargetAccessor.setValue(cpuStructure, targetCode, AluResult.result(result));
         
-        FlagChangesetBuilder flagBuilder = new FlagChangesetBuilder(result.flagChanges());
-
         if (!isPrefixInstruction) {
-            flagBuilder.with(Flag.Z, false);
+            result = AluResult.with(result, Flag.Z, false);
         }
-        cpuStructure.registers().setFlags(flagBuilder.build());
+        cpuStructure.registers().applyFlags(result);
     }
 
     @Override
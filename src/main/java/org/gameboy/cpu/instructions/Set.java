@@ -1,6 +1,6 @@
 package org.gameboy.cpu.instructions;
 
-import org.gameboy.cpu.ArithmeticResult;
+import org.gameboy.cpu.AluResult;
 import org.gameboy.cpu.components.CpuStructure;
 import org.gameboy.cpu.instructions.common.OperationTargetAccessor;
 import static org.gameboy.cpu.instructions.targets.Target.*;
@@ -9,10 +9,12 @@ import org.gameboy.utils.MultiBitValue.ThreeBitValue;
 public class Set implements Instruction{
     private final ThreeBitValue bitIndex;
     private final R8 target;
+    private final int targetCode;
 
     private Set(ThreeBitValue bitIndex, R8 target) {
         this.bitIndex = bitIndex;
         this.target = target;
+        this.targetCode = target.code();
     }
 
     public static Set set_b_r8(ThreeBitValue bitIndex, R8 target) {
@@ -21,11 +23,10 @@ public class Set implements Instruction{
 
     @Override
     public void execute(CpuStructure cpuStructure) {
-        OperationTargetAccessor accessor = OperationTargetAccessor.from(cpuStructure);
-        byte value = (byte) accessor.getValue(target);
-        ArithmeticResult result = cpuStructure.alu().set_bit(true, bitIndex.value(), value);
+        byte value = (byte) OperationTargetAccessor.getValue(cpuStructure, targetCode);
+        int result = cpuStructure.alu().set_bit(true, bitIndex.value(), value);
 
-        accessor.setValue(target, result.result());
+        OperationTargetAccessor.setValue(cpuStructure, targetCode, AluResult.result(result));
     }
 
     @Override
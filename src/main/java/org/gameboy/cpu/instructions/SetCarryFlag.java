@@ -1,6 +1,5 @@
 package org.gameboy.cpu.instructions;
 
-import org.gameboy.cpu.ArithmeticResult;
 import org.gameboy.cpu.components.CpuStructure;
 
 public class SetCarryFlag implements Instruction{
@@ -12,9 +11,9 @@ public class SetCarryFlag implements Instruction{
 
     @Override
     public void execute(CpuStructure cpuStructure) {
-        ArithmeticResult result = cpuStructure.alu().set_carry_flag();
+        int result = cpuStructure.alu().set_carry_flag();
 
-        cpuStructure.registers().setFlags(result.flagChanges());
+        cpuStructure.registers().applyFlags(result);
     }
 
     @Override
@@ -1,16 +1,17 @@
 package org.gameboy.cpu.instructions;
 
-import org.gameboy.cpu.ArithmeticResult;
-import org.gameboy.cpu.FlagChangesetBuilder;
+import org.gameboy.cpu.AluResult;
 import org.gameboy.cpu.components.CpuStructure;
 import org.gameboy.cpu.instructions.common.OperationTargetAccessor;
 import static org.gameboy.cpu.instructions.targets.Target.*;
 
 public class ShiftLeftArithmetic implements Instruction{
     private final R8 target;
+    private final int targetCode;
 
     private ShiftLeftArithmetic(R8 target) {
         this.target = target;
+        this.targetCode = target.code();
     }
 
     public static ShiftLeftArithmetic sla_r8(R8 target) {
@@ -19,15 +20,12 @@ public class ShiftLeftArithmetic implements Instruction{
 
     @Override
     public void execute(CpuStructure cpuStructure) {
-        OperationTargetAccessor accessor = OperationTargetAccessor.from(cpuStructure);
-        byte value = (byte) accessor.getValue(target);
-        ArithmeticResult result = cpuStructure.alu().arithmetic_shift_left(value);
+        byte value = (byte) OperationTargetAccessor.getValue(cpuStructure, targetCode);
+        int result = cpuStructure.alu().arithmetic_shift_left(value);
 
-        accessor.setValue(target, result.result());
+        OperationTargetAccessor.setValue(cpuStructure, targetCode, AluResult.result(result));
         
-        FlagChangesetBuilder flagBuilder = new FlagChangesetBuilder(result.flagChanges());
-
-        cpuStructure.registers().setFlags(flagBuilder.build());
+        cpuStructure.registers().applyFlags(result);
     }
 
     @Override
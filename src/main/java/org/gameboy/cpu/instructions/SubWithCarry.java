@@ -1,6 +1,6 @@
 package org.gameboy.cpu.instructions;
 
-import org.gameboy.cpu.ArithmeticResult;
+import org.gameboy.cpu.AluResult;
 import org.gameboy.cpu.Flag;
 import org.gameboy.cpu.components.CpuStructure;
 import org.gameboy.cpu.instructions.common.OperationTargetAccessor;
@@ -9,9 +9,11 @@ import static org.gameboy.cpu.instructions.targets.Target.*;
 
 public class SubWithCarry implements Instruction{
     private final Target right;
+    private final int rightCode;
 
     private SubWithCarry(Target right) {
         this.right = right;
+        this.rightCode = right.code();
     }
 
     public static SubWithCarry sbc_a_r8(R8 r8) {
@@ -29,13 +31,12 @@ public class SubWithCarry implements Instruction{
 
     @Override
     public void execute(CpuStructure cpuStructure) {
-        OperationTargetAccessor accessor = OperationTargetAccessor.from(cpuStructure);
         byte a = cpuStructure.registers().A();
-        byte b = (byte) accessor.getValue(this.right);
+        byte b = (byte) OperationTargetAccessor.getValue(cpuStructure, this.rightCode);
 
-        ArithmeticResult res = cpuStructure.alu().sub_carry(a, b, cpuStructure.registers().getFlag(Flag.C));
-        cpuStructure.registers().setA(res.result());
-        cpuStructure.registers().setFlags(res.flagChanges());
+        int res = cpuStructure.alu().sub_carry(a, b, cpuStructure.registers().getFlag(Flag.C));
+        cpuStructure.registers().setA(AluResult.result(res));
+        cpuStructure.registers().applyFlags(res);
     }
 
     @Override
@@ -1,14 +1,11 @@
 package org.gameboy.cpu.instructions.common;
 
-import org.gameboy.cpu.ArithmeticResult;
+import org.gameboy.cpu.AluResult;
 import org.gameboy.cpu.Flag;
-import org.gameboy.cpu.FlagChangesetBuilder;
 import org.gameboy.cpu.components.CpuRegisters;
 import org.gameboy.cpu.components.CpuStructure;
 import org.gameboy.cpu.instructions.targets.Condition;
 
-import java.util.Hashtable;
-
 import static org.gameboy.utils.BitUtilities.*;
 
 public class ControlFlow {
@@ -16,24 +13,20 @@ public class ControlFlow {
         byte msb = upper_byte(a);
         byte lsb = lower_byte(a);
 
-        ArithmeticResult res = cpuStructure.alu().add(lsb, signedByte);
-        Hashtable<Flag, Boolean> flagChanges = new FlagChangesetBuilder(res.flagChanges())
-                .with(Flag.Z, false)
-                .with(Flag.N, false)
-                .build();
-        flagChanges.forEach((f,b) -> cpuStructure.registers().setFlags(b, f));
-        lsb = res.result();
+        int res = cpuStructure.alu().add(lsb, signedByte);
+        cpuStructure.registers().applyFlags(withoutZeroAndSubtract(res));
+        lsb = AluResult.result(res);
 
-        boolean carry = res.flagChanges().getOrDefault(Flag.C, false);
+        boolean carry = AluResult.isSet(res, Flag.C);
         boolean negativeOffset = get_bit(signedByte, 7);
 
         cpuStructure.clock().tick();
 
         if (carry && !negativeOffset) {
-            msb = cpuStructure.alu().inc(msb).result();
+            msb = AluResult.result(cpuStructure.alu().inc(msb));
         }
         else if (!carry && negativeOffset) {
-            msb = cpuStructure.alu().dec(msb).result();
+            msb = AluResult.result(cpuStructure.alu().dec(msb));
         }
 
         cpuStructure.clock().tick();
@@ -45,18 +38,14 @@ public class ControlFlow {
         byte msb = upper_byte(a);
         byte lsb = lower_byte(a);
 
-        ArithmeticResult res = cpuStructure.alu().add(lsb, signedByte);
+        int res = cpuStructure.alu().add(lsb, signedByte);
         if (setFlags) {
             // For LD HL,SP+n: set Z=0, N=0, keep H and C from addition
-            Hashtable<Flag, Boolean> flagChanges = new FlagChangesetBuilder(res.flagChanges())
-                    .with(Flag.Z, false)
-                    .with(Flag.N, false)
-                    .build();
-            flagChanges.forEach((f,b) -> cpuStructure.registers().setFlags(b, f));
+            cpuStructure.registers().applyFlags(withoutZeroAndSubtract(res));
         }
-        lsb = res.result();
+        lsb = AluResult.result(res);
 
-        boolean carry = res.flagChanges().getOrDefault(Flag.C, false);
+        boolean carry = AluResult.isSet(res, Flag.C);
         boolean negativeOffset = get_bit(signedByte, 7);
 
         if (carry && !negativeOffset) {
@@ -71,6 +60,10 @@ public class ControlFlow {
         return concat(msb, lsb);
     }
 
+    private static int withoutZeroAndSubtract(int aluResult) {
+        return AluResult.with(AluResult.with(aluResult, Flag.Z, false), Flag.N, false);
+    }
+
     public static void incrementPC(CpuStructure cpuStructure) {
         cpuStructure.registers().setPC(cpuStructure.idu().increment(cpuStructure.registers().PC()));
     }
@@ -1,125 +1,121 @@
 package org.gameboy.cpu.instructions.common;
 
-import org.gameboy.common.Memory;
 import org.gameboy.cpu.components.CpuRegisters;
 import org.gameboy.cpu.components.CpuStructure;
-import org.gameboy.cpu.components.IncrementDecrementUnit;
 import org.gameboy.cpu.instructions.targets.Target;
-import static org.gameboy.cpu.instructions.targets.Target.*;
+import org.gameboy.cpu.instructions.targets.Target.Code;
 
 import static org.gameboy.utils.BitUtilities.set_upper_byte;
 import static org.gameboy.utils.BitUtilities.uint;
 
-public class OperationTargetAccessor {
-    private final Memory memory;
-    private final CpuRegisters registers;
-    private final IncrementDecrementUnit idu;
-    private final CpuStructure cpuStructure;
+// Stateless, so operand reads and writes allocate nothing; instructions pass the Target.Code they resolved when
+// decoded, so dispatch is a tableswitch with no call on the target
+public final class OperationTargetAccessor {
+    private OperationTargetAccessor() {}
 
-    private OperationTargetAccessor(CpuStructure cpuStructure) {
-        this.cpuStructure = cpuStructure;
-        this.memory = cpuStructure.memory();
-        this.registers = cpuStructure.registers();
-        this.idu = cpuStructure.idu();
+    public static short getValue(CpuStructure cpuStructure, Target target) {
+        return getValue(cpuStructure, target.code());
     }
 
-    public static OperationTargetAccessor from(CpuStructure cpuStructure) {
-        return new OperationTargetAccessor(cpuStructure);
+    public static void setValue(CpuStructure cpuStructure, Target target, short value) {
+        setValue(cpuStructure, target.code(), value);
     }
 
-    public short getValue(Target target) {
-        return switch (target) {
+    public static short getValue(CpuStructure cpuStructure, int code) {
+        CpuRegisters registers = cpuStructure.registers();
+        return switch (code) {
             // Byte registers
-            case A a -> (short) uint(registers.A());
-            case B b -> (short) uint(registers.B());
-            case C c -> (short) uint(registers.C());
-            case D d -> (short) uint(registers.D());
-            case E e -> (short) uint(registers.E());
-            case H h -> (short) uint(registers.H());
-            case L l -> (short) uint(registers.L());
+            case Code.A -> (short) uint(registers.A());
+            case Code.B -> (short) uint(registers.B());
+            case Code.C -> (short) uint(registers.C());
+            case Code.D -> (short) uint(registers.D());
+            case Code.E -> (short) uint(registers.E());
+            case Code.H -> (short) uint(registers.H());
+            case Code.L -> (short) uint(registers.L());
             // Word registers
-            case AF af -> registers.AF();
-            case BC bc -> registers.BC();
-            case DE de -> registers.DE();
-            case HL hl -> registers.HL();
-            case SP sp -> registers.SP();
-            case PC pc -> registers.PC();
+            case Code.AF -> registers.AF();
+            case Code.BC -> registers.BC();
+            case Code.DE -> registers.DE();
+            case Code.HL -> registers.HL();
+            case Code.SP -> registers.SP();
+            case Code.PC -> registers.PC();
             // Indirect through register
-            case IndirectHL ih -> readMemByte(registers.HL());
-            case IndirectBC ibc -> readMemByte(registers.BC());
-            case IndirectDE ide -> readMemByte(registers.DE());
-            case IndirectHLInc ihi -> {
+            case Code.INDIRECT_HL -> readMemByte(cpuStructure, registers.HL());
+            case Code.INDIRECT_BC -> readMemByte(cpuStructure, registers.BC());
+            case Code.INDIRECT_DE -> readMemByte(cpuStructure, registers.DE());
+            case Code.INDIRECT_HL_INC -> {
                 short addr = registers.HL();
-                registers.setHL(idu.increment(addr));
-                yield readMemByte(addr);
+                registers.setHL(cpuStructure.idu().increment(addr));
+                yield readMemByte(cpuStructure, addr);
             }
-            case IndirectHLDec ihd -> {
+            case Code.INDIRECT_HL_DEC -> {
                 short addr = registers.HL();
-                registers.setHL(idu.decrement(addr));
-                yield readMemByte(addr);
+                registers.setHL(cpuStructure.idu().decrement(addr));
+                yield readMemByte(cpuStructure, addr);
             }
             // Indirect high memory (0xFF00 + offset)
-            case IndirectC ic -> readMemByte(set_upper_byte((short) uint(registers.C()), (byte) 0xFF));
-            case IndirectImm8 ii8 -> readMemByte(set_upper_byte(ControlFlow.readIndirectPCAndIncrement(cpuStructure), (byte) 0xFF));
+            case Code.INDIRECT_C -> readMemByte(cpuStructure, set_upper_byte((short) uint(registers.C()), (byte) 0xFF));
+            case Code.INDIRECT_IMM_8 -> readMemByte(cpuStructure, set_upper_byte(ControlFlow.readIndirectPCAndIncrement(cpuStructure), (byte) 0xFF));
             // Indirect through immediate address
-            case IndirectImm16 ii16 -> readMemByte(ControlFlow.readImm16(cpuStructure));
+            case Code.INDIRECT_IMM_16 -> readMemByte(cpuStructure, ControlFlow.readImm16(cpuStructure));
             // Immediates
-            case Imm8 i8 -> ControlFlow.readIndirectPCAndIncrement(cpuStructure);
-            case Imm16 i16 -> ControlFlow.readImm16(cpuStructure);
-            case SPOffset spo -> ControlFlow.signedAdditionWithIdu(
+            case Code.IMM_8 -> ControlFlow.readIndirectPCAndIncrement(cpuStructure);
+            case Code.IMM_16 -> ControlFlow.readImm16(cpuStructure);
+            case Code.SP_OFFSET -> ControlFlow.signedAdditionWithIdu(
                     registers.SP(),
                     (byte) ControlFlow.readIndirectPCAndIncrement(cpuStructure),
                     true,
                     cpuStructure);
+            default -> throw new IllegalArgumentException("Unknown target code " + code);
         };
     }
 
-    public void setValue(Target target, short value) {
+    public static void setValue(CpuStructure cpuStructure, int code, short value) {
+        CpuRegisters registers = cpuStructure.registers();
         byte byteValue = (byte) value;
-        switch (target) {
-            case A a -> registers.setA(byteValue);
-            case B b -> registers.setB(byteValue);
-            case C c -> registers.setC(byteValue);
-            case D d -> registers.setD(byteValue);
-            case E e -> registers.setE(byteValue);
-            case H h -> registers.setH(byteValue);
-            case L l -> registers.setL(byteValue);
-            case AF af -> registers.setAF(value);
-            case BC bc -> registers.setBC(value);
-            case DE de -> registers.setDE(value);
-            case HL hl -> registers.setHL(value);
-            case SP sp -> registers.setSP(value);
-            case PC pc -> registers.setPC(value);
-            case IndirectHL ih -> writeMemByte(registers.HL(), byteValue);
-            case IndirectBC ibc -> writeMemByte(registers.BC(), byteValue);
-            case IndirectDE ide -> writeMemByte(registers.DE(), byteValue);
-            case IndirectHLInc ihi -> {
+        switch (code) {
+            case Code.A -> registers.setA(byteValue);
+            case Code.B -> registers.setB(byteValue);
+            case Code.C -> registers.setC(byteValue);
+            case Code.D -> registers.setD(byteValue);
+            case Code.E -> registers.setE(byteValue);
+            case Code.H -> registers.setH(byteValue);
+            case Code.L -> registers.setL(byteValue);
+            case Code.AF -> registers.setAF(value);
+            case Code.BC -> registers.setBC(value);
+            case Code.DE -> registers.setDE(value);
+            case Code.HL -> registers.setHL(value);
+            case Code.SP -> registers.setSP(value);
+            case Code.PC -> registers.setPC(value);
+            case Code.INDIRECT_HL -> writeMemByte(cpuStructure, registers.HL(), byteValue);
+            case Code.INDIRECT_BC -> writeMemByte(cpuStructure, registers.BC(), byteValue);
+            case Code.INDIRECT_DE -> writeMemByte(cpuStructure, registers.DE(), byteValue);
+            case Code.INDIRECT_HL_INC -> {
                 short addr = registers.HL();
-                registers.setHL(idu.increment(addr));
-                writeMemByte(addr, byteValue);
+                registers.setHL(cpuStructure.idu().increment(addr));
+                writeMemByte(cpuStructure, addr, byteValue);
             }
-            case IndirectHLDec ihd -> {
+            case Code.INDIRECT_HL_DEC -> {
                 short addr = registers.HL();
-                registers.setHL(idu.decrement(addr));
-                writeMemByte(addr, byteValue);
+                registers.setHL(cpuStructure.idu().decrement(addr));
+                writeMemByte(cpuStructure, addr, byteValue);
             }
-            case IndirectC ic -> writeMemByte(set_upper_byte((short) uint(registers.C()), (byte) 0xFF), byteValue);
-            case IndirectImm8 ii8 -> writeMemByte(set_upper_byte(ControlFlow.readIndirectPCAndIncrement(cpuStructure), (byte) 0xFF), byteValue);
-            case IndirectImm16 ii16 -> writeMemByte(ControlFlow.readImm16(cpuStructure), byteValue);
-            case Imm8 i8 -> { /* not writable */ }
-            case Imm16 i16 -> { /* not writable */ }
-            case SPOffset spo -> { /* not writable */ }
+            case Code.INDIRECT_C -> writeMemByte(cpuStructure, set_upper_byte((short) uint(registers.C()), (byte) 0xFF), byteValue);
+            case Code.INDIRECT_IMM_8 -> writeMemByte(cpuStructure, set_upper_byte(ControlFlow.readIndirectPCAndIncrement(cpuStructure), (byte) 0xFF), byteValue);
+            case Code.INDIRECT_IMM_16 -> writeMemByte(cpuStructure, ControlFlow.readImm16(cpuStructure), byteValue);
+            case Code.IMM_8, Code.IMM_16, Code.SP_OFFSET -> { /* not writable */ }
+            default -> throw new IllegalArgumentException("Unknown target code " + code);
         }
     }
 
-    private short readMemByte(short address) {
-        byte read = memory.read(address);
+    private static short readMemByte(CpuStructure cpuStructure, short address) {
+        byte read = cpuStructure.memory().read(address);
         cpuStructure.clock().tick();
         return read;
     }
 
-    private void writeMemByte(short address, byte value) {
-        memory.write(address, value);
+    private static void writeMemByte(CpuStructure cpuStructure, short address, byte value) {
+        cpuStructure.memory().write(address, value);
         cpuStructure.clock().tick();
     }
 }
@@ -14,6 +14,38 @@ public sealed interface Target
                 Target.Imm8, Target.Imm16, Target.SPOffset {
     String representation();
 
+    // Instructions read this once when decoded and keep it, so operand access is a tableswitch on an int field
+    int code();
+
+    final class Code {
+        public static final int A = 0;
+        public static final int B = 1;
+        public static final int C = 2;
+        public static final int D = 3;
+        public static final int E = 4;
+        public static final int H = 5;
+        public static final int L = 6;
+        public static final int BC = 7;
+        public static final int DE = 8;
+        public static final int HL = 9;
+        public static final int SP = 10;
+        public static final int AF = 11;
+        public static final int PC = 12;
+        public static final int INDIRECT_HL = 13;
+        public static final int INDIRECT_BC = 14;
+        public static final int INDIRECT_DE = 15;
+        public static final int INDIRECT_HL_INC = 16;
+        public static final int INDIRECT_HL_DEC = 17;
+        public static final int INDIRECT_C = 18;
+        public static final int INDIRECT_IMM_8 = 19;
+        public static final int INDIRECT_IMM_16 = 20;
+        public static final int IMM_8 = 21;
+        public static final int IMM_16 = 22;
+        public static final int SP_OFFSET = 23;
+
+        private Code() {}
+    }
+
     A             a               = A.INSTANCE;
     B             b               = B.INSTANCE;
     C             c               = C.INSTANCE;
@@ -116,144 +148,168 @@ public sealed interface Target
 
     enum A implements Target, R8, ByteTarget, RegisterTarget {
         INSTANCE;
+        @Override public int code() { return Code.A; }
         @Override public String representation() { return "A"; }
         @Override public String toString() { return representation(); }
     }
 
     enum B implements Target, R8, ByteTarget, RegisterTarget {
         INSTANCE;
+        @Override public int code() { return Code.B; }
         @Override public String representation() { return "B"; }
         @Override public String toString() { return representation(); }
     }
 
     enum C implements Target, R8, ByteTarget, RegisterTarget {
         INSTANCE;
+        @Override public int code() { return Code.C; }
         @Override public String representation() { return "C"; }
         @Override public String toString() { return representation(); }
     }
 
     enum D implements Target, R8, ByteTarget, RegisterTarget {
         INSTANCE;
+        @Override public int code() { return Code.D; }
         @Override public String representation() { return "D"; }
         @Override public String toString() { return representation(); }
     }
 
     enum E implements Target, R8, ByteTarget, RegisterTarget {
         INSTANCE;
+        @Override public int code() { return Code.E; }
         @Override public String representation() { return "E"; }
         @Override public String toString() { return representation(); }
     }
 
     enum H implements Target, R8, ByteTarget, RegisterTarget {
         INSTANCE;
+        @Override public int code() { return Code.H; }
         @Override public String representation() { return "H"; }
         @Override public String toString() { return representation(); }
     }
 
     enum L implements Target, R8, ByteTarget, RegisterTarget {
         INSTANCE;
+        @Override public int code() { return Code.L; }
         @Override public String representation() { return "L"; }
         @Override public String toString() { return representation(); }
     }
 
     enum BC implements Target, R16, Stk16, WordTarget, RegisterTarget {
         INSTANCE;
+        @Override public int code() { return Code.BC; }
         @Override public String representation() { return "BC"; }
         @Override public String toString() { return representation(); }
     }
 
     enum DE implements Target, R16, Stk16, WordTarget, RegisterTarget {
         INSTANCE;
+        @Override public int code() { return Code.DE; }
         @Override public String representation() { return "DE"; }
         @Override public String toString() { return representation(); }
     }
 
     enum HL implements Target, R16, Stk16, WordTarget, RegisterTarget {
         INSTANCE;
+        @Override public int code() { return Code.HL; }
         @Override public String representation() { return "HL"; }
         @Override public String toString() { return representation(); }
     }
 
     enum SP implements Target, R16, WordTarget, RegisterTarget {
         INSTANCE;
+        @Override public int code() { return Code.SP; }
         @Override public String representation() { return "SP"; }
         @Override public String toString() { return representation(); }
     }
 
     enum AF implements Target, Stk16, WordTarget, RegisterTarget {
         INSTANCE;
+        @Override public int code() { return Code.AF; }
         @Override public String representation() { return "AF"; }
         @Override public String toString() { return representation(); }
     }
 
     enum PC implements Target, WordTarget, RegisterTarget {
         INSTANCE;
+        @Override public int code() { return Code.PC; }
         @Override public String representation() { return "PC"; }
         @Override public String toString() { return representation(); }
     }
 
     enum IndirectHL implements Target, R8, ByteTarget, IndirectTarget {
         INSTANCE;
+        @Override public int code() { return Code.INDIRECT_HL; }
         @Override public String representation() { return "(HL)"; }
         @Override public String toString() { return representation(); }
     }
 
     enum IndirectBC implements Target, Mem16, ByteTarget, IndirectTarget {
         INSTANCE;
+        @Override public int code() { return Code.INDIRECT_BC; }
         @Override public String representation() { return "(BC)"; }
         @Override public String toString() { return representation(); }
     }
 
     enum IndirectDE implements Target, Mem16, ByteTarget, IndirectTarget {
         INSTANCE;
+        @Override public int code() { return Code.INDIRECT_DE; }
         @Override public String representation() { return "(DE)"; }
         @Override public String toString() { return representation(); }
     }
 
     enum IndirectHLInc implements Target, Mem16, ByteTarget, IndirectTarget {
         INSTANCE;
+        @Override public int code() { return Code.INDIRECT_HL_INC; }
         @Override public String representation() { return "(HL+)"; }
         @Override public String toString() { return representation(); }
     }
 
     enum IndirectHLDec implements Target, Mem16, ByteTarget, IndirectTarget {
         INSTANCE;
+        @Override public int code() { return Code.INDIRECT_HL_DEC; }
         @Override public String representation() { return "(HL-)"; }
         @Override public String toString() { return representation(); }
     }
 
     enum IndirectC implements Target, ByteTarget, IndirectTarget {
         INSTANCE;
+        @Override public int code() { return Code.INDIRECT_C; }
         @Override public String representation() { return "(C)"; }
         @Override public String toString() { return representation(); }
     }
 
     enum IndirectImm8 implements Target, ByteTarget, IndirectTarget {
         INSTANCE;
+        @Override public int code() { return Code.INDIRECT_IMM_8; }
         @Override public String representation() { return "(imm8)"; }
         @Override public String toString() { return representation(); }
     }
 
     enum IndirectImm16 implements Target, ByteTarget, IndirectTarget {
         INSTANCE;
+        @Override public int code() { return Code.INDIRECT_IMM_16; }
         @Override public String representation() { return "(imm16)"; }
         @Override public String toString() { return representation(); }
     }
 
     enum Imm8 implements Target, ByteTarget {
         INSTANCE;
+        @Override public int code() { return Code.IMM_8; }
         @Override public String representation() { return "imm8"; }
         @Override public String toString() { return representation(); }
     }
 
     enum Imm16 implements Target, WordTarget {
         INSTANCE;
+        @Override public int code() { return Code.IMM_16; }
         @Override public String representation() { return "imm16"; }
         @Override public String toString() { return representation(); }
     }
 
     enum SPOffset implements Target, WordTarget {
         INSTANCE;
+        @Override public int code() { return Code.SP_OFFSET; }
         @Override public String representation() { return "SP+e8"; }
         @Override public String toString() { return representation(); }
     }
@@ -0,0 +1,8 @@
+package org.gameboy.debug;
+
+public enum Access {
+    READ,
+    WRITE,
+    // The CPU is about to run the instruction at the address; the value is its opcode
+    EXECUTE
+}
@@ -0,0 +1,28 @@
+package org.gameboy.debug;
+
+import java.util.function.IntPredicate;
+
+// Fires on an access of the given kind anywhere in [start, end] whose unsigned byte value satisfies the condition
+public record Watchpoint(Access access, int start, int end, IntPredicate condition) {
+    private static final IntPredicate ANY_VALUE = value -> true;
+
+    public static Watchpoint onRead(int start, int end) {
+        return new Watchpoint(Access.READ, start, end, ANY_VALUE);
+    }
+
+    public static Watchpoint onWrite(int start, int end) {
+        return new Watchpoint(Access.WRITE, start, end, ANY_VALUE);
+    }
+
+    public static Watchpoint onExecute(int address) {
+        return new Watchpoint(Access.EXECUTE, address, address, ANY_VALUE);
+    }
+
+    public Watchpoint when(IntPredicate condition) {
+        return new Watchpoint(access, start, end, condition);
+    }
+
+    boolean matches(int address, int value) {
+        return address >= start && address <= end && condition.test(value);
+    }
+}
@@ -0,0 +1,10 @@
+package org.gameboy.debug;
+
+// pc is the address of the instruction that made the access, and cycle the clock time when it did
+public record WatchpointHit(Watchpoint watchpoint, int address, int value, short pc, long cycle) {
+    @Override
+    public String toString() {
+        return String.format("%s at %04X = %02X by PC:%04X at cycle %d",
+                watchpoint.access(), address, value, pc & 0xFFFF, cycle);
+    }
+}
@@ -0,0 +1,126 @@
+package org.gameboy.debug;
+
+import com.google.inject.Inject;
+import org.gameboy.common.Clock;
+import org.gameboy.common.Memory;
+import org.gameboy.common.MemoryBus;
+import org.gameboy.common.MemoryListener;
+import org.gameboy.cpu.Cpu;
+import org.gameboy.cpu.annotations.CpuClock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.gameboy.utils.BitUtilities.uint;
+
+// Read, write and execute watchpoints on a running CPU. The memory decorator and the instruction hook are only
+// installed while a watchpoint of their kind exists, so an emulator with none set runs exactly as it would without
+// this class.
+public class Watchpoints {
+    private final Cpu cpu;
+    private final MemoryBus memoryBus;
+    private final Clock clock;
+
+    private final List<Watchpoint> readWatchpoints = new ArrayList<>();
+    private final List<Watchpoint> writeWatchpoints = new ArrayList<>();
+    private final List<Watchpoint> executeWatchpoints = new ArrayList<>();
+    private final List<WatchpointHit> hits = new ArrayList<>();
+
+    @Inject
+    public Watchpoints(Cpu cpu, MemoryBus memoryBus, @CpuClock Clock clock) {
+        this.cpu = cpu;
+        this.memoryBus = memoryBus;
+        this.clock = clock;
+    }
+
+    public void add(Watchpoint watchpoint) {
+        watchpointsFor(watchpoint.access()).add(watchpoint);
+        updateHooks();
+    }
+
+    public void remove(Watchpoint watchpoint) {
+        watchpointsFor(watchpoint.access()).remove(watchpoint);
+        updateHooks();
+    }
+
+    public void clear() {
+        readWatchpoints.clear();
+        writeWatchpoints.clear();
+        executeWatchpoints.clear();
+        updateHooks();
+    }
+
+    // Hits since the last call, oldest first
+    public List<WatchpointHit> drainHits() {
+        List<WatchpointHit> drained = List.copyOf(hits);
+        hits.clear();
+        return drained;
+    }
+
+    // Runs instructions until one of them hits a watchpoint, and returns the first hit it made
+    public Optional<WatchpointHit> runUntilHit(long maxInstructions) {
+        hits.clear();
+        for (long i = 0; i < maxInstructions; i++) {
+            cpu.cycle();
+            if (!hits.isEmpty()) {
+                return Optional.of(hits.removeFirst());
+            }
+        }
+        return Optional.empty();
+    }
+
+    private List<Watchpoint> watchpointsFor(Access access) {
+        return switch (access) {
+            case READ -> readWatchpoints;
+            case WRITE -> writeWatchpoints;
+            case EXECUTE -> executeWatchpoints;
+        };
+    }
+
+    private void updateHooks() {
+        boolean watchMemory = !readWatchpoints.isEmpty() || !writeWatchpoints.isEmpty();
+        memoryBus.instrument(watchMemory ? WatchedMemory::new : null);
+        // Hits name the instruction that made them, so memory watchpoints also keep the CPU stepping one at a time
+        boolean stepInstructions = watchMemory || !executeWatchpoints.isEmpty();
+        cpu.setInstructionListener(stepInstructions ? this::beforeInstruction : null);
+    }
+
+    private void beforeInstruction(short address, byte opcode) {
+        check(executeWatchpoints, uint(address), uint(opcode));
+    }
+
+    private void check(List<Watchpoint> watchpoints, int address, int value) {
+        for (Watchpoint watchpoint : watchpoints) {
+            if (watchpoint.matches(address, value)) {
+                hits.add(new WatchpointHit(watchpoint, address, value, cpu.currentInstructionAddress(), clock.getTime()));
+            }
+        }
+    }
+
+    private class WatchedMemory implements Memory {
+        private final Memory underlying;
+
+        private WatchedMemory(Memory underlying) {
+            this.underlying = underlying;
+        }
+
+        @Override
+        public byte read(short address) {
+            byte value = underlying.read(address);
+            check(readWatchpoints, uint(address), uint(value));
+            return value;
+        }
+
+        @Override
+        public void write(short address, byte value) {
+            check(writeWatchpoints, uint(address), uint(value));
+            underlying.write(address, value);
+        }
+
+        @Override
+        public void registerMemoryListener(short address, MemoryListener listener) {
+            underlying.registerMemoryListener(address, listener);
+        }
+    }
+}
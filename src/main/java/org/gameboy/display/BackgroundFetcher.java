@@ -89,6 +89,10 @@ public class BackgroundFetcher implements Fetcher {
         windowFetchMode = false;
     }
 
+    public int windowLineCounter() {
+        return windowLineCounter;
+    }
+
     public void resetForNewFrame() {
         windowLineCounter = 0;
     }
@@ -9,6 +9,16 @@ import org.gameboy.display.annotations.*;
 import org.gameboy.utils.MultiBitValue.TwoBitValue;
 
 public class DisplayModule extends AbstractModule {
+    private final PpuRenderer renderer;
+
+    public DisplayModule(PpuRenderer renderer) {
+        this.renderer = renderer;
+    }
+
+    public DisplayModule() {
+        this(PpuRenderer.FIFO);
+    }
+
     @Override
     protected void configure() {
         bind(PpuRegisters.class).in(Singleton.class);
@@ -41,6 +51,8 @@ public class DisplayModule extends AbstractModule {
         bind(SpriteFetcher.class).in(Singleton.class);
         bind(ScanlineController.class).in(Singleton.class);
         bind(OamScanController.class).in(Singleton.class);
+        bind(ScanlineRenderer.class).in(Singleton.class);
+        bind(PpuRenderer.class).toInstance(renderer);
         bind(PictureProcessingUnit.class).in(Singleton.class);
     }
 
@@ -1,6 +1,7 @@
 package org.gameboy.display;
 
 import com.google.inject.Inject;
+import org.gameboy.common.DmaController;
 import org.gameboy.common.Memory;
 import org.gameboy.common.annotations.UnderlyingMemory;
 import org.gameboy.utils.BitUtilities;
@@ -9,11 +10,13 @@ public class ObjectAttributeMemory {
     public static final int SIZE = 0x9f;
     private final short START_ADDRESS = (short) 0xFE00;
     private final Memory memory;
+    private final DmaController dmaController;
 
     @Inject
-    public ObjectAttributeMemory(@UnderlyingMemory Memory memory) {
+    public ObjectAttributeMemory(@UnderlyingMemory Memory memory, DmaController dmaController) {
         // this pulls values from main memory. Really should be the other way around.
         this.memory = memory;
+        this.dmaController = dmaController;
     }
 
     public short read(int address) {
@@ -21,6 +24,7 @@ public class ObjectAttributeMemory {
             return (short) 0;
         }
 
+        dmaController.flushTransfer();
         byte lower = memory.read((short) (address + START_ADDRESS));
         byte upper = memory.read((short) (address + START_ADDRESS + 1));
 
@@ -2,6 +2,8 @@ package org.gameboy.display;
 
 import com.google.inject.Inject;
 import org.gameboy.common.Clock;
+import org.gameboy.common.Memory;
+import org.gameboy.common.MemoryListener;
 import org.gameboy.display.annotations.PpuClock;
 
 import static org.gameboy.display.PpuRegisters.PpuRegister.LCDC;
@@ -11,15 +13,22 @@ import static org.gameboy.utils.BitUtilities.uint;
 public class PictureProcessingUnit {
 
     public static final int SCANLINE_TICK_COUNT = 456;
+    private static final int OAM_SCAN_TICK_COUNT = 40*2;
     private final ScanlineController scanlineController;
     private final PpuRegisters registers;
     private final Clock clock;
     private final OamScanController oamScanController;
     private final DisplayInterruptController displayInterruptController;
     private final Display display;
+    private final ScanlineRenderer scanlineRenderer;
+    private final PpuRenderer renderer;
     private int count = 0;
     private Step step;
     private boolean wasLcdEnabled = true;
+    // T-cycles of mode 3 still to count out on a line the scanline renderer has already drawn
+    private int drawnTCyclesLeft = 0;
+    private long linesDrawnAhead = 0;
+    private long linesReplayed = 0;
 
     @Inject
     public PictureProcessingUnit(ScanlineController scanlineController,
@@ -27,13 +36,17 @@ public class PictureProcessingUnit {
                                  @PpuClock Clock clock,
                                  OamScanController oamScanController,
                                  DisplayInterruptController displayInterruptController,
-                                 Display display) {
+                                 Display display,
+                                 ScanlineRenderer scanlineRenderer,
+                                 PpuRenderer renderer) {
         this.scanlineController = scanlineController;
         this.registers = registers;
         this.clock = clock;
         this.oamScanController = oamScanController;
         this.displayInterruptController = displayInterruptController;
         this.display = display;
+        this.scanlineRenderer = scanlineRenderer;
+        this.renderer = renderer;
         this.step = Step.OAM_SETUP;
     }
 
@@ -67,11 +80,51 @@ public class PictureProcessingUnit {
             case OAM_SCAN -> oamScan();
             case SCANLINE_SETUP -> setupScanline();
             case SCANLINE_DRAWING -> drawScanline();
+            case SCANLINE_DRAWN -> countDrawnScanline();
             case HBLANK -> hblank();
             case VBLANK -> vblank();
         };
     }
 
+    // T-cycles that only advance the dot counter: the rest of HBLANK or of a VBLANK line, or forever with the LCD off
+    public int idleTCycles() {
+        boolean lcdEnabled = LcdcParser.lcdEnabled(registers.read(LCDC));
+        if (lcdEnabled != wasLcdEnabled) {
+            return 0;
+        }
+        if (!lcdEnabled) {
+            return Integer.MAX_VALUE;
+        }
+
+        return switch (step) {
+            case HBLANK -> SCANLINE_TICK_COUNT - count - 1;
+            case VBLANK -> SCANLINE_TICK_COUNT - count % SCANLINE_TICK_COUNT - 1;
+            default -> 0;
+        };
+    }
+
+    // Equivalent to tCycles calls to tCycle() as long as tCycles <= idleTCycles()
+    public void skipIdleTCycles(int tCycles) {
+        if (wasLcdEnabled) {
+            count += tCycles;
+        }
+    }
+
+    // Wraps the memory the CPU writes through, so that a line drawn ahead goes back to the FIFO before a write that
+    // would change how the rest of it looks
+    public Memory withWriteBarrier(Memory memory) {
+        return renderer == PpuRenderer.SCANLINE ? new WriteBarrier(memory) : memory;
+    }
+
+    public long linesDrawnAhead() {
+        return linesDrawnAhead;
+    }
+
+    // Lines the FIFO finished because the CPU wrote to VRAM or a PPU register while they were being counted out
+    public long linesReplayed() {
+        return linesReplayed;
+    }
+
     private Step setupOamScan() {
         displayInterruptController.sendOamScan();
         oamScanController.setupOamScan(uint(registers.read(LY)));
@@ -82,7 +135,7 @@ public class PictureProcessingUnit {
     private Step oamScan() {
         oamScanController.performOneClockCycle();
         count++;
-        return count < 40*2 ? Step.OAM_SCAN : Step.SCANLINE_SETUP;
+        return count < OAM_SCAN_TICK_COUNT ? Step.OAM_SCAN : Step.SCANLINE_SETUP;
     }
 
     private Step setupScanline() {
@@ -90,9 +143,38 @@ public class PictureProcessingUnit {
         scanlineController.setupScanline();
         // Note: count is NOT reset here - it continues from OAM scan (80 T-cycles)
         // to maintain correct scanline timing of 456 T-cycles total
+        if (renderer == PpuRenderer.SCANLINE) {
+            drawnTCyclesLeft = scanlineRenderer.drawLine();
+            linesDrawnAhead++;
+            return countDrawnScanline();
+        }
         return drawScanline();
     }
 
+    private Step countDrawnScanline() {
+        count++;
+
+        if (--drawnTCyclesLeft > 0) {
+            return Step.SCANLINE_DRAWN;
+        }
+
+        scanlineRenderer.finishLine();
+        displayInterruptController.sendHblank();
+        return Step.HBLANK;
+    }
+
+    // The FIFO was set up when mode 3 started and nothing it reads has changed since, so stepping it through the
+    // T-cycles already counted leaves it where it would have been had it drawn the line from the start
+    private void replayOnFifo() {
+        for (int tCycle = OAM_SCAN_TICK_COUNT; tCycle < count; tCycle++) {
+            scanlineController.performSingleClockCycle();
+        }
+        drawnTCyclesLeft = 0;
+        linesDrawnAhead--;
+        linesReplayed++;
+        step = Step.SCANLINE_DRAWING;
+    }
+
     private Step drawScanline() {
         scanlineController.performSingleClockCycle();
         count++;
@@ -156,7 +238,34 @@ public class PictureProcessingUnit {
         OAM_SCAN,
         SCANLINE_SETUP,
         SCANLINE_DRAWING,
+        SCANLINE_DRAWN,
         HBLANK,
         VBLANK
     }
+
+    private class WriteBarrier implements Memory {
+        private final Memory underlying;
+
+        private WriteBarrier(Memory underlying) {
+            this.underlying = underlying;
+        }
+
+        @Override
+        public byte read(short address) {
+            return underlying.read(address);
+        }
+
+        @Override
+        public void write(short address, byte value) {
+            if (step == Step.SCANLINE_DRAWN && scanlineRenderer.changesDrawing(address, value)) {
+                replayOnFifo();
+            }
+            underlying.write(address, value);
+        }
+
+        @Override
+        public void registerMemoryListener(short address, MemoryListener listener) {
+            underlying.registerMemoryListener(address, listener);
+        }
+    }
 }
@@ -0,0 +1,15 @@
+package org.gameboy.display;
+
+import java.util.Locale;
+
+public enum PpuRenderer {
+    // Steps the pixel FIFO and both fetchers on every T-cycle of mode 3
+    FIFO,
+    // Draws each line in one pass when mode 3 starts and only counts out its length, handing the line to the FIFO if
+    // the CPU changes VRAM or a PPU register before it ends
+    SCANLINE;
+
+    public static PpuRenderer fromName(String name) {
+        return valueOf(name.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+    }
+}
@@ -75,6 +75,8 @@ public class ScanlineController {
     public void setupScanline() {
         LX = 0;
         backgroundFetcher.reset();
+        // A sprite fetched near the right edge leaves pixels that belong to this line only
+        spriteFifo.clear();
         state = shouldDiscardPixel() ? State.DISCARD_PIXELS : State.PIXEL_FETCHING;
     }
 
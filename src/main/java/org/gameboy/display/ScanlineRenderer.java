@@ -0,0 +1,220 @@
+package org.gameboy.display;
+
+import com.google.inject.Inject;
+import org.gameboy.common.Memory;
+import org.gameboy.common.MemoryMapConstants;
+import org.gameboy.common.annotations.UnderlyingMemory;
+import org.gameboy.display.PpuRegisters.PpuRegister;
+
+import java.util.Arrays;
+
+import static org.gameboy.display.Display.DISPLAY_WIDTH;
+import static org.gameboy.display.LcdcParser.*;
+import static org.gameboy.display.PpuRegisters.PpuRegister.*;
+import static org.gameboy.utils.BitUtilities.uint;
+
+// Draws a whole line in one pass from the tile maps, tile data and the sprites found by the OAM scan. Both the pixels
+// and the length of mode 3 are the ones the FIFO produces from the same state, so the PPU can hand a line over to the
+// FIFO partway through by replaying the T-cycles already counted.
+public class ScanlineRenderer {
+    // Fetching a tile takes six T-cycles. The FIFO waits for the first one, again when it restarts on the window, and
+    // stalls for the same time on every sprite it fetches.
+    private static final int FETCH_T_CYCLES = 6;
+    private static final int VRAM_START = 0x8000;
+    private static final int VRAM_END = 0xA000;
+    private static final int NO_SPRITE = -1;
+    private static final int SPRITE_OBP1 = 1 << 2;
+    private static final int SPRITE_BEHIND_BACKGROUND = 1 << 3;
+    private static final PixelValue[] SHADES = {
+            new PixelValue(0), new PixelValue(1), new PixelValue(2), new PixelValue(3)};
+
+    private final Memory memory;
+    private final PpuRegisters registers;
+    private final SpriteBuffer spriteBuffer;
+    private final BackgroundFetcher backgroundFetcher;
+    private final Display display;
+    private final int[] background = new int[DISPLAY_WIDTH];
+    private final int[] sprites = new int[DISPLAY_WIDTH];
+    private int[] fetchOrder = new int[10];
+    private boolean windowReached;
+
+    @Inject
+    public ScanlineRenderer(@UnderlyingMemory Memory memory,
+                            PpuRegisters registers,
+                            SpriteBuffer spriteBuffer,
+                            BackgroundFetcher backgroundFetcher,
+                            Display display) {
+        this.memory = memory;
+        this.registers = registers;
+        this.spriteBuffer = spriteBuffer;
+        this.backgroundFetcher = backgroundFetcher;
+        this.display = display;
+    }
+
+    // Draws the line at LY and returns how many T-cycles the FIFO would spend in mode 3 drawing it
+    public int drawLine() {
+        byte lcdc = registers.read(LCDC);
+        int ly = uint(registers.read(LY));
+        int scx = uint(registers.read(SCX));
+        int wx = uint(registers.read(WX));
+
+        // The FIFO only looks for the window after pushing a pixel, so it never starts on the first one
+        windowReached = windowDisplayEnabled(lcdc) && uint(registers.read(WY)) <= ly && wx - 7 <= DISPLAY_WIDTH;
+        int windowStart = windowReached ? Math.max(1, wx - 7) : DISPLAY_WIDTH;
+
+        if (backgroundAndWindowEnable(lcdc)) {
+            drawBackground(lcdc, ly, scx, windowStart);
+            drawWindow(lcdc, windowStart);
+        } else {
+            Arrays.fill(background, 0);
+        }
+
+        Arrays.fill(sprites, NO_SPRITE);
+        int spritesFetched = objectEnable(lcdc) ? drawSprites(lcdc, ly) : 0;
+
+        combine(ly);
+
+        // Discarding the scrolled-off pixels of the first tile costs one T-cycle each, and one more notices the line
+        // is full
+        int tCycles = FETCH_T_CYCLES + scx % 8 + DISPLAY_WIDTH + 1 + FETCH_T_CYCLES * spritesFetched;
+        return windowStart < DISPLAY_WIDTH ? tCycles + FETCH_T_CYCLES : tCycles;
+    }
+
+    // Leaves the fetcher as the FIFO would, so the window line counter moves on after a line that reached the window
+    public void finishLine() {
+        if (windowReached) {
+            backgroundFetcher.switchToWindowFetching();
+        }
+    }
+
+    // Whether a write would change how a line drawn ahead should look; writing the value already there changes nothing
+    public boolean changesDrawing(short address, byte value) {
+        int addr = uint(address);
+        if (addr >= VRAM_START && addr < VRAM_END) {
+            return memory.read(address) != value;
+        }
+        PpuRegister register = switch (addr) {
+            case 0xFF40 -> LCDC;
+            case 0xFF42 -> SCY;
+            case 0xFF43 -> SCX;
+            case 0xFF44 -> LY;
+            case 0xFF47 -> BGP;
+            case 0xFF48 -> OBP0;
+            case 0xFF49 -> OBP1;
+            case 0xFF4A -> WY;
+            case 0xFF4B -> WX;
+            default -> null;
+        };
+        return register != null && registers.read(register) != value;
+    }
+
+    private void drawBackground(byte lcdc, int ly, int scx, int end) {
+        int row = (ly + uint(registers.read(SCY))) & 0xFF;
+        int tileMapRow = backgroundTileMap(lcdc) + 32 * (row / 8);
+        int column = scx % 8;
+        for (int x = 0, tile = scx / 8; x < end; tile++, column = 0) {
+            int address = tileDataAddress(lcdc, uint(memory.read((short) (tileMapRow + (tile & 0x1F))))) + 2 * (row % 8);
+            byte low = memory.read((short) address);
+            byte high = memory.read((short) (address + 1));
+            for (; column < 8 && x < end; column++) {
+                background[x++] = colour(low, high, column);
+            }
+        }
+    }
+
+    private void drawWindow(byte lcdc, int start) {
+        int line = backgroundFetcher.windowLineCounter();
+        int tileMapRow = windowTileMap(lcdc) + 32 * ((line & 0xFF) / 8);
+        for (int x = start, tile = 0; x < DISPLAY_WIDTH; tile++) {
+            int address = tileDataAddress(lcdc, uint(memory.read((short) (tileMapRow + (tile & 0x1F))))) + 2 * (line % 8);
+            byte low = memory.read((short) address);
+            byte high = memory.read((short) (address + 1));
+            for (int column = 0; column < 8 && x < DISPLAY_WIDTH; column++) {
+                background[x++] = colour(low, high, column);
+            }
+        }
+    }
+
+    // Returns the number of sprites the FIFO would stop to fetch
+    private int drawSprites(byte lcdc, int ly) {
+        int count = orderByFetch();
+        int height = spriteSize(lcdc);
+        for (int i = 0; i < count; i++) {
+            SpriteData sprite = spriteBuffer.get(fetchOrder[i]);
+            int row = ly + 16 - uint(sprite.y());
+            if (sprite.yFlipFlag()) {
+                row = height - 1 - row;
+            }
+            int tileNumber = height == 16 ? uint(sprite.tileNumber()) & 0xFE : uint(sprite.tileNumber());
+            int address = VRAM_START + tileNumber * 16 + 2 * row;
+            byte low = memory.read((short) address);
+            byte high = memory.read((short) (address + 1));
+            int attributes = (sprite.paletteFlag() ? SPRITE_OBP1 : 0)
+                    | (sprite.drawSpriteOverBackgroundFlag() ? SPRITE_BEHIND_BACKGROUND : 0);
+
+            // Pixels an earlier sprite left in the FIFO win, even transparent ones
+            int start = fetchX(sprite);
+            for (int column = 0; column < 8 && start + column < DISPLAY_WIDTH; column++) {
+                if (sprites[start + column] == NO_SPRITE) {
+                    sprites[start + column] = colour(low, high, sprite.xFlipFlag() ? 7 - column : column) | attributes;
+                }
+            }
+        }
+        return count;
+    }
+
+    // Sprites the FIFO reaches, by the pixel it fetches them at and then in OAM order
+    private int orderByFetch() {
+        if (fetchOrder.length < spriteBuffer.spriteCount()) {
+            fetchOrder = new int[spriteBuffer.spriteCount()];
+        }
+        int count = 0;
+        for (int index = 0; index < spriteBuffer.spriteCount(); index++) {
+            int x = fetchX(spriteBuffer.get(index));
+            if (x >= DISPLAY_WIDTH) {
+                continue;
+            }
+            int slot = count++;
+            while (slot > 0 && fetchX(spriteBuffer.get(fetchOrder[slot - 1])) > x) {
+                fetchOrder[slot] = fetchOrder[slot - 1];
+                slot--;
+            }
+            fetchOrder[slot] = index;
+        }
+        return count;
+    }
+
+    private void combine(int ly) {
+        byte bgp = registers.read(BGP);
+        byte obp0 = registers.read(OBP0);
+        byte obp1 = registers.read(OBP1);
+        for (int x = 0; x < DISPLAY_WIDTH; x++) {
+            int colour = background[x];
+            int sprite = sprites[x];
+            int shade;
+            if (sprite == NO_SPRITE || (sprite & 0x3) == 0
+                    || ((sprite & SPRITE_BEHIND_BACKGROUND) != 0 && colour != 0)) {
+                shade = (bgp >> (colour * 2)) & 0x3;
+            } else {
+                shade = (((sprite & SPRITE_OBP1) != 0 ? obp1 : obp0) >> ((sprite & 0x3) * 2)) & 0x3;
+            }
+            display.setPixel(x, ly, SHADES[shade]);
+        }
+    }
+
+    // Sprites hanging off the left edge are fetched as soon as the line starts
+    private static int fetchX(SpriteData sprite) {
+        return Math.max(uint(sprite.x()) - 8, 0);
+    }
+
+    private static int tileDataAddress(byte lcdc, int tileNumber) {
+        return useUnsignedTileDataSelect(lcdc)
+                ? MemoryMapConstants.TILE_DATA_ADDRESS + tileNumber * 16
+                : MemoryMapConstants.TILE_DATA_ADDRESS + 0x1000 + ((byte) tileNumber) * 16;
+    }
+
+    private static int colour(byte low, byte high, int column) {
+        int bit = 7 - column;
+        return ((low >> bit) & 1) | (((high >> bit) & 1) << 1);
+    }
+}
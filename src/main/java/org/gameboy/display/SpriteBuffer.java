@@ -41,4 +41,9 @@ public class SpriteBuffer {
     public int spriteCount() {
         return buffer.size();
     }
+
+    // In OAM order, without removing it
+    public SpriteData get(int index) {
+        return buffer.get(index);
+    }
 }
@@ -11,6 +11,9 @@ import org.gameboy.io.debug.VramDebugWindow;
 import org.lwjgl.glfw.GLFWErrorCallback;
 import org.lwjgl.opengl.GL;
 
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
 import static org.lwjgl.glfw.GLFW.*;
 import static org.lwjgl.opengl.GL41.*;
 import static org.lwjgl.system.MemoryUtil.NULL;
@@ -18,6 +21,7 @@ import static org.lwjgl.system.MemoryUtil.NULL;
 public class EmulatorWindow {
     private static final int WINDOW_WIDTH = ShellLayout.WINDOW_WIDTH;
     private static final int WINDOW_HEIGHT = ShellLayout.WINDOW_HEIGHT;
+    private static final long STOP_TIMEOUT_MILLIS = 2_000;
 
     private final WindowDisplay windowDisplay;
     private final KeyboardInputHandler inputHandler;
@@ -34,6 +38,9 @@ public class EmulatorWindow {
 
     private long window;
     private double lastTime;
+    private volatile boolean running = false;
+    private volatile boolean stopRequested = false;
+    private final CountDownLatch stopped = new CountDownLatch(1);
 
     @Inject
     public EmulatorWindow(WindowDisplay windowDisplay,
@@ -80,6 +87,32 @@ public class EmulatorWindow {
     }
 
     public void run(Cpu cpu) {
+        running = true;
+        try {
+            // A stop that came before the loop started may not have seen it running, so it is not waited on
+            if (!stopRequested) {
+                emulate(cpu);
+            }
+        } finally {
+            stopped.countDown();
+        }
+    }
+
+    // Asks the emulation loop to leave at its next shell refresh and waits for it, so that nothing runs the CPU or
+    // the cartridge afterwards; returns at once if the loop never started or has already left
+    public void stop() {
+        stopRequested = true;
+        if (!running) {
+            return;
+        }
+        try {
+            stopped.await(STOP_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void emulate(Cpu cpu) {
         init();
 
         System.out.println("Starting emulation...");
@@ -101,6 +134,9 @@ public class EmulatorWindow {
                 double now = glfwGetTime();
                 double elapsed = now - lastRenderTime;
                 if (elapsed >= 1.0 / 60.0) {
+                    if (stopRequested) {
+                        break;
+                    }
                     float deltaTime = (float) elapsed;
                     lastRenderTime = now;
 
@@ -0,0 +1,75 @@
+package org.gameboy.utils;
+
+import org.gameboy.cpu.components.CpuTrace;
+import org.gameboy.cpu.components.OpcodeTable;
+import org.gameboy.cpu.components.PrefixedOpcodeTable;
+import org.gameboy.cpu.components.UnprefixedOpcodeTable;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.gameboy.cpu.components.CpuTrace.*;
+
+/**
+ * Decodes a binary trace written by {@link CpuTrace} into the reference log format, one line per instruction:
+ *   PC:0150 AF=01B0 BC=0013 DE=00D8 HL=014D SP=FFFE TIMA=0 | NOP
+ *
+ * Usage: CpuTraceDecoder trace.bin [output.log]
+ */
+public final class CpuTraceDecoder {
+    private static final int PREFIX = 0xCB;
+
+    private final OpcodeTable unprefixedOpcodeTable = new UnprefixedOpcodeTable();
+    private final OpcodeTable prefixedOpcodeTable = new PrefixedOpcodeTable();
+    // The byte after a PREFIX executes as its own instruction and is looked up in the prefixed table
+    private boolean afterPrefix = false;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1 || args.length > 2) {
+            System.err.println("Usage: CpuTraceDecoder <trace.bin> [output.log]");
+            System.exit(1);
+        }
+        Path trace = Path.of(args[0]);
+        try (Writer out = args.length == 2
+                ? Files.newBufferedWriter(Path.of(args[1]))
+                : new BufferedWriter(new OutputStreamWriter(System.out))) {
+            new CpuTraceDecoder().decode(trace, out);
+        }
+    }
+
+    public void decode(Path trace, Writer out) throws IOException {
+        try (FileChannel channel = FileChannel.open(trace)) {
+            ByteBuffer records = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size())
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            for (int offset = 0; offset + RECORD_BYTES <= records.limit(); offset += RECORD_BYTES) {
+                out.write(format(records, offset));
+                out.write(System.lineSeparator());
+            }
+        }
+    }
+
+    // Formats the record at the given offset; records must be passed in the order they were written
+    public String format(ByteBuffer records, int offset) {
+        byte opcode = records.get(offset + OPCODE_OFFSET);
+        OpcodeTable table = afterPrefix ? prefixedOpcodeTable : unprefixedOpcodeTable;
+        afterPrefix = !afterPrefix && (opcode & 0xFF) == PREFIX;
+
+        String instruction = InstructionFormatConverter.toReferenceFormat(table.lookup(opcode).representation());
+        return String.format("PC:%04X AF=%04X BC=%04X DE=%04X HL=%04X SP=%04X TIMA=%d | %s",
+                records.getShort(offset + PC_OFFSET) & 0xFFFF,
+                records.getShort(offset + AF_OFFSET) & 0xFFFF,
+                records.getShort(offset + BC_OFFSET) & 0xFFFF,
+                records.getShort(offset + DE_OFFSET) & 0xFFFF,
+                records.getShort(offset + HL_OFFSET) & 0xFFFF,
+                records.getShort(offset + SP_OFFSET) & 0xFFFF,
+                records.get(offset + TIMA_OFFSET) & 0xFF,
+                instruction);
+    }
+}
@@ -0,0 +1,85 @@
+package org.gameboy;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.util.Modules;
+import org.gameboy.cartridge.RomOnlyCartridge;
+import org.gameboy.cpu.Cpu;
+import org.gameboy.display.Display;
+import org.gameboy.display.PixelValue;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Reports the bytes allocated on the emulation thread per emulated frame, so that regressions on the hot path show up
+@Tag("benchmark")
+public class FrameAllocationTest {
+    private static final String ROM_RESOURCE = "/dmg-acid2.gb";
+    private static final int WARMUP_FRAMES = 60;
+    private static final int MEASURED_FRAMES = 120;
+    // About 9.3 MB today, nearly all of it from the PPU; the budget leaves room for JIT noise but not for a new
+    // allocation per instruction or per pixel
+    private static final long MAX_BYTES_PER_FRAME = 12_000_000;
+
+    @Test
+    public void measureBytesAllocatedPerFrame() throws IOException {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assertThat(threads.isThreadAllocatedMemorySupported()).isTrue();
+
+        FrameCountingDisplay display = new FrameCountingDisplay();
+        Cpu cpu = createCpu(display);
+
+        runFrames(cpu, display, WARMUP_FRAMES);
+
+        long before = threads.getCurrentThreadAllocatedBytes();
+        runFrames(cpu, display, MEASURED_FRAMES);
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+
+        System.out.printf("Allocated %d bytes per frame over %d frames%n", allocated / MEASURED_FRAMES, MEASURED_FRAMES);
+        assertThat(allocated / MEASURED_FRAMES).isLessThan(MAX_BYTES_PER_FRAME);
+    }
+
+    private Cpu createCpu(Display display) throws IOException {
+        byte[] romData;
+        try (InputStream romStream = getClass().getResourceAsStream(ROM_RESOURCE)) {
+            assertThat(romStream).isNotNull();
+            romData = romStream.readAllBytes();
+        }
+
+        Injector injector = Guice.createInjector(
+                Modules.override(new EmulatorModule(new RomOnlyCartridge(romData))).with(new AbstractModule() {
+                    @Override
+                    protected void configure() {
+                        bind(Display.class).toInstance(display);
+                    }
+                })
+        );
+        return injector.getInstance(Cpu.class);
+    }
+
+    private static void runFrames(Cpu cpu, FrameCountingDisplay display, int frames) {
+        int target = display.frameCount + frames;
+        while (display.frameCount < target) {
+            cpu.cycle();
+        }
+    }
+
+    private static class FrameCountingDisplay implements Display {
+        private int frameCount = 0;
+
+        @Override
+        public void setPixel(int x, int y, PixelValue value) {
+        }
+
+        @Override
+        public void onVBlank() {
+            frameCount++;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package org.gameboy;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.util.Modules;
+import org.gameboy.cartridge.CartridgeFactory;
+import org.gameboy.cpu.Cpu;
+import org.gameboy.display.Display;
+import org.gameboy.display.PixelValue;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Reports the heap each running instance keeps alive when many share one JVM and one ROM image, so that a per-instance
+// table creeping back in shows up
+@Tag("benchmark")
+public class InstanceFootprintTest {
+    private static final String ROM_RESOURCE = "/dmg-acid2.gb";
+    private static final int INSTANCES = 40;
+    private static final int WARMUP_CYCLES = 10_000;
+    private static final long MAX_BYTES_PER_INSTANCE = 512 * 1024;
+
+    @Test
+    public void measureRetainedBytesPerInstance() throws IOException, InterruptedException {
+        byte[] romData;
+        try (InputStream romStream = getClass().getResourceAsStream(ROM_RESOURCE)) {
+            assertThat(romStream).isNotNull();
+            romData = romStream.readAllBytes();
+        }
+        // The first instance pays for class loading and Guice's own caches
+        createCpu(romData);
+
+        long before = usedHeapAfterGc();
+        List<Cpu> instances = new ArrayList<>();
+        for (int i = 0; i < INSTANCES; i++) {
+            instances.add(createCpu(romData));
+        }
+        long retained = (usedHeapAfterGc() - before) / instances.size();
+
+        System.out.printf("Retained %d bytes per instance over %d instances%n", retained, instances.size());
+        assertThat(retained).isLessThan(MAX_BYTES_PER_INSTANCE);
+    }
+
+    private static Cpu createCpu(byte[] romData) {
+        Injector injector = Guice.createInjector(
+                Modules.override(new EmulatorModule(CartridgeFactory.fromRom(romData))).with(new AbstractModule() {
+                    @Override
+                    protected void configure() {
+                        bind(Display.class).toInstance(new NullDisplay());
+                    }
+                })
+        );
+        Cpu cpu = injector.getInstance(Cpu.class);
+        for (int i = 0; i < WARMUP_CYCLES; i++) {
+            cpu.cycle();
+        }
+        return cpu;
+    }
+
+    private static long usedHeapAfterGc() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(50);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static class NullDisplay implements Display {
+        @Override
+        public void setPixel(int x, int y, PixelValue value) {
+        }
+
+        @Override
+        public void onVBlank() {
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package org.gameboy;
 
+import org.gameboy.cpu.CpuEngine;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
@@ -74,26 +75,26 @@ public class MooneyeIntegrationTest {
         "tma_write_reloading"   // Requires T-cycle precision for TMA sampling during TIMA reload phase
     );
 
-    @ParameterizedTest(name = "{1}")
+    @ParameterizedTest(name = "{1} [{2}, {3}]")
     @MethodSource("enabledTestProvider")
-    void enabledMooneyeTests(String romPath, String testName) throws IOException {
-        runMooneyeTest(romPath);
+    void enabledMooneyeTests(String romPath, String testName, CpuEngine engine, ClockMode clockMode) throws IOException {
+        runMooneyeTest(romPath, engine, clockMode);
     }
 
     @Disabled("Enable individually as features are implemented")
     @ParameterizedTest(name = "{1}")
     @MethodSource("disabledTestProvider")
     void disabledMooneyeTests(String romPath, String testName) throws IOException {
-        runMooneyeTest(romPath);
+        runMooneyeTest(romPath, CpuEngine.INTERPRETER, ClockMode.PER_TICK);
     }
 
-    private void runMooneyeTest(String romPath) throws IOException {
+    private void runMooneyeTest(String romPath, CpuEngine engine, ClockMode clockMode) throws IOException {
         InputStream romStream = getClass().getResourceAsStream(romPath);
         assertNotNull(romStream, "Test ROM not found in resources: " + romPath);
         byte[] romData = romStream.readAllBytes();
         romStream.close();
 
-        MooneyeTestRunner runner = new MooneyeTestRunner(romData);
+        MooneyeTestRunner runner = new MooneyeTestRunner(romData, engine, clockMode);
         MooneyeTestRunner.RegisterState result = runner.runUntilCompletion(MAX_CYCLES);
 
         if (result.isSuccess()) {
@@ -112,7 +113,11 @@ public class MooneyeIntegrationTest {
     }
 
     static Stream<Arguments> enabledTestProvider() {
-        return discoverTests(testName -> !DISABLED_TESTS.contains(testName));
+        // Every enabled ROM runs against each engine and clock so the alternatives are held to the reference results
+        List<Arguments> tests = discoverTests(testName -> !DISABLED_TESTS.contains(testName)).toList();
+        return Arrays.stream(CpuEngine.values())
+                .flatMap(engine -> Arrays.stream(ClockMode.values())
+                        .flatMap(clockMode -> tests.stream().map(test -> Arguments.of(test.get()[0], test.get()[1], engine, clockMode))));
     }
 
     static Stream<Arguments> disabledTestProvider() {
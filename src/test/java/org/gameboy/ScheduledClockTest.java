@@ -0,0 +1,72 @@
+package org.gameboy;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.Key;
+import org.gameboy.cartridge.RomOnlyCartridge;
+import org.gameboy.common.Clock;
+import org.gameboy.cpu.Cpu;
+import org.gameboy.cpu.CpuEngine;
+import org.gameboy.cpu.annotations.CpuClock;
+import org.gameboy.cpu.components.CpuRegisters;
+import org.gameboy.cpu.components.CpuStructure;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Runs the same ROM under both clocks in lockstep; the scheduled clock must be indistinguishable instruction by instruction
+public class ScheduledClockTest {
+    private static final int INSTRUCTIONS = 100_000;
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "/dmg-acid2.gb",
+            "/mooneye-tests/acceptance/timer/tim01.gb",
+            "/mooneye-tests/acceptance/timer/tima_reload.gb",
+            "/mooneye-tests/acceptance/halt_ime1_timing.gb"
+    })
+    public void givenSameRom_whenRunUnderBothClocks_thenCpuStateAndTimeMatchAfterEveryInstruction(String romResource) throws IOException {
+        byte[] romData;
+        try (InputStream romStream = getClass().getResourceAsStream(romResource)) {
+            assertThat(romStream).isNotNull();
+            romData = romStream.readAllBytes();
+        }
+        Emulator reference = new Emulator(romData, ClockMode.PER_TICK);
+        Emulator scheduled = new Emulator(romData, ClockMode.SCHEDULED);
+
+        for (int i = 0; i < INSTRUCTIONS; i++) {
+            reference.cpu.cycle();
+            scheduled.cpu.cycle();
+
+            if (scheduled.clock.getTime() != reference.clock.getTime()
+                    || !scheduled.registerState().equals(reference.registerState())) {
+                assertThat(scheduled.registerState() + " at " + scheduled.clock.getTime())
+                        .as("state after instruction %d", i)
+                        .isEqualTo(reference.registerState() + " at " + reference.clock.getTime());
+            }
+        }
+    }
+
+    private static class Emulator {
+        private final Cpu cpu;
+        private final Clock clock;
+        private final CpuRegisters registers;
+
+        private Emulator(byte[] romData, ClockMode clockMode) {
+            Injector injector = Guice.createInjector(
+                    new EmulatorModule(new RomOnlyCartridge(romData), CpuEngine.INTERPRETER, clockMode));
+            cpu = injector.getInstance(Cpu.class);
+            clock = injector.getInstance(Key.get(Clock.class, CpuClock.class));
+            registers = injector.getInstance(CpuStructure.class).registers();
+        }
+
+        private String registerState() {
+            return String.format("AF=%04X BC=%04X DE=%04X HL=%04X SP=%04X PC=%04X",
+                    registers.AF(), registers.BC(), registers.DE(), registers.HL(), registers.SP(), registers.PC());
+        }
+    }
+}
@@ -84,6 +84,30 @@ public class CartridgeFactoryTest {
         assertThat(cart).isInstanceOf(Mbc1Cartridge.class);
     }
 
+    @Test
+    public void givenTypeCode0x06_thenCreatesMbc2Cartridge() {
+        // MBC2+BATTERY
+        Cartridge cart = CartridgeFactory.fromRom(romWithType((byte) 0x06));
+
+        assertThat(cart).isInstanceOf(Mbc2Cartridge.class);
+    }
+
+    @Test
+    public void givenTypeCode0x19_thenCreatesMbc5Cartridge() {
+        // MBC5
+        Cartridge cart = CartridgeFactory.fromRom(romWithType((byte) 0x19));
+
+        assertThat(cart).isInstanceOf(Mbc5Cartridge.class);
+    }
+
+    @Test
+    public void givenTypeCode0x1E_thenCreatesMbc5Cartridge() {
+        // MBC5+RUMBLE+RAM+BATTERY
+        Cartridge cart = CartridgeFactory.fromRom(romWithType((byte) 0x1E));
+
+        assertThat(cart).isInstanceOf(Mbc5Cartridge.class);
+    }
+
     @Test
     public void givenUnsupportedTypeCode_thenThrowsException() {
         assertThatThrownBy(() -> CartridgeFactory.fromRom(romWithType((byte) 0x04)))
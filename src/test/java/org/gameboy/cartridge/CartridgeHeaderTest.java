@@ -2,7 +2,11 @@ package org.gameboy.cartridge;
 
 import org.junit.jupiter.api.Test;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 public class CartridgeHeaderTest {
 
@@ -56,6 +60,22 @@ public class CartridgeHeaderTest {
         assertThat(header.romBankCount()).isEqualTo(128);
     }
 
+    @Test
+    public void givenRomSizeCode8_whenBankCountCappedAt16_then16RomBanks() {
+        CartridgeHeader header = new CartridgeHeader(romWithHeader((byte) 0x06, (byte) 0x08, (byte) 0x00));
+
+        assertThat(header.romBankCount(16)).isEqualTo(16);
+    }
+
+    @Test
+    public void givenRomSizeCodePast8_whenBankCountCapped_thenThrows() {
+        CartridgeHeader header = new CartridgeHeader(romWithHeader((byte) 0x1B, (byte) 0x11, (byte) 0x00));
+
+        assertThatThrownBy(() -> header.romBankCount(512))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Unknown ROM size code: 0x11");
+    }
+
     @Test
     public void givenRomBankCount_thenRomBankMaskIsCountMinusOne() {
         // 4 banks -> mask 0x03
@@ -182,4 +202,71 @@ public class CartridgeHeaderTest {
 
         assertThat(header.hasRam()).isFalse();
     }
+
+    // --- Title and checksums ---
+
+    @Test
+    public void givenPaddedTitle_thenTitleStopsAtFirstZero() {
+        byte[] rom = romWithHeader((byte) 0x00, (byte) 0x00, (byte) 0x00);
+        System.arraycopy("TETRIS".getBytes(StandardCharsets.US_ASCII), 0, rom, 0x0134, 6);
+
+        assertThat(new CartridgeHeader(rom).title()).isEqualTo("TETRIS");
+    }
+
+    @Test
+    public void givenColorFlagInLastTitleByte_thenItIsNotPartOfTitle() {
+        byte[] rom = romWithHeader((byte) 0x00, (byte) 0x00, (byte) 0x00);
+        System.arraycopy("POKEMON_SLVAAXE".getBytes(StandardCharsets.US_ASCII), 0, rom, 0x0134, 15);
+        rom[0x0143] = (byte) 0x80;
+
+        assertThat(new CartridgeHeader(rom).title()).isEqualTo("POKEMON_SLVAAXE");
+    }
+
+    @Test
+    public void givenCorrectHeaderChecksum_thenChecksumIsValid() {
+        byte[] rom = romWithHeader((byte) 0x01, (byte) 0x02, (byte) 0x03);
+        int checksum = 0;
+        for (int i = 0x0134; i <= 0x014C; i++) {
+            checksum = checksum - rom[i] - 1;
+        }
+        rom[0x014D] = (byte) checksum;
+
+        CartridgeHeader header = new CartridgeHeader(rom);
+
+        assertThat(header.headerChecksumValid()).isTrue();
+        assertThat(header.headerChecksum()).isEqualTo(checksum & 0xFF);
+    }
+
+    @Test
+    public void givenWrongHeaderChecksum_thenChecksumIsInvalid() {
+        byte[] rom = romWithHeader((byte) 0x01, (byte) 0x02, (byte) 0x03);
+        rom[0x014D] = 0x00;
+
+        assertThat(new CartridgeHeader(rom).headerChecksumValid()).isFalse();
+    }
+
+    @Test
+    public void givenGlobalChecksum_thenReadAsBigEndian() {
+        byte[] rom = romWithHeader((byte) 0x00, (byte) 0x00, (byte) 0x00);
+        rom[0x014E] = (byte) 0x12;
+        rom[0x014F] = (byte) 0x34;
+
+        assertThat(new CartridgeHeader(rom).globalChecksum()).isEqualTo(0x1234);
+    }
+
+    @Test
+    public void givenHeaderRegionOnly_thenSameFieldsAsFullImage() {
+        byte[] rom = romWithHeader((byte) 0x13, (byte) 0x05, (byte) 0x03);
+        System.arraycopy("ZELDA".getBytes(StandardCharsets.US_ASCII), 0, rom, 0x0134, 5);
+        byte[] region = Arrays.copyOfRange(rom, CartridgeHeader.START, CartridgeHeader.END);
+
+        CartridgeHeader full = new CartridgeHeader(rom);
+        CartridgeHeader fromRegion = CartridgeHeader.fromHeaderRegion(region);
+
+        assertThat(fromRegion.title()).isEqualTo(full.title());
+        assertThat(fromRegion.cartridgeType()).isEqualTo(0x13);
+        assertThat(fromRegion.romBankCount()).isEqualTo(full.romBankCount());
+        assertThat(fromRegion.ramBankCount()).isEqualTo(full.ramBankCount());
+        assertThat(fromRegion.headerChecksumValid()).isEqualTo(full.headerChecksumValid());
+    }
 }
@@ -3,6 +3,9 @@ package org.gameboy.cartridge;
 import org.gameboy.common.Cartridge;
 import org.junit.jupiter.api.Test;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.gameboy.GameboyAssertions.assertThatHex;
 
 public class Mbc1CartridgeTest {
@@ -364,4 +367,71 @@ public class Mbc1CartridgeTest {
         // BANK1 defaults to 1, so bank = (1 << 5) | 1 = 0x21
         assertThatHex(cart.read((short) 0x4000)).isEqualTo((byte) 0xCC);
     }
+
+    // --- Bank switch notifications ---
+
+    @Test
+    public void givenBankSwitchListener_whenRomBankChanges_thenNotified() {
+        Cartridge cart = createCartridge(mbc1Rom(4));
+        AtomicInteger switches = new AtomicInteger();
+        cart.addBankSwitchListener(switches::incrementAndGet);
+
+        cart.write((short) 0x2000, (byte) 0x02);
+
+        assertThat(switches.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void givenBankSwitchListener_whenSameBankWrittenAgain_thenNotNotified() {
+        Cartridge cart = createCartridge(mbc1Rom(4));
+        AtomicInteger switches = new AtomicInteger();
+        cart.addBankSwitchListener(switches::incrementAndGet);
+
+        cart.write((short) 0x2000, (byte) 0x01);
+        cart.write((short) 0x2000, (byte) 0x00); // Bank 0 is treated as bank 1
+
+        assertThat(switches.get()).isZero();
+    }
+
+    @Test
+    public void givenBankSwitchListener_whenRamEnabled_thenNotNotified() {
+        Cartridge cart = createCartridge(mbc1Rom(4));
+        AtomicInteger switches = new AtomicInteger();
+        cart.addBankSwitchListener(switches::incrementAndGet);
+
+        cart.write((short) 0x0000, (byte) 0x0A);
+
+        assertThat(switches.get()).isZero();
+    }
+
+    @Test
+    public void givenAttachedPageTable_whenMode1SelectsBank2_thenBothRegionsAreRemapped() {
+        Cartridge cart = createCartridge(mbc1Rom(128));
+        int[] pageOffsets = new int[0x80];
+        cart.attachPageTable((firstPage, pageCount, backing, offset) -> {
+            for (int i = 0; i < pageCount; i++) {
+                pageOffsets[firstPage + i] = offset + i * 0x100;
+            }
+        });
+
+        cart.write((short) 0x4000, (byte) 0x01); // BANK2 = 1
+        cart.write((short) 0x6000, (byte) 0x01); // Mode 1
+
+        assertThat(pageOffsets[0x00]).isEqualTo(0x20 * 0x4000);
+        assertThat(pageOffsets[0x40]).isEqualTo(0x21 * 0x4000);
+        assertThat(pageOffsets[0x7F]).isEqualTo(0x21 * 0x4000 + 0x3F00);
+    }
+
+    @Test
+    public void givenRamWriteInBank2_whenDirtyBanksChecked_thenOnlyBank2IsDirty() {
+        Mbc1Cartridge cart = createCartridge(mbc1Rom(4));
+        cart.write((short) 0x0000, (byte) 0x0A); // Enable RAM
+        cart.write((short) 0x6000, (byte) 0x01); // Mode 1
+        cart.write((short) 0x4000, (byte) 0x02); // RAM bank 2
+
+        cart.write((short) 0xA123, (byte) 0x55);
+
+        assertThat(cart.dirtyRegions().nextDirty(0)).isEqualTo(2);
+        assertThat(cart.dirtyRegions().nextDirty(3)).isEqualTo(-1);
+    }
 }
@@ -0,0 +1,217 @@
+package org.gameboy.cartridge;
+
+import org.gameboy.common.Cartridge;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.gameboy.GameboyAssertions.assertThatHex;
+
+public class Mbc2CartridgeTest {
+
+    // Helper: create ROM data with MBC2+BATTERY header (type 0x06)
+    // romBankCount must be a power of 2
+    private static byte[] mbc2Rom(int totalBanks) {
+        byte[] rom = new byte[totalBanks * 0x4000];
+        rom[0x0147] = 0x06; // MBC2+BATTERY
+        rom[0x0148] = (byte) (Integer.numberOfTrailingZeros(totalBanks) - 1);
+        rom[0x0149] = 0x00; // RAM is built in
+        return rom;
+    }
+
+    private static Mbc2Cartridge createCartridge(byte[] rom) {
+        return new Mbc2Cartridge(rom);
+    }
+
+    // --- ROM Bank Reads ---
+
+    @Test
+    public void givenRomData_whenReadFromBank0_thenReturnsBank0Data() {
+        byte[] rom = mbc2Rom(4);
+        rom[0x0100] = (byte) 0xC3;
+
+        Cartridge cart = createCartridge(rom);
+
+        assertThatHex(cart.read((short) 0x0100)).isEqualTo((byte) 0xC3);
+    }
+
+    @Test
+    public void givenDefaultState_whenReadFromSwitchableBank_thenReadsBank1() {
+        byte[] rom = mbc2Rom(4);
+        rom[0x4000] = (byte) 0xAB;
+
+        Cartridge cart = createCartridge(rom);
+
+        assertThatHex(cart.read((short) 0x4000)).isEqualTo((byte) 0xAB);
+    }
+
+    @Test
+    public void givenWriteWithAddressBit8Set_thenRomBankIsSelected() {
+        byte[] rom = mbc2Rom(16);
+        rom[0x0B * 0x4000 + 0x3FFF] = (byte) 0xCD;
+
+        Cartridge cart = createCartridge(rom);
+        cart.write((short) 0x2100, (byte) 0x0B);
+
+        assertThatHex(cart.read((short) 0x7FFF)).isEqualTo((byte) 0xCD);
+    }
+
+    @Test
+    public void givenBankSetTo0_thenTreatedAsBank1() {
+        byte[] rom = mbc2Rom(4);
+        rom[0x4000] = (byte) 0xEF;
+
+        Cartridge cart = createCartridge(rom);
+        cart.write((short) 0x2100, (byte) 0x02);
+        cart.write((short) 0x2100, (byte) 0x00);
+
+        assertThatHex(cart.read((short) 0x4000)).isEqualTo((byte) 0xEF);
+    }
+
+    @Test
+    public void givenBankRegister_thenOnly4BitsUsed() {
+        byte[] rom = mbc2Rom(16);
+        rom[0x03 * 0x4000] = (byte) 0x33;
+
+        Cartridge cart = createCartridge(rom);
+        cart.write((short) 0x2100, (byte) 0xF3);
+
+        assertThatHex(cart.read((short) 0x4000)).isEqualTo((byte) 0x33);
+    }
+
+    @Test
+    public void givenWriteWithAddressBit8Clear_thenRomBankUnchanged() {
+        byte[] rom = mbc2Rom(4);
+        rom[0x4000] = (byte) 0xAB;
+
+        Cartridge cart = createCartridge(rom);
+        cart.write((short) 0x2000, (byte) 0x02);
+
+        assertThatHex(cart.read((short) 0x4000)).isEqualTo((byte) 0xAB);
+    }
+
+    @Test
+    public void givenHeaderClaimsMoreBanksThanMbc2Selects_whenReadMissingBank_thenReturns0xFF() {
+        byte[] header = mbc2Rom(4);
+        header[0x0148] = 0x08; // Claims 512 banks, only 16 of which the bank register reaches
+        Cartridge cart = createCartridge(header);
+
+        cart.write((short) 0x2100, (byte) 0x0F);
+
+        assertThatHex(cart.read((short) 0x4000)).isEqualTo((byte) 0xFF);
+    }
+
+    @Test
+    public void givenUnknownRomSizeCode_whenCreated_thenThrows() {
+        byte[] rom = mbc2Rom(4);
+        rom[0x0148] = 0x0E; // Would be 1 GiB
+
+        assertThatThrownBy(() -> createCartridge(rom)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    // --- Built-in RAM ---
+
+    @Test
+    public void givenRamDisabled_whenReadFromRam_thenReturns0xFF() {
+        Cartridge cart = createCartridge(mbc2Rom(4));
+
+        assertThatHex(cart.read((short) 0xA000)).isEqualTo((byte) 0xFF);
+    }
+
+    @Test
+    public void givenRamEnabled_whenWriteAndRead_thenOnlyLowNibbleIsStored() {
+        Cartridge cart = createCartridge(mbc2Rom(4));
+        cart.write((short) 0x0000, (byte) 0x0A);
+
+        cart.write((short) 0xA010, (byte) 0x5C);
+
+        assertThatHex(cart.read((short) 0xA010)).isEqualTo((byte) 0xFC);
+    }
+
+    @Test
+    public void givenRamEnableWithAddressBit8Set_thenRamRemainsDisabled() {
+        Cartridge cart = createCartridge(mbc2Rom(4));
+
+        cart.write((short) 0x0100, (byte) 0x0A);
+
+        assertThatHex(cart.read((short) 0xA000)).isEqualTo((byte) 0xFF);
+    }
+
+    @Test
+    public void givenRamWritten_whenReadThroughEcho_thenSameValue() {
+        Cartridge cart = createCartridge(mbc2Rom(4));
+        cart.write((short) 0x0000, (byte) 0x0A);
+
+        cart.write((short) 0xA1FF, (byte) 0x07);
+
+        assertThatHex(cart.read((short) 0xA3FF)).isEqualTo((byte) 0xF7);
+        assertThatHex(cart.read((short) 0xBFFF)).isEqualTo((byte) 0xF7);
+    }
+
+    @Test
+    public void givenRamEnabledThenDisabled_whenRead_thenReturns0xFF() {
+        Cartridge cart = createCartridge(mbc2Rom(4));
+        cart.write((short) 0x0000, (byte) 0x0A);
+        cart.write((short) 0xA000, (byte) 0x01);
+
+        cart.write((short) 0x0000, (byte) 0x00);
+
+        assertThatHex(cart.read((short) 0xA000)).isEqualTo((byte) 0xFF);
+    }
+
+    @Test
+    public void givenCartridge_whenAskedForRamSize_thenReports512Bytes() {
+        assertThat(createCartridge(mbc2Rom(4)).ramSize()).isEqualTo(0x200);
+    }
+
+    // --- Bank switch notifications ---
+
+    @Test
+    public void givenBankSwitchListener_whenRomBankChanges_thenNotified() {
+        Cartridge cart = createCartridge(mbc2Rom(4));
+        AtomicInteger switches = new AtomicInteger();
+        cart.addBankSwitchListener(switches::incrementAndGet);
+
+        cart.write((short) 0x2100, (byte) 0x02);
+
+        assertThat(switches.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void givenBankSwitchListener_whenRamEnabled_thenNotNotified() {
+        Cartridge cart = createCartridge(mbc2Rom(4));
+        AtomicInteger switches = new AtomicInteger();
+        cart.addBankSwitchListener(switches::incrementAndGet);
+
+        cart.write((short) 0x0000, (byte) 0x0A);
+
+        assertThat(switches.get()).isZero();
+    }
+
+    @Test
+    public void givenAttachedPageTable_whenBankSwitched_thenUpperRegionIsRemapped() {
+        Cartridge cart = createCartridge(mbc2Rom(16));
+        int[] pageOffsets = new int[0x80];
+        cart.attachPageTable((firstPage, pageCount, backing, offset) -> {
+            for (int i = 0; i < pageCount; i++) {
+                pageOffsets[firstPage + i] = offset + i * 0x100;
+            }
+        });
+
+        cart.write((short) 0x2100, (byte) 0x0E);
+
+        assertThat(pageOffsets[0x40]).isEqualTo(0x0E * 0x4000);
+    }
+
+    @Test
+    public void givenRamWrite_whenDirtyRegionsChecked_thenRamIsDirty() {
+        Mbc2Cartridge cart = createCartridge(mbc2Rom(4));
+        cart.write((short) 0x0000, (byte) 0x0A);
+
+        cart.write((short) 0xA000, (byte) 0x01);
+
+        assertThat(cart.dirtyRegions().isDirty(0)).isTrue();
+    }
+}
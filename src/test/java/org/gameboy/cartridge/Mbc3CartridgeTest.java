@@ -4,8 +4,10 @@ import org.gameboy.common.Cartridge;
 import org.junit.jupiter.api.Test;
 
 import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.gameboy.GameboyAssertions.assertThatHex;
 
 public class Mbc3CartridgeTest {
@@ -310,4 +312,32 @@ public class Mbc3CartridgeTest {
 
         assertThatHex(cart.read((short) 0xBFFF)).isEqualTo((byte) 0xFC);
     }
+
+    // --- Bank switch notifications ---
+
+    @Test
+    public void givenBankSwitchListener_whenRomBankChanges_thenNotified() {
+        Cartridge cart = createCartridge(mbc3Rom(4));
+        AtomicInteger switches = new AtomicInteger();
+        cart.addBankSwitchListener(switches::incrementAndGet);
+
+        cart.write((short) 0x2000, (byte) 0x03);
+        cart.write((short) 0x2000, (byte) 0x03);
+
+        assertThat(switches.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void givenTimePassedWithoutTicks_whenLatched_thenLatchedRegistersShowIt() {
+        AtomicReference<Instant> time = new AtomicReference<>(Instant.EPOCH);
+        Cartridge cart = new Mbc3Cartridge(mbc3Rom(4), time::get);
+        cart.write((short) 0x0000, (byte) 0x0A);
+        cart.write((short) 0x4000, (byte) 0x08);
+
+        time.set(Instant.EPOCH.plusSeconds(7));
+        cart.write((short) 0x6000, (byte) 0x00);
+        cart.write((short) 0x6000, (byte) 0x01);
+
+        assertThatHex(cart.read((short) 0xA000)).isEqualTo((byte) 7);
+    }
 }
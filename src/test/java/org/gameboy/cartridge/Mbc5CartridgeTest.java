@@ -0,0 +1,270 @@
+package org.gameboy.cartridge;
+
+import org.gameboy.common.Cartridge;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.gameboy.GameboyAssertions.assertThatHex;
+
+public class Mbc5CartridgeTest {
+
+    // Helper: create ROM data with MBC5+RAM+BATTERY header (type 0x1B)
+    // romBankCount must be a power of 2
+    private static byte[] mbc5Rom(int totalBanks) {
+        byte[] rom = new byte[totalBanks * 0x4000];
+        rom[0x0147] = 0x1B; // MBC5+RAM+BATTERY
+        rom[0x0148] = (byte) (Integer.numberOfTrailingZeros(totalBanks) - 1);
+        rom[0x0149] = 0x04; // 16 RAM banks (128KB)
+        return rom;
+    }
+
+    private static Mbc5Cartridge createCartridge(byte[] rom) {
+        return new Mbc5Cartridge(rom);
+    }
+
+    // --- ROM Bank 0 Reads (0x0000-0x3FFF) ---
+
+    @Test
+    public void givenRomData_whenReadFromBank0_thenReturnsBank0Data() {
+        byte[] rom = mbc5Rom(4);
+        rom[0x0000] = 0x31;
+        rom[0x3FFF] = 0x42;
+
+        Cartridge cart = createCartridge(rom);
+
+        assertThatHex(cart.read((short) 0x0000)).isEqualTo((byte) 0x31);
+        assertThatHex(cart.read((short) 0x3FFF)).isEqualTo((byte) 0x42);
+    }
+
+    // --- Switchable ROM Bank Reads (0x4000-0x7FFF) ---
+
+    @Test
+    public void givenDefaultState_whenReadFromSwitchableBank_thenReadsBank1() {
+        byte[] rom = mbc5Rom(4);
+        rom[0x4000] = (byte) 0xAB;
+
+        Cartridge cart = createCartridge(rom);
+
+        assertThatHex(cart.read((short) 0x4000)).isEqualTo((byte) 0xAB);
+    }
+
+    @Test
+    public void givenLowBankRegisterSetTo3_whenReadFromSwitchableBank_thenReadsBank3() {
+        byte[] rom = mbc5Rom(4);
+        rom[3 * 0x4000 + 0x0010] = (byte) 0xCD;
+
+        Cartridge cart = createCartridge(rom);
+        cart.write((short) 0x2000, (byte) 0x03);
+
+        assertThatHex(cart.read((short) 0x4010)).isEqualTo((byte) 0xCD);
+    }
+
+    @Test
+    public void givenBankRegisterSetTo0_thenBank0IsSelected() {
+        byte[] rom = mbc5Rom(4);
+        rom[0x0000] = (byte) 0x11;
+        rom[0x4000] = (byte) 0x22;
+
+        Cartridge cart = createCartridge(rom);
+        cart.write((short) 0x2000, (byte) 0x00);
+
+        assertThatHex(cart.read((short) 0x4000)).isEqualTo((byte) 0x11);
+    }
+
+    @Test
+    public void givenHighBankBitSet_whenReadFromSwitchableBank_thenReadsBankAbove255() {
+        byte[] rom = mbc5Rom(512);
+        rom[0x105 * 0x4000] = (byte) 0x9A;
+
+        Cartridge cart = createCartridge(rom);
+        cart.write((short) 0x2000, (byte) 0x05);
+        cart.write((short) 0x3000, (byte) 0x01);
+
+        assertThatHex(cart.read((short) 0x4000)).isEqualTo((byte) 0x9A);
+    }
+
+    @Test
+    public void givenHighBankRegister_thenOnlyBit0Used() {
+        byte[] rom = mbc5Rom(512);
+        rom[0x100 * 0x4000] = (byte) 0x77;
+
+        Cartridge cart = createCartridge(rom);
+        cart.write((short) 0x2000, (byte) 0x00);
+        cart.write((short) 0x3000, (byte) 0xFF);
+
+        assertThatHex(cart.read((short) 0x4000)).isEqualTo((byte) 0x77);
+    }
+
+    @Test
+    public void givenRomBankExceedsActualSize_thenBankMasked() {
+        byte[] rom = mbc5Rom(4);
+        rom[0x4000] = (byte) 0xEE;
+
+        Cartridge cart = createCartridge(rom);
+        cart.write((short) 0x2000, (byte) 0x05); // 5 & 3 = 1
+
+        assertThatHex(cart.read((short) 0x4000)).isEqualTo((byte) 0xEE);
+    }
+
+    @Test
+    public void givenImageShorterThanHeader_whenReadMissingBank_thenReturns0xFF() {
+        byte[] header = mbc5Rom(4);
+        header[0x0148] = 0x02; // Claims 8 banks
+        Cartridge cart = createCartridge(header);
+
+        cart.write((short) 0x2000, (byte) 0x06);
+
+        assertThatHex(cart.read((short) 0x4000)).isEqualTo((byte) 0xFF);
+    }
+
+    @Test
+    public void givenUnknownRomSizeCode_whenCreated_thenThrows() {
+        byte[] rom = mbc5Rom(4);
+        rom[0x0148] = 0x0E; // Would be 1 GiB
+
+        assertThatThrownBy(() -> createCartridge(rom)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    // --- RAM Enable/Disable ---
+
+    @Test
+    public void givenRamDisabled_whenReadFromRam_thenReturns0xFF() {
+        Cartridge cart = createCartridge(mbc5Rom(4));
+
+        assertThatHex(cart.read((short) 0xA000)).isEqualTo((byte) 0xFF);
+    }
+
+    @Test
+    public void givenRamEnabled_whenWriteAndRead_thenReturnsWrittenValue() {
+        Cartridge cart = createCartridge(mbc5Rom(4));
+        cart.write((short) 0x0000, (byte) 0x0A);
+
+        cart.write((short) 0xA000, (byte) 0x42);
+
+        assertThatHex(cart.read((short) 0xA000)).isEqualTo((byte) 0x42);
+    }
+
+    @Test
+    public void givenRamEnabledThenDisabled_whenRead_thenReturns0xFF() {
+        Cartridge cart = createCartridge(mbc5Rom(4));
+        cart.write((short) 0x0000, (byte) 0x0A);
+        cart.write((short) 0xA000, (byte) 0x42);
+
+        cart.write((short) 0x0000, (byte) 0x00);
+
+        assertThatHex(cart.read((short) 0xA000)).isEqualTo((byte) 0xFF);
+    }
+
+    @Test
+    public void givenRamDisabled_whenWriteToRam_thenWriteIgnored() {
+        Cartridge cart = createCartridge(mbc5Rom(4));
+        cart.write((short) 0xA000, (byte) 0x42);
+
+        cart.write((short) 0x0000, (byte) 0x0A);
+
+        assertThatHex(cart.read((short) 0xA000)).isEqualTo((byte) 0x00);
+    }
+
+    // --- RAM Banking ---
+
+    @Test
+    public void givenRamBank5Selected_whenWriteAndReadBack_thenOtherBanksUnaffected() {
+        Cartridge cart = createCartridge(mbc5Rom(4));
+        cart.write((short) 0x0000, (byte) 0x0A);
+
+        cart.write((short) 0x4000, (byte) 0x05);
+        cart.write((short) 0xA100, (byte) 0x55);
+        cart.write((short) 0x4000, (byte) 0x00);
+
+        assertThatHex(cart.read((short) 0xA100)).isEqualTo((byte) 0x00);
+        cart.write((short) 0x4000, (byte) 0x05);
+        assertThatHex(cart.read((short) 0xA100)).isEqualTo((byte) 0x55);
+    }
+
+    @Test
+    public void givenRumbleCartridge_whenRamBankBit3Set_thenItDoesNotSelectABank() {
+        byte[] rom = mbc5Rom(4);
+        rom[0x0147] = 0x1E; // MBC5+RUMBLE+RAM+BATTERY
+        Cartridge cart = createCartridge(rom);
+        cart.write((short) 0x0000, (byte) 0x0A);
+        cart.write((short) 0x4000, (byte) 0x01);
+        cart.write((short) 0xA000, (byte) 0x66);
+
+        cart.write((short) 0x4000, (byte) 0x09); // Motor on, still bank 1
+
+        assertThatHex(cart.read((short) 0xA000)).isEqualTo((byte) 0x66);
+    }
+
+    // --- No-RAM cartridge ---
+
+    @Test
+    public void givenCartridgeWithNoRam_whenReadRam_thenReturns0xFF() {
+        byte[] rom = mbc5Rom(4);
+        rom[0x0147] = 0x19; // MBC5
+        rom[0x0149] = 0x00;
+        Cartridge cart = createCartridge(rom);
+
+        cart.write((short) 0x0000, (byte) 0x0A);
+        cart.write((short) 0xA000, (byte) 0x42);
+
+        assertThatHex(cart.read((short) 0xA000)).isEqualTo((byte) 0xFF);
+    }
+
+    // --- Bank switch notifications ---
+
+    @Test
+    public void givenBankSwitchListener_whenRomBankChanges_thenNotified() {
+        Cartridge cart = createCartridge(mbc5Rom(4));
+        AtomicInteger switches = new AtomicInteger();
+        cart.addBankSwitchListener(switches::incrementAndGet);
+
+        cart.write((short) 0x2000, (byte) 0x02);
+
+        assertThat(switches.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void givenBankSwitchListener_whenSameBankWrittenAgain_thenNotNotified() {
+        Cartridge cart = createCartridge(mbc5Rom(4));
+        AtomicInteger switches = new AtomicInteger();
+        cart.addBankSwitchListener(switches::incrementAndGet);
+
+        cart.write((short) 0x2000, (byte) 0x01);
+        cart.write((short) 0x3000, (byte) 0x00);
+
+        assertThat(switches.get()).isZero();
+    }
+
+    @Test
+    public void givenAttachedPageTable_whenBankSwitched_thenUpperRegionIsRemapped() {
+        Cartridge cart = createCartridge(mbc5Rom(512));
+        int[] pageOffsets = new int[0x80];
+        cart.attachPageTable((firstPage, pageCount, backing, offset) -> {
+            for (int i = 0; i < pageCount; i++) {
+                pageOffsets[firstPage + i] = offset + i * 0x100;
+            }
+        });
+
+        cart.write((short) 0x2000, (byte) 0x23);
+        cart.write((short) 0x3000, (byte) 0x01);
+
+        assertThat(pageOffsets[0x00]).isEqualTo(0);
+        assertThat(pageOffsets[0x40]).isEqualTo(0x123 * 0x4000);
+        assertThat(pageOffsets[0x7F]).isEqualTo(0x123 * 0x4000 + 0x3F00);
+    }
+
+    @Test
+    public void givenRamWriteInBank9_whenDirtyBanksChecked_thenOnlyBank9IsDirty() {
+        Mbc5Cartridge cart = createCartridge(mbc5Rom(4));
+        cart.write((short) 0x0000, (byte) 0x0A);
+        cart.write((short) 0x4000, (byte) 0x09);
+
+        cart.write((short) 0xB000, (byte) 0x55);
+
+        assertThat(cart.dirtyRegions().nextDirty(0)).isEqualTo(9);
+        assertThat(cart.dirtyRegions().nextDirty(10)).isEqualTo(-1);
+    }
+}
@@ -1,8 +1,12 @@
 package org.gameboy.cartridge;
 
+import org.gameboy.common.Clock;
 import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
 
+import java.nio.ByteBuffer;
 import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Supplier;
 
@@ -373,4 +377,97 @@ public class RealTimeClockTest {
         // Latched value should still be 5
         assertThatHex(rtc.read(0x08)).isEqualTo((byte) 5);
     }
+
+    // --- Save file trailer ---
+
+    @Test
+    public void givenSavedClock_whenLoadedLater_thenTimeSpentPoweredOffIsCounted() {
+        AtomicReference<Instant> time = new AtomicReference<>(Instant.ofEpochSecond(1_000_000));
+        RealTimeClock rtc = new RealTimeClock(fixedClock(time));
+        rtc.write(0x08, (byte) 10);
+        ByteBuffer trailer = ByteBuffer.allocate(RealTimeClock.TRAILER_SIZE);
+        rtc.save(trailer);
+
+        time.set(Instant.ofEpochSecond(1_000_065));
+        RealTimeClock restored = new RealTimeClock(fixedClock(time));
+        restored.load(trailer);
+        restored.tick();
+        restored.writeLatch((byte) 0x00);
+        restored.writeLatch((byte) 0x01);
+
+        assertThatHex(restored.read(0x08)).isEqualTo((byte) 15);
+        assertThatHex(restored.read(0x09)).isEqualTo((byte) 1);
+    }
+
+    @Test
+    public void givenEmptyTrailer_whenLoaded_thenClockIsUnchanged() {
+        AtomicReference<Instant> time = new AtomicReference<>(Instant.EPOCH);
+        RealTimeClock rtc = new RealTimeClock(fixedClock(time));
+
+        rtc.load(ByteBuffer.allocate(RealTimeClock.TRAILER_SIZE));
+        rtc.writeLatch((byte) 0x00);
+        rtc.writeLatch((byte) 0x01);
+
+        assertThatHex(rtc.read(0x08)).isEqualTo((byte) 0);
+    }
+
+    // --- Emulated time ---
+
+    @Test
+    public void givenEmulatedTime_whenOneSecondOfMCyclesPasses_thenSecondsAdvanceByOne() {
+        AtomicLong mCycles = new AtomicLong();
+        RealTimeClock rtc = new RealTimeClock(RtcTimeSource.emulated());
+        rtc.attachClock(cpuClock(mCycles));
+
+        mCycles.set(RtcTimeSource.M_CYCLES_PER_SECOND - 1);
+        rtc.writeLatch((byte) 0x00);
+        rtc.writeLatch((byte) 0x01);
+        assertThatHex(rtc.read(0x08)).isEqualTo((byte) 0);
+
+        mCycles.set(RtcTimeSource.M_CYCLES_PER_SECOND);
+        rtc.writeLatch((byte) 0x00);
+        rtc.writeLatch((byte) 0x01);
+        assertThatHex(rtc.read(0x08)).isEqualTo((byte) 1);
+    }
+
+    @Test
+    public void givenEmulatedTime_whenHalted_thenMCyclesAreNotCounted() {
+        AtomicLong mCycles = new AtomicLong();
+        RealTimeClock rtc = new RealTimeClock(RtcTimeSource.emulated());
+        rtc.attachClock(cpuClock(mCycles));
+
+        mCycles.set(2L * RtcTimeSource.M_CYCLES_PER_SECOND);
+        rtc.write(0x0C, (byte) 0x40);
+        mCycles.set(10L * RtcTimeSource.M_CYCLES_PER_SECOND);
+        rtc.write(0x0C, (byte) 0x00);
+        mCycles.set(11L * RtcTimeSource.M_CYCLES_PER_SECOND);
+        rtc.writeLatch((byte) 0x00);
+        rtc.writeLatch((byte) 0x01);
+
+        assertThatHex(rtc.read(0x08)).isEqualTo((byte) 3);
+    }
+
+    @Test
+    public void givenEmulatedTime_whenSavedAndLoaded_thenClockResumesExactlyWhereItWas() {
+        AtomicLong mCycles = new AtomicLong();
+        RealTimeClock rtc = new RealTimeClock(RtcTimeSource.emulated());
+        rtc.attachClock(cpuClock(mCycles));
+        mCycles.set(42L * RtcTimeSource.M_CYCLES_PER_SECOND);
+        ByteBuffer trailer = ByteBuffer.allocate(RealTimeClock.TRAILER_SIZE);
+        rtc.save(trailer);
+
+        RealTimeClock restored = new RealTimeClock(RtcTimeSource.emulated());
+        restored.attachClock(cpuClock(new AtomicLong()));
+        restored.load(trailer);
+        restored.writeLatch((byte) 0x00);
+        restored.writeLatch((byte) 0x01);
+
+        assertThatHex(restored.read(0x08)).isEqualTo((byte) 42);
+    }
+
+    private static Clock cpuClock(AtomicLong mCycles) {
+        Clock clock = Mockito.mock(Clock.class);
+        Mockito.when(clock.getTime()).thenAnswer(invocation -> mCycles.get());
+        return clock;
+    }
 }
@@ -0,0 +1,154 @@
+package org.gameboy.cartridge;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RomLibraryTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void givenDirectoryOfRoms_whenOpened_thenEachHeaderIsRecorded() throws IOException {
+        Path library = Files.createDirectory(tempDir.resolve("roms"));
+        writeRom(library.resolve("b.gb"), "BETA", 0x13);
+        writeRom(library.resolve("a.gb"), "ALPHA", 0x00);
+        Files.writeString(library.resolve("notes.txt"), "not a rom");
+
+        RomLibrary rom = RomLibrary.open(library, index());
+
+        assertThat(rom.entries()).extracting(RomLibrary.Entry::path).containsExactly("a.gb", "b.gb");
+        assertThat(rom.entries()).extracting(RomLibrary.Entry::title).containsExactly("ALPHA", "BETA");
+        assertThat(rom.entries().get(1).cartridgeType()).isEqualTo(0x13);
+        assertThat(rom.entries()).allMatch(RomLibrary.Entry::headerChecksumValid);
+        assertThat(rom.headersRead()).isEqualTo(2);
+    }
+
+    @Test
+    void givenUnsupportedMapperAndTruncatedFile_whenOpened_thenNeitherIsSupported() throws IOException {
+        Path library = Files.createDirectory(tempDir.resolve("roms"));
+        writeRom(library.resolve("huc1.gb"), "HUC", 0xFF);
+        Files.write(library.resolve("short.gb"), new byte[0x120]);
+
+        List<RomLibrary.Entry> entries = RomLibrary.open(library, index()).entries();
+
+        assertThat(entries).extracting(RomLibrary.Entry::path).containsExactly("huc1.gb", "short.gb");
+        assertThat(entries.get(0).readable()).isTrue();
+        assertThat(entries.get(0).supported()).isFalse();
+        assertThat(entries.get(1).readable()).isFalse();
+        assertThat(entries).noneMatch(RomLibrary.Entry::supported);
+    }
+
+    @Test
+    void givenNestedDirectoriesAndArchives_whenOpened_thenEveryRomIsFound() throws IOException {
+        Path library = Files.createDirectory(tempDir.resolve("roms"));
+        Path nested = Files.createDirectory(library.resolve("rpg"));
+        writeRom(nested.resolve("quest.gb"), "QUEST", 0x1B);
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(library.resolve("puzzle.gb.gz")))) {
+            out.write(rom("PUZZLE", 0x01));
+        }
+
+        List<RomLibrary.Entry> entries = RomLibrary.open(library, index()).entries();
+
+        assertThat(entries).extracting(RomLibrary.Entry::path).containsExactly("puzzle.gb.gz", "rpg/quest.gb");
+        assertThat(entries).extracting(RomLibrary.Entry::title).containsExactly("PUZZLE", "QUEST");
+        assertThat(entries).allMatch(RomLibrary.Entry::supported);
+    }
+
+    @Test
+    void givenUnchangedLibrary_whenOpenedAgain_thenIndexIsUsedWithoutReadingHeaders() throws IOException {
+        Path library = Files.createDirectory(tempDir.resolve("roms"));
+        writeRom(library.resolve("a.gb"), "ALPHA", 0x00);
+        RomLibrary.open(library, index());
+
+        RomLibrary reopened = RomLibrary.open(library, index());
+
+        assertThat(reopened.headersRead()).isZero();
+        assertThat(reopened.entries()).extracting(RomLibrary.Entry::title).containsExactly("ALPHA");
+    }
+
+    @Test
+    void givenUnchangedLibrary_whenOpenedAgain_thenSupportIsWorkedOutFromTheCartridgeType() throws IOException {
+        Path library = Files.createDirectory(tempDir.resolve("roms"));
+        writeRom(library.resolve("huc1.gb"), "HUC", 0xFF);
+        writeRom(library.resolve("mbc3.gb"), "RTC", 0x10);
+        RomLibrary.open(library, index());
+
+        RomLibrary reopened = RomLibrary.open(library, index());
+
+        assertThat(reopened.headersRead()).isZero();
+        assertThat(reopened.entries()).extracting(RomLibrary.Entry::supported).containsExactly(false, true);
+    }
+
+    @Test
+    void givenRomAdded_whenOpenedAgain_thenOnlyTheNewHeaderIsRead() throws IOException {
+        Path library = Files.createDirectory(tempDir.resolve("roms"));
+        writeRom(library.resolve("a.gb"), "ALPHA", 0x00);
+        RomLibrary.open(library, index());
+
+        writeRom(library.resolve("c.gb"), "GAMMA", 0x19);
+        Files.setLastModifiedTime(library, FileTime.fromMillis(Files.getLastModifiedTime(library).toMillis() + 1000));
+        RomLibrary reopened = RomLibrary.open(library, index());
+
+        assertThat(reopened.headersRead()).isEqualTo(1);
+        assertThat(reopened.entries()).extracting(RomLibrary.Entry::title).containsExactly("ALPHA", "GAMMA");
+    }
+
+    @Test
+    void givenCorruptIndex_whenOpened_thenLibraryIsScannedAgain() throws IOException {
+        Path library = Files.createDirectory(tempDir.resolve("roms"));
+        writeRom(library.resolve("a.gb"), "ALPHA", 0x00);
+        Files.writeString(index(), "garbage");
+
+        RomLibrary rom = RomLibrary.open(library, index());
+
+        assertThat(rom.headersRead()).isEqualTo(1);
+        assertThat(rom.entries()).extracting(RomLibrary.Entry::title).containsExactly("ALPHA");
+    }
+
+    @Test
+    void givenIndexCannotBeMovedIntoPlace_whenOpened_thenNoPartialFileIsLeft() throws IOException {
+        Path library = Files.createDirectory(tempDir.resolve("roms"));
+        writeRom(library.resolve("a.gb"), "ALPHA", 0x00);
+        // A non-empty directory where the index should go makes the move fail
+        Files.createDirectories(index().resolve("occupied"));
+
+        RomLibrary rom = RomLibrary.open(library, index());
+
+        assertThat(rom.entries()).extracting(RomLibrary.Entry::title).containsExactly("ALPHA");
+        try (var files = Files.list(tempDir)) {
+            assertThat(files.map(path -> path.getFileName().toString()))
+                    .noneMatch(name -> name.endsWith(".partial"));
+        }
+    }
+
+    private Path index() {
+        return tempDir.resolve("library.idx");
+    }
+
+    private static void writeRom(Path path, String title, int cartridgeType) throws IOException {
+        Files.write(path, rom(title, cartridgeType));
+    }
+
+    private static byte[] rom(String title, int cartridgeType) {
+        byte[] rom = new byte[0x8000];
+        System.arraycopy(title.getBytes(StandardCharsets.US_ASCII), 0, rom, 0x0134, title.length());
+        rom[0x0147] = (byte) cartridgeType;
+        int checksum = 0;
+        for (int i = 0x0134; i <= 0x014C; i++) {
+            checksum = checksum - rom[i] - 1;
+        }
+        rom[0x014D] = (byte) checksum;
+        return rom;
+    }
+}
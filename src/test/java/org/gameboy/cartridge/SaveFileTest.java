@@ -0,0 +1,95 @@
+package org.gameboy.cartridge;
+
+import org.gameboy.common.Cartridge;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.gameboy.GameboyAssertions.assertThatHex;
+
+class SaveFileTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void givenBatteryBackedMbc1_whenRamWrittenAndClosed_thenReopenedCartridgeReadsIt() throws IOException {
+        byte[] rom = rom(0x03, 0x03);
+        Path save = tempDir.resolve("game.sav");
+
+        Cartridge cartridge = CartridgeFactory.fromRom(rom, save);
+        cartridge.write((short) 0x0000, (byte) 0x0A);
+        cartridge.write((short) 0xA123, (byte) 0x5A);
+        cartridge.write((short) 0x0000, (byte) 0x00);
+        cartridge.close();
+
+        Cartridge reopened = CartridgeFactory.fromRom(rom, save);
+        reopened.write((short) 0x0000, (byte) 0x0A);
+
+        assertThat(Files.size(save)).isEqualTo(4 * 0x2000);
+        assertThatHex(reopened.read((short) 0xA123)).isEqualTo((byte) 0x5A);
+        reopened.close();
+    }
+
+    @Test
+    void givenBatteryBackedCartridge_whenAskedForRamSize_thenNothingIsPlacedInTheArena() throws IOException {
+        Cartridge cartridge = CartridgeFactory.fromRom(rom(0x03, 0x03), tempDir.resolve("game.sav"));
+
+        assertThat(cartridge.ramSize()).isZero();
+        cartridge.close();
+    }
+
+    @Test
+    void givenCartridgeWithoutBattery_whenLoadedWithSavePath_thenNoFileIsCreated() throws IOException {
+        Path save = tempDir.resolve("game.sav");
+
+        Cartridge cartridge = CartridgeFactory.fromRom(rom(0x02, 0x03), save);
+
+        assertThat(cartridge.ramSize()).isEqualTo(4 * 0x2000);
+        assertThat(save).doesNotExist();
+    }
+
+    @Test
+    void givenMbc3WithClock_whenClosedAndReopened_thenClockRegistersAreRestoredFromTrailer() throws IOException {
+        byte[] rom = rom(0x10, 0x03);
+        Path path = tempDir.resolve("game.sav");
+        AtomicReference<Instant> time = new AtomicReference<>(Instant.ofEpochSecond(1_000_000));
+
+        Mbc3Cartridge cartridge = new Mbc3Cartridge(rom, time::get, SaveFile.open(path, 4 * 0x2000, 48));
+        cartridge.write((short) 0x0000, (byte) 0x0A);
+        cartridge.write((short) 0x4000, (byte) 0x09);
+        cartridge.write((short) 0xA000, (byte) 42);
+        cartridge.close();
+
+        Mbc3Cartridge reopened = new Mbc3Cartridge(rom, time::get, SaveFile.open(path, 4 * 0x2000, 48));
+        reopened.write((short) 0x0000, (byte) 0x0A);
+        reopened.write((short) 0x4000, (byte) 0x09);
+        reopened.write((short) 0x6000, (byte) 0x00);
+        reopened.write((short) 0x6000, (byte) 0x01);
+
+        assertThat(Files.size(path)).isEqualTo(4 * 0x2000 + 48);
+        assertThatHex(reopened.read((short) 0xA000)).isEqualTo((byte) 42);
+        reopened.close();
+    }
+
+    @Test
+    void givenRomPath_whenSavePathDerived_thenExtensionIsReplaced() {
+        assertThat(SaveFile.forRom(Path.of("roms", "game.gb"))).isEqualTo(Path.of("roms", "game.sav"));
+        assertThat(SaveFile.forRom(Path.of("game"))).isEqualTo(Path.of("game.sav"));
+        assertThat(SaveFile.forRom(Path.of("roms", "game.gb.gz"))).isEqualTo(Path.of("roms", "game.sav"));
+        assertThat(SaveFile.forRom(Path.of("roms", "game.zip"))).isEqualTo(Path.of("roms", "game.sav"));
+    }
+
+    private static byte[] rom(int cartridgeType, int ramSizeCode) {
+        byte[] rom = new byte[4 * 0x4000];
+        rom[0x0147] = (byte) cartridgeType;
+        rom[0x0148] = 0x01;
+        rom[0x0149] = (byte) ramSizeCode;
+        return rom;
+    }
+}
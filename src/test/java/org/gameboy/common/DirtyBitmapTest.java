@@ -0,0 +1,42 @@
+package org.gameboy.common;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DirtyBitmapTest {
+    @Test
+    void givenMarkedRegions_whenScanned_thenEachIsFoundInOrder() {
+        DirtyBitmap bitmap = new DirtyBitmap(256);
+        bitmap.mark(3);
+        bitmap.mark(64);
+        bitmap.mark(255);
+
+        assertThat(bitmap.nextDirty(0)).isEqualTo(3);
+        assertThat(bitmap.nextDirty(4)).isEqualTo(64);
+        assertThat(bitmap.nextDirty(65)).isEqualTo(255);
+        assertThat(bitmap.nextDirty(256)).isEqualTo(-1);
+    }
+
+    @Test
+    void givenDirtyRegion_whenCleared_thenReportedOnceAndNoLongerDirty() {
+        DirtyBitmap bitmap = new DirtyBitmap(4);
+        bitmap.mark(2);
+
+        assertThat(bitmap.clear(2)).isTrue();
+        assertThat(bitmap.clear(2)).isFalse();
+        assertThat(bitmap.anyDirty()).isFalse();
+    }
+
+    @Test
+    void givenSeveralDirtyRegions_whenAllCleared_thenNothingIsDirty() {
+        DirtyBitmap bitmap = new DirtyBitmap(256);
+        bitmap.mark(0);
+        bitmap.mark(200);
+
+        bitmap.clearAll();
+
+        assertThat(bitmap.anyDirty()).isFalse();
+        assertThat(bitmap.nextDirty(0)).isEqualTo(-1);
+    }
+}
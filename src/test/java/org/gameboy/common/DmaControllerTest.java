@@ -12,7 +12,8 @@ class DmaControllerTest {
 
     @BeforeEach
     void setUp() {
-        memory = Mockito.mock(Memory.class);
+        // Real default methods, so bulk copies still show up as the reads and writes they stand for
+        memory = Mockito.mock(Memory.class, Mockito.CALLS_REAL_METHODS);
         dmaController = new MemoryBus(memory);
     }
 
@@ -90,7 +91,7 @@ class DmaControllerTest {
 
     @Test
     void shouldHaveTwoSetupCyclesBeforeFirstTransfer() {
-        Memory testMemory = Mockito.mock(Memory.class);
+        Memory testMemory = Mockito.mock(Memory.class, Mockito.CALLS_REAL_METHODS);
         MemoryBus testDma = new MemoryBus(testMemory);
 
         Mockito.when(testMemory.read((short) 0xC000)).thenReturn((byte) 0x42);
@@ -98,12 +99,15 @@ class DmaControllerTest {
         testDma.startDma((byte) 0xC0);
 
         testDma.mCycle(); // REQUESTED
+        testDma.flushTransfer();
         Mockito.verify(testMemory, Mockito.never()).write((short) 0xFE00, (byte) 0x42);
 
         testDma.mCycle(); // PENDING
+        testDma.flushTransfer();
         Mockito.verify(testMemory, Mockito.never()).write((short) 0xFE00, (byte) 0x42);
 
         testDma.mCycle(); // TRANSFERRING
+        testDma.flushTransfer();
         Mockito.verify(testMemory).write((short) 0xFE00, (byte) 0x42);
     }
 
@@ -188,4 +192,41 @@ class DmaControllerTest {
 
         assertThat(dmaController.read((short) 0xFE00)).isEqualTo((byte) 0xFF);
     }
+
+    @Test
+    void givenTransferInProgress_whenFlushed_thenExactlyTheBytesReachedSoFarAreInOam() {
+        BasicMemory basicMemory = new BasicMemory();
+        MemoryBus bus = new MemoryBus(basicMemory);
+        for (int i = 0; i < 160; i++) {
+            basicMemory.write((short) (0xC000 + i), (byte) (i + 1));
+        }
+
+        bus.startDma((byte) 0xC0);
+        for (int i = 0; i < 2 + 10; i++) {
+            bus.mCycle();
+        }
+        bus.flushTransfer();
+
+        assertThat(basicMemory.read((short) 0xFE09)).isEqualTo((byte) 10);
+        assertThat(basicMemory.read((short) 0xFE0A)).isEqualTo((byte) 0);
+    }
+
+    @Test
+    void givenTransferInProgress_whenCpuWritesSource_thenBytesAlreadyReachedKeepTheirOldValue() {
+        BasicMemory basicMemory = new BasicMemory();
+        MemoryBus bus = new MemoryBus(basicMemory);
+        basicMemory.write((short) 0xC000, (byte) 0x11);
+
+        bus.startDma((byte) 0xC0);
+        for (int i = 0; i < 3; i++) {
+            bus.mCycle();
+        }
+        bus.write((short) 0xC000, (byte) 0x22);
+        for (int i = 0; i < 159; i++) {
+            bus.mCycle();
+        }
+
+        assertThat(bus.isDmaActive()).isFalse();
+        assertThat(basicMemory.read((short) 0xFE00)).isEqualTo((byte) 0x11);
+    }
 }
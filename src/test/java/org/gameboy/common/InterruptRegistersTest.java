@@ -4,11 +4,11 @@ import org.junit.jupiter.api.Test;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
-class InterruptFlagsRegisterTest {
+class InterruptRegistersTest {
 
     @Test
     void whenWritingZero_shouldReadAsE0() {
-        ByteRegister ifRegister = new InterruptFlagsRegister();
+        ByteRegister ifRegister = new InterruptRegisters().interruptFlags();
 
         ifRegister.write((byte) 0x00);
 
@@ -18,7 +18,7 @@ class InterruptFlagsRegisterTest {
 
     @Test
     void whenWritingSerialInterrupt_shouldReadWithUpperBitsSet() {
-        ByteRegister ifRegister = new InterruptFlagsRegister();
+        ByteRegister ifRegister = new InterruptRegisters().interruptFlags();
 
         ifRegister.write((byte) 0x08);
 
@@ -28,7 +28,7 @@ class InterruptFlagsRegisterTest {
 
     @Test
     void whenWritingAllInterruptBits_shouldReadWithUpperBitsSet() {
-        ByteRegister ifRegister = new InterruptFlagsRegister();
+        ByteRegister ifRegister = new InterruptRegisters().interruptFlags();
 
         ifRegister.write((byte) 0x1F);
 
@@ -38,7 +38,7 @@ class InterruptFlagsRegisterTest {
 
     @Test
     void whenWritingVBlankInterrupt_shouldReadWithUpperBitsSet() {
-        ByteRegister ifRegister = new InterruptFlagsRegister();
+        ByteRegister ifRegister = new InterruptRegisters().interruptFlags();
 
         ifRegister.write((byte) 0x01);
 
@@ -48,7 +48,7 @@ class InterruptFlagsRegisterTest {
 
     @Test
     void whenClearingSpecificBit_shouldReadWithUpperBitsSet() {
-        ByteRegister ifRegister = new InterruptFlagsRegister();
+        ByteRegister ifRegister = new InterruptRegisters().interruptFlags();
 
         ifRegister.write((byte) 0x08);
         assertThat(ifRegister.read()).isEqualTo((byte) 0xE8);
@@ -61,7 +61,7 @@ class InterruptFlagsRegisterTest {
 
     @Test
     void whenWritingUpperBits_shouldIgnoreThem() {
-        ByteRegister ifRegister = new InterruptFlagsRegister();
+        ByteRegister ifRegister = new InterruptRegisters().interruptFlags();
 
         ifRegister.write((byte) 0x08);
         assertThat(ifRegister.read()).isEqualTo((byte) 0xE8);
@@ -72,4 +72,31 @@ class InterruptFlagsRegisterTest {
         ifRegister.write((byte) 0xE0);
         assertThat(ifRegister.read()).isEqualTo((byte) 0xE0);
     }
+
+    @Test
+    void givenFlagsAndEnableWritten_whenPending_thenOnlyEnabledInterruptBitsMirrored() {
+        InterruptRegisters interruptRegisters = new InterruptRegisters();
+
+        interruptRegisters.interruptFlags().write((byte) 0xFF);
+        interruptRegisters.interruptEnable().write((byte) 0x05);
+
+        assertThat(interruptRegisters.pending()).isEqualTo(0x05);
+    }
+
+    @Test
+    void givenInterruptEnableHasUpperBits_whenPending_thenUpperBitsIgnored() {
+        InterruptRegisters interruptRegisters = new InterruptRegisters(0xE2, 0xFF);
+
+        assertThat(interruptRegisters.pending()).isEqualTo(0x02);
+        assertThat(interruptRegisters.interruptEnable().read()).isEqualTo((byte) 0xFF);
+    }
+
+    @Test
+    void givenPendingInterrupt_whenFlagCleared_thenPendingCleared() {
+        InterruptRegisters interruptRegisters = new InterruptRegisters(0x04, 0x04);
+
+        interruptRegisters.interruptFlags().write((byte) 0x00);
+
+        assertThat(interruptRegisters.pending()).isZero();
+    }
 }
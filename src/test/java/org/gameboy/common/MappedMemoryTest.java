@@ -1,5 +1,6 @@
 package org.gameboy.common;
 
+import org.gameboy.cartridge.Mbc1Cartridge;
 import org.gameboy.cartridge.RomOnlyCartridge;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -56,8 +57,15 @@ public class MappedMemoryTest {
         obp1Register = new IntBackedRegister();
         serialController = Mockito.mock(SerialController.class);
         joypadController = Mockito.mock(ByteRegister.class);
-        Cartridge cartridge = new RomOnlyCartridge(new byte[0]);
-        memory = new MappedMemory(cartridge, divRegister, timaRegister, tmaRegister, tacRegister, dmaRegister,
+        memory = memoryWith(new RomOnlyCartridge(new byte[0]));
+    }
+
+    private MappedMemory memoryWith(Cartridge cartridge) {
+        return memoryWith(cartridge, RamArena.onHeap(cartridge));
+    }
+
+    private MappedMemory memoryWith(Cartridge cartridge, RamArena ramArena) {
+        return new MappedMemory(cartridge, ramArena, divRegister, timaRegister, tmaRegister, tacRegister, dmaRegister,
                                  interruptFlagsRegister, interruptEnableRegister,
                                  lcdcRegister, statRegister, scyRegister, scxRegister,
                                  lyRegister, lycRegister, wyRegister, wxRegister,
@@ -291,4 +299,85 @@ public class MappedMemoryTest {
         memory.write((short) 0xFF49, (byte) 0xFF);
         assertEquals((byte) 0xFF, memory.read((short) 0xFF49));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void givenWorkRamIsWritten_whenMemoryIsRead_thenCorrectValueIsReturned() {
+        memory.write((short) 0xC123, (byte) 0x5A);
+        memory.write((short) 0xFF80, (byte) 0xA5);
+
+        assertEquals((byte) 0x5A, memory.read((short) 0xC123));
+        assertEquals((byte) 0xA5, memory.read((short) 0xFF80));
+    }
+
+    @Test
+    public void givenMbc1Cartridge_whenRomBankSwitched_thenSwitchableRegionReadsNewBank() {
+        byte[] rom = new byte[4 * 0x4000];
+        rom[0x0147] = 0x01; // MBC1
+        rom[0x0148] = 0x01; // 4 banks
+        rom[0x4010] = 0x11;
+        rom[0x8010] = 0x22;
+        MappedMemory mbc1Memory = memoryWith(new Mbc1Cartridge(rom));
+
+        assertEquals((byte) 0x11, mbc1Memory.read((short) 0x4010));
+        mbc1Memory.write((short) 0x2000, (byte) 0x02);
+
+        assertEquals((byte) 0x22, mbc1Memory.read((short) 0x4010));
+        assertEquals((byte) 0x01, mbc1Memory.read((short) 0x0147));
+    }
+
+    @Test
+    public void givenRomShorterThanBank_whenSwitchableRegionRead_thenOpenBusIsReturned() {
+        byte[] rom = new byte[0x4000 + 0x100];
+        rom[0x0147] = 0x01; // MBC1
+        rom[0x0148] = 0x00; // 2 banks, but the second is truncated
+        rom[0x4000] = 0x33;
+        MappedMemory mbc1Memory = memoryWith(new Mbc1Cartridge(rom));
+
+        assertEquals((byte) 0x33, mbc1Memory.read((short) 0x4000));
+        assertEquals((byte) 0xFF, mbc1Memory.read((short) 0x4100));
+    }
+
+    @Test
+    public void givenWritesToWorkRamAndRegister_whenDirtyPagesChecked_thenOnlyThosePagesAreDirty() {
+        memory.write((short) 0xC0FF, (byte) 0x01);
+        memory.write((short) 0xFF04, (byte) 0x00);
+
+        DirtyBitmap dirtyPages = memory.dirtyRegions();
+        assertEquals(0xC0, dirtyPages.nextDirty(0));
+        assertEquals(0xFF, dirtyPages.nextDirty(0xC1));
+    }
+
+    @Test
+    public void givenOffHeapArena_whenRamIsWritten_thenItLandsAtTheDocumentedOffsets() {
+        Cartridge cartridge = new RomOnlyCartridge(new byte[0]);
+        RamArena arena = new RamArena(RamBacking.OFF_HEAP, cartridge.ramSize());
+        MappedMemory offHeapMemory = memoryWith(cartridge, arena);
+
+        offHeapMemory.write((short) 0x8001, (byte) 0x11);
+        offHeapMemory.write((short) 0xC002, (byte) 0x22);
+        offHeapMemory.write((short) 0xFF80, (byte) 0x33);
+
+        assertEquals((byte) 0x11, offHeapMemory.read((short) 0x8001));
+        assertEquals((byte) 0x22, offHeapMemory.read((short) 0xC002));
+        assertEquals((byte) 0x33, offHeapMemory.read((short) 0xFF80));
+        assertEquals((byte) 0x11, arena.buffer().get(RamArena.VRAM_OFFSET + 0x0001));
+        assertEquals((byte) 0x22, arena.buffer().get(RamArena.UPPER_RAM_OFFSET + 0x0002));
+        assertEquals((byte) 0x33, arena.buffer().get(RamArena.UPPER_RAM_OFFSET + 0x3F80));
+    }
+
+    @Test
+    public void givenMbc1CartridgeWithRam_whenSramIsWritten_thenItLandsInTheArena() {
+        byte[] rom = new byte[4 * 0x4000];
+        rom[0x0147] = 0x03; // MBC1+RAM+BATTERY
+        rom[0x0148] = 0x01; // 4 banks
+        rom[0x0149] = 0x02; // 1 RAM bank
+        Cartridge cartridge = new Mbc1Cartridge(rom);
+        RamArena arena = new RamArena(RamBacking.OFF_HEAP, cartridge.ramSize());
+        MappedMemory mbc1Memory = memoryWith(cartridge, arena);
+
+        mbc1Memory.write((short) 0x0000, (byte) 0x0A); // Enable RAM
+        mbc1Memory.write((short) 0xA010, (byte) 0x44);
+
+        assertEquals((byte) 0x44, arena.buffer().get(RamArena.CARTRIDGE_RAM_OFFSET + 0x10));
+    }
+}
@@ -0,0 +1,47 @@
+package org.gameboy.common;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Reports what a CPU read costs through the bus while DMA is idle, next to the same read on the memory underneath
+@Tag("benchmark")
+public class MemoryBusAccessCostTest {
+    private static final int ROUNDS = 5;
+    private static final int READS = 20_000_000;
+
+    @Test
+    public void measureReadCostWithDmaIdle() {
+        BasicMemory underlying = new BasicMemory();
+        for (int address = 0; address < 0x10000; address++) {
+            underlying.write((short) address, (byte) address);
+        }
+        MemoryBus bus = new MemoryBus(underlying);
+
+        double direct = Double.MAX_VALUE;
+        double throughBus = Double.MAX_VALUE;
+        long checksum = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            checksum += readAll(underlying);
+            direct = Math.min(direct, (double) (System.nanoTime() - start) / READS);
+
+            start = System.nanoTime();
+            checksum += readAll(bus);
+            throughBus = Math.min(throughBus, (double) (System.nanoTime() - start) / READS);
+        }
+
+        System.out.printf("Read with DMA idle: %.2f ns through MemoryBus, %.2f ns direct%n", throughBus, direct);
+        assertThat(bus.isDmaActive()).isFalse();
+        assertThat(checksum).isNotZero();
+    }
+
+    private static long readAll(Memory memory) {
+        long sum = 0;
+        for (int i = 0; i < READS; i++) {
+            sum += memory.read((short) i);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,49 @@
+package org.gameboy.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MemoryListenerTableTest {
+    @Test
+    void givenTwoListenersOnSameAddress_whenWritten_thenBothNotifiedInRegistrationOrder() {
+        MemoryListenerTable table = new MemoryListenerTable();
+        List<String> calls = new ArrayList<>();
+        table.register((short) 0xFF46, () -> calls.add("first"));
+        table.register((short) 0xFF46, () -> calls.add("second"));
+
+        table.notifyWrite(0xFF46);
+
+        assertThat(calls).containsExactly("first", "second");
+    }
+
+    @Test
+    void givenListenerOnNeighbouringAddress_whenWritten_thenNotNotified() {
+        MemoryListenerTable table = new MemoryListenerTable();
+        List<String> calls = new ArrayList<>();
+        table.register((short) 0xFF41, () -> calls.add("stat"));
+
+        table.notifyWrite(0xFF40);
+        table.notifyWrite(0xFF42);
+        table.notifyWrite(0xFF41 - 64);
+
+        assertThat(calls).isEmpty();
+    }
+
+    @Test
+    void givenListenersInDifferentPages_whenEachWritten_thenOnlyItsOwnListenerIsNotified() {
+        MemoryListenerTable table = new MemoryListenerTable();
+        List<String> calls = new ArrayList<>();
+        table.register((short) 0x2000, () -> calls.add("bank"));
+        table.register((short) 0xFF46, () -> calls.add("dma"));
+
+        table.notifyWrite(0xFF46);
+        table.notifyWrite(0x2100);
+        table.notifyWrite(0x2000);
+
+        assertThat(calls).containsExactly("dma", "bank");
+    }
+}
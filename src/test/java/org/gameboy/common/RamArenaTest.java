@@ -0,0 +1,45 @@
+package org.gameboy.common;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RamArenaTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void givenSnapshot_whenArenaChangedAndRestored_thenOriginalContentsReturn() {
+        RamArena arena = new RamArena(RamBacking.OFF_HEAP, 0x2000);
+        arena.buffer().put(RamArena.UPPER_RAM_OFFSET, (byte) 0x12);
+        byte[] snapshot = arena.snapshot();
+
+        arena.buffer().put(RamArena.UPPER_RAM_OFFSET, (byte) 0x34);
+        arena.restore(snapshot);
+
+        assertThat(arena.buffer().get(RamArena.UPPER_RAM_OFFSET)).isEqualTo((byte) 0x12);
+    }
+
+    @Test
+    void givenSnapshotOfAnotherSize_whenRestored_thenRejected() {
+        RamArena arena = new RamArena(RamBacking.HEAP, 0);
+
+        assertThatThrownBy(() -> arena.restore(new byte[1])).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void givenMappedFileBacking_whenCartridgeRamWritten_thenFileSeesIt() throws Exception {
+        Path file = tempDir.resolve("machine.ram");
+        RamArena arena = new RamArena(RamBacking.fromName(file.toString()), 0x2000);
+
+        arena.cartridgeRam().put(5, (byte) 0x5A);
+
+        assertThat(arena.size()).isEqualTo(RamArena.CARTRIDGE_RAM_OFFSET + 0x2000);
+        assertThat(Files.readAllBytes(file)[RamArena.CARTRIDGE_RAM_OFFSET + 5]).isEqualTo((byte) 0x5A);
+    }
+}
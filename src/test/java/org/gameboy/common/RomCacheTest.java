@@ -0,0 +1,116 @@
+package org.gameboy.common;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RomCacheTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void givenTwoFilesWithSameContent_whenLoaded_thenSameImageIsReturned() throws IOException {
+        RomCache cache = new RomCache();
+        Path first = writeRom("first.gb", 0x42);
+        Path second = writeRom("second.gb", 0x42);
+
+        byte[] firstImage = cache.load(first);
+        byte[] secondImage = cache.load(second);
+
+        assertThat(secondImage).isSameAs(firstImage);
+        assertThat(firstImage).isEqualTo(Files.readAllBytes(first));
+    }
+
+    @Test
+    void givenFilesWithDifferentContent_whenLoaded_thenEachGetsItsOwnImage() throws IOException {
+        RomCache cache = new RomCache();
+
+        byte[] firstImage = cache.load(writeRom("first.gb", 0x42));
+        byte[] secondImage = cache.load(writeRom("second.gb", 0x43));
+
+        assertThat(secondImage).isNotSameAs(firstImage);
+        assertThat(secondImage[0]).isEqualTo((byte) 0x43);
+    }
+
+    @Test
+    void givenManyThreadsLoadingSameFile_whenLoaded_thenFileIsReadOnce() throws Exception {
+        RomCache cache = new RomCache();
+        Path rom = writeRom("game.gb", 0x42);
+        List<Callable<byte[]>> loads = IntStream.range(0, 16)
+                .<Callable<byte[]>>mapToObj(i -> () -> cache.load(rom))
+                .toList();
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<byte[]>> images = executor.invokeAll(loads);
+            for (Future<byte[]> image : images) {
+                assertThat(image.get()).isSameAs(images.getFirst().get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(cache.reads()).isEqualTo(1);
+    }
+
+    @Test
+    void givenFileChangedOnDisk_whenLoadedAgain_thenNewContentIsReturned() throws IOException {
+        RomCache cache = new RomCache();
+        Path rom = writeRom("game.gb", 0x42);
+        cache.load(rom);
+
+        Files.write(rom, rom(0x43));
+        Files.setLastModifiedTime(rom, FileTime.fromMillis(Files.getLastModifiedTime(rom).toMillis() + 1000));
+
+        assertThat(cache.load(rom)[0]).isEqualTo((byte) 0x43);
+        assertThat(cache.reads()).isEqualTo(2);
+    }
+
+    @Test
+    void givenFileChangedOnDisk_whenLoadedAgain_thenOnlyTheNewVersionIsKept() throws IOException {
+        RomCache cache = new RomCache();
+        Path rom = writeRom("game.gb", 0x42);
+        cache.load(rom);
+        long modified = Files.getLastModifiedTime(rom).toMillis();
+
+        for (int fill = 0x43; fill < 0x48; fill++) {
+            Files.write(rom, rom(fill));
+            Files.setLastModifiedTime(rom, FileTime.fromMillis(modified + fill * 1000L));
+            cache.load(rom);
+        }
+
+        assertThat(cache.cachedFiles()).isEqualTo(1);
+        assertThat(cache.load(rom)[0]).isEqualTo((byte) 0x47);
+    }
+
+    @Test
+    void givenMissingFile_whenLoaded_thenIOExceptionIsThrown() {
+        RomCache cache = new RomCache();
+
+        assertThatThrownBy(() -> cache.load(tempDir.resolve("missing.gb"))).isInstanceOf(IOException.class);
+    }
+
+    private Path writeRom(String name, int fill) throws IOException {
+        return Files.write(tempDir.resolve(name), rom(fill));
+    }
+
+    private static byte[] rom(int fill) {
+        byte[] rom = new byte[0x8000];
+        Arrays.fill(rom, (byte) fill);
+        return rom;
+    }
+}
@@ -0,0 +1,163 @@
+package org.gameboy.common;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RomLoaderTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void givenRawRom_whenLoaded_thenNothingIsCached() throws IOException {
+        RomLoader loader = new RomLoader(new RomCache(), cacheDir());
+        Path rom = Files.write(tempDir.resolve("game.gb"), rom(0x42));
+
+        assertThat(loader.loadRom(rom, null)).isEqualTo(rom(0x42));
+        assertThat(Files.exists(cacheDir())).isFalse();
+    }
+
+    @Test
+    void givenZipWithReadmeAndRom_whenLoaded_thenRomEntryIsReturned() throws IOException {
+        RomLoader loader = new RomLoader(new RomCache(), cacheDir());
+        Path archive = tempDir.resolve("game.zip");
+        try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(archive))) {
+            zip.putNextEntry(new ZipEntry("readme.txt"));
+            zip.write("not a rom".getBytes(StandardCharsets.US_ASCII));
+            zip.putNextEntry(new ZipEntry("Game.GB"));
+            zip.write(rom(0x42));
+        }
+
+        assertThat(loader.loadRom(archive, null)).isEqualTo(rom(0x42));
+    }
+
+    @Test
+    void givenGzip_whenLoaded_thenImageIsInflated() throws IOException {
+        RomLoader loader = new RomLoader(new RomCache(), cacheDir());
+
+        assertThat(loader.loadRom(gzip("game.gb.gz", rom(0x42)), null)).isEqualTo(rom(0x42));
+    }
+
+    @Test
+    void givenMislabelledGzip_whenLoaded_thenContentDecidesTheFormat() throws IOException {
+        RomLoader loader = new RomLoader(new RomCache(), cacheDir());
+
+        assertThat(loader.loadRom(gzip("game.gb", rom(0x42)), null)).isEqualTo(rom(0x42));
+    }
+
+    @Test
+    void givenArchiveAndPatch_whenLoaded_thenPatchIsAppliedToInflatedImage() throws IOException {
+        RomLoader loader = new RomLoader(new RomCache(), cacheDir());
+        Path patch = Files.write(tempDir.resolve("fix.ips"), new byte[]{
+                'P', 'A', 'T', 'C', 'H', 0x00, 0x01, 0x00, 0x00, 0x01, 0x77, 'E', 'O', 'F'});
+
+        byte[] image = loader.loadRom(gzip("game.gb.gz", rom(0x42)), patch);
+
+        assertThat(image[0x0100]).isEqualTo((byte) 0x77);
+        assertThat(image[0x0101]).isEqualTo((byte) 0x42);
+    }
+
+    @Test
+    void givenArchiveLoadedBefore_whenLoadedInAnotherProcess_thenDecodedImageComesFromDisk() throws IOException {
+        Path archive = gzip("game.gb.gz", rom(0x42));
+        new RomLoader(new RomCache(), cacheDir()).loadRom(archive, null);
+
+        RomCache freshCache = new RomCache();
+        byte[] image = new RomLoader(freshCache, cacheDir()).loadRom(archive, null);
+
+        assertThat(image).isEqualTo(rom(0x42));
+        assertThat(freshCache.reads()).isEqualTo(1);
+        try (var cached = Files.list(cacheDir())) {
+            assertThat(cached.map(path -> path.getFileName().toString()).toList())
+                    .hasSize(1)
+                    .allMatch(name -> name.endsWith(".gb"));
+        }
+    }
+
+    @Test
+    void givenSameArchiveWithDifferentPatches_whenLoaded_thenEachIsCachedSeparately() throws IOException {
+        RomLoader loader = new RomLoader(new RomCache(), cacheDir());
+        Path archive = gzip("game.gb.gz", rom(0x42));
+        Path first = Files.write(tempDir.resolve("a.ips"), new byte[]{
+                'P', 'A', 'T', 'C', 'H', 0x00, 0x00, 0x00, 0x00, 0x01, 0x01, 'E', 'O', 'F'});
+        Path second = Files.write(tempDir.resolve("b.ips"), new byte[]{
+                'P', 'A', 'T', 'C', 'H', 0x00, 0x00, 0x00, 0x00, 0x01, 0x02, 'E', 'O', 'F'});
+
+        assertThat(loader.loadRom(archive, first)[0]).isEqualTo((byte) 0x01);
+        assertThat(loader.loadRom(archive, second)[0]).isEqualTo((byte) 0x02);
+    }
+
+    @Test
+    void givenSameBytesSplitDifferentlyBetweenRomAndPatch_whenKeyed_thenKeysDiffer() {
+        String whole = RomLoader.cacheKey(RomFormat.RAW, ByteBuffer.wrap(new byte[]{1, 2, 3}), ByteBuffer.allocate(0));
+        String split = RomLoader.cacheKey(RomFormat.RAW, ByteBuffer.wrap(new byte[]{1, 2}), ByteBuffer.wrap(new byte[]{3}));
+
+        assertThat(split).isNotEqualTo(whole);
+    }
+
+    @Test
+    void givenSameBytesInAnotherFormat_whenKeyed_thenKeysDiffer() {
+        ByteBuffer rom = ByteBuffer.wrap(new byte[]{1, 2, 3});
+
+        assertThat(RomLoader.cacheKey(RomFormat.ZIP, rom, ByteBuffer.allocate(0)))
+                .isNotEqualTo(RomLoader.cacheKey(RomFormat.GZIP, rom, ByteBuffer.allocate(0)));
+    }
+
+    @Test
+    void givenCachedImageCannotBeMovedIntoPlace_whenLoaded_thenImageIsReturnedAndNoPartialFileIsLeft()
+            throws IOException {
+        RomLoader loader = new RomLoader(new RomCache(), cacheDir());
+        Path archive = gzip("game.gb.gz", rom(0x42));
+        // A non-empty directory where the decoded image should go makes the move fail
+        Path blocked = cacheDir().resolve(RomLoader.cacheKey(RomFormat.GZIP, ByteBuffer.wrap(Files.readAllBytes(archive)),
+                ByteBuffer.allocate(0)) + ".gb");
+        Files.createDirectories(blocked.resolve("occupied"));
+
+        assertThat(loader.loadRom(archive, null)).isEqualTo(rom(0x42));
+        try (var cached = Files.list(cacheDir())) {
+            assertThat(cached.map(path -> path.getFileName().toString()).toList())
+                    .containsExactly(blocked.getFileName().toString());
+        }
+    }
+
+    @Test
+    void givenGzipLargerThanAnyCartridge_whenLoaded_thenIOExceptionIsThrown() throws IOException {
+        RomLoader loader = new RomLoader(new RomCache(), cacheDir());
+        Path archive = gzip("huge.gb.gz", new byte[RomFormat.MAX_ROM_SIZE + 1]);
+
+        assertThatThrownBy(() -> loader.loadRom(archive, null))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("maximum size");
+    }
+
+    private Path cacheDir() {
+        return tempDir.resolve("cache");
+    }
+
+    private Path gzip(String name, byte[] content) throws IOException {
+        Path path = tempDir.resolve(name);
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(path))) {
+            out.write(content);
+        }
+        return path;
+    }
+
+    private static byte[] rom(int fill) {
+        byte[] rom = new byte[0x8000];
+        Arrays.fill(rom, (byte) fill);
+        return rom;
+    }
+}
@@ -0,0 +1,181 @@
+package org.gameboy.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RomPatchTest {
+    private static final byte[] SOURCE = {0x10, 0x11, 0x12, 0x13, 0x14, 0x15, 0x16, 0x17};
+
+    // --- IPS ---
+
+    @Test
+    void givenIpsRecord_whenApplied_thenBytesAreReplaced() throws IOException {
+        byte[] patch = ips(record(0x0002, 0xAA, 0xBB));
+
+        byte[] target = RomPatch.apply(SOURCE, ByteBuffer.wrap(patch));
+
+        assertThat(target).containsExactly(0x10, 0x11, 0xAA, 0xBB, 0x14, 0x15, 0x16, 0x17);
+        assertThat(SOURCE[2]).isEqualTo((byte) 0x12);
+    }
+
+    @Test
+    void givenIpsRunRecord_whenApplied_thenRunIsFilled() throws IOException {
+        byte[] patch = ips(new byte[]{0x00, 0x00, 0x05, 0x00, 0x00, 0x00, 0x03, (byte) 0xEE});
+
+        byte[] target = RomPatch.apply(SOURCE, ByteBuffer.wrap(patch));
+
+        assertThat(target).containsExactly(0x10, 0x11, 0x12, 0x13, 0x14, 0xEE, 0xEE, 0xEE);
+    }
+
+    @Test
+    void givenIpsRecordPastTheEnd_whenApplied_thenImageGrows() throws IOException {
+        byte[] patch = ips(record(0x0009, 0x42));
+
+        byte[] target = RomPatch.apply(SOURCE, ByteBuffer.wrap(patch));
+
+        assertThat(target).hasSize(10);
+        assertThat(target[8]).isZero();
+        assertThat(target[9]).isEqualTo((byte) 0x42);
+    }
+
+    @Test
+    void givenIpsTruncation_whenApplied_thenImageIsCut() throws IOException {
+        byte[] patch = concat(ips(record(0x0000, 0x01)), new byte[]{0x00, 0x00, 0x04});
+
+        byte[] target = RomPatch.apply(SOURCE, ByteBuffer.wrap(patch));
+
+        assertThat(target).containsExactly(0x01, 0x11, 0x12, 0x13);
+    }
+
+    @Test
+    void givenIpsRecordPastTheLargestCartridge_whenApplied_thenIOExceptionIsThrown() {
+        byte[] patch = ips(record(RomFormat.MAX_ROM_SIZE, 0x42));
+
+        assertThatThrownBy(() -> RomPatch.apply(SOURCE, ByteBuffer.wrap(patch)))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("maximum size");
+    }
+
+    @Test
+    void givenIpsWithoutEofMarker_whenApplied_thenIOExceptionIsThrown() {
+        byte[] patch = concat("PATCH".getBytes(StandardCharsets.US_ASCII), record(0x0000, 0x01));
+
+        assertThatThrownBy(() -> RomPatch.apply(SOURCE, ByteBuffer.wrap(patch))).isInstanceOf(IOException.class);
+    }
+
+    // --- BPS ---
+
+    @Test
+    void givenBpsPatch_whenApplied_thenEveryActionIsHonoured() throws IOException {
+        byte[] expected = {0x10, 0x11, 0x12, 0x13, 0x7A, 0x7B, 0x7A, 0x7B, 0x7A, 0x7B, 0x16, 0x17, 0x10};
+        ByteArrayOutputStream actions = new ByteArrayOutputStream();
+        // Keep the first four bytes from the source
+        varint(actions, (4 - 1) << 2);
+        // Two new bytes from the patch
+        varint(actions, ((2 - 1) << 2) | 1);
+        actions.write(0x7A);
+        actions.write(0x7B);
+        // Repeat them twice more from the target, overlapping what is being written
+        varint(actions, ((4 - 1) << 2) | 3);
+        varint(actions, 4 << 1);
+        // Two source bytes from offset 6, then one from offset 0
+        varint(actions, ((2 - 1) << 2) | 2);
+        varint(actions, 6 << 1);
+        varint(actions, 2);
+        varint(actions, (8 << 1) | 1);
+
+        byte[] target = RomPatch.apply(SOURCE, ByteBuffer.wrap(bps(SOURCE, expected, actions.toByteArray())));
+
+        assertThat(target).isEqualTo(expected);
+    }
+
+    @Test
+    void givenBpsPatchForAnotherRom_whenApplied_thenIOExceptionIsThrown() {
+        byte[] other = SOURCE.clone();
+        other[0] = 0x00;
+        ByteArrayOutputStream actions = new ByteArrayOutputStream();
+        varint(actions, (SOURCE.length - 1) << 2);
+        byte[] patch = bps(other, other, actions.toByteArray());
+
+        assertThatThrownBy(() -> RomPatch.apply(SOURCE, ByteBuffer.wrap(patch)))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("different ROM");
+    }
+
+    @Test
+    void givenUnknownPatchFormat_whenApplied_thenIOExceptionIsThrown() {
+        assertThatThrownBy(() -> RomPatch.apply(SOURCE, ByteBuffer.wrap(new byte[]{1, 2, 3})))
+                .isInstanceOf(IOException.class);
+    }
+
+    private static byte[] ips(byte[]... records) {
+        byte[] patch = "PATCH".getBytes(StandardCharsets.US_ASCII);
+        for (byte[] record : records) {
+            patch = concat(patch, record);
+        }
+        return concat(patch, "EOF".getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static byte[] record(int offset, int... data) {
+        byte[] record = new byte[5 + data.length];
+        record[0] = (byte) (offset >> 16);
+        record[1] = (byte) (offset >> 8);
+        record[2] = (byte) offset;
+        record[3] = (byte) (data.length >> 8);
+        record[4] = (byte) data.length;
+        for (int i = 0; i < data.length; i++) {
+            record[5 + i] = (byte) data[i];
+        }
+        return record;
+    }
+
+    private static byte[] bps(byte[] source, byte[] target, byte[] actions) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.writeBytes("BPS1".getBytes(StandardCharsets.US_ASCII));
+        varint(out, source.length);
+        varint(out, target.length);
+        varint(out, 0);
+        out.writeBytes(actions);
+        ByteBuffer footer = ByteBuffer.allocate(12).order(ByteOrder.LITTLE_ENDIAN);
+        footer.putInt((int) crc32(source));
+        footer.putInt((int) crc32(target));
+        footer.putInt((int) crc32(out.toByteArray()));
+        out.writeBytes(footer.array());
+        return out.toByteArray();
+    }
+
+    private static void varint(ByteArrayOutputStream out, long value) {
+        while (true) {
+            int low = (int) (value & 0x7F);
+            value >>>= 7;
+            if (value == 0) {
+                out.write(low | 0x80);
+                return;
+            }
+            out.write(low);
+            value--;
+        }
+    }
+
+    private static long crc32(byte[] data) {
+        CRC32 crc = new CRC32();
+        crc.update(data);
+        return crc.getValue();
+    }
+
+    private static byte[] concat(byte[] first, byte[] second) {
+        byte[] joined = new byte[first.length + second.length];
+        System.arraycopy(first, 0, joined, 0, first.length);
+        System.arraycopy(second, 0, joined, first.length, second.length);
+        return joined;
+    }
+}
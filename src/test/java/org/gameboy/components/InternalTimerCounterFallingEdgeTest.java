@@ -86,4 +86,22 @@ class InternalTimerCounterFallingEdgeTest {
         counter.tCycle();
         assertThat(callCount.get()).isEqualTo(1);
     }
+
+    @Test
+    void advance_shouldNotifySameEdgesAsSteppingAcrossWrapAround() {
+        AtomicInteger stepped = new AtomicInteger(0);
+        AtomicInteger advanced = new AtomicInteger(0);
+        InternalTimerCounter steppedCounter = new InternalTimerCounter(0xFF00);
+        InternalTimerCounter advancedCounter = new InternalTimerCounter(0xFF00);
+        steppedCounter.onFallingEdge(7, stepped::incrementAndGet);
+        advancedCounter.onFallingEdge(7, advanced::incrementAndGet);
+
+        for (int i = 0; i < 1000; i++) {
+            steppedCounter.tCycle();
+        }
+        advancedCounter.advance(1000);
+
+        assertThat(advanced.get()).isEqualTo(stepped.get());
+        assertThat(advancedCounter.getValue()).isEqualTo(steppedCounter.getValue());
+    }
 }
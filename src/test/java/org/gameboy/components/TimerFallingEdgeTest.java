@@ -6,6 +6,8 @@ import org.gameboy.common.Interrupt;
 import org.gameboy.common.InterruptController;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.gameboy.GameboyAssertions.assertThatHex;
@@ -364,4 +366,40 @@ class TimerFallingEdgeTest {
         // Each toggle when bit is high should cause an increment
         assertThat(glitchyIncrements).isGreaterThan(50);
     }
+
+    @ParameterizedTest
+    @ValueSource(bytes = {0b00000000, 0b00000100, 0b00000101, 0b00000110, 0b00000111})
+    void skipIdleMCycles_shouldMatchSteppingUpToTheOverflow(byte tac) {
+        tacRegister.write(tac);
+        timaRegister.write((byte) 0xF0);
+        for (int i = 0; i < 37; i++) {
+            timer.mCycle();
+        }
+
+        InternalTimerCounter steppedCounter = new InternalTimerCounter(0);
+        TacRegister steppedTac = new TacRegister();
+        Timer stepped = new Timer(steppedCounter, new IntBackedRegister(), new IntBackedRegister(), steppedTac, interruptController);
+        steppedTac.write(tac);
+        stepped.writeTima((byte) 0xF0);
+        for (int i = 0; i < 37; i++) {
+            stepped.mCycle();
+        }
+
+        int idle = timer.idleMCycles();
+        timer.skipIdleMCycles(Math.min(idle, 100_000));
+        for (int i = 0; i < Math.min(idle, 100_000); i++) {
+            stepped.mCycle();
+        }
+
+        assertThatHex(timer.readTima()).isEqualTo(stepped.readTima());
+        assertThatHex(divRegister.read()).isEqualTo((byte) (steppedCounter.getValue() >> 8));
+        verify(interruptController, never()).setInterrupt(Interrupt.TIMER);
+
+        if (idle != Integer.MAX_VALUE) {
+            // The very next M-cycle is the one that overflows TIMA
+            timer.mCycle();
+            timer.mCycle();
+            verify(interruptController).setInterrupt(Interrupt.TIMER);
+        }
+    }
 }
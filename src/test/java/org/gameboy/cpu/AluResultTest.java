@@ -0,0 +1,49 @@
+package org.gameboy.cpu;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.gameboy.FlagValue.setFlag;
+import static org.gameboy.FlagValue.unsetFlag;
+import static org.gameboy.cpu.AluResult.*;
+
+class AluResultTest {
+    @Test
+    void givenPackedResult_whenUnpacked_thenResultByteAndMasksRecovered() {
+        int packed = AluResult.of((byte) 0xA5, Z_FLAG | C_FLAG, Z_FLAG | N_FLAG | C_FLAG);
+
+        assertThat(AluResult.result(packed)).isEqualTo((byte) 0xA5);
+        assertThat(setMask(packed)).isEqualTo(Z_FLAG | C_FLAG);
+        assertThat(clearMask(packed)).isEqualTo(N_FLAG);
+    }
+
+    @Test
+    void givenValuesOutsideAffectedFlags_whenPacked_thenIgnored() {
+        int packed = AluResult.of((byte) 0, ALL_FLAGS, H_FLAG);
+
+        assertThat(setMask(packed)).isEqualTo(H_FLAG);
+        assertThat(clearMask(packed)).isZero();
+    }
+
+    @Test
+    void givenPackedResult_whenWithFlag_thenOnlyThatFlagChanges() {
+        int packed = AluResult.of((byte) 0x12, Z_FLAG | H_FLAG, ALL_FLAGS);
+
+        int changed = AluResult.with(packed, Flag.Z, false);
+
+        assertThat(AluResult.result(changed)).isEqualTo((byte) 0x12);
+        assertThat(FlagChanges.of(changed)).containsOnly(
+                unsetFlag(Flag.Z), unsetFlag(Flag.N), setFlag(Flag.H), unsetFlag(Flag.C));
+    }
+
+    @Test
+    void givenPackedResult_whenWithoutFlag_thenFlagLeftUnchanged() {
+        int packed = AluResult.of((byte) 0, C_FLAG, ALL_FLAGS);
+
+        int changed = AluResult.without(packed, Flag.C);
+
+        assertThat(isSet(changed, Flag.C)).isFalse();
+        assertThat(FlagChanges.of(changed)).containsOnly(
+                unsetFlag(Flag.Z), unsetFlag(Flag.N), unsetFlag(Flag.H));
+    }
+}
@@ -4,10 +4,13 @@ import org.gameboy.BlarggTestRunner;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.params.ParameterizedTest;
-import org.junit.jupiter.params.provider.ValueSource;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
 
 import java.io.InputStream;
 import java.net.URL;
+import java.util.Arrays;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
@@ -25,22 +28,29 @@ public class BlarggCpuTests {
         }
     }
     
-    @ParameterizedTest(name = "{0}")
+    private static final String[] INDIVIDUAL_TEST_ROMS = {
+            "01-special.gb",
+            "02-interrupts.gb",
+            "03-op_sp_hl.gb",
+            "04-op_r_imm.gb",
+            "05-op_rp.gb",
+            "06-ld_r_r.gb",
+            "07-jr_jp_call_ret_rst.gb",
+            "08-misc_instrs.gb",
+            "09-op_r_r.gb",
+            "10-bit_ops.gb",
+            "11-op_a_hl.gb"
+    };
+
+    static Stream<Arguments> individualTestRoms() {
+        return Arrays.stream(CpuEngine.values())
+                .flatMap(engine -> Arrays.stream(INDIVIDUAL_TEST_ROMS).map(romName -> Arguments.of(romName, engine)));
+    }
+
+    @ParameterizedTest(name = "{0} [{1}]")
     @DisplayName("Individual CPU Instruction Tests")
-    @ValueSource(strings = {
-        "01-special.gb",
-        "02-interrupts.gb",
-        "03-op_sp_hl.gb",
-        "04-op_r_imm.gb",
-        "05-op_rp.gb",
-        "06-ld_r_r.gb",
-        "07-jr_jp_call_ret_rst.gb",
-        "08-misc_instrs.gb",
-        "09-op_r_r.gb",
-        "10-bit_ops.gb",
-        "11-op_a_hl.gb"
-    })
-    public void testIndividualCpuInstr(String romName) throws Exception {
+    @MethodSource("individualTestRoms")
+    public void testIndividualCpuInstr(String romName, CpuEngine engine) throws Exception {
         String resourcePath = TEST_ROM_DIR + romName;
         InputStream romStream = getClass().getClassLoader().getResourceAsStream(resourcePath);
 
@@ -53,10 +63,10 @@ public class BlarggCpuTests {
         romStream.close();
         
         System.out.println("\n" + "=".repeat(70));
-        System.out.println("Running Individual Test: " + romName);
+        System.out.println("Running Individual Test: " + romName + " [" + engine + "]");
         System.out.println("=".repeat(70) + "\n");
         
-        BlarggTestRunner runner = new BlarggTestRunner(romData);
+        BlarggTestRunner runner = new BlarggTestRunner(romData, engine);
         BlarggTestRunner.TestResult result = runner.runTest(SHORT_TEST_TIMEOUT);
         
         result.print();
@@ -0,0 +1,23 @@
+package org.gameboy.cpu;
+
+import java.util.Hashtable;
+
+import static org.gameboy.cpu.AluResult.clearMask;
+import static org.gameboy.cpu.AluResult.setMask;
+
+public final class FlagChanges {
+    private FlagChanges() {}
+
+    // Expands the masks of a packed ALU result into the changeset the tests compare against
+    public static Hashtable<Flag, Boolean> of(int aluResult) {
+        Hashtable<Flag, Boolean> changes = new Hashtable<>(4, 1f);
+        for (Flag flag : Flag.values()) {
+            if ((setMask(aluResult) & flag.getLocationMask()) != 0) {
+                changes.put(flag, true);
+            } else if ((clearMask(aluResult) & flag.getLocationMask()) != 0) {
+                changes.put(flag, false);
+            }
+        }
+        return changes;
+    }
+}
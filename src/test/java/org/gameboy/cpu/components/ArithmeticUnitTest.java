@@ -1,8 +1,9 @@
 package org.gameboy.cpu.components;
 
-import org.gameboy.cpu.ArithmeticResult;
+import org.gameboy.cpu.AluResult;
 import org.gameboy.cpu.Flag;
 import org.gameboy.cpu.FlagChangesetBuilder;
+import org.gameboy.cpu.FlagChanges;
 import org.gameboy.utils.BitUtilities;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -35,11 +36,11 @@ class ArithmeticUnitTest {
     @ParameterizedTest
     @ValueSource(bytes = {(byte) 0x00, (byte) 0xff, (byte) 0xa1, (byte) 0x0f, (byte) 0x14})
     void givenByte_whenInc_thenResultCorrect(byte value) {
-        ArithmeticResult result = alu.inc(value);
+        int result = alu.inc(value);
 
         int expected = uint(value) + 1;
 
-        assertThat(result.result()).isEqualTo((byte) expected);
+        assertThat(AluResult.result(result)).isEqualTo((byte) expected);
     }
 
     static Stream<Arguments> getIncValues() {
@@ -54,19 +55,19 @@ class ArithmeticUnitTest {
     @ParameterizedTest(name = "{0}")
     @MethodSource("getIncValues")
     final void givenByte_whenInc_thenFlagsCorrect(byte value, Entry<Flag, Boolean>... expectedFlags) {
-        ArithmeticResult result = alu.inc(value);
+        int result = alu.inc(value);
 
-        assertThat(result.flagChanges()).containsOnly(expectedFlags);
+        assertThat(FlagChanges.of(result)).containsOnly(expectedFlags);
     }
 
     @ParameterizedTest
     @ValueSource(bytes = {(byte) 0x00, (byte) 0xff, (byte) 0xa1, (byte) 0x0f, (byte) 0x14})
     void givenByte_whenDec_thenResultCorrect(byte value) {
-        ArithmeticResult result = alu.dec(value);
+        int result = alu.dec(value);
 
         int expected = uint(value) - 1;
 
-        assertThat(result.result()).isEqualTo((byte) expected);
+        assertThat(AluResult.result(result)).isEqualTo((byte) expected);
     }
 
     static Stream<Arguments> getDecValues() {
@@ -83,9 +84,9 @@ class ArithmeticUnitTest {
     @ParameterizedTest(name = "{0}")
     @MethodSource("getDecValues")
     final void givenByte_whenDec_thenFlagsCorrect(byte value, Entry<Flag, Boolean>... expectedFlags) {
-        ArithmeticResult result = alu.dec(value);
+        int result = alu.dec(value);
 
-        assertThat(result.flagChanges()).containsOnly(expectedFlags);
+        assertThat(FlagChanges.of(result)).containsOnly(expectedFlags);
     }
 
     static Stream<Arguments> getBasicOperationValues() {
@@ -104,9 +105,9 @@ class ArithmeticUnitTest {
     void givenTwoBytes_whenAdd_thenResultCorrect(byte a, byte b) {
         byte expectedResult = (byte) (a + b);
 
-        ArithmeticResult result = alu.add(a, b);
+        int result = alu.add(a, b);
 
-        assertThat(result.result()).isEqualTo(expectedResult);
+        assertThat(AluResult.result(result)).isEqualTo(expectedResult);
     }
 
     @ParameterizedTest
@@ -114,9 +115,9 @@ class ArithmeticUnitTest {
     void givenTwoBytes_whenSub_thenResultCorrect(byte a, byte b) {
         byte expectedResult = (byte) (uint(a) - uint(b));
 
-        ArithmeticResult result = alu.sub(a, b);
+        int result = alu.sub(a, b);
 
-        assertThat(result.result()).isEqualTo(expectedResult);
+        assertThat(AluResult.result(result)).isEqualTo(expectedResult);
     }
 
     static Stream<Arguments> getAddValues() {
@@ -134,9 +135,9 @@ class ArithmeticUnitTest {
     @ParameterizedTest(name = "{0}+{1}")
     @MethodSource("getAddValues")
     final void givenTwoBytes_whenAdd_thenFlagsCorrect(byte a, byte b, Entry<Flag, Boolean>... expectedFlags) {
-        ArithmeticResult result = alu.add(a, b);
+        int result = alu.add(a, b);
 
-        assertThat(result.flagChanges()).containsOnly(expectedFlags);
+        assertThat(FlagChanges.of(result)).containsOnly(expectedFlags);
     }
 
 
@@ -157,25 +158,25 @@ class ArithmeticUnitTest {
     @ParameterizedTest(name = "{0}-{1}")
     @MethodSource("getSubValues")
     final void givenTwoBytes_whenSub_thenFlagsCorrect(byte a, byte b, Entry<Flag, Boolean>... expectedFlags) {
-        ArithmeticResult result = alu.sub(a, b);
+        int result = alu.sub(a, b);
 
-        assertThat(result.flagChanges()).containsOnly(expectedFlags);
+        assertThat(FlagChanges.of(result)).containsOnly(expectedFlags);
     }
 
     @ParameterizedTest
     @CsvSource({"0x00, 0x73", "0xff, 0x43", "0xf1, 0x1f", "0x23, 0x23"})
     void givenTwoBytes_whenAnd_thenResultCorrect(int a, int b) {
-        ArithmeticResult result = alu.and((byte) a, (byte) b);
+        int result = alu.and((byte) a, (byte) b);
 
         int expected = a & b;
 
-        assertThat(result.result()).isEqualTo((byte) expected);
+        assertThat(AluResult.result(result)).isEqualTo((byte) expected);
     }
 
     @ParameterizedTest
     @CsvSource({"0x00, 0x73", "0xff, 0x43", "0xf1, 0x1f", "0x23, 0x23"})
     void givenTwoBytes_whenAnd_thenFlagsCorrect(int a, int b) {
-        ArithmeticResult result = alu.and((byte) a, (byte) b);
+        int result = alu.and((byte) a, (byte) b);
 
         Hashtable<Flag, Boolean> expectedFlags = new FlagChangesetBuilder()
                 .with(Z, a == 0 || b == 0)
@@ -183,7 +184,7 @@ class ArithmeticUnitTest {
                 .with(C, false)
                 .with(N, false)
                 .build();
-        assertFlagsMatch(expectedFlags, result.flagChanges());
+        assertFlagsMatch(expectedFlags, FlagChanges.of(result));
     }
 
     @ParameterizedTest
@@ -191,16 +192,16 @@ class ArithmeticUnitTest {
     void givenTwoBytes_whenOr_thenResultCorrect(byte a, byte b) {
         byte expectedResult = (byte) (a | b);
 
-        ArithmeticResult result = alu.or(a, b);
+        int result = alu.or(a, b);
 
-        assertThat(result.result()).isEqualTo(expectedResult);
+        assertThat(AluResult.result(result)).isEqualTo(expectedResult);
     }
 
     @ParameterizedTest
     @MethodSource("getBasicOperationValues")
     void givenTwoBytes_whenOr_thenFlagsCorrect(byte a, byte b) {
 
-        ArithmeticResult result = alu.or(a, b);
+        int result = alu.or(a, b);
 
         Hashtable<Flag, Boolean> expectedFlags = new FlagChangesetBuilder()
                 .with(Z, a == 0 && b == 0)
@@ -208,7 +209,7 @@ class ArithmeticUnitTest {
                 .with(C, false)
                 .with(N, false)
                 .build();
-        assertFlagsMatch(expectedFlags, result.flagChanges());
+        assertFlagsMatch(expectedFlags, FlagChanges.of(result));
     }
 
     @ParameterizedTest
@@ -216,16 +217,16 @@ class ArithmeticUnitTest {
     void givenTwoBytes_whenXor_thenResultCorrect(byte a, byte b) {
         byte expectedResult = (byte) (a | b);
 
-        ArithmeticResult result = alu.or(a, b);
+        int result = alu.or(a, b);
 
-        assertThat(result.result()).isEqualTo(expectedResult);
+        assertThat(AluResult.result(result)).isEqualTo(expectedResult);
     }
 
     @ParameterizedTest
     @MethodSource("getBasicOperationValues")
     void givenTwoBytes_whenXor_thenFlagsCorrect(byte a, byte b) {
 
-        ArithmeticResult result = alu.xor(a, b);
+        int result = alu.xor(a, b);
 
         Hashtable<Flag, Boolean> expectedFlags = new FlagChangesetBuilder()
                 .with(Z, a == 0 && b == 0)
@@ -233,7 +234,7 @@ class ArithmeticUnitTest {
                 .with(C, false)
                 .with(N, false)
                 .build();
-        assertFlagsMatch(expectedFlags, result.flagChanges());
+        assertFlagsMatch(expectedFlags, FlagChanges.of(result));
     }
 
     static Stream<Arguments> getRotateLeftCircularValues() {
@@ -248,15 +249,15 @@ class ArithmeticUnitTest {
     @ParameterizedTest
     @MethodSource("getRotateLeftCircularValues")
     void givenByte_whenRotateLeftCircular_thenResultIsCorrect(int val, int expectedResult) {
-        ArithmeticResult res = alu.rotate_left_circular((byte) val);
+        int res = alu.rotate_left_circular((byte) val);
 
         Hashtable<Flag, Boolean> expectedFlags = new FlagChangesetBuilder()
                 .withAll(false)
                 .with(C, (val & 0b1000_0000) != 0)
                 .with(Z, expectedResult == 0)
                 .build();
-        assertFlagsMatch(expectedFlags, res.flagChanges());
-        assertThat(res.result()).isEqualTo((byte) expectedResult);
+        assertFlagsMatch(expectedFlags, FlagChanges.of(res));
+        assertThat(AluResult.result(res)).isEqualTo((byte) expectedResult);
     }
 
     static Stream<Arguments> getRotateRightCircularValues() {
@@ -271,15 +272,15 @@ class ArithmeticUnitTest {
     @ParameterizedTest
     @MethodSource("getRotateRightCircularValues")
     void givenByte_whenRotateRightCircular_thenResultIsCorrect(int val, int expectedResult) {
-        ArithmeticResult res = alu.rotate_right_circular((byte) val);
+        int res = alu.rotate_right_circular((byte) val);
 
         Hashtable<Flag, Boolean> expectedFlags = new FlagChangesetBuilder()
                 .withAll(false)
                 .with(C, (val & 0b1) == 1)
                 .with(Z, expectedResult == 0)
                 .build();
-        assertFlagsMatch(expectedFlags, res.flagChanges());
-        assertThat(res.result()).isEqualTo((byte) expectedResult);
+        assertFlagsMatch(expectedFlags, FlagChanges.of(res));
+        assertThat(AluResult.result(res)).isEqualTo((byte) expectedResult);
     }
 
     static Stream<Arguments> getRotateLeftValues() {
@@ -294,15 +295,15 @@ class ArithmeticUnitTest {
     @ParameterizedTest
     @MethodSource("getRotateLeftValues")
     void givenByte_whenRotateLeft_thenResultIsCorrect(int val, int carry, int expectedResult) {
-        ArithmeticResult res = alu.rotate_left((byte) val, carry == 1);
+        int res = alu.rotate_left((byte) val, carry == 1);
 
         Hashtable<Flag, Boolean> expectedFlags = new FlagChangesetBuilder()
                 .withAll(false)
                 .with(C, (val & 0b1000_0000) != 0)
                 .with(Z, expectedResult == 0)
                 .build();
-        assertFlagsMatch(expectedFlags, res.flagChanges());
-        assertThat(res.result()).isEqualTo((byte) expectedResult);
+        assertFlagsMatch(expectedFlags, FlagChanges.of(res));
+        assertThat(AluResult.result(res)).isEqualTo((byte) expectedResult);
     }
 
     static Stream<Arguments> getRotateRightValues() {
@@ -317,15 +318,15 @@ class ArithmeticUnitTest {
     @ParameterizedTest
     @MethodSource("getRotateRightValues")
     void givenByte_whenRotateRight_thenResultIsCorrect(int val, int carry, int expectedResult) {
-        ArithmeticResult res = alu.rotate_right((byte) val, carry==1);
+        int res = alu.rotate_right((byte) val, carry==1);
 
         Hashtable<Flag, Boolean> expectedFlags = new FlagChangesetBuilder()
                 .withAll(false)
                 .with(C, (val & 0b1) == 1)
                 .with(Z, expectedResult == 0)
                 .build();
-        assertFlagsMatch(expectedFlags, res.flagChanges());
-        assertThat(res.result()).isEqualTo((byte) expectedResult);
+        assertFlagsMatch(expectedFlags, FlagChanges.of(res));
+        assertThat(AluResult.result(res)).isEqualTo((byte) expectedResult);
     }
 
     static Stream<Arguments> getShiftLeftValues() {
@@ -340,15 +341,15 @@ class ArithmeticUnitTest {
     @ParameterizedTest
     @MethodSource("getShiftLeftValues")
     void givenByte_whenShiftLeft_thenResultIsCorrect(int val, int expectedResult) {
-        ArithmeticResult res = alu.arithmetic_shift_left((byte) val);
+        int res = alu.arithmetic_shift_left((byte) val);
 
         Hashtable<Flag, Boolean> expectedFlags = new FlagChangesetBuilder()
                 .withAll(false)
                 .with(C, (val & 0b1000_0000) > 0)
                 .with(Z, expectedResult == 0)
                 .build();
-        assertFlagsMatch(expectedFlags, res.flagChanges());
-        assertThat(res.result()).isEqualTo((byte) expectedResult);
+        assertFlagsMatch(expectedFlags, FlagChanges.of(res));
+        assertThat(AluResult.result(res)).isEqualTo((byte) expectedResult);
     }
 
     static Stream<Arguments> getArithmeticRightShiftValues() {
@@ -363,15 +364,15 @@ class ArithmeticUnitTest {
     @ParameterizedTest
     @MethodSource("getArithmeticRightShiftValues")
     void givenByte_whenArithmeticRightShift_thenResultIsCorrect(int val, int expectedResult) {
-        ArithmeticResult res = alu.arithmetic_shift_right((byte) val);
+        int res = alu.arithmetic_shift_right((byte) val);
 
         Hashtable<Flag, Boolean> expectedFlags = new FlagChangesetBuilder()
                 .withAll(false)
                 .with(C, (val & 0b0000_0001) > 0)
                 .with(Z, expectedResult == 0)
                 .build();
-        assertFlagsMatch(expectedFlags, res.flagChanges());
-        assertThat(res.result()).isEqualTo((byte) expectedResult);
+        assertFlagsMatch(expectedFlags, FlagChanges.of(res));
+        assertThat(AluResult.result(res)).isEqualTo((byte) expectedResult);
     }
 
     static Stream<Arguments> getLogicalRightShiftValues() {
@@ -386,15 +387,15 @@ class ArithmeticUnitTest {
     @ParameterizedTest
     @MethodSource("getLogicalRightShiftValues")
     void givenByte_whenLogicalRightShift_thenResultIsCorrect(int val, int expectedResult) {
-        ArithmeticResult res = alu.logical_shift_right((byte) val);
+        int res = alu.logical_shift_right((byte) val);
 
         Hashtable<Flag, Boolean> expectedFlags = new FlagChangesetBuilder()
                 .withAll(false)
                 .with(C, (val & 0b0000_0001) > 0)
                 .with(Z, expectedResult == 0)
                 .build();
-        assertFlagsMatch(expectedFlags, res.flagChanges());
-        assertThat(res.result()).isEqualTo((byte) expectedResult);
+        assertFlagsMatch(expectedFlags, FlagChanges.of(res));
+        assertThat(AluResult.result(res)).isEqualTo((byte) expectedResult);
     }
 
     static Stream<Arguments> getComplimentaryValues() {
@@ -409,39 +410,39 @@ class ArithmeticUnitTest {
     @ParameterizedTest
     @MethodSource("getComplimentaryValues")
     void givenByte_whenCompliment_thenResultIsCorrectAndFlagsCorrect(int val, int expectedResult) {
-        ArithmeticResult res = alu.compliment((byte) val);
+        int res = alu.compliment((byte) val);
 
         Hashtable<Flag, Boolean> expectedFlags = new FlagChangesetBuilder()
                 .with(Flag.N, true)
                 .with(Flag.H, true)
                 .build();
-        assertFlagsMatch(expectedFlags, res.flagChanges());
-        assertThat(res.result()).isEqualTo((byte) expectedResult);
+        assertFlagsMatch(expectedFlags, FlagChanges.of(res));
+        assertThat(AluResult.result(res)).isEqualTo((byte) expectedResult);
     }
 
     @Test
     void givenSetCarryFlag_thenCorrectFlagsReturned() {
-        ArithmeticResult res = alu.set_carry_flag();
+        int res = alu.set_carry_flag();
 
         Hashtable<Flag, Boolean> expectedFlags = new FlagChangesetBuilder()
                 .with(Flag.N, false)
                 .with(Flag.H, false)
                 .with(Flag.C, true)
                 .build();
-        assertFlagsMatch(expectedFlags, res.flagChanges());
+        assertFlagsMatch(expectedFlags, FlagChanges.of(res));
     }
 
     @ParameterizedTest
     @ValueSource(booleans = {true, false})
     void givenComplimentCarryFlag_thenCorrectFlagsReturned(boolean carry_flag) {
-        ArithmeticResult res = alu.compliment_carry_flag(carry_flag);
+        int res = alu.compliment_carry_flag(carry_flag);
 
         Hashtable<Flag, Boolean> expectedFlags = new FlagChangesetBuilder()
                 .with(Flag.N, false)
                 .with(Flag.H, false)
                 .with(Flag.C, !carry_flag)
                 .build();
-        assertFlagsMatch(expectedFlags, res.flagChanges());
+        assertFlagsMatch(expectedFlags, FlagChanges.of(res));
     }
 
     static Stream<Arguments> getSwapValues() {
@@ -457,21 +458,21 @@ class ArithmeticUnitTest {
     @ParameterizedTest
     @MethodSource("getSwapValues")
     void givenByte_whenSwap_thenResultCorrect(int value, int expectedResult) {
-        ArithmeticResult result = alu.swap((byte) value);
+        int result = alu.swap((byte) value);
 
-        assertThat(result.result()).isEqualTo((byte) expectedResult);
+        assertThat(AluResult.result(result)).isEqualTo((byte) expectedResult);
     }
 
     @ParameterizedTest
     @MethodSource("getSwapValues")
     void givenByte_whenSwap_thenFlagsCorrect(int value, int expectedResult) {
-        ArithmeticResult result = alu.swap((byte) value);
+        int result = alu.swap((byte) value);
 
         Hashtable<Flag, Boolean> expectedFlags = new FlagChangesetBuilder()
                 .withAll(false)
                 .with(Z, expectedResult == 0)
                 .build();
-        assertFlagsMatch(expectedFlags, result.flagChanges());
+        assertFlagsMatch(expectedFlags, FlagChanges.of(result));
     }
 
     static Stream<Arguments> getBitTestValues() {
@@ -490,16 +491,16 @@ class ArithmeticUnitTest {
     @ParameterizedTest
     @MethodSource("getBitTestValues")
     void givenByteAndBitIndex_whenBitTest_thenResultIsZeroAndFlagsCorrect(int bitIndex, byte value, boolean expectedZeroFlag) {
-        ArithmeticResult result = alu.bit_test(bitIndex, value);
+        int result = alu.bit_test(bitIndex, value);
 
-        assertThat(result.result()).isEqualTo((byte) 0);
+        assertThat(AluResult.result(result)).isEqualTo((byte) 0);
 
         Hashtable<Flag, Boolean> expectedFlags = new FlagChangesetBuilder()
                 .with(Z, expectedZeroFlag)
                 .with(N, false)
                 .with(H, true)
                 .build();
-        assertFlagsMatch(expectedFlags, result.flagChanges());
+        assertFlagsMatch(expectedFlags, FlagChanges.of(result));
     }
 
     static Stream<Arguments> getSetBitValues() {
@@ -514,9 +515,9 @@ class ArithmeticUnitTest {
     @MethodSource("getSetBitValues")
     void givenBooleanAndBitIndex_whenSetBit_thenResultCorrectAndNoFlagChanges(boolean bitValue, int bitIndex) {
         byte inputValue = bitValue ? (byte) 0b0000_0000 : (byte) 0b1111_1111;
-        ArithmeticResult result = alu.set_bit(bitValue, bitIndex, inputValue);
+        int result = alu.set_bit(bitValue, bitIndex, inputValue);
 
-        assertThat(BitUtilities.get_bit(result.result(), bitIndex)).isEqualTo(bitValue);
-        assertThat(result.flagChanges()).isEmpty();
+        assertThat(BitUtilities.get_bit(AluResult.result(result), bitIndex)).isEqualTo(bitValue);
+        assertThat(FlagChanges.of(result)).isEmpty();
     }
 }
\ No newline at end of file
@@ -0,0 +1,257 @@
+package org.gameboy.cpu.components;
+
+import org.gameboy.CpuStructureBuilder;
+import org.gameboy.TestMemory;
+import org.gameboy.common.BankSwitchListener;
+import org.gameboy.common.Cartridge;
+import org.gameboy.common.DmaController;
+import org.gameboy.common.Memory;
+import org.gameboy.cpu.Cpu;
+import org.gameboy.cpu.components.BlockCache.Block;
+import org.gameboy.cpu.instructions.Return;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BlockTranslatorTest {
+    private static final int LOOP_START = 0x0150;
+    // LD D,40; loop: INC A; LD C,12; ADD A,C; INC B; DEC D; JR NZ,loop; JR -2
+    private static final int[] COUNTING_LOOP = {
+            0x16, 0x28, 0x3C, 0x0E, 0x12, 0x81, 0x04, 0x15, 0x20, 0xF8, 0x18, 0xFE};
+    private static final int COUNTING_LOOP_END = LOOP_START + 10;
+
+    private TestMemory memory;
+    private StubCartridge cartridge;
+    private StubDmaController dmaController;
+    private BlockTranslator translator;
+
+    @BeforeEach
+    void setUp() {
+        memory = new TestMemory();
+        cartridge = new StubCartridge();
+        dmaController = new StubDmaController();
+        translator = translatorFor(memory, 1);
+    }
+
+    @Test
+    void givenHotLoop_whenRunFromBlocks_thenRegistersAndTicksMatchInterpreter() {
+        Run interpreted = new Run(COUNTING_LOOP, 0x0000, false);
+        Run compiled = new Run(COUNTING_LOOP, 0x0000, true);
+
+        compiled.runUntil(COUNTING_LOOP_END);
+        interpreted.runUntilTick(compiled.ticks());
+
+        assertThat(compiled.state()).isEqualTo(interpreted.state());
+        assertThat(compiled.cycles).isLessThan(interpreted.cycles);
+    }
+
+    @Test
+    void givenPendingInterruptEnabledInsideBlock_whenRunFromBlocks_thenDispatchedAtTheSameTick() {
+        // NOP; EI; NOP; INC A; INC A; INC A; JR -2, with the timer interrupt already requested
+        int[] program = {0x00, 0xFB, 0x00, 0x3C, 0x3C, 0x3C, 0x18, 0xFE};
+        Run interpreted = new Run(program, 0x04, false);
+        Run compiled = new Run(program, 0x04, true);
+
+        compiled.runUntil(0x0050);
+        interpreted.runUntilTick(compiled.ticks());
+
+        assertThat(compiled.state()).isEqualTo(interpreted.state());
+        assertThat(compiled.cpuStructure.memory().read((short) 0xFFFC))
+                .isEqualTo(interpreted.cpuStructure.memory().read((short) 0xFFFC));
+    }
+
+    @Test
+    void givenTranslatedWorkRam_whenWrittenThroughBarrier_thenBlockIsTranslatedAgain() {
+        Memory cpuMemory = translator.withWriteBarrier(memory);
+        writeCode(0xC000, 0x00, 0x00, 0x18, 0xFC);
+        Block first = translator.lookup((short) 0xC000);
+
+        cpuMemory.write((short) 0xC001, (byte) 0x3C);
+        Block second = translator.lookup((short) 0xC000);
+
+        assertThat(second).isNotSameAs(first);
+        assertThat(translator.lookup((short) 0xC000)).isSameAs(second);
+    }
+
+    @Test
+    void givenWriteOutsideTranslatedCode_whenWrittenThroughBarrier_thenBlockIsKept() {
+        Memory cpuMemory = translator.withWriteBarrier(memory);
+        writeCode(0xC000, 0x00, 0x00, 0x18, 0xFC);
+        Block first = translator.lookup((short) 0xC000);
+
+        cpuMemory.write((short) 0xC010, (byte) 0x3C);
+
+        assertThat(translator.lookup((short) 0xC000)).isSameAs(first);
+    }
+
+    @Test
+    void givenRomBlock_whenBankWithSameCodeIsMappedBack_thenTranslationIsReused() {
+        writeCode(0x4000, 0x00, 0x00, 0x18, 0xFC);
+        Block first = translator.lookup((short) 0x4000);
+
+        writeCode(0x4000, 0x3C, 0x3C, 0x18, 0xFC);
+        cartridge.switchBank();
+        Block otherBank = translator.lookup((short) 0x4000);
+
+        writeCode(0x4000, 0x00, 0x00, 0x18, 0xFC);
+        cartridge.switchBank();
+        Block sameCode = translator.lookup((short) 0x4000);
+
+        assertThat(otherBank).isNotSameAs(first);
+        assertThat(sameCode).isSameAs(first);
+    }
+
+    @Test
+    void givenBlock_whenTranslated_thenLastInstructionIsLeftForTheCpu() {
+        writeCode(0x0200, 0x00, 0x3C, 0x04);
+        writeCode(0x0203, 0xC9);
+
+        Block block = translator.lookup((short) 0x0200);
+
+        assertThat(block.last()).isEqualTo(Return.ret());
+    }
+
+    @Test
+    void givenSingleInstructionBeforeJump_whenLookup_thenNoBlock() {
+        writeCode(0x0200, 0x18, 0xFE);
+
+        assertThat(translator.lookup((short) 0x0200)).isNull();
+    }
+
+    @Test
+    void givenColdAddress_whenLookupBelowThreshold_thenNoBlock() {
+        BlockTranslator coldTranslator = translatorFor(memory, 3);
+        writeCode(0x0200, 0x00, 0x3C, 0x18, 0xFC);
+
+        assertThat(coldTranslator.lookup((short) 0x0200)).isNull();
+        assertThat(coldTranslator.lookup((short) 0x0200)).isNull();
+        assertThat(coldTranslator.lookup((short) 0x0200)).isNotNull();
+    }
+
+    @Test
+    void givenDmaActive_whenLookup_thenNoBlock() {
+        writeCode(0x0200, 0x00, 0x3C, 0x18, 0xFC);
+        dmaController.active = true;
+
+        assertThat(translator.lookup((short) 0x0200)).isNull();
+    }
+
+    @Test
+    void givenVram_whenLookup_thenNoBlock() {
+        writeCode(0x8000, 0x00, 0x3C, 0x18, 0xFC);
+
+        assertThat(translator.lookup((short) 0x8000)).isNull();
+    }
+
+    private void writeCode(int address, int... bytes) {
+        for (int i = 0; i < bytes.length; i++) {
+            memory.write((short) (address + i), (byte) bytes[i]);
+        }
+    }
+
+    private BlockTranslator translatorFor(Memory memory, int hotEntries) {
+        return new BlockTranslator(memory, new PrecomputedOpcodeTable(new UnprefixedOpcodeTable()), dmaController,
+                IdleLoopDetector.NONE, cartridge, hotEntries);
+    }
+
+    // One CPU running a program from LOOP_START, interpreted or with blocks; interrupts are enabled in IE only
+    private class Run {
+        private final CpuStructure cpuStructure;
+        private final Cpu cpu;
+        private int cycles = 0;
+
+        private Run(int[] program, int requestedInterrupts, boolean blocks) {
+            TestMemory runMemory = new TestMemory();
+            for (int i = 0; i < program.length; i++) {
+                runMemory.write((short) (LOOP_START + i), (byte) program[i]);
+            }
+            // JR -2 at every interrupt vector
+            for (int vector = 0x40; vector <= 0x60; vector += 8) {
+                runMemory.write((short) vector, (byte) 0x18);
+                runMemory.write((short) (vector + 1), (byte) 0xFE);
+            }
+            BlockTranslator blockTranslator = translatorFor(runMemory, 1);
+            cpuStructure = new CpuStructureBuilder()
+                    .withMemory(blocks ? blockTranslator.withWriteBarrier(runMemory) : runMemory)
+                    .withPC(LOOP_START + 1)
+                    .withInstructionRegister(program[0])
+                    .withSP(0xFFFE)
+                    .withIME(false)
+                    .withIF(requestedInterrupts)
+                    .withMemory(0xFFFF, 0x1F)
+                    .build();
+            cpu = new Cpu(cpuStructure, InstructionCache.NONE, blocks ? blockTranslator : BlockCache.NONE,
+                    IdleLoopDetector.NONE, new CpuTrace(), cpuStructure.memory());
+        }
+
+        private void runUntil(int address) {
+            while (cpu.currentInstructionAddress() != (short) address) {
+                cpu.cycle();
+                cycles++;
+                assertThat(cycles).isLessThan(10_000);
+            }
+        }
+
+        // A block runs several instructions in one cycle(), so the interpreter catches up by ticks instead
+        private void runUntilTick(long tick) {
+            while (ticks() < tick) {
+                cpu.cycle();
+                cycles++;
+            }
+        }
+
+        private String state() {
+            CpuRegisters registers = cpuStructure.registers();
+            return String.format("AF=%04X BC=%04X DE=%04X HL=%04X SP=%04X PC=%04X IME=%b at %04X after %d ticks",
+                    registers.AF(), registers.BC(), registers.DE(), registers.HL(), registers.SP(), registers.PC(),
+                    registers.IME(), cpu.currentInstructionAddress(), ticks());
+        }
+
+        private long ticks() {
+            return cpuStructure.clock().getTime();
+        }
+    }
+
+    private static class StubCartridge implements Cartridge {
+        private final List<BankSwitchListener> listeners = new ArrayList<>();
+
+        @Override
+        public byte read(short address) {
+            return 0;
+        }
+
+        @Override
+        public void write(short address, byte value) {
+        }
+
+        @Override
+        public void addBankSwitchListener(BankSwitchListener listener) {
+            listeners.add(listener);
+        }
+
+        void switchBank() {
+            listeners.forEach(BankSwitchListener::onBankSwitch);
+        }
+    }
+
+    private static class StubDmaController implements DmaController {
+        private boolean active = false;
+
+        @Override
+        public void startDma(byte sourceHigh) {
+        }
+
+        @Override
+        public void mCycle() {
+        }
+
+        @Override
+        public boolean isDmaActive() {
+            return active;
+        }
+    }
+}
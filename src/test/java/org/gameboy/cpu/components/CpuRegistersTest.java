@@ -1,5 +1,6 @@
 package org.gameboy.cpu.components;
 
+import org.gameboy.cpu.AluResult;
 import org.gameboy.cpu.Flag;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -278,6 +279,20 @@ class CpuRegistersTest {
         
         assertThatHex(registers.AF()).isEqualTo((short) 0x00A0);
     }
+
+    @Test
+    void testApplyFlagsFromAluResult() {
+        registers.setAF((short) 0x1250);  // N and C set
+
+        registers.applyFlags(AluResult.of((byte) 0, AluResult.Z_FLAG, AluResult.Z_FLAG | AluResult.N_FLAG));
+
+        assertThat(registers.getFlag(Flag.Z)).isTrue();
+        assertThat(registers.getFlag(Flag.N)).isFalse();
+        assertThat(registers.getFlag(Flag.H)).isFalse();
+        assertThat(registers.getFlag(Flag.C)).isTrue();
+
+        assertThatHex(registers.AF()).isEqualTo((short) 0x1290);
+    }
     
     @Test
     void testFlagsDoNotAffectARegister() {
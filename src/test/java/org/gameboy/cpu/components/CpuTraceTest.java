@@ -0,0 +1,72 @@
+package org.gameboy.cpu.components;
+
+import org.gameboy.utils.CpuTraceDecoder;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CpuTraceTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void givenMoreRecordsThanCapacity_whenWritten_thenOnlyNewestAreKeptOldestFirst() throws IOException {
+        CpuTrace trace = new CpuTrace();
+        trace.enable(4);
+
+        for (int pc = 0x100; pc < 0x106; pc++) {
+            trace.record((short) pc, (byte) 0x00, (byte) 0, registers(), pc);
+        }
+        Path file = tempDir.resolve("trace.bin");
+        trace.writeTo(file);
+
+        assertThat(trace.recorded()).isEqualTo(6);
+        assertThat(decode(file)).extracting(line -> line.substring(0, 7))
+                .containsExactly("PC:0102", "PC:0103", "PC:0104", "PC:0105");
+    }
+
+    @Test
+    void givenRecordedInstructions_whenDecoded_thenReferenceFormatIsProduced() throws IOException {
+        CpuTrace trace = new CpuTrace();
+        trace.enable(8);
+
+        trace.record((short) 0x0150, (byte) 0xAF, (byte) 3, registers(), 10);
+        trace.record((short) 0x0151, (byte) 0xCB, (byte) 3, registers(), 11);
+        trace.record((short) 0x0152, (byte) 0x37, (byte) 4, registers(), 13);
+        Path file = tempDir.resolve("trace.bin");
+        trace.writeTo(file);
+
+        assertThat(decode(file)).containsExactly(
+                "PC:0150 AF=01B0 BC=0013 DE=00D8 HL=014D SP=FFFE TIMA=3 | XOR A",
+                "PC:0151 AF=01B0 BC=0013 DE=00D8 HL=014D SP=FFFE TIMA=3 | PREFIX",
+                "PC:0152 AF=01B0 BC=0013 DE=00D8 HL=014D SP=FFFE TIMA=4 | SWAP A");
+    }
+
+    @Test
+    void givenTraceNeverEnabled_whenWritten_thenFileIsEmpty() throws IOException {
+        CpuTrace trace = new CpuTrace();
+        Path file = tempDir.resolve("trace.bin");
+
+        trace.writeTo(file);
+
+        assertThat(trace.isEnabled()).isFalse();
+        assertThat(Files.size(file)).isZero();
+    }
+
+    private static CpuRegisters registers() {
+        return new CpuRegisters((short) 0x01B0, (short) 0x0013, (short) 0x00D8, (short) 0x014D,
+                (short) 0xFFFE, (short) 0x0100, (byte) 0x00, false);
+    }
+
+    private static String[] decode(Path file) throws IOException {
+        StringWriter out = new StringWriter();
+        new CpuTraceDecoder().decode(file, out);
+        return out.toString().lines().toArray(String[]::new);
+    }
+}
@@ -0,0 +1,122 @@
+package org.gameboy.cpu.components;
+
+import org.gameboy.TestMemory;
+import org.gameboy.common.BankSwitchListener;
+import org.gameboy.common.Cartridge;
+import org.gameboy.common.DmaController;
+import org.gameboy.common.Memory;
+import org.gameboy.cpu.components.InstructionCache.DecodedInstruction;
+import org.gameboy.cpu.instructions.Nop;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DecodedInstructionCacheTest {
+    private static final byte NOP = 0x00;
+    private static final byte INC_A = 0x3C;
+
+    private TestMemory memory;
+    private StubCartridge cartridge;
+    private StubDmaController dmaController;
+    private DecodedInstructionCache cache;
+
+    @BeforeEach
+    void setUp() {
+        memory = new TestMemory();
+        cartridge = new StubCartridge();
+        dmaController = new StubDmaController();
+        cache = new DecodedInstructionCache(
+                memory,
+                new PrecomputedOpcodeTable(new UnprefixedOpcodeTable()),
+                dmaController,
+                cartridge);
+    }
+
+    @Test
+    void givenCachedAddress_whenLookupTwice_thenSameEntryReturned() {
+        memory.write((short) 0x0150, NOP);
+
+        DecodedInstruction first = cache.lookup((short) 0x0150);
+        DecodedInstruction second = cache.lookup((short) 0x0150);
+
+        assertThat(second).isSameAs(first);
+        assertThat(first.instruction()).isEqualTo(Nop.nop());
+    }
+
+    @Test
+    void givenCachedWorkRamAddress_whenWrittenThroughBarrier_thenEntryRedecoded() {
+        Memory cpuMemory = cache.withWriteBarrier(memory);
+        memory.write((short) 0xC000, NOP);
+        cache.lookup((short) 0xC000);
+
+        cpuMemory.write((short) 0xC000, INC_A);
+
+        assertThat(cache.lookup((short) 0xC000).opcode()).isEqualTo(INC_A);
+    }
+
+    @Test
+    void givenCachedRomAddress_whenBankSwitched_thenEntryRedecoded() {
+        memory.write((short) 0x4000, NOP);
+        cache.lookup((short) 0x4000);
+
+        memory.write((short) 0x4000, INC_A);
+        cartridge.switchBank();
+
+        assertThat(cache.lookup((short) 0x4000).opcode()).isEqualTo(INC_A);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0x8000, 0xA000, 0xFE00, 0xFF44})
+    void givenUncacheableAddress_whenLookup_thenNull(int address) {
+        assertThat(cache.lookup((short) address)).isNull();
+    }
+
+    @Test
+    void givenDmaActive_whenLookup_thenNull() {
+        dmaController.active = true;
+
+        assertThat(cache.lookup((short) 0x0150)).isNull();
+    }
+
+    private static class StubCartridge implements Cartridge {
+        private BankSwitchListener listener;
+
+        @Override
+        public byte read(short address) {
+            return 0;
+        }
+
+        @Override
+        public void write(short address, byte value) {
+        }
+
+        @Override
+        public void addBankSwitchListener(BankSwitchListener listener) {
+            this.listener = listener;
+        }
+
+        void switchBank() {
+            listener.onBankSwitch();
+        }
+    }
+
+    private static class StubDmaController implements DmaController {
+        private boolean active = false;
+
+        @Override
+        public void startDma(byte sourceHigh) {
+        }
+
+        @Override
+        public void mCycle() {
+        }
+
+        @Override
+        public boolean isDmaActive() {
+            return active;
+        }
+    }
+}
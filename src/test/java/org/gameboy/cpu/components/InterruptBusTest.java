@@ -3,8 +3,8 @@ package org.gameboy.cpu.components;
 import org.gameboy.CpuStructureBuilder;
 import org.gameboy.common.ByteRegister;
 import org.gameboy.common.ClockWithParallelProcess;
-import org.gameboy.common.IntBackedRegister;
 import org.gameboy.common.Interrupt;
+import org.gameboy.common.InterruptRegisters;
 import org.gameboy.utils.BitUtilities;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -22,18 +22,19 @@ import static org.gameboy.common.MemoryMapConstants.IF_ADDRESS;
 
 class InterruptBusTest {
     private static final List<Interrupt> INTERRUPT_PRIORITY = List.of(
-            Interrupt.JOYPAD,
-            Interrupt.SERIAL,
-            Interrupt.TIMER,
+            Interrupt.VBLANK,
             Interrupt.STAT,
-            Interrupt.VBLANK
+            Interrupt.TIMER,
+            Interrupt.SERIAL,
+            Interrupt.JOYPAD
     );
 
     @Test
     void givenAllInterruptsAndNoInterruptEnabled_whenGetActiveInterrupts_thenNoInterrupts() {
-        ByteRegister ifRegister = new IntBackedRegister();
-        ByteRegister ieRegister = new IntBackedRegister();
-        InterruptBus interruptBus = new InterruptBus(new ClockWithParallelProcess(() -> {}), ifRegister, ieRegister);
+        InterruptRegisters interruptRegisters = new InterruptRegisters();
+        ByteRegister ifRegister = interruptRegisters.interruptFlags();
+        ByteRegister ieRegister = interruptRegisters.interruptEnable();
+        InterruptBus interruptBus = new InterruptBus(new ClockWithParallelProcess(() -> {}), interruptRegisters);
 
         ieRegister.write((byte) 0x00);
         ifRegister.write((byte) 0xff);
@@ -43,9 +44,10 @@ class InterruptBusTest {
 
     @Test
     void givenAllInterruptsAndAllInterruptsEnabled_whenGetActiveInterrupts_thenAllInterrupts() {
-        ByteRegister ifRegister = new IntBackedRegister();
-        ByteRegister ieRegister = new IntBackedRegister();
-        InterruptBus interruptBus = new InterruptBus(new ClockWithParallelProcess(() -> {}), ifRegister, ieRegister);
+        InterruptRegisters interruptRegisters = new InterruptRegisters();
+        ByteRegister ifRegister = interruptRegisters.interruptFlags();
+        ByteRegister ieRegister = interruptRegisters.interruptEnable();
+        InterruptBus interruptBus = new InterruptBus(new ClockWithParallelProcess(() -> {}), interruptRegisters);
 
         ieRegister.write((byte) 0xff);
         ifRegister.write((byte) 0xff);
@@ -80,8 +82,9 @@ class InterruptBusTest {
 
     @Test
     void givenNoInterrupt_whenWaitForInterrupt_andInterruptSent_thenWaitFinishes() {
-        ByteRegister ifRegister = new IntBackedRegister();
-        ByteRegister ieRegister = new IntBackedRegister();
+        InterruptRegisters interruptRegisters = new InterruptRegisters();
+        ByteRegister ifRegister = interruptRegisters.interruptFlags();
+        ByteRegister ieRegister = interruptRegisters.interruptEnable();
 
         ifRegister.write((byte) 0);
         ieRegister.write((byte) 0xff);
@@ -94,7 +97,7 @@ class InterruptBusTest {
             }
         });
 
-        InterruptBus interruptBus = new InterruptBus(clock, ifRegister, ieRegister);
+        InterruptBus interruptBus = new InterruptBus(clock, interruptRegisters);
 
         interruptBus.waitForInterrupt();
 
@@ -104,8 +107,9 @@ class InterruptBusTest {
 
     @Test
     void givenInterruptsRequestedButDisabled_whenWaitForInterrupt_andInterruptsEnabled_thenWaitFinishes() {
-        ByteRegister ifRegister = new IntBackedRegister();
-        ByteRegister ieRegister = new IntBackedRegister();
+        InterruptRegisters interruptRegisters = new InterruptRegisters();
+        ByteRegister ifRegister = interruptRegisters.interruptFlags();
+        ByteRegister ieRegister = interruptRegisters.interruptEnable();
 
         ifRegister.write((byte) 0xff);
         ieRegister.write((byte) 0x00);
@@ -118,7 +122,7 @@ class InterruptBusTest {
             }
         });
 
-        InterruptBus interruptBus = new InterruptBus(clock, ifRegister, ieRegister);
+        InterruptBus interruptBus = new InterruptBus(clock, interruptRegisters);
 
         interruptBus.waitForInterrupt();
 
@@ -128,8 +132,9 @@ class InterruptBusTest {
 
     @Test
     void givenNoInterrupt_whenWaitForInterrupt_andNoInterruptSent_thenWaitDoesNotFinish() {
-        ByteRegister ifRegister = new IntBackedRegister();
-        ByteRegister ieRegister = new IntBackedRegister();
+        InterruptRegisters interruptRegisters = new InterruptRegisters();
+        ByteRegister ifRegister = interruptRegisters.interruptFlags();
+        ByteRegister ieRegister = interruptRegisters.interruptEnable();
 
         ifRegister.write((byte) 0x00);
         ieRegister.write((byte) 0x00);
@@ -144,7 +149,7 @@ class InterruptBusTest {
             }
         });
 
-        InterruptBus interruptBus = new InterruptBus(clock, ifRegister, ieRegister);
+        InterruptBus interruptBus = new InterruptBus(clock, interruptRegisters);
 
         try {
             interruptBus.waitForInterrupt();
@@ -154,4 +159,27 @@ class InterruptBusTest {
             assertThat(tickCount.get()).isEqualTo(100);
         }
     }
-}
\ No newline at end of file
+
+    @ParameterizedTest
+    @ValueSource(ints={0x1f, 0x1e, 0x1c, 0x18, 0x10})
+    void givenSeveralInterruptsPending_whenHighestPriorityInterrupt_thenLowestBitWins(int pending) {
+        CpuStructure cpuStructure = new CpuStructureBuilder()
+                .withMemory(IF_ADDRESS, pending)
+                .withMemory(IE_ADDRESS, 0xff)
+                .build();
+
+        InterruptBus interruptBus = cpuStructure.interruptBus();
+        assertThat(interruptBus.highestPriorityInterrupt()).isEqualTo(interruptBus.activeInterrupts().getFirst());
+        assertThat(interruptBus.highestPriorityInterrupt().index()).isEqualTo(Integer.numberOfTrailingZeros(pending));
+    }
+
+    @Test
+    void givenNoInterruptsPending_whenHighestPriorityInterrupt_thenNull() {
+        CpuStructure cpuStructure = new CpuStructureBuilder()
+                .withMemory(IF_ADDRESS, 0x1f)
+                .withMemory(IE_ADDRESS, 0x00)
+                .build();
+
+        assertThat(cpuStructure.interruptBus().highestPriorityInterrupt()).isNull();
+    }
+}
@@ -0,0 +1,177 @@
+package org.gameboy.cpu.components;
+
+import org.gameboy.CpuStructureBuilder;
+import org.gameboy.TestMemory;
+import org.gameboy.common.Clock;
+import org.gameboy.common.Memory;
+import org.gameboy.common.MemoryListener;
+import org.gameboy.cpu.Cpu;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PollingLoopDetectorTest {
+    private static final int LOOP_START = 0xC000;
+    // LDH A,(44); CP 90; JR NZ,-6
+    private static final int[] LY_POLLING_LOOP = {0xF0, 0x44, 0xFE, 0x90, 0x20, 0xFA};
+    // LDH A,(05); CP 90; JR NZ,-6
+    private static final int[] TIMA_POLLING_LOOP = {0xF0, 0x05, 0xFE, 0x90, 0x20, 0xFA};
+    private static final int LY_POLLING_ITERATION_TICKS = 3 + 2 + 3;
+
+    @Test
+    void givenLyPollingLoop_whenLyIsStable_thenWholeIterationsAreSkipped() {
+        CpuStructure cpuStructure = loopingStructure(LY_POLLING_LOOP, new IdleClock(100));
+        PollingLoopDetector detector = new PollingLoopDetector(cpuStructure.memory());
+        Cpu cpu = new Cpu(cpuStructure, InstructionCache.NONE, detector);
+
+        // Back at the head three times: the first finds the loop, the other two follow a verified pass and skip
+        runIterations(cpu, 4);
+
+        int iterationsPerSkip = 100 / LY_POLLING_ITERATION_TICKS;
+        assertThat(detector.stats()).isEqualTo(new IdleLoopDetector.IdleLoopStats(
+                2L * iterationsPerSkip * LY_POLLING_ITERATION_TICKS, 2L * iterationsPerSkip));
+    }
+
+    @Test
+    void givenLyPollingLoop_whenClockHasNoIdleTicks_thenNothingIsSkipped() {
+        CpuStructure cpuStructure = loopingStructure(LY_POLLING_LOOP, new IdleClock(0));
+        PollingLoopDetector detector = new PollingLoopDetector(cpuStructure.memory());
+        Cpu cpu = new Cpu(cpuStructure, InstructionCache.NONE, detector);
+
+        runIterations(cpu, 4);
+
+        assertThat(detector.stats().skippedTicks()).isZero();
+    }
+
+    @Test
+    void givenLoopPollingTima_whenRun_thenNothingIsSkipped() {
+        CpuStructure cpuStructure = loopingStructure(TIMA_POLLING_LOOP, new IdleClock(100));
+        PollingLoopDetector detector = new PollingLoopDetector(cpuStructure.memory());
+        Cpu cpu = new Cpu(cpuStructure, InstructionCache.NONE, detector);
+
+        runIterations(cpu, 4);
+
+        assertThat(detector.stats().skippedTicks()).isZero();
+    }
+
+    @Test
+    void givenLyPollingLoop_whenSkipped_thenCpuIsStillAtTheLoopHead() {
+        CpuStructure cpuStructure = loopingStructure(LY_POLLING_LOOP, new IdleClock(100));
+        PollingLoopDetector detector = new PollingLoopDetector(cpuStructure.memory());
+        Cpu cpu = new Cpu(cpuStructure, InstructionCache.NONE, detector);
+
+        runIterations(cpu, 2);
+        short pc = cpuStructure.registers().PC();
+        short af = cpuStructure.registers().AF();
+        runIterations(cpu, 1);
+
+        assertThat(detector.stats().skippedTicks()).isPositive();
+        assertThat(cpuStructure.registers().PC()).isEqualTo(pc);
+        assertThat(cpuStructure.registers().AF()).isEqualTo(af);
+    }
+
+    @Test
+    void givenLyPollingLoop_whenSkipped_thenDetectorReadsNothingThroughCpuMemory() {
+        TestMemory memory = new TestMemory();
+        CountingMemory cpuMemory = new CountingMemory(memory);
+        PollingLoopDetector detector = new PollingLoopDetector(memory);
+        Cpu cpu = new Cpu(loopingStructure(LY_POLLING_LOOP, new IdleClock(100), cpuMemory), InstructionCache.NONE,
+                detector);
+        CountingMemory undetectedMemory = new CountingMemory(new TestMemory());
+        Cpu undetected = new Cpu(loopingStructure(LY_POLLING_LOOP, new IdleClock(100), undetectedMemory),
+                InstructionCache.NONE, IdleLoopDetector.NONE);
+
+        runIterations(cpu, 4);
+        runIterations(undetected, 4);
+
+        assertThat(detector.stats().skippedTicks()).isPositive();
+        assertThat(cpuMemory.reads).isEqualTo(undetectedMemory.reads);
+    }
+
+    private static CpuStructure loopingStructure(int[] loop, Clock clock) {
+        return loopingStructure(loop, clock, new TestMemory());
+    }
+
+    private static CpuStructure loopingStructure(int[] loop, Clock clock, Memory memory) {
+        CpuStructureBuilder builder = new CpuStructureBuilder()
+                .withMemory(memory)
+                .withClock(clock)
+                .withPC(LOOP_START + 1)
+                .withInstructionRegister(loop[0])
+                .withMemory(0xFF44, 0x10)
+                .withMemory(0xFF05, 0x10);
+        for (int i = 0; i < loop.length; i++) {
+            builder.withMemory(LOOP_START + i, loop[i]);
+        }
+        return builder.build();
+    }
+
+    // Each iteration executes three instructions
+    private static void runIterations(Cpu cpu, int iterations) {
+        for (int i = 0; i < iterations * 3; i++) {
+            cpu.cycle();
+        }
+    }
+
+    private static class CountingMemory implements Memory {
+        private final Memory underlying;
+        private int reads = 0;
+
+        private CountingMemory(Memory underlying) {
+            this.underlying = underlying;
+        }
+
+        @Override
+        public byte read(short address) {
+            reads++;
+            return underlying.read(address);
+        }
+
+        @Override
+        public void write(short address, byte value) {
+            underlying.write(address, value);
+        }
+
+        @Override
+        public void registerMemoryListener(short address, MemoryListener listener) {
+            underlying.registerMemoryListener(address, listener);
+        }
+    }
+
+    private static class IdleClock implements Clock {
+        private final int idleTicks;
+        private long time = 0;
+
+        private IdleClock(int idleTicks) {
+            this.idleTicks = idleTicks;
+        }
+
+        @Override
+        public void tick() {
+            time++;
+        }
+
+        @Override
+        public int idleTicks() {
+            return idleTicks;
+        }
+
+        @Override
+        public void skipIdleTicks(int ticks) {
+            time += ticks;
+        }
+
+        @Override
+        public long getTime() {
+            return time;
+        }
+
+        @Override
+        public void stop() {
+        }
+
+        @Override
+        public void start() {
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package org.gameboy.cpu.components;
+
+import org.gameboy.cpu.instructions.Instruction;
+import org.gameboy.cpu.instructions.Nop;
+import org.gameboy.cpu.instructions.Stop;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PrecomputedOpcodeTableTest {
+    static IntStream allOpcodes() {
+        return IntStream.range(0, 0xFF + 1);
+    }
+
+    @ParameterizedTest
+    @MethodSource("allOpcodes")
+    void givenUnprefixedTable_whenLookup_thenMatchesSwitchTable(int opcode) {
+        UnprefixedOpcodeTable source = new UnprefixedOpcodeTable();
+        PrecomputedOpcodeTable table = new PrecomputedOpcodeTable(source);
+
+        assertThat(table.lookup((byte) opcode)).isEqualTo(source.lookup((byte) opcode));
+    }
+
+    @ParameterizedTest
+    @MethodSource("allOpcodes")
+    void givenPrefixedTable_whenLookup_thenMatchesSwitchTable(int opcode) {
+        PrefixedOpcodeTable source = new PrefixedOpcodeTable();
+        PrecomputedOpcodeTable table = new PrecomputedOpcodeTable(source);
+
+        assertThat(table.lookup((byte) opcode)).isEqualTo(source.lookup((byte) opcode));
+    }
+
+    @Test
+    void givenPrecomputedTable_whenLookupTwice_thenSameInstanceReturned() {
+        PrecomputedOpcodeTable table = new PrecomputedOpcodeTable(new UnprefixedOpcodeTable());
+
+        Instruction first = table.lookup((byte) 0x80);
+        Instruction second = table.lookup((byte) 0x80);
+
+        assertThat(first).isSameAs(second);
+    }
+
+    @Test
+    void givenSourceThatChangesBetweenLookups_whenConstructed_thenSelfCheckFails() {
+        OpcodeTable unstableSource = new OpcodeTable() {
+            private int lookups = 0;
+
+            @Override
+            public Instruction lookup(byte opcode) {
+                return lookups++ < 0x100 ? Nop.nop() : Stop.stop();
+            }
+        };
+
+        assertThatThrownBy(() -> new PrecomputedOpcodeTable(unstableSource))
+                .isInstanceOf(IllegalStateException.class);
+    }
+}
@@ -38,8 +38,7 @@ class AddTest {
         CpuStructure cpuStructure = new CpuStructureBuilder()
                 .withA(a)
                 .build();
-        OperationTargetAccessor accessor = OperationTargetAccessor.from(cpuStructure);
-        accessor.setValue(r8, (short) b);
+        OperationTargetAccessor.setValue(cpuStructure, r8, (short) b);
 
         Add.add_a_r8(r8).execute(cpuStructure);
 
@@ -52,8 +51,7 @@ class AddTest {
         CpuStructure cpuStructure = new CpuStructureBuilder()
                 .withA(a)
                 .build();
-        OperationTargetAccessor accessor = OperationTargetAccessor.from(cpuStructure);
-        accessor.setValue(r8, (short) b);
+        OperationTargetAccessor.setValue(cpuStructure, r8, (short) b);
 
         Add.add_a_r8(r8).execute(cpuStructure);
 
@@ -115,8 +113,7 @@ class AddTest {
         CpuStructure cpuStructure = new CpuStructureBuilder()
                 .withHL(a)
                 .build();
-        OperationTargetAccessor accessor = OperationTargetAccessor.from(cpuStructure);
-        accessor.setValue(rr, (short) b);
+        OperationTargetAccessor.setValue(cpuStructure, rr, (short) b);
 
         Add.add_hl_r16(rr).execute(cpuStructure);
 
@@ -135,8 +132,7 @@ class AddTest {
                 .withHL(a)
                 .withF(zFlag ? Flag.Z.getLocationMask() : 0)
                 .build();
-        OperationTargetAccessor accessor = OperationTargetAccessor.from(cpuStructure);
-        accessor.setValue(rr, (short) b);
+        OperationTargetAccessor.setValue(cpuStructure, rr, (short) b);
 
         Add.add_hl_r16(rr).execute(cpuStructure);
 
@@ -37,8 +37,7 @@ class AddWithCarryTest {
         CpuStructure cpuStructure = new CpuStructureBuilder()
                 .withA(a)
                 .build();
-        OperationTargetAccessor accessor = OperationTargetAccessor.from(cpuStructure);
-        accessor.setValue(r8, (short) b);
+        OperationTargetAccessor.setValue(cpuStructure, r8, (short) b);
 
         AddWithCarry.adc_a_r8(r8).execute(cpuStructure);
 
@@ -51,8 +50,7 @@ class AddWithCarryTest {
         CpuStructure cpuStructure = new CpuStructureBuilder()
                 .withA(a)
                 .build();
-        OperationTargetAccessor accessor = OperationTargetAccessor.from(cpuStructure);
-        accessor.setValue(r8, (short) b);
+        OperationTargetAccessor.setValue(cpuStructure, r8, (short) b);
 
         AddWithCarry.adc_a_r8(r8).execute(cpuStructure);
 
@@ -105,8 +103,7 @@ class AddWithCarryTest {
                 .withA(a)
                 .withExclusivelySetFlags(Flag.C)
                 .build();
-        OperationTargetAccessor accessor = OperationTargetAccessor.from(cpuStructure);
-        accessor.setValue(r8, (short) b);
+        OperationTargetAccessor.setValue(cpuStructure, r8, (short) b);
 
         AddWithCarry.adc_a_r8(r8).execute(cpuStructure);
 
@@ -120,8 +117,7 @@ class AddWithCarryTest {
                 .withA(a)
                 .withExclusivelySetFlags(Flag.C)
                 .build();
-        OperationTargetAccessor accessor = OperationTargetAccessor.from(cpuStructure);
-        accessor.setValue(r8, (short) b);
+        OperationTargetAccessor.setValue(cpuStructure, r8, (short) b);
 
         AddWithCarry.adc_a_r8(r8).execute(cpuStructure);
 
@@ -38,8 +38,7 @@ class AndTest {
         CpuStructure cpuStructure = new CpuStructureBuilder()
                 .withA(a)
                 .build();
-        OperationTargetAccessor accessor = OperationTargetAccessor.from(cpuStructure);
-        accessor.setValue(r8, (short) b);
+        OperationTargetAccessor.setValue(cpuStructure, r8, (short) b);
 
         And.and_r8(r8).execute(cpuStructure);
 
@@ -52,8 +51,7 @@ class AndTest {
         CpuStructure cpuStructure = new CpuStructureBuilder()
                 .withA(a)
                 .build();
-        OperationTargetAccessor accessor = OperationTargetAccessor.from(cpuStructure);
-        accessor.setValue(r8, (short) b);
+        OperationTargetAccessor.setValue(cpuStructure, r8, (short) b);
 
         And.and_r8(r8).execute(cpuStructure);
 
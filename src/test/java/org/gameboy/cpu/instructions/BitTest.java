@@ -30,14 +30,12 @@ class BitTest {
                 .withExclusivelySetFlags(Flag.Z, Flag.N)
                 .withExclusivelyUnsetFlags(Flag.H, Flag.C)
                 .build();
-        OperationTargetAccessor accessor = OperationTargetAccessor.from(cpuStructure);
-
         byte initialValue = (byte) 0b0000_0001;
-        accessor.setValue(r8, initialValue);
+        OperationTargetAccessor.setValue(cpuStructure, r8, initialValue);
 
         Bit.bit_b_r8(ThreeBitValue.b000, r8).execute(cpuStructure);
 
-        byte actualValue = (byte) accessor.getValue(r8);
+        byte actualValue = (byte) OperationTargetAccessor.getValue(cpuStructure, r8);
         assertThat(actualValue).isEqualTo(initialValue);
 
         Hashtable<Flag, Boolean> expectedFlags = new FlagChangesetBuilder()
@@ -55,14 +53,12 @@ class BitTest {
                 .withExclusivelyUnsetFlags(Flag.Z, Flag.N, Flag.H)
                 .withExclusivelySetFlags(Flag.C)
                 .build();
-        OperationTargetAccessor accessor = OperationTargetAccessor.from(cpuStructure);
-
         byte initialValue = (byte) 0b1111_1110;
-        accessor.setValue(r8, initialValue);
+        OperationTargetAccessor.setValue(cpuStructure, r8, initialValue);
 
         Bit.bit_b_r8(ThreeBitValue.b000, r8).execute(cpuStructure);
 
-        byte actualValue = (byte) accessor.getValue(r8);
+        byte actualValue = (byte) OperationTargetAccessor.getValue(cpuStructure, r8);
         assertThat(actualValue).isEqualTo(initialValue);
 
         Hashtable<Flag, Boolean> expectedFlags = new FlagChangesetBuilder()
@@ -80,14 +76,12 @@ class BitTest {
                 .withExclusivelySetFlags(Flag.Z, Flag.N)
                 .withExclusivelyUnsetFlags(Flag.H, Flag.C)
                 .build();
-        OperationTargetAccessor accessor = OperationTargetAccessor.from(cpuStructure);
-
         byte initialValue = (byte) 0b1000_0000;
-        accessor.setValue(r8, initialValue);
+        OperationTargetAccessor.setValue(cpuStructure, r8, initialValue);
 
         Bit.bit_b_r8(ThreeBitValue.b111, r8).execute(cpuStructure);
 
-        byte actualValue = (byte) accessor.getValue(r8);
+        byte actualValue = (byte) OperationTargetAccessor.getValue(cpuStructure, r8);
         assertThat(actualValue).isEqualTo(initialValue);
 
         Hashtable<Flag, Boolean> expectedFlags = new FlagChangesetBuilder()
@@ -105,14 +99,12 @@ class BitTest {
                 .withExclusivelyUnsetFlags(Flag.Z, Flag.N, Flag.H)
                 .withExclusivelySetFlags(Flag.C)
                 .build();
-        OperationTargetAccessor accessor = OperationTargetAccessor.from(cpuStructure);
-
         byte initialValue = (byte) 0b0111_1111;
-        accessor.setValue(r8, initialValue);
+        OperationTargetAccessor.setValue(cpuStructure, r8, initialValue);
 
         Bit.bit_b_r8(ThreeBitValue.b111, r8).execute(cpuStructure);
 
-        byte actualValue = (byte) accessor.getValue(r8);
+        byte actualValue = (byte) OperationTargetAccessor.getValue(cpuStructure, r8);
         assertThat(actualValue).isEqualTo(initialValue);
 
         Hashtable<Flag, Boolean> expectedFlags = new FlagChangesetBuilder()
@@ -169,9 +161,7 @@ class BitTest {
         CpuStructure cpuStructure = new CpuStructureBuilder()
                 .withExclusivelySetFlags(Flag.C)
                 .build();
-        OperationTargetAccessor accessor = OperationTargetAccessor.from(cpuStructure);
-
-        accessor.setValue(r8, (byte) 0b1010_1010);
+        OperationTargetAccessor.setValue(cpuStructure, r8, (byte) 0b1010_1010);
 
         Bit.bit_b_r8(ThreeBitValue.b000, r8).execute(cpuStructure);
 
@@ -37,8 +37,7 @@ class CompareTest {
         CpuStructure cpuStructure = new CpuStructureBuilder()
                 .withA(a)
                 .build();
-        OperationTargetAccessor accessor = OperationTargetAccessor.from(cpuStructure);
-        accessor.setValue(r8, (short) b);
+        OperationTargetAccessor.setValue(cpuStructure, r8, (short) b);
 
         Compare.cp_r8(r8).execute(cpuStructure);
 
@@ -51,8 +50,7 @@ class CompareTest {
         CpuStructure cpuStructure = new CpuStructureBuilder()
                 .withA(a)
                 .build();
-        OperationTargetAccessor accessor = OperationTargetAccessor.from(cpuStructure);
-        accessor.setValue(r8, (short) b);
+        OperationTargetAccessor.setValue(cpuStructure, r8, (short) b);
 
         Compare.cp_r8(r8).execute(cpuStructure);
 
@@ -35,11 +35,9 @@ class DecTest {
     @MethodSource("getAllR8")
     void givenByteRegisterWithZeroValue_whenDec_thenRegisterUpdatedCorrectly(R8 register) {
         CpuStructure cpuStructure = new CpuStructureBuilder().build();
-        OperationTargetAccessor accessor = OperationTargetAccessor.from(cpuStructure);
-
         Dec.dec_r8(register).execute(cpuStructure);
 
-        byte registerValueAfter = (byte) accessor.getValue(register);
+        byte registerValueAfter = (byte) OperationTargetAccessor.getValue(cpuStructure, register);
         assertThat(registerValueAfter).isEqualTo((byte) 0xff);
     }
 
@@ -47,11 +45,9 @@ class DecTest {
     @MethodSource("getAllR16")
     void givenByteRegisterWithZeroValue_whenDec_thenRegisterUpdatedCorrectly(R16 register) {
         CpuStructure cpuStructure = new CpuStructureBuilder().build();
-        OperationTargetAccessor accessor = OperationTargetAccessor.from(cpuStructure);
-
         Dec.dec_r16(register).execute(cpuStructure);
 
-        short registerValueAfter = accessor.getValue(register);
+        short registerValueAfter = OperationTargetAccessor.getValue(cpuStructure, register);
         assertThat(registerValueAfter).isEqualTo((short) 0xffff);
     }
 
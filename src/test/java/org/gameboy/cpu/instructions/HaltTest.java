@@ -46,7 +46,7 @@ class HaltTest {
 
         cpu.cycle();
 
-        assertThatHex(cpuStructure.registers().PC()).isEqualTo((short) (SERIAL_HANDLER_ADDRESS + 1));
+        assertThatHex(cpuStructure.registers().PC()).isEqualTo((short) (VBLANK_HANDLER_ADDRESS + 1));
     }
 
     @Test
@@ -35,11 +35,9 @@ class IncTest {
     @MethodSource("getAllR8")
     void givenByteRegisterWithZeroValue_whenInc_thenRegisterUpdatedCorrectly(R8 register) {
         CpuStructure cpuStructure = new CpuStructureBuilder().build();
-        OperationTargetAccessor accessor = OperationTargetAccessor.from(cpuStructure);
-
         Inc.inc_r8(register).execute(cpuStructure);
 
-        byte registerValueAfter = (byte) accessor.getValue(register);
+        byte registerValueAfter = (byte) OperationTargetAccessor.getValue(cpuStructure, register);
         assertThat(registerValueAfter).isEqualTo((byte) 1);
     }
 
@@ -49,11 +47,9 @@ class IncTest {
         CpuStructure cpuStructure = new CpuStructureBuilder()
                 .withAllRegistersSet(0xffff)
                 .build();
-        OperationTargetAccessor accessor = OperationTargetAccessor.from(cpuStructure);
-
         Inc.inc_r16(register).execute(cpuStructure);
 
-        short registerValueAfter = accessor.getValue(register);
+        short registerValueAfter = OperationTargetAccessor.getValue(cpuStructure, register);
         assertThat(registerValueAfter).isEqualTo((short) 0);
     }
 
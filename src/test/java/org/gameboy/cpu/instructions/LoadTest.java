@@ -32,11 +32,9 @@ class LoadTest {
                 .withPC(0x00fa)
                 .withImm8(immediateByteValue)
                 .build();
-        OperationTargetAccessor accessor = OperationTargetAccessor.from(cpuStructure);
-
         BasicLoad.ld_r8_imm8(register).execute(cpuStructure);
 
-        byte registerValueAfter = (byte) accessor.getValue(register);
+        byte registerValueAfter = (byte) OperationTargetAccessor.getValue(cpuStructure, register);
         assertThat(registerValueAfter).isEqualTo(immediateByteValue);
     }
 
@@ -56,12 +54,11 @@ class LoadTest {
     void givenRegisterData_whenLoadIntoRegister_thenRegisterUpdatedCorrectly(R8 destination, R8 source) {
         short registerData = (short) 0xfa;
         CpuStructure cpuStructure = new CpuStructureBuilder().build();
-        OperationTargetAccessor accessor = OperationTargetAccessor.from(cpuStructure);
-        accessor.setValue(source, registerData);
+        OperationTargetAccessor.setValue(cpuStructure, source, registerData);
 
         BasicLoad.ld_r8_r8(destination, source).execute(cpuStructure);
 
-        byte registerValueAfter = (byte) accessor.getValue(destination);
+        byte registerValueAfter = (byte) OperationTargetAccessor.getValue(cpuStructure, destination);
         assertThat(registerValueAfter).isEqualTo(lower_byte(registerData));
     }
 
@@ -26,11 +26,9 @@ class PopTest {
                 .withSP(sp)
                 .withStack(expected)
                 .build();
-        OperationTargetAccessor accessor = OperationTargetAccessor.from(cpuStructure);
-
         Pop.pop_stk16(destination).execute(cpuStructure);
 
-        short actual = accessor.getValue(destination);
+        short actual = OperationTargetAccessor.getValue(cpuStructure, destination);
 
         assertThatHex(actual).isEqualTo((short) expected);
         assertThat(cpuStructure.registers().SP()).isEqualTo((short) (sp + 2));
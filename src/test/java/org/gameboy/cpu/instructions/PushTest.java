@@ -29,9 +29,8 @@ class PushTest {
         CpuStructure cpuStructure = new CpuStructureBuilder()
                 .withSP(sp)
                 .build();
-        OperationTargetAccessor accessor = OperationTargetAccessor.from(cpuStructure);
-        accessor.setValue(destination, expected);
-        expected = accessor.getValue(destination);
+        OperationTargetAccessor.setValue(cpuStructure, destination, expected);
+        expected = OperationTargetAccessor.getValue(cpuStructure, destination);
 
         Push.push_stk16(destination).execute(cpuStructure);
 
@@ -29,15 +29,13 @@ class ResetTest {
         CpuStructure cpuStructure = new CpuStructureBuilder()
                 .withExclusivelySetFlags(Flag.Z, Flag.N, Flag.H, Flag.C)
                 .build();
-        OperationTargetAccessor accessor = OperationTargetAccessor.from(cpuStructure);
-
         byte initialValue = (byte) 0b1111_1111;
         byte expectedValue = (byte) 0b1111_1110;
-        accessor.setValue(r8, initialValue);
+        OperationTargetAccessor.setValue(cpuStructure, r8, initialValue);
 
         Reset.res_b_r8(ThreeBitValue.b000, r8).execute(cpuStructure);
 
-        byte actualValue = (byte) accessor.getValue(r8);
+        byte actualValue = (byte) OperationTargetAccessor.getValue(cpuStructure, r8);
         assertThatHex(actualValue).isEqualTo(expectedValue);
 
         assertThat(cpuStructure.registers().getFlag(Flag.Z)).isTrue();
@@ -52,15 +50,13 @@ class ResetTest {
         CpuStructure cpuStructure = new CpuStructureBuilder()
                 .withExclusivelyUnsetFlags(Flag.Z, Flag.N, Flag.H, Flag.C)
                 .build();
-        OperationTargetAccessor accessor = OperationTargetAccessor.from(cpuStructure);
-
         byte initialValue = (byte) 0b1111_1111;
         byte expectedValue = (byte) 0b0111_1111;
-        accessor.setValue(r8, initialValue);
+        OperationTargetAccessor.setValue(cpuStructure, r8, initialValue);
 
         Reset.res_b_r8(ThreeBitValue.b111, r8).execute(cpuStructure);
 
-        byte actualValue = (byte) accessor.getValue(r8);
+        byte actualValue = (byte) OperationTargetAccessor.getValue(cpuStructure, r8);
         assertThatHex(actualValue).isEqualTo(expectedValue);
 
         assertThat(cpuStructure.registers().getFlag(Flag.Z)).isFalse();
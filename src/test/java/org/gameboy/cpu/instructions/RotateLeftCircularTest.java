@@ -59,15 +59,13 @@ class RotateLeftCircularTest {
         CpuStructure cpuStructure = new CpuStructureBuilder()
                 .withUnsetFlags(Flag.C)
                 .build();
-        OperationTargetAccessor accessor = OperationTargetAccessor.from(cpuStructure);
-
         byte initialValue =  (byte) 0b1010_1010;
         byte expectedValue = (byte) 0b0101_0101;
-        accessor.setValue(r8, initialValue);
+        OperationTargetAccessor.setValue(cpuStructure, r8, initialValue);
 
         RotateLeftCircular.rlc_r8(r8).execute(cpuStructure);
 
-        byte actualValue = (byte) accessor.getValue(r8);
+        byte actualValue = (byte) OperationTargetAccessor.getValue(cpuStructure, r8);
         assertThatHex(actualValue).isEqualTo(expectedValue);
 
         Hashtable<Flag, Boolean> expectedFlags = new FlagChangesetBuilder()
@@ -85,15 +83,13 @@ class RotateLeftCircularTest {
         CpuStructure cpuStructure = new CpuStructureBuilder()
                 .withUnsetFlags(Flag.C)
                 .build();
-        OperationTargetAccessor accessor = OperationTargetAccessor.from(cpuStructure);
-
         byte initialValue =  (byte) 0b0101_0101;
         byte expectedValue = (byte) 0b1010_1010;
-        accessor.setValue(r8, initialValue);
+        OperationTargetAccessor.setValue(cpuStructure, r8, initialValue);
 
         RotateLeftCircular.rlc_r8(r8).execute(cpuStructure);
 
-        byte actualValue = (byte) accessor.getValue(r8);
+        byte actualValue = (byte) OperationTargetAccessor.getValue(cpuStructure, r8);
         assertThatHex(actualValue).isEqualTo(expectedValue);
 
         Hashtable<Flag, Boolean> expectedFlags = new FlagChangesetBuilder()
@@ -111,15 +107,13 @@ class RotateLeftCircularTest {
         CpuStructure cpuStructure = new CpuStructureBuilder()
                 .withUnsetFlags(Flag.C)
                 .build();
-        OperationTargetAccessor accessor = OperationTargetAccessor.from(cpuStructure);
-
         byte initialValue = (byte) 0b0000_0000;
         byte expectedValue = (byte) 0b0000_0000;
-        accessor.setValue(r8, initialValue);
+        OperationTargetAccessor.setValue(cpuStructure, r8, initialValue);
 
         RotateLeftCircular.rlc_r8(r8).execute(cpuStructure);
 
-        byte actualValue = (byte) accessor.getValue(r8);
+        byte actualValue = (byte) OperationTargetAccessor.getValue(cpuStructure, r8);
         assertThatHex(actualValue).isEqualTo(expectedValue);
 
         Hashtable<Flag, Boolean> expectedFlags = new FlagChangesetBuilder()
@@ -137,10 +131,8 @@ class RotateLeftCircularTest {
         CpuStructure cpuStructure = new CpuStructureBuilder()
                 .withExclusivelySetFlags(Flag.N, Flag.H)
                 .build();
-        OperationTargetAccessor accessor = OperationTargetAccessor.from(cpuStructure);
-
         byte initialValue = (byte) 0b1010_1010;
-        accessor.setValue(r8, initialValue);
+        OperationTargetAccessor.setValue(cpuStructure, r8, initialValue);
 
         RotateLeftCircular.rlc_r8(r8).execute(cpuStructure);
 
@@ -84,15 +84,13 @@ class RotateLeftTest {
         CpuStructure cpuStructure = new CpuStructureBuilder()
                 .withExclusivelySetFlags(Flag.C)
                 .build();
-        OperationTargetAccessor accessor = OperationTargetAccessor.from(cpuStructure);
-
         byte initialValue = (byte) 0b1010_1010;
         byte expectedValue = (byte) 0b0101_0101;
-        accessor.setValue(r8, initialValue);
+        OperationTargetAccessor.setValue(cpuStructure, r8, initialValue);
 
         RotateLeft.rl_r8(r8).execute(cpuStructure);
 
-        byte actualValue = (byte) accessor.getValue(r8);
+        byte actualValue = (byte) OperationTargetAccessor.getValue(cpuStructure, r8);
         assertThatHex(actualValue).isEqualTo(expectedValue);
 
         Hashtable<Flag, Boolean> expectedFlags = new FlagChangesetBuilder()
@@ -110,15 +108,13 @@ class RotateLeftTest {
         CpuStructure cpuStructure = new CpuStructureBuilder()
                 .withExclusivelyUnsetFlags(Flag.C)
                 .build();
-        OperationTargetAccessor accessor = OperationTargetAccessor.from(cpuStructure);
-
         byte initialValue = (byte) 0b1010_1010;
         byte expectedValue = (byte) 0b0101_0100;
-        accessor.setValue(r8, initialValue);
+        OperationTargetAccessor.setValue(cpuStructure, r8, initialValue);
 
         RotateLeft.rl_r8(r8).execute(cpuStructure);
 
-        byte actualValue = (byte) accessor.getValue(r8);
+        byte actualValue = (byte) OperationTargetAccessor.getValue(cpuStructure, r8);
         assertThatHex(actualValue).isEqualTo(expectedValue);
 
         Hashtable<Flag, Boolean> expectedFlags = new FlagChangesetBuilder()
@@ -136,15 +132,13 @@ class RotateLeftTest {
         CpuStructure cpuStructure = new CpuStructureBuilder()
                 .withExclusivelySetFlags(Flag.C)
                 .build();
-        OperationTargetAccessor accessor = OperationTargetAccessor.from(cpuStructure);
-
         byte initialValue = (byte) 0b0101_0101;
         byte expectedValue = (byte) 0b1010_1011;
-        accessor.setValue(r8, initialValue);
+        OperationTargetAccessor.setValue(cpuStructure, r8, initialValue);
 
         RotateLeft.rl_r8(r8).execute(cpuStructure);
 
-        byte actualValue = (byte) accessor.getValue(r8);
+        byte actualValue = (byte) OperationTargetAccessor.getValue(cpuStructure, r8);
         assertThatHex(actualValue).isEqualTo(expectedValue);
 
         Hashtable<Flag, Boolean> expectedFlags = new FlagChangesetBuilder()
@@ -162,15 +156,13 @@ class RotateLeftTest {
         CpuStructure cpuStructure = new CpuStructureBuilder()
                 .withUnsetFlags(Flag.C)
                 .build();
-        OperationTargetAccessor accessor = OperationTargetAccessor.from(cpuStructure);
-
         byte initialValue = (byte) 0b0000_0000;
         byte expectedValue = (byte) 0b0000_0000;
-        accessor.setValue(r8, initialValue);
+        OperationTargetAccessor.setValue(cpuStructure, r8, initialValue);
 
         RotateLeft.rl_r8(r8).execute(cpuStructure);
 
-        byte actualValue = (byte) accessor.getValue(r8);
+        byte actualValue = (byte) OperationTargetAccessor.getValue(cpuStructure, r8);
         assertThatHex(actualValue).isEqualTo(expectedValue);
 
         Hashtable<Flag, Boolean> expectedFlags = new FlagChangesetBuilder()
@@ -188,10 +180,8 @@ class RotateLeftTest {
         CpuStructure cpuStructure = new CpuStructureBuilder()
                 .withExclusivelySetFlags(Flag.N, Flag.H)
                 .build();
-        OperationTargetAccessor accessor = OperationTargetAccessor.from(cpuStructure);
-
         byte initialValue = (byte) 0b1010_1010;
-        accessor.setValue(r8, initialValue);
+        OperationTargetAccessor.setValue(cpuStructure, r8, initialValue);
 
         RotateLeft.rl_r8(r8).execute(cpuStructure);
 
@@ -37,8 +37,7 @@ class SubWithCarryTest {
         CpuStructure cpuStructure = new CpuStructureBuilder()
                 .withA(a)
                 .build();
-        OperationTargetAccessor accessor = OperationTargetAccessor.from(cpuStructure);
-        accessor.setValue(r8, (short) b);
+        OperationTargetAccessor.setValue(cpuStructure, r8, (short) b);
 
         SubWithCarry.sbc_a_r8(r8).execute(cpuStructure);
 
@@ -51,8 +50,7 @@ class SubWithCarryTest {
         CpuStructure cpuStructure = new CpuStructureBuilder()
                 .withA(a)
                 .build();
-        OperationTargetAccessor accessor = OperationTargetAccessor.from(cpuStructure);
-        accessor.setValue(r8, (short) b);
+        OperationTargetAccessor.setValue(cpuStructure, r8, (short) b);
 
         SubWithCarry.sbc_a_r8(r8).execute(cpuStructure);
 
@@ -108,8 +106,7 @@ class SubWithCarryTest {
                 .withExclusivelySetFlags(Flag.C)
                 .withA(a)
                 .build();
-        OperationTargetAccessor accessor = OperationTargetAccessor.from(cpuStructure);
-        accessor.setValue(r8, (short) b);
+        OperationTargetAccessor.setValue(cpuStructure, r8, (short) b);
 
         SubWithCarry.sbc_a_r8(r8).execute(cpuStructure);
 
@@ -123,8 +120,7 @@ class SubWithCarryTest {
                 .withExclusivelySetFlags(Flag.C)
                 .withA(a)
                 .build();
-        OperationTargetAccessor accessor = OperationTargetAccessor.from(cpuStructure);
-        accessor.setValue(r8, (short) b);
+        OperationTargetAccessor.setValue(cpuStructure, r8, (short) b);
 
         SubWithCarry.sbc_a_r8(r8).execute(cpuStructure);
 
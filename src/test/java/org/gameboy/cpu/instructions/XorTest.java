@@ -36,8 +36,7 @@ class XorTest {
         CpuStructure cpuStructure = new CpuStructureBuilder()
                 .withA(a)
                 .build();
-        OperationTargetAccessor accessor = OperationTargetAccessor.from(cpuStructure);
-        accessor.setValue(r8, (short) b);
+        OperationTargetAccessor.setValue(cpuStructure, r8, (short) b);
 
         Xor.xor_r8(r8).execute(cpuStructure);
 
@@ -49,8 +48,7 @@ class XorTest {
     void givenByteRegisterAndValues_whenXor_thenFlagsAreCorrect(int a, R8 r8, int b) {
         CpuStructure cpuStructure = new CpuStructureBuilder()
                 .build();
-        OperationTargetAccessor accessor = OperationTargetAccessor.from(cpuStructure);
-        accessor.setValue(r8, (short) b);
+        OperationTargetAccessor.setValue(cpuStructure, r8, (short) b);
 
         Xor.xor_r8(r8).execute(cpuStructure);
 
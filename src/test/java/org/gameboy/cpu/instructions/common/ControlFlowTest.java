@@ -2,6 +2,7 @@ package org.gameboy.cpu.instructions.common;
 
 import org.gameboy.CpuStructureBuilder;
 import org.gameboy.cpu.Flag;
+import org.gameboy.cpu.FlagChanges;
 import org.gameboy.cpu.components.CpuStructure;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -83,7 +84,7 @@ class ControlFlowTest {
 
         ControlFlow.signedAdditionOnlyAlu(a, b, cpuStructure);
 
-        Hashtable<Flag, Boolean> expectedFlagChanges = cpuStructure.alu().add(lower_byte(a), b).flagChanges();
+        Hashtable<Flag, Boolean> expectedFlagChanges = FlagChanges.of(cpuStructure.alu().add(lower_byte(a), b));
         expectedFlagChanges.forEach(
                 (flag, value) -> assertThat(cpuStructure.registers().getFlag(flag)).isEqualTo(value)
         );
@@ -0,0 +1,85 @@
+package org.gameboy.cpu.instructions.common;
+
+import org.gameboy.CpuStructureBuilder;
+import org.gameboy.cpu.components.CpuStructure;
+import org.gameboy.cpu.instructions.targets.Target;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.gameboy.cpu.instructions.targets.Target.*;
+
+class OperationTargetAccessorTest {
+    static Stream<Target> registerTargets() {
+        return Stream.of(a, b, c, d, e, h, l, bc, de, hl, sp, pc);
+    }
+
+    @ParameterizedTest
+    @MethodSource("registerTargets")
+    void givenRegisterTarget_whenSetValue_thenGetValueReturnsIt(Target target) {
+        CpuStructure cpuStructure = new CpuStructureBuilder().build();
+
+        OperationTargetAccessor.setValue(cpuStructure, target, (short) 0x5A);
+
+        assertThat(OperationTargetAccessor.getValue(cpuStructure, target)).isEqualTo((short) 0x5A);
+    }
+
+    @Test
+    void givenIndirectHLInc_whenSetValue_thenWrittenAtHLAndHLIncremented() {
+        CpuStructure cpuStructure = new CpuStructureBuilder()
+                .withHL(0xC000)
+                .build();
+
+        OperationTargetAccessor.setValue(cpuStructure, indirect_hl_inc, (short) 0x42);
+
+        assertThat(cpuStructure.memory().read((short) 0xC000)).isEqualTo((byte) 0x42);
+        assertThat(cpuStructure.registers().HL()).isEqualTo((short) 0xC001);
+    }
+
+    @Test
+    void givenUnknownCode_whenSetValue_thenThrows() {
+        CpuStructure cpuStructure = new CpuStructureBuilder().build();
+
+        assertThatThrownBy(() -> OperationTargetAccessor.setValue(cpuStructure, -1, (short) 0x42))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Unknown target code -1");
+    }
+
+    @Test
+    void givenEveryTarget_whenCodeResolved_thenCodesAreDistinctAndDense() {
+        Target[] targets = {a, b, c, d, e, h, l, bc, de, hl, sp, af, pc,
+                indirect_hl, indirect_bc, indirect_de, indirect_hl_inc, indirect_hl_dec,
+                indirect_c, indirect_imm_8, indirect_imm_16, imm_8, imm_16, sp_offset};
+
+        assertThat(Arrays.stream(targets).mapToInt(Target::code).sorted().toArray())
+                .containsExactly(IntStream.range(0, targets.length).toArray());
+    }
+
+    @Test
+    void givenRegisterTargets_whenAccessedRepeatedly_thenNothingIsAllocated() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        CpuStructure cpuStructure = new CpuStructureBuilder().build();
+        accessRegisters(cpuStructure, 10_000);
+
+        long before = threads.getCurrentThreadAllocatedBytes();
+        accessRegisters(cpuStructure, 10_000);
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+
+        assertThat(allocated).isZero();
+    }
+
+    private static void accessRegisters(CpuStructure cpuStructure, int iterations) {
+        for (int i = 0; i < iterations; i++) {
+            short value = OperationTargetAccessor.getValue(cpuStructure, b);
+            OperationTargetAccessor.setValue(cpuStructure, a, value);
+            OperationTargetAccessor.setValue(cpuStructure, hl, OperationTargetAccessor.getValue(cpuStructure, de));
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package org.gameboy.debug;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import org.gameboy.EmulatorModule;
+import org.gameboy.cartridge.RomOnlyCartridge;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WatchpointsTest {
+    private static final int MAX_INSTRUCTIONS = 100;
+    // 0100: LD A,42; 0102: LD (C000),A; 0105: LD A,(C000); 0108: JR 0108
+    private static final int[] PROGRAM = {0x3E, 0x42, 0xEA, 0x00, 0xC0, 0xFA, 0x00, 0xC0, 0x18, 0xFE};
+
+    private Watchpoints watchpoints;
+
+    @BeforeEach
+    void setUp() {
+        byte[] rom = new byte[0x8000];
+        for (int i = 0; i < PROGRAM.length; i++) {
+            rom[0x0100 + i] = (byte) PROGRAM[i];
+        }
+        Injector injector = Guice.createInjector(new EmulatorModule(new RomOnlyCartridge(rom)));
+        watchpoints = injector.getInstance(Watchpoints.class);
+    }
+
+    @Test
+    void givenWriteWatchpointWithMatchingCondition_whenRun_thenHitCarriesPcAndValue() {
+        watchpoints.add(Watchpoint.onWrite(0xC000, 0xC0FF).when(value -> value == 0x42));
+
+        Optional<WatchpointHit> hit = watchpoints.runUntilHit(MAX_INSTRUCTIONS);
+
+        assertThat(hit).isPresent();
+        assertThat(hit.get().address()).isEqualTo(0xC000);
+        assertThat(hit.get().value()).isEqualTo(0x42);
+        assertThat(hit.get().pc()).isEqualTo((short) 0x0102);
+        assertThat(hit.get().cycle()).isPositive();
+    }
+
+    @Test
+    void givenWriteWatchpointWithFailingCondition_whenRun_thenNoHit() {
+        watchpoints.add(Watchpoint.onWrite(0xC000, 0xC000).when(value -> value == 0x00));
+
+        assertThat(watchpoints.runUntilHit(MAX_INSTRUCTIONS)).isEmpty();
+    }
+
+    @Test
+    void givenReadWatchpoint_whenRun_thenHitComesFromTheLoad() {
+        watchpoints.add(Watchpoint.onRead(0xC000, 0xC000));
+
+        Optional<WatchpointHit> hit = watchpoints.runUntilHit(MAX_INSTRUCTIONS);
+
+        assertThat(hit).isPresent();
+        assertThat(hit.get().pc()).isEqualTo((short) 0x0105);
+        assertThat(hit.get().value()).isEqualTo(0x42);
+    }
+
+    @Test
+    void givenExecuteWatchpoint_whenRun_thenHitReportsTheOpcode() {
+        watchpoints.add(Watchpoint.onExecute(0x0108));
+
+        Optional<WatchpointHit> hit = watchpoints.runUntilHit(MAX_INSTRUCTIONS);
+
+        assertThat(hit).isPresent();
+        assertThat(hit.get().pc()).isEqualTo((short) 0x0108);
+        assertThat(hit.get().value()).isEqualTo(0x18);
+    }
+
+    @Test
+    void givenWatchpointRemoved_whenRun_thenNoHit() {
+        Watchpoint watchpoint = Watchpoint.onWrite(0xC000, 0xC000);
+        watchpoints.add(watchpoint);
+        watchpoints.remove(watchpoint);
+
+        assertThat(watchpoints.runUntilHit(MAX_INSTRUCTIONS)).isEmpty();
+    }
+}
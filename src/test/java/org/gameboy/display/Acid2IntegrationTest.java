@@ -1,7 +1,9 @@
 package org.gameboy.display;
 
 import org.gameboy.Acid2TestRunner;
-import org.junit.jupiter.api.Test;
+import org.gameboy.ClockMode;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 
 import javax.imageio.ImageIO;
 import java.awt.image.BufferedImage;
@@ -24,14 +26,25 @@ public class Acid2IntegrationTest {
     private static final int GREYSCALE_DARK = 0x55;
     private static final int GREYSCALE_BLACK = 0x00;
 
-    @Test
-    public void testAcid2DisplayOutput() throws IOException {
+    @ParameterizedTest
+    @EnumSource(ClockMode.class)
+    public void testAcid2DisplayOutput(ClockMode clockMode) throws IOException {
+        assertAcid2Matches(clockMode, PpuRenderer.FIFO, "");
+    }
+
+    @ParameterizedTest
+    @EnumSource(ClockMode.class)
+    public void testAcid2DisplayOutputWithScanlineRenderer(ClockMode clockMode) throws IOException {
+        assertAcid2Matches(clockMode, PpuRenderer.SCANLINE, "-scanline");
+    }
+
+    private void assertAcid2Matches(ClockMode clockMode, PpuRenderer ppuRenderer, String suffix) throws IOException {
         // Load ROM from resources
         InputStream romStream = getClass().getResourceAsStream(ACID2_ROM_RESOURCE);
         assertNotNull(romStream, "dmg-acid2.gb ROM file not found in test resources: " + ACID2_ROM_RESOURCE);
         byte[] romData = romStream.readAllBytes();
 
-        Acid2TestRunner runner = new Acid2TestRunner(romData);
+        Acid2TestRunner runner = new Acid2TestRunner(romData, clockMode, ppuRenderer);
 
         BufferedImage actualImage = runner.runUntilStableAndCapture(TEST_TIMEOUT_CYCLES);
         assertNotNull(actualImage, "Failed to capture screenshot from emulator");
@@ -40,7 +53,7 @@ public class Acid2IntegrationTest {
         Path outputPath = Path.of(OUTPUT_DIR);
         Files.createDirectories(outputPath);
 
-        File outputFile = outputPath.resolve("acid2-test-output.png").toFile();
+        File outputFile = outputPath.resolve("acid2-test-output-" + clockMode.name().toLowerCase() + suffix + ".png").toFile();
         ImageIO.write(actualImage, "png", outputFile);
         System.out.println("Test screenshot saved to: " + outputFile.getAbsolutePath());
 
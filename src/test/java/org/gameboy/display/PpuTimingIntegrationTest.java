@@ -3,6 +3,7 @@ package org.gameboy.display;
 import org.gameboy.TestMemory;
 import org.gameboy.common.IntBackedRegister;
 import org.gameboy.common.InterruptController;
+import org.gameboy.common.MemoryBus;
 import org.gameboy.common.SynchronisedClock;
 import org.gameboy.utils.MultiBitValue.TwoBitValue;
 import org.junit.jupiter.api.BeforeEach;
@@ -58,7 +59,7 @@ public class PpuTimingIntegrationTest {
             new DisplayInterruptController(interruptController, registers);
 
         // Create OAM
-        ObjectAttributeMemory oam = new ObjectAttributeMemory(memory);
+        ObjectAttributeMemory oam = new ObjectAttributeMemory(memory, new MemoryBus(memory));
 
         // Create sprite buffer
         SpriteBuffer spriteBuffer = new SpriteBuffer();
@@ -89,7 +90,8 @@ public class PpuTimingIntegrationTest {
         // Create PPU
         ppu = new PictureProcessingUnit(
             scanlineController, registers, ppuClock,
-            oamScanController, displayInterruptController, display
+            oamScanController, displayInterruptController, display,
+            new ScanlineRenderer(memory, registers, spriteBuffer, backgroundFetcher, display), PpuRenderer.FIFO
         );
     }
 
@@ -209,4 +211,35 @@ public class PpuTimingIntegrationTest {
             .withFailMessage("After 81 T-cycles, mode should be 3 (Drawing) but was %d", modeAfter)
             .isEqualTo(3);
     }
+
+    @Test
+    void skippingIdleTCycles_shouldKeepLyChangesOnTheSameCycles() {
+        int frameTCycles = FRAME_SCANLINES * SCANLINE_T_CYCLES;
+        int cycle = 0;
+        int lyChanges = 0;
+        byte lastLy = registers.read(LY);
+
+        while (cycle < frameTCycles * 2) {
+            int idle = ppu.idleTCycles();
+            if (idle > 0) {
+                ppu.skipIdleTCycles(idle);
+                cycle += idle;
+                assertThat(registers.read(LY)).isEqualTo(lastLy);
+            }
+
+            ppu.tCycle();
+            cycle++;
+
+            byte currentLy = registers.read(LY);
+            if (currentLy != lastLy) {
+                assertThat(cycle % SCANLINE_T_CYCLES)
+                    .withFailMessage("LY changed to %d at cycle %d, not on a scanline boundary", currentLy, cycle)
+                    .isZero();
+                lyChanges++;
+                lastLy = currentLy;
+            }
+        }
+
+        assertThat(lyChanges).isEqualTo(FRAME_SCANLINES * 2);
+    }
 }
@@ -0,0 +1,252 @@
+package org.gameboy.display;
+
+import org.gameboy.TestMemory;
+import org.gameboy.common.IntBackedRegister;
+import org.gameboy.common.InterruptController;
+import org.gameboy.common.Memory;
+import org.gameboy.common.MemoryBus;
+import org.gameboy.common.MemoryListener;
+import org.gameboy.common.SynchronisedClock;
+import org.gameboy.display.PpuRegisters.PpuRegister;
+import org.gameboy.utils.MultiBitValue.TwoBitValue;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.gameboy.display.PpuRegisters.PpuRegister.*;
+import static org.gameboy.utils.BitUtilities.uint;
+
+class ScanlineRendererTest {
+    private static final int FRAME_T_CYCLES = 154 * PictureProcessingUnit.SCANLINE_TICK_COUNT;
+    private static final int MODE_3_START = 80;
+    private static final PpuRegister[] WRITABLE_REGISTERS = {LCDC, SCY, SCX, BGP, OBP0, OBP1, WY, WX};
+
+    @Test
+    void givenRandomScenes_whenDrawnByBothRenderers_thenPixelsAndModeTimingsMatch() {
+        for (int seed = 0; seed < 40; seed++) {
+            Rig fifo = new Rig(PpuRenderer.FIFO);
+            Rig scanline = new Rig(PpuRenderer.SCANLINE);
+            fifo.loadScene(new Random(seed));
+            scanline.loadScene(new Random(seed));
+
+            int[] fifoTimeline = fifo.run(2 * FRAME_T_CYCLES, null);
+            int[] scanlineTimeline = scanline.run(2 * FRAME_T_CYCLES, null);
+
+            assertThat(scanlineTimeline).as("seed %d", seed).isEqualTo(fifoTimeline);
+            assertThat(scanline.pixels).as("seed %d", seed).isEqualTo(fifo.pixels);
+            assertThat(scanline.ppu.linesReplayed()).isZero();
+            assertThat(scanline.ppu.linesDrawnAhead()).isEqualTo(2 * Display.DISPLAY_HEIGHT);
+        }
+    }
+
+    @Test
+    void givenWritesDuringDrawing_whenDrawnByBothRenderers_thenPixelsAndModeTimingsMatch() {
+        for (int seed = 0; seed < 20; seed++) {
+            Rig fifo = new Rig(PpuRenderer.FIFO);
+            Rig scanline = new Rig(PpuRenderer.SCANLINE);
+            fifo.loadScene(new Random(seed));
+            scanline.loadScene(new Random(seed));
+
+            int[] fifoTimeline = fifo.run(2 * FRAME_T_CYCLES, new Random(-seed));
+            int[] scanlineTimeline = scanline.run(2 * FRAME_T_CYCLES, new Random(-seed));
+
+            assertThat(scanlineTimeline).as("seed %d", seed).isEqualTo(fifoTimeline);
+            assertThat(scanline.pixels).as("seed %d", seed).isEqualTo(fifo.pixels);
+            assertThat(scanline.ppu.linesReplayed()).isPositive();
+        }
+    }
+
+    @Test
+    void givenScrollSpritesAndWindow_whenDrawn_thenMode3LengthIsCountedForEach() {
+        for (PpuRenderer renderer : PpuRenderer.values()) {
+            Rig rig = new Rig(renderer);
+            rig.registers.write(LCDC, (byte) 0xA3);
+            rig.registers.write(SCX, (byte) 3);
+            rig.registers.write(WX, (byte) 87);
+            rig.placeSprite(0, 16, 40);
+            rig.placeSprite(1, 16, 120);
+
+            int[] timeline = rig.run(PictureProcessingUnit.SCANLINE_TICK_COUNT, null);
+
+            // Six T-cycles for the first tile, three discarded pixels, 160 pushed, one to finish, six per sprite
+            // and six more to restart on the window; STAT already shows HBLANK after the last of them
+            assertThat(mode3Length(timeline)).as("%s", renderer).isEqualTo(6 + 3 + 160 + 1 + 2 * 6 + 6 - 1);
+        }
+    }
+
+    @Test
+    void givenVramWriteDuringDrawing_whenScanlineRenderer_thenLineIsReplayedOnFifo() {
+        Rig rig = new Rig(PpuRenderer.SCANLINE);
+        rig.run(MODE_3_START + 20, null);
+
+        rig.cpuMemory.write((short) 0x8000, (byte) 0xFF);
+
+        assertThat(rig.ppu.linesReplayed()).isEqualTo(1);
+        assertThat(rig.ppu.linesDrawnAhead()).isZero();
+    }
+
+    @Test
+    void givenWriteOfUnchangedValue_whenScanlineRenderer_thenLineIsNotReplayed() {
+        Rig rig = new Rig(PpuRenderer.SCANLINE);
+        rig.run(MODE_3_START + 20, null);
+
+        rig.cpuMemory.write((short) 0x8000, (byte) 0x00);
+        rig.cpuMemory.write((short) 0xFF43, rig.registers.read(SCX));
+
+        assertThat(rig.ppu.linesReplayed()).isZero();
+    }
+
+    @Test
+    void givenWorkRamWriteDuringDrawing_whenScanlineRenderer_thenLineIsNotReplayed() {
+        Rig rig = new Rig(PpuRenderer.SCANLINE);
+        rig.run(MODE_3_START + 20, null);
+
+        rig.cpuMemory.write((short) 0xC000, (byte) 0xFF);
+
+        assertThat(rig.ppu.linesReplayed()).isZero();
+    }
+
+    private static int mode3Length(int[] timeline) {
+        int length = 0;
+        for (int state : timeline) {
+            if ((state & 0x3) == 3) {
+                length++;
+            }
+        }
+        return length;
+    }
+
+    private static PpuRegister register(short address) {
+        return switch (uint(address)) {
+            case 0xFF40 -> LCDC;
+            case 0xFF42 -> SCY;
+            case 0xFF43 -> SCX;
+            case 0xFF47 -> BGP;
+            case 0xFF48 -> OBP0;
+            case 0xFF49 -> OBP1;
+            case 0xFF4A -> WY;
+            case 0xFF4B -> WX;
+            default -> null;
+        };
+    }
+
+    private static short address(PpuRegister register) {
+        return switch (register) {
+            case LCDC -> (short) 0xFF40;
+            case SCY -> (short) 0xFF42;
+            case SCX -> (short) 0xFF43;
+            case BGP -> (short) 0xFF47;
+            case OBP0 -> (short) 0xFF48;
+            case OBP1 -> (short) 0xFF49;
+            case WY -> (short) 0xFF4A;
+            case WX -> (short) 0xFF4B;
+            default -> throw new IllegalArgumentException(register.name());
+        };
+    }
+
+    private static final class Rig {
+        private final TestMemory memory = new TestMemory();
+        private final PpuRegisters registers = new PpuRegisters(
+                new IntBackedRegister(0), new IntBackedRegister(0), new IntBackedRegister(0),
+                new IntBackedRegister(0), new IntBackedRegister(0), new IntBackedRegister(0),
+                new IntBackedRegister(0x91), new StatRegister(0x00), new IntBackedRegister(0xFC),
+                new IntBackedRegister(0xFF), new IntBackedRegister(0xFF));
+        private final int[] pixels = new int[Display.DISPLAY_WIDTH * Display.DISPLAY_HEIGHT];
+        private final PictureProcessingUnit ppu;
+        private final Memory cpuMemory;
+
+        private Rig(PpuRenderer renderer) {
+            SynchronisedClock ppuClock = new SynchronisedClock();
+            DisplayInterruptController displayInterruptController = new DisplayInterruptController(
+                    new InterruptController(new IntBackedRegister(0)), registers);
+            SpriteBuffer spriteBuffer = new SpriteBuffer();
+            OamScanController oamScanController = new OamScanController(
+                    new ObjectAttributeMemory(memory, new MemoryBus(memory)), ppuClock, spriteBuffer, registers);
+            Fifo<TwoBitValue> backgroundFifo = new Fifo<>();
+            Fifo<SpritePixel> spriteFifo = new Fifo<>();
+            BackgroundFetcher backgroundFetcher = new BackgroundFetcher(memory, registers, backgroundFifo, ppuClock);
+            SpriteFetcher spriteFetcher = new SpriteFetcher(spriteBuffer, memory, registers, spriteFifo, ppuClock);
+            Display display = (x, y, value) -> pixels[y * Display.DISPLAY_WIDTH + x] = value.value();
+            ScanlineController scanlineController = new ScanlineController(ppuClock, display, backgroundFifo,
+                    spriteFifo, new PixelCombinator(registers), registers, backgroundFetcher, spriteFetcher,
+                    spriteBuffer);
+            ppu = new PictureProcessingUnit(scanlineController, registers, ppuClock, oamScanController,
+                    displayInterruptController, display,
+                    new ScanlineRenderer(memory, registers, spriteBuffer, backgroundFetcher, display), renderer);
+
+            cpuMemory = ppu.withWriteBarrier(new Memory() {
+                @Override
+                public byte read(short address) {
+                    PpuRegister register = register(address);
+                    return register != null ? registers.read(register) : memory.read(address);
+                }
+
+                @Override
+                public void write(short address, byte value) {
+                    PpuRegister register = register(address);
+                    if (register != null) {
+                        registers.write(register, value);
+                    } else {
+                        memory.write(address, value);
+                    }
+                }
+
+                @Override
+                public void registerMemoryListener(short address, MemoryListener listener) {
+                    memory.registerMemoryListener(address, listener);
+                }
+            });
+        }
+
+        private void loadScene(Random random) {
+            for (int address = 0x8000; address < 0xA000; address++) {
+                memory.write((short) address, (byte) random.nextInt(256));
+            }
+            // Sprites bunched on a few lines some of the time, so the ten-per-line limit is reached
+            int spriteRows = random.nextBoolean() ? 40 : 170;
+            for (int sprite = 0; sprite < 40; sprite++) {
+                placeSprite(sprite, random.nextInt(spriteRows), random.nextInt(176));
+                memory.write((short) (0xFE02 + sprite * 4), (byte) random.nextInt(256));
+                memory.write((short) (0xFE03 + sprite * 4), (byte) random.nextInt(256));
+            }
+            registers.write(LCDC, (byte) (0x80 | random.nextInt(0x80)));
+            registers.write(SCX, (byte) random.nextInt(256));
+            registers.write(SCY, (byte) random.nextInt(256));
+            registers.write(WX, (byte) random.nextInt(176));
+            registers.write(WY, (byte) random.nextInt(150));
+            registers.write(BGP, (byte) random.nextInt(256));
+            registers.write(OBP0, (byte) random.nextInt(256));
+            registers.write(OBP1, (byte) random.nextInt(256));
+        }
+
+        private void placeSprite(int sprite, int y, int x) {
+            memory.write((short) (0xFE00 + sprite * 4), (byte) y);
+            memory.write((short) (0xFE01 + sprite * 4), (byte) x);
+        }
+
+        // Records STAT mode and LY after every T-cycle; with a random source, the CPU also writes to VRAM or a PPU
+        // register now and then
+        private int[] run(int tCycles, Random writes) {
+            int[] timeline = new int[tCycles];
+            for (int tCycle = 0; tCycle < tCycles; tCycle++) {
+                if (writes != null && tCycle % 4 == 0 && writes.nextInt(32) == 0) {
+                    write(writes);
+                }
+                ppu.tCycle();
+                timeline[tCycle] = (registers.read(STAT) & 0x3) | (uint(registers.read(LY)) << 2);
+            }
+            return timeline;
+        }
+
+        private void write(Random random) {
+            if (random.nextBoolean()) {
+                cpuMemory.write((short) (0x8000 + random.nextInt(0x2000)), (byte) random.nextInt(256));
+                return;
+            }
+            PpuRegister register = WRITABLE_REGISTERS[random.nextInt(WRITABLE_REGISTERS.length)];
+            int value = random.nextInt(256);
+            cpuMemory.write(address(register), (byte) (register == LCDC ? value | 0x80 : value));
+        }
+    }
+}
@@ -5,11 +5,14 @@ import com.google.inject.Guice;
 import com.google.inject.Injector;
 import com.google.inject.util.Modules;
 import org.gameboy.common.Cartridge;
+import org.gameboy.common.RamBacking;
 import org.gameboy.cartridge.RomOnlyCartridge;
 import org.gameboy.cpu.Cpu;
+import org.gameboy.cpu.CpuEngine;
 import org.gameboy.display.Display;
 import org.gameboy.display.PixelBuffer;
 import org.gameboy.display.PixelValue;
+import org.gameboy.display.PpuRenderer;
 
 import java.awt.image.BufferedImage;
 
@@ -20,6 +23,14 @@ public class Acid2TestRunner {
     private int cycleCount = 0;
 
     public Acid2TestRunner(byte[] romData) {
+        this(romData, ClockMode.PER_TICK);
+    }
+
+    public Acid2TestRunner(byte[] romData, ClockMode clockMode) {
+        this(romData, clockMode, PpuRenderer.FIFO);
+    }
+
+    public Acid2TestRunner(byte[] romData, ClockMode clockMode, PpuRenderer ppuRenderer) {
         display = new TestDisplay();
         Cartridge cartridge = new RomOnlyCartridge(romData);
 
@@ -31,7 +42,7 @@ public class Acid2TestRunner {
         };
 
         Injector injector = Guice.createInjector(
-            Modules.override(new EmulatorModule(cartridge)).with(testOverrideModule)
+            Modules.override(new EmulatorModule(cartridge, CpuEngine.INTERPRETER, clockMode, RamBacking.HEAP, ppuRenderer)).with(testOverrideModule)
         );
 
         cpu = injector.getInstance(Cpu.class);
@@ -6,6 +6,7 @@ import org.gameboy.common.Cartridge;
 import org.gameboy.cartridge.RomOnlyCartridge;
 import org.gameboy.common.SerialController;
 import org.gameboy.cpu.Cpu;
+import org.gameboy.cpu.CpuEngine;
 
 public class BlarggTestRunner {
     private final Cpu cpu;
@@ -13,8 +14,12 @@ public class BlarggTestRunner {
     private int cycleCount = 0;
 
     public BlarggTestRunner(byte[] testRomData) {
+        this(testRomData, CpuEngine.INTERPRETER);
+    }
+
+    public BlarggTestRunner(byte[] testRomData, CpuEngine engine) {
         Cartridge cartridge = new RomOnlyCartridge(testRomData);
-        Injector injector = Guice.createInjector(new EmulatorModule(cartridge));
+        Injector injector = Guice.createInjector(new EmulatorModule(cartridge, engine));
 
         cpu = injector.getInstance(Cpu.class);
         serialController = injector.getInstance(SerialController.class);
@@ -221,8 +221,9 @@ public class CpuStructureBuilder {
     }
 
     public CpuStructure build() {
-        ByteRegister interruptFlagsRegister = new IntBackedRegister(BitUtilities.uint(memory.read(MemoryMapConstants.IF_ADDRESS)));
-        ByteRegister interruptEnableRegister = new IntBackedRegister(BitUtilities.uint(memory.read(MemoryMapConstants.IE_ADDRESS)));
+        InterruptRegisters interruptRegisters = new InterruptRegisters(
+                BitUtilities.uint(memory.read(MemoryMapConstants.IF_ADDRESS)),
+                BitUtilities.uint(memory.read(MemoryMapConstants.IE_ADDRESS)));
 
         return new CpuStructure(
                 new CpuRegisters(af, bc, de, hl, sp, pc, instructionRegister, ime),
@@ -230,7 +231,7 @@ public class CpuStructureBuilder {
                 new ArithmeticUnit(),
                 new IncrementDecrementUnit(),
                 clock,
-                new InterruptBus(clock, interruptFlagsRegister, interruptEnableRegister),
+                new InterruptBus(clock, interruptRegisters),
                 new Decoder(unprefixedTable, prefixedTable)
         );
     }
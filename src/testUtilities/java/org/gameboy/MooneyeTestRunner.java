@@ -5,6 +5,7 @@ import com.google.inject.Injector;
 import org.gameboy.common.Cartridge;
 import org.gameboy.cartridge.RomOnlyCartridge;
 import org.gameboy.cpu.Cpu;
+import org.gameboy.cpu.CpuEngine;
 import org.gameboy.cpu.components.CpuStructure;
 
 public class MooneyeTestRunner {
@@ -15,10 +16,19 @@ public class MooneyeTestRunner {
     private int cycleCount = 0;
     private short lastPC = -1;
     private int stagnationCount = 0;
+    private long lastBlocksRun = 0;
 
     public MooneyeTestRunner(byte[] romData) {
+        this(romData, CpuEngine.INTERPRETER);
+    }
+
+    public MooneyeTestRunner(byte[] romData, CpuEngine engine) {
+        this(romData, engine, ClockMode.PER_TICK);
+    }
+
+    public MooneyeTestRunner(byte[] romData, CpuEngine engine, ClockMode clockMode) {
         Cartridge cartridge = new RomOnlyCartridge(romData);
-        Injector injector = Guice.createInjector(new EmulatorModule(cartridge));
+        Injector injector = Guice.createInjector(new EmulatorModule(cartridge, engine, clockMode));
 
         cpu = injector.getInstance(Cpu.class);
         cpuStructure = injector.getInstance(CpuStructure.class);
@@ -29,13 +39,16 @@ public class MooneyeTestRunner {
             cpu.cycle();
             cycleCount++;
 
+            // A polling loop run as one block also comes back to the same PC each cycle, so only single instructions count
             short currentPC = cpuStructure.registers().PC();
-            if (currentPC == lastPC) {
+            long blocksRun = cpu.blocksRun();
+            if (currentPC == lastPC && blocksRun == lastBlocksRun) {
                 stagnationCount++;
             } else {
                 stagnationCount = 0;
                 lastPC = currentPC;
             }
+            lastBlocksRun = blocksRun;
         }
 
         return new RegisterState(
@@ -2,15 +2,13 @@ package org.gameboy;
 
 import org.gameboy.common.Memory;
 import org.gameboy.common.MemoryListener;
-
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
+import org.gameboy.common.MemoryListenerTable;
 
 import static org.gameboy.utils.BitUtilities.uint;
 
 public class TestMemory implements Memory {
     private final byte[] memory;
-    private final ConcurrentMap<Short, MemoryListener> memoryListeners = new ConcurrentHashMap<>();
+    private final MemoryListenerTable memoryListeners = new MemoryListenerTable();
 
     public TestMemory() {
         memory = new byte[0xFFFF+1];
@@ -31,12 +29,11 @@ public class TestMemory implements Memory {
     public void write(short address, byte value) {
         memory[uint(address)] = value;
 
-        MemoryListener memoryListener = memoryListeners.getOrDefault(address, () -> {});
-        memoryListener.onMemoryWrite();
+        memoryListeners.notifyWrite(uint(address));
     }
 
     @Override
     public void registerMemoryListener(short address, MemoryListener listener) {
-        memoryListeners.put(address, listener);
+        memoryListeners.register(address, listener);
     }
 }